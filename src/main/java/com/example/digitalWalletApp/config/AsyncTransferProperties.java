@@ -0,0 +1,30 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.transfer.async")
+public class AsyncTransferProperties {
+
+    private int workers = 4;               // transfers applied in parallel
+    private int queueCapacity = 10_000;    // accepted but not yet started; beyond that → 503
+    private long retryAfterSeconds = 1;    // Retry-After sent with the 503
+    private long outcomeRecheckMs = 1000;  // outcome unknown (engine timeout): look for the ledger row this often...
+    private int outcomeRecheckAttempts = 30; // ...this many times, then leave it PENDING for the next start
+
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(long retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+
+    public long getOutcomeRecheckMs() { return outcomeRecheckMs; }
+    public void setOutcomeRecheckMs(long outcomeRecheckMs) { this.outcomeRecheckMs = outcomeRecheckMs; }
+
+    public int getOutcomeRecheckAttempts() { return outcomeRecheckAttempts; }
+    public void setOutcomeRecheckAttempts(int outcomeRecheckAttempts) { this.outcomeRecheckAttempts = outcomeRecheckAttempts; }
+}
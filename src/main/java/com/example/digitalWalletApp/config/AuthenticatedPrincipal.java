@@ -0,0 +1,16 @@
+package com.example.digitalWalletApp.config;
+
+/*
+Who is calling, as stated by the verified JWT claims. JwtFilter puts this (not a User entity) in the
+SecurityContext, so authentication and the hasAuthority("ADMIN") check never touch the database.
+
+ - role is the authority the token was issued with
+ - tokenVersion is User.tokenVersion at issue time; JwtFilter refuses the token once it no longer matches
+   (TokenVersionCache), i.e. after a password or role change
+ */
+public record AuthenticatedPrincipal(Long userId, String email, String role, int tokenVersion) {
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
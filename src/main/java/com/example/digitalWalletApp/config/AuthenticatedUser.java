@@ -0,0 +1,13 @@
+package com.example.digitalWalletApp.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Controller parameter: the caller JwtFilter authenticated for this request, either as the AuthenticatedPrincipal
+// (claims only, no DB access) or as the User row, loaded only for handlers that declare it (see AuthenticatedUserArgumentResolver)
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AuthenticatedUser {
+}
@@ -0,0 +1,53 @@
+package com.example.digitalWalletApp.config;
+
+import com.example.digitalWalletApp.exception.UnauthorizedException;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.UserRepository;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/*
+Resolves @AuthenticatedUser parameters from the SecurityContext, so controllers never re-parse the JWT.
+
+ - AuthenticatedPrincipal: the verified claims as they are, no DB access
+ - User: loaded by primary key from the principal's user id, only for handlers whose business logic needs the row;
+   a deleted user is rejected with 401 (revoked tokens never get this far: JwtFilter checks the token version)
+ */
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserRepository userRepository;
+
+    public AuthenticatedUserArgumentResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(AuthenticatedUser.class)
+                && (type == AuthenticatedPrincipal.class || User.class.isAssignableFrom(type));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedPrincipal principal)) {
+            throw new UnauthorizedException("Unauthorized access");
+        }
+        if (parameter.getParameterType() == AuthenticatedPrincipal.class) return principal;
+
+        User user = userRepository.findById(principal.userId()).orElse(null);
+        if (user == null) {
+            throw new UnauthorizedException("Unauthorized access");
+        }
+        return user;
+    }
+}
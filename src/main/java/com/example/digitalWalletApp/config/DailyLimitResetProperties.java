@@ -0,0 +1,32 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.daily-reset")
+public class DailyLimitResetProperties {
+
+    private boolean enabled = true;          // scheduled midnight reset; the per-wallet date check stays as a fallback
+    private String timeZone = "";            // zone whose midnight starts a new limit day; empty = JVM default
+    private String cron = "0 0 0 * * *";     // evaluated in time-zone
+    private int chunkSize = 1000;            // wallet ids per UPDATE (= per DB transaction)
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public ZoneId zoneId() {
+        return timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone.trim());
+    }
+}
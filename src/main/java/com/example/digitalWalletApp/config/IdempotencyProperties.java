@@ -0,0 +1,38 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.idempotency")
+public class IdempotencyProperties {
+
+    private int cacheSize = 10_000;               // recent keys kept in memory with their responses (LRU)
+    private int expectedKeys = 1_000_000;         // Bloom filter sizing
+    private double falsePositiveRate = 0.01;      // share of new keys that still cost a DB lookup
+    private int maxKeyLength = 100;
+    private int ttlHours = 24;                    // records (and replays) kept this long after the key was claimed
+    private long claimTimeoutMs = 60_000;         // an unfinished claim older than this is resolved against the ledger
+    private String purgeCron = "0 */10 * * * *";  // when expired records are deleted
+
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+
+    public int getExpectedKeys() { return expectedKeys; }
+    public void setExpectedKeys(int expectedKeys) { this.expectedKeys = expectedKeys; }
+
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+    public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+    public int getMaxKeyLength() { return maxKeyLength; }
+    public void setMaxKeyLength(int maxKeyLength) { this.maxKeyLength = maxKeyLength; }
+
+    public int getTtlHours() { return ttlHours; }
+    public void setTtlHours(int ttlHours) { this.ttlHours = ttlHours; }
+
+    public long getClaimTimeoutMs() { return claimTimeoutMs; }
+    public void setClaimTimeoutMs(long claimTimeoutMs) { this.claimTimeoutMs = claimTimeoutMs; }
+
+    public String getPurgeCron() { return purgeCron; }
+    public void setPurgeCron(String purgeCron) { this.purgeCron = purgeCron; }
+}
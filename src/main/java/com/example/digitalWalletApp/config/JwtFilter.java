@@ -1,7 +1,5 @@
 package com.example.digitalWalletApp.config;
 
-import com.example.digitalWalletApp.model.User;
-import com.example.digitalWalletApp.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,10 +20,10 @@ import java.util.List;
 public class JwtFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private TokenVersionCache tokenVersions;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -50,21 +48,26 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        // ✅ Validate token
-        if (!jwtUtil.validateToken(token)) {
+        // ✅ Validate token (verified once, then served from the token cache until it expires)
+        JwtUtil.VerifiedToken verified = tokenCache.verify(token);
+        if (verified == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
 
-        // ✅ Fetch user and set authentication
-        User user = userRepository.findByEmail(jwtUtil.getEmailFromToken(token)).orElse(null);
-        if (user != null) {
-            List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(user.getRole()));
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(user, null, authorities);
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        // ✅ Refuse tokens issued before a password or role change (version read at most once per TTL per user)
+        AuthenticatedPrincipal principal = verified.principal();
+        if (!tokenVersions.isCurrent(principal)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
         }
 
+        // ✅ Set authentication straight from the claims; controllers receive it via @AuthenticatedUser
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(principal.role()));
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+
         filterChain.doFilter(request, response);
     }
 }
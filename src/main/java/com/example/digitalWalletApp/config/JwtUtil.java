@@ -1,5 +1,6 @@
 package com.example.digitalWalletApp.config;
 
+import com.example.digitalWalletApp.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
@@ -12,9 +13,18 @@ public class JwtUtil {
 
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256); // secret key
     private final long expiration = 1000 * 60 * 60 * 24;
-    public String generateToken(String email) {
+
+    // Claims that let a request be authorized without loading the User row (see AuthenticatedPrincipal)
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(key)
@@ -31,6 +41,26 @@ public class JwtUtil {
         }
     }
 
+    // Verify signature + expiry once and return what the request needs, or null if the token is not valid.
+    // Tokens issued before the uid/role/ver claims existed are rejected: the client logs in again.
+    public VerifiedToken verify(String token) {
+        try {
+            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            Number userId = claims.get(CLAIM_USER_ID, Number.class);
+            String role = claims.get(CLAIM_ROLE, String.class);
+            Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+            if (userId == null || role == null || version == null) return null;
+
+            AuthenticatedPrincipal principal =
+                    new AuthenticatedPrincipal(userId.longValue(), claims.getSubject(), role, version.intValue());
+            return new VerifiedToken(principal, claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public record VerifiedToken(AuthenticatedPrincipal principal, long expiresAtMillis) {}
+
     // Get email from token
     public String getEmailFromToken(String token) {
         Claims claims = Jwts.parserBuilder()
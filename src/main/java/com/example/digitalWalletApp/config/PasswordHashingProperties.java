@@ -0,0 +1,30 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.auth.hashing")
+public class PasswordHashingProperties {
+
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2); // bcrypt workers
+    private int queueCapacity = 64;       // hashes waiting for a worker; beyond that → 503
+    private long timeoutMs = 5000;        // max wait of the request thread for its hash
+    private int perEmailConcurrency = 1;  // credential checks in flight for one email; beyond that → 429
+    private long retryAfterSeconds = 1;   // Retry-After sent with the 503 / 429
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+
+    public int getPerEmailConcurrency() { return perEmailConcurrency; }
+    public void setPerEmailConcurrency(int perEmailConcurrency) { this.perEmailConcurrency = perEmailConcurrency; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(long retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+}
@@ -0,0 +1,22 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.payout")
+public class PayoutProperties {
+
+    private int chunkSize = 500;   // items paid per DB transaction (= per checkpoint)
+    private int threads = 2;       // jobs processed in parallel
+    private int maxItems = 1_000_000;
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getMaxItems() { return maxItems; }
+    public void setMaxItems(int maxItems) { this.maxItems = maxItems; }
+}
@@ -0,0 +1,11 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled maintenance jobs: transaction partition upkeep (TransactionPartitionManager), the daily-limit reset
+// (DailyLimitResetJob), idempotency record purge (IdempotencyService) and ledger archival (TransactionArchiver)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
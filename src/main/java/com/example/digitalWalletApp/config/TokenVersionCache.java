@@ -0,0 +1,80 @@
+package com.example.digitalWalletApp.config;
+
+import com.example.digitalWalletApp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Current User.tokenVersion per user id, so JwtFilter can refuse revoked tokens without reading the User row on
+every request.
+
+ - a version is read from the DB (one column, by primary key) at most once per wallet.auth.token-version-ttl-ms
+   per user; a bump on this node (password or role change, see UserService) is applied here at once, a bump on
+   another node is seen within the TTL
+ - a deleted user has no version: every token of theirs is refused
+ - LRU-bounded like VerifiedTokenCache and guarded by a ReentrantLock for the same reason
+ */
+@Component
+public class TokenVersionCache {
+
+    private record Entry(Integer version, long loadedAtMillis) {}
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<Long, Entry> versions;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${wallet.auth.token-version-ttl-ms:30000}") long ttlMillis,
+                             @Value("${wallet.auth.token-cache-size:10000}") int capacity) {
+        this.userRepository = userRepository;
+        this.ttlMillis = Math.max(0, ttlMillis);
+        int max = Math.max(1, capacity);
+        this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    // True if the token was issued at the user's current version
+    public boolean isCurrent(AuthenticatedPrincipal principal) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry cached = versions.get(principal.userId());
+            if (cached != null && now - cached.loadedAtMillis() < ttlMillis) {
+                return matches(cached.version(), principal);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        Integer version = userRepository.findTokenVersionById(principal.userId()).orElse(null);
+        put(principal.userId(), version, now);
+        return matches(version, principal);
+    }
+
+    // Called after a bump has been committed on this node
+    public void bumped(Long userId, int version) {
+        put(userId, version, System.currentTimeMillis());
+    }
+
+    private void put(Long userId, Integer version, long loadedAtMillis) {
+        lock.lock();
+        try {
+            versions.put(userId, new Entry(version, loadedAtMillis));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean matches(Integer version, AuthenticatedPrincipal principal) {
+        return version != null && version == principal.tokenVersion();
+    }
+}
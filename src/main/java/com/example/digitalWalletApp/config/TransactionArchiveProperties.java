@@ -0,0 +1,34 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.archive")
+public class TransactionArchiveProperties {
+
+    private boolean enabled = true;                         // scheduled archival job; archive reads work either way
+    private String directory = "data/transaction-archive";  // segment files, one directory per instance
+    private int retentionDays = 90;                         // rows older than this leave the transactions table
+    private int chunkSize = 5000;                           // rows per segment file (= per delete transaction)
+    private int blockRows = 128;                            // rows per compressed block = sparse index granularity
+    private String cron = "0 30 2 * * *";                   // when the archival job runs
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    public int getRetentionDays() { return retentionDays; }
+    public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getBlockRows() { return blockRows; }
+    public void setBlockRows(int blockRows) { this.blockRows = blockRows; }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+}
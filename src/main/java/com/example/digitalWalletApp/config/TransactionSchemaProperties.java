@@ -0,0 +1,22 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.schema.transactions")
+public class TransactionSchemaProperties {
+
+    private boolean partitioningEnabled = false;          // MySQL only: monthly RANGE partitions on transactions.timestamp
+    private int monthsAhead = 3;                          // future monthly partitions kept ready beyond the current month
+    private String maintenanceCron = "0 0 3 * * *";       // when the partition maintenance job runs
+
+    public boolean isPartitioningEnabled() { return partitioningEnabled; }
+    public void setPartitioningEnabled(boolean partitioningEnabled) { this.partitioningEnabled = partitioningEnabled; }
+
+    public int getMonthsAhead() { return monthsAhead; }
+    public void setMonthsAhead(int monthsAhead) { this.monthsAhead = monthsAhead; }
+
+    public String getMaintenanceCron() { return maintenanceCron; }
+    public void setMaintenanceCron(String maintenanceCron) { this.maintenanceCron = maintenanceCron; }
+}
@@ -0,0 +1,75 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Remembers tokens whose signature has already been verified, so a client sending the same bearer token on every
+request pays for the HMAC check and the claims parsing once.
+
+Keyed by the SHA-256 of the token (the token itself is a credential and is not kept), bounded in size (LRU) and
+by the token's own expiry: an entry is never used after the moment its token stops being valid. Runs on every
+request, so it is guarded by a ReentrantLock (a virtual thread blocked on a monitor would pin its carrier).
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Map<String, JwtUtil.VerifiedToken> tokens;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, @Value("${wallet.auth.token-cache-size:10000}") int capacity) {
+        this.jwtUtil = jwtUtil;
+        int max = Math.max(1, capacity);
+        this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JwtUtil.VerifiedToken> eldest) {
+                return size() > max || eldest.getValue().expiresAtMillis() <= System.currentTimeMillis();
+            }
+        };
+    }
+
+    // Verified claims of the token, or null if it is not valid (bad signature, malformed, expired)
+    public JwtUtil.VerifiedToken verify(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            JwtUtil.VerifiedToken cached = tokens.get(key);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > now) return cached;
+                tokens.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+        if (verified != null) {
+            lock.lock();
+            try {
+                tokens.put(key, verified);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return verified;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
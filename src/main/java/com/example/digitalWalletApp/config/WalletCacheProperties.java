@@ -0,0 +1,22 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.cache")
+public class WalletCacheProperties {
+
+    private boolean enabled = true;
+    private int maxSize = 10_000;   // wallets kept in memory (LRU)
+    private long ttlMs = 30_000;    // an entry is re-read from the DB after this long, even if nothing evicted it
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public long getTtlMs() { return ttlMs; }
+    public void setTtlMs(long ttlMs) { this.ttlMs = ttlMs; }
+}
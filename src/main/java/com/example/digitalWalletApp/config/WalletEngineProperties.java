@@ -0,0 +1,129 @@
+package com.example.digitalWalletApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "wallet.engine")
+public class WalletEngineProperties {
+
+    public enum Mode {
+        JPA,      // read → mutate → saveAndFlush with optimistic locking (default)
+        ATOMIC,   // one conditional UPDATE per wallet, checked by affected-row count
+        SHARDED,  // single-writer in-memory shards, persisted asynchronously
+        LOCKED    // striped in-process locks + SELECT ... FOR UPDATE, both taken in a fixed order
+    }
+
+    public enum Persistence {
+        WRITE_BEHIND, // sharded engine: acknowledged when applied in memory, flushed to the DB every persist-interval-ms
+        JOURNAL       // sharded engine: acknowledged once the operation is durable in the ledger journal
+    }
+
+    private Mode mode = Mode.JPA;
+    private Persistence persistence = Persistence.WRITE_BEHIND;
+    private int shards = Runtime.getRuntime().availableProcessors();
+    private long persistIntervalMs = 50;
+    private long operationTimeoutMs = 5000;
+    private int flushMaxAttempts = 5;     // write-behind: charged failures before a ledger row is dead-lettered
+    private int lockStripes = 1024;
+    private long simulatedDelayMs = 3000; // artificial hold before commit on the jpa/locked paths (demo of conflicts)
+    private final Contention contention = new Contention();
+    private final Batch batch = new Batch();
+    private final Journal journal = new Journal();
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public Persistence getPersistence() { return persistence; }
+    public void setPersistence(Persistence persistence) { this.persistence = persistence; }
+
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+
+    public long getPersistIntervalMs() { return persistIntervalMs; }
+    public void setPersistIntervalMs(long persistIntervalMs) { this.persistIntervalMs = persistIntervalMs; }
+
+    public long getOperationTimeoutMs() { return operationTimeoutMs; }
+    public void setOperationTimeoutMs(long operationTimeoutMs) { this.operationTimeoutMs = operationTimeoutMs; }
+
+    public int getFlushMaxAttempts() { return flushMaxAttempts; }
+    public void setFlushMaxAttempts(int flushMaxAttempts) { this.flushMaxAttempts = flushMaxAttempts; }
+
+    public int getLockStripes() { return lockStripes; }
+    public void setLockStripes(int lockStripes) { this.lockStripes = lockStripes; }
+
+    public long getSimulatedDelayMs() { return simulatedDelayMs; }
+    public void setSimulatedDelayMs(long simulatedDelayMs) { this.simulatedDelayMs = simulatedDelayMs; }
+
+    public Contention getContention() { return contention; }
+
+    public Batch getBatch() { return batch; }
+
+    public Journal getJournal() { return journal; }
+
+    // wallet.engine.contention.* — retry/backoff policy for optimistic-lock conflicts
+    public static class Contention {
+        private int maxAttempts = 5;
+        private long initialBackoffMs = 10;
+        private long maxBackoffMs = 200;
+        private int hotThreshold = 5;       // conflicts within one window that mark a wallet as hot
+        private long hotWindowMs = 1000;
+        private long queueTimeoutMs = 15000; // max wait for a hot wallet's in-process queue: several operations' worth
+
+        public int getMaxAttempts() { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+        public long getInitialBackoffMs() { return initialBackoffMs; }
+        public void setInitialBackoffMs(long initialBackoffMs) { this.initialBackoffMs = initialBackoffMs; }
+
+        public long getMaxBackoffMs() { return maxBackoffMs; }
+        public void setMaxBackoffMs(long maxBackoffMs) { this.maxBackoffMs = maxBackoffMs; }
+
+        public int getHotThreshold() { return hotThreshold; }
+        public void setHotThreshold(int hotThreshold) { this.hotThreshold = hotThreshold; }
+
+        public long getHotWindowMs() { return hotWindowMs; }
+        public void setHotWindowMs(long hotWindowMs) { this.hotWindowMs = hotWindowMs; }
+
+        public long getQueueTimeoutMs() { return queueTimeoutMs; }
+        public void setQueueTimeoutMs(long queueTimeoutMs) { this.queueTimeoutMs = queueTimeoutMs; }
+    }
+
+    // wallet.engine.batch.* — POST /api/wallet/transfers/batch
+    public static class Batch {
+
+        public enum FailureMode {
+            ALL_OR_NOTHING, // one invalid item rejects the whole batch, nothing is written
+            PER_ITEM        // invalid items are reported and skipped, the rest is applied
+        }
+
+        private int maxSize = 500;
+        private FailureMode failureMode = FailureMode.ALL_OR_NOTHING;
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public FailureMode getFailureMode() { return failureMode; }
+        public void setFailureMode(FailureMode failureMode) { this.failureMode = failureMode; }
+    }
+
+    // wallet.engine.journal.* — ledger journal of the sharded engine (persistence=journal)
+    public static class Journal {
+        private String directory = "data/journal";
+        private int segmentBytes = 64 * 1024 * 1024;
+        private long applyIntervalMs = 20;   // how often the applier projects durable records into the tables
+        private int applyBatchSize = 2000;   // max records per applier transaction
+
+        public String getDirectory() { return directory; }
+        public void setDirectory(String directory) { this.directory = directory; }
+
+        public int getSegmentBytes() { return segmentBytes; }
+        public void setSegmentBytes(int segmentBytes) { this.segmentBytes = segmentBytes; }
+
+        public long getApplyIntervalMs() { return applyIntervalMs; }
+        public void setApplyIntervalMs(long applyIntervalMs) { this.applyIntervalMs = applyIntervalMs; }
+
+        public int getApplyBatchSize() { return applyBatchSize; }
+        public void setApplyBatchSize(int applyBatchSize) { this.applyBatchSize = applyBatchSize; }
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.digitalWalletApp.config;
 
+import com.example.digitalWalletApp.model.Money;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+// Limits are configured in major units (wallet.transaction.max-amount=30000) and read in minor units by the code
 @Component
 @ConfigurationProperties(prefix = "wallet.transaction")
 public class WalletProperties {
@@ -11,12 +13,21 @@ public class WalletProperties {
     private double maxAmount;
     private double dailyLimit;  // <-- add this field
 
+    private long minAmountMinor;
+    private long maxAmountMinor;
+    private long dailyLimitMinor;
+
     public double getMinAmount() { return minAmount; }
-    public void setMinAmount(double minAmount) { this.minAmount = minAmount; }
+    public void setMinAmount(double minAmount) { this.minAmount = minAmount; this.minAmountMinor = Money.ofMajor(minAmount); }
 
     public double getMaxAmount() { return maxAmount; }
-    public void setMaxAmount(double maxAmount) { this.maxAmount = maxAmount; }
+    public void setMaxAmount(double maxAmount) { this.maxAmount = maxAmount; this.maxAmountMinor = Money.ofMajor(maxAmount); }
 
     public double getDailyLimit() { return dailyLimit; }  // <-- getter
-    public void setDailyLimit(double dailyLimit) { this.dailyLimit = dailyLimit; }  // <-- setter
+    public void setDailyLimit(double dailyLimit) { this.dailyLimit = dailyLimit; this.dailyLimitMinor = Money.ofMajor(dailyLimit); }  // <-- setter
+
+    // --- minor units (cents), used by validation and the engines ---
+    public long getMinAmountMinor() { return minAmountMinor; }
+    public long getMaxAmountMinor() { return maxAmountMinor; }
+    public long getDailyLimitMinor() { return dailyLimitMinor; }
 }
@@ -1,24 +1,41 @@
 package com.example.digitalWalletApp.controller;
 
+import com.example.digitalWalletApp.config.AuthenticatedPrincipal;
+import com.example.digitalWalletApp.config.AuthenticatedUser;
+import com.example.digitalWalletApp.dto.PayoutJobResponse;
+import com.example.digitalWalletApp.dto.PayoutRequest;
 import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.dto.TransactionSliceResponse;
 import com.example.digitalWalletApp.dto.UserInfoResponse;
+import com.example.digitalWalletApp.model.Money;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.model.Wallet;
 import com.example.digitalWalletApp.service.UserService;
 import com.example.digitalWalletApp.service.WalletService;
-import com.example.digitalWalletApp.exception.UnauthorizedException;
 import com.example.digitalWalletApp.exception.ForbiddenException;
 import com.example.digitalWalletApp.exception.UserNotFoundException;
 import org.springframework.data.domain.Page;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
+import com.example.digitalWalletApp.service.wallet.DailyLimitResetJob;
 import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCacheMetrics;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionManager;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionMetrics;
+import com.example.digitalWalletApp.service.payout.PayoutService;
+import com.example.digitalWalletApp.service.auth.PasswordHasher;
+import com.example.digitalWalletApp.service.auth.PasswordHashingMetrics;
 
 
 @RestController
@@ -27,24 +44,34 @@ public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
-    private final UserService userService;
     private final WalletService walletService;
     private final WalletFactory walletFactory;
+    private final ContentionManager contentionManager;
+    private final WalletCache walletCache;
+    private final PayoutService payoutService;
+    private final PasswordHasher passwordHasher;
+    private final DailyLimitResetJob dailyLimitResetJob;
+    private final UserService userService;
 
-    public AdminController(UserService userService, WalletService walletService, WalletFactory walletFactory) {
-        this.userService = userService;
+    public AdminController(WalletService walletService, WalletFactory walletFactory, ContentionManager contentionManager,
+                           WalletCache walletCache, PayoutService payoutService, PasswordHasher passwordHasher,
+                           DailyLimitResetJob dailyLimitResetJob, UserService userService) {
         this.walletService = walletService;
         this.walletFactory = walletFactory;
+        this.contentionManager = contentionManager;
+        this.walletCache = walletCache;
+        this.payoutService = payoutService;
+        this.passwordHasher = passwordHasher;
+        this.dailyLimitResetJob = dailyLimitResetJob;
+        this.userService = userService;
     }
 
 
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+    public ResponseEntity<List<User>> getAllUsers(@AuthenticatedUser AuthenticatedPrincipal admin) {
         logger.info("Received request: GET /users");
 
-        User admin = userService.getUserFromToken(authHeader);
-        if (admin == null) throw new UnauthorizedException("Unauthorized access");
-        if (!"ADMIN".equals(admin.getRole())) throw new ForbiddenException("Admins only");
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
 
         logger.info("Fetching all users...");
         List<User> users = walletService.getAllUsers();
@@ -54,19 +81,19 @@ public class AdminController {
     }
 
     @GetMapping("/users/{userId}")
-    public ResponseEntity<UserInfoResponse> getUserById(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+    public ResponseEntity<UserInfoResponse> getUserById(@AuthenticatedUser AuthenticatedPrincipal admin,
                                                         @PathVariable Long userId) {
         logger.info("Received request: GET /users/{}", userId);
 
-        User admin = userService.getUserFromToken(authHeader);
-        if (admin == null) throw new UnauthorizedException("Unauthorized access");
-        if (!"ADMIN".equals(admin.getRole())) throw new ForbiddenException("Admins only");
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
 
-        User user = walletService.getUserById(userId);
-        if (user == null) throw new UserNotFoundException("User not found with ID " + userId);
-
-        Wallet wallet = walletFactory.getOrCreateWallet(user);
-        UserInfoResponse response = new UserInfoResponse(user.getName(), user.getEmail(), wallet.getBalance());
+        // wallet and owner from WalletCache; the user is only loaded (or 404) on a miss
+        Wallet wallet = walletFactory.getCachedWalletWithOwner(userId, () -> {
+            User user = walletService.getUserById(userId);
+            if (user == null) throw new UserNotFoundException("User not found with ID " + userId);
+            return user;
+        });
+        UserInfoResponse response = new UserInfoResponse(wallet.getUser().getName(), wallet.getUser().getEmail(), wallet.getBalance());
         logger.info("User {} fetched successfully", userId);
 
         return ResponseEntity.ok(response);
@@ -74,16 +101,13 @@ public class AdminController {
 
     @GetMapping("/users/{userId}/transactions")
     public ResponseEntity<Page<TransactionDTO>> getUserTransactions(
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @AuthenticatedUser AuthenticatedPrincipal admin,
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-
         logger.info("Received request: GET /users/{}/transactions?page={}&size={}", userId, page, size);
 
-        User admin = userService.getUserFromToken(authHeader);
-        if (admin == null) throw new UnauthorizedException("Unauthorized access");
-        if (!"ADMIN".equals(admin.getRole())) throw new ForbiddenException("Admins only");
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
 
         User user = walletService.getUserById(userId);
         if (user == null) throw new UserNotFoundException("User not found with ID " + userId);
@@ -95,45 +119,164 @@ public class AdminController {
         return ResponseEntity.ok(transactions);
     }
 
+    // Keyset variant: same cost for any depth, no COUNT; pass nextCursor back to continue
+    @GetMapping("/users/{userId}/transactions/cursor")
+    public ResponseEntity<TransactionSliceResponse> getUserTransactionsByCursor(
+            @AuthenticatedUser AuthenticatedPrincipal admin,
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        logger.info("Received request: GET /users/{}/transactions/cursor?size={}", userId, size);
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+        if (walletService.getUserById(userId) == null) throw new UserNotFoundException("User not found with ID " + userId);
+
+        TransactionSliceResponse slice = walletService.getTransactionSlice(userId, cursor, size);
+
+        logger.info("Fetched {} transactions for user {}, hasMore={}", slice.getTransactions().size(), userId, slice.isHasMore());
+
+        return ResponseEntity.ok(slice);
+    }
+
 
     @GetMapping("/users/{userId}/wallet")
-    public ResponseEntity<Wallet> getWalletByUserId(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+    public ResponseEntity<Wallet> getWalletByUserId(@AuthenticatedUser AuthenticatedPrincipal admin,
                                                     @PathVariable Long userId) {
         logger.info("Received request: GET /users/{}/wallet", userId);
 
-        User admin = userService.getUserFromToken(authHeader);
-        if (admin == null) throw new UnauthorizedException("Unauthorized access");
-        if (!"ADMIN".equals(admin.getRole())) throw new ForbiddenException("Admins only");
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
 
         User user = walletService.getUserById(userId);
         if (user == null) throw new UserNotFoundException("User not found with ID " + userId);
 
-        Wallet wallet = walletFactory.getOrCreateWallet(user);
+        Wallet wallet = walletFactory.getWalletWithOwner(user); // the entity is returned with its owner: not the cached copy
         logger.info("Wallet fetched successfully for user {}", userId);
 
         return ResponseEntity.ok(wallet);
     }
 
     @GetMapping("/users/{userId}/balance")
-    public ResponseEntity<Double> getBalanceByUserId(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+    public ResponseEntity<Double> getBalanceByUserId(@AuthenticatedUser AuthenticatedPrincipal admin,
                                                      @PathVariable Long userId) {
         logger.info("Received request: GET /users/{}/balance", userId);
 
-        User admin = userService.getUserFromToken(authHeader);
-        if (admin == null) throw new UnauthorizedException("Unauthorized access");
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        // served from WalletCache; the user is only loaded (or 404) on a miss
+        Wallet wallet = walletFactory.getCachedWallet(userId, () -> {
+            User user = walletService.getUserById(userId);
+            if (user == null) throw new UserNotFoundException("User not found with ID " + userId);
+            return user;
+        });
+        logger.info("Balance fetched successfully for user {}: {}", userId, wallet.getBalance());
+
+        return ResponseEntity.ok(Money.toMajor(wallet.getBalance())); // major units, like every other money field in the API
+    }
+
+    // Body: {"role": "USER" | "ADMIN"}. The user's outstanding tokens are revoked: they log in again to get the new role.
+    @PutMapping("/users/{userId}/role")
+    public ResponseEntity<Map<String, Object>> changeUserRole(@AuthenticatedUser AuthenticatedPrincipal admin,
+                                                              @PathVariable Long userId,
+                                                              @RequestBody Map<String, String> body) {
+        logger.info("Received request: PUT /users/{}/role", userId);
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        User user = userService.changeRole(userId, body.get("role"));
+        logger.info("Role of user {} is now {}", userId, user.getRole());
+
+        return ResponseEntity.ok(Map.of("userId", user.getId(), "role", user.getRole()));
+    }
+
+    @GetMapping("/metrics/contention")
+    public ResponseEntity<ContentionMetrics> getContentionMetrics(@AuthenticatedUser AuthenticatedPrincipal admin) {
+        logger.info("Received request: GET /metrics/contention");
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        return ResponseEntity.ok(contentionManager.metrics());
+    }
+
+    @GetMapping("/metrics/wallet-cache")
+    public ResponseEntity<WalletCacheMetrics> getWalletCacheMetrics(@AuthenticatedUser AuthenticatedPrincipal admin) {
+        logger.info("Received request: GET /metrics/wallet-cache");
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        return ResponseEntity.ok(walletCache.metrics());
+    }
+
+    @GetMapping("/metrics/password-hashing")
+    public ResponseEntity<PasswordHashingMetrics> getPasswordHashingMetrics(@AuthenticatedUser AuthenticatedPrincipal admin) {
+        logger.info("Received request: GET /metrics/password-hashing");
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        return ResponseEntity.ok(passwordHasher.metrics());
+    }
+
+    @GetMapping("/metrics/daily-reset")
+    public ResponseEntity<DailyLimitResetJob.Progress> getDailyResetProgress(@AuthenticatedUser AuthenticatedPrincipal admin) {
+        logger.info("Received request: GET /metrics/daily-reset");
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        return ResponseEntity.ok(dailyLimitResetJob.progress());
+    }
+
+    // --------------------------------------------------------------------
+    // Bulk payouts (processed in the background, poll GET /payouts/{jobId} for progress)
+    // --------------------------------------------------------------------
+    @PostMapping("/payouts")
+    public ResponseEntity<PayoutJobResponse> createPayout(@AuthenticatedUser User admin,
+                                                          @RequestBody PayoutRequest request) {
+        logger.info("Received request: POST /payouts (source={}, items={})",
+                request.getSourceUserId(), request.getItems() == null ? 0 : request.getItems().size());
         if (!"ADMIN".equals(admin.getRole())) throw new ForbiddenException("Admins only");
 
-        User user = walletService.getUserById(userId);
-        if (user == null) throw new UserNotFoundException("User not found with ID " + userId);
+        PayoutJobResponse job = payoutService.createJob(admin, request);
+        return ResponseEntity.accepted().body(job);
+    }
 
-        Wallet wallet = walletFactory.getOrCreateWallet(user);
-        logger.info("Balance fetched successfully for user {}: {}", userId, wallet.getBalance());
+    @PostMapping(value = "/payouts/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PayoutJobResponse> createPayoutFromCsv(@AuthenticatedUser User admin,
+                                                                 @RequestParam Long sourceUserId,
+                                                                 @RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Received request: POST /payouts/csv (source={}, file={}, size={})",
+                sourceUserId, file.getOriginalFilename(), file.getSize());
+        if (!"ADMIN".equals(admin.getRole())) throw new ForbiddenException("Admins only");
+
+        try (InputStream csv = file.getInputStream()) {
+            PayoutJobResponse job = payoutService.createJobFromCsv(admin, sourceUserId, csv);
+            return ResponseEntity.accepted().body(job);
+        }
+    }
+
+    @GetMapping("/payouts/{jobId}")
+    public ResponseEntity<PayoutJobResponse> getPayout(@AuthenticatedUser AuthenticatedPrincipal admin,
+                                                       @PathVariable Long jobId) {
+        logger.info("Received request: GET /payouts/{}", jobId);
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
+
+        return ResponseEntity.ok(payoutService.getJob(jobId));
+    }
+
+    @PostMapping("/payouts/{jobId}/resume")
+    public ResponseEntity<PayoutJobResponse> resumePayout(@AuthenticatedUser AuthenticatedPrincipal admin,
+                                                          @PathVariable Long jobId) {
+        logger.info("Received request: POST /payouts/{}/resume", jobId);
+
+        if (!admin.isAdmin()) throw new ForbiddenException("Admins only");
 
-        return ResponseEntity.ok(wallet.getBalance());
+        return ResponseEntity.accepted().body(payoutService.resume(jobId));
     }
 }
 
 /*
-The annotation @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader in a Spring-based application (or similar web framework)
-indicates that the authHeader parameter of a method should be populated with the value of the Authorization header from the incoming HTTP request.
+The annotation @AuthenticatedUser AuthenticatedPrincipal admin indicates that the parameter should be populated with
+the caller JwtFilter authenticated for the incoming HTTP request, straight from the token's claims: the role check
+needs no database access. The payout creation endpoints take @AuthenticatedUser User admin instead, since the job
+records the requesting admin (see AuthenticatedUserArgumentResolver). Only the filter reads and verifies the
+Authorization header, once per request.
  */
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.digitalWalletApp.controller;
 
 import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.model.Money;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.model.Wallet;
 import com.example.digitalWalletApp.repository.UserRepository;
@@ -9,7 +10,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // password hashing utility.
+import com.example.digitalWalletApp.service.auth.PasswordHasher; // bcrypt off the request thread, bounded
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
@@ -32,7 +33,8 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHasher passwordHasher;
 
 
     // ------------------- USER SIGNUP -------------------
@@ -55,11 +57,12 @@ public class AuthController {
             throw new IllegalArgumentException("Email already exists!");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getEmail(), user.getPassword()));
         /*
         When a user registers or changes their password,
         the plain-text password needs to be hashed before being stored in a database.
-        The encode() method of BCryptPasswordEncoder performs this hashing.
+        The encode() method of BCryptPasswordEncoder performs this hashing (on PasswordHasher's bounded pool:
+        503 + Retry-After when it is saturated).
          */
         user.setRole("USER");
 
@@ -68,13 +71,13 @@ public class AuthController {
         Wallet wallet = new Wallet(savedUser);
         walletRepository.save(wallet);
 
-        String token = jwtUtil.generateToken(savedUser.getEmail());
+        String token = jwtUtil.generateToken(savedUser);
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "User registered successfully!");
         response.put("name", savedUser.getName());
         response.put("email", savedUser.getEmail());
-        response.put("balance", wallet.getBalance());
+        response.put("balance", Money.toMajor(wallet.getBalance()));
         response.put("token", token);
 
         return ResponseEntity.ok(response);
@@ -96,7 +99,7 @@ public class AuthController {
             return ResponseEntity.badRequest().body("Email already exists!");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getEmail(), user.getPassword()));
         user.setRole("ADMIN"); // Set admin role
 
         User savedUser = userRepository.save(user);
@@ -108,7 +111,7 @@ public class AuthController {
         response.put("message", "Admin registered successfully!");
         response.put("name", savedUser.getName());
         response.put("email", savedUser.getEmail());
-        response.put("balance", wallet.getBalance());
+        response.put("balance", Money.toMajor(wallet.getBalance()));
 
         return ResponseEntity.ok(response);
     }
@@ -118,20 +121,20 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
         User user = userRepository.findByEmail(credentials.get("email")).orElse(null);
 
-        if (user == null || !passwordEncoder.matches(credentials.get("password"), user.getPassword())) {
+        if (user == null || !passwordHasher.matches(user.getEmail(), credentials.get("password"), user.getPassword())) {
             return ResponseEntity.status(200).body("Invalid credentials");
         }
 
         Wallet wallet = walletRepository.findByUser(user).orElse(new Wallet(user));
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user);
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Login successful!");
         response.put("token", token);  // ✅ Send token
         response.put("name", user.getName());
         response.put("email", user.getEmail());
-        response.put("balance", wallet.getBalance());
+        response.put("balance", Money.toMajor(wallet.getBalance()));
 
         return ResponseEntity.ok(response);
     }
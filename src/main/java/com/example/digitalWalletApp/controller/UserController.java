@@ -1,20 +1,23 @@
 package com.example.digitalWalletApp.controller;
 
+import com.example.digitalWalletApp.config.AuthenticatedPrincipal;
+import com.example.digitalWalletApp.config.AuthenticatedUser;
 import com.example.digitalWalletApp.dto.UserInfoResponse;
+import com.example.digitalWalletApp.exception.UnauthorizedException;
 import com.example.digitalWalletApp.mapper.UserMapper;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.model.Wallet;
 import com.example.digitalWalletApp.service.UserService;
 import com.example.digitalWalletApp.service.WalletService;
-import com.example.digitalWalletApp.exception.UnauthorizedException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.example.digitalWalletApp.service.wallet.WalletFactory;
 
+import java.util.Map;
+
 
 @RestController
 @RequestMapping("/api/users")
@@ -22,9 +25,6 @@ public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
-    @Autowired
-    private UserService userService;
-
     @Autowired
     private WalletService walletService;
 
@@ -34,20 +34,38 @@ public class UserController {
     @Autowired
     private WalletFactory walletFactory;
 
+    @Autowired
+    private UserService userService;
+
 
 
     @GetMapping("/me")
-    public ResponseEntity<UserInfoResponse> getMyInfo(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+    public ResponseEntity<UserInfoResponse> getMyInfo(@AuthenticatedUser AuthenticatedPrincipal principal) {
         logger.info("Fetching user info");
 
-        User user = userService.getUserFromToken(authHeader);
-        if (user == null) throw new UnauthorizedException("Unauthorized access");
+        // wallet and owner from WalletCache; the user row is only read on a miss (401 if it is gone, like @AuthenticatedUser User)
+        Wallet wallet = walletFactory.getCachedWalletWithOwner(principal.userId(), () -> {
+            User user = walletService.getUserById(principal.userId());
+            if (user == null) throw new UnauthorizedException("Unauthorized access");
+            return user;
+        });
+        logger.info("User info fetched for email: {}, balance: {}", principal.email(), wallet.getBalance());
 
-        Wallet wallet = walletFactory.getOrCreateWallet(user);
-        logger.info("User info fetched for email: {}, balance: {}", user.getEmail(), wallet.getBalance());
-
-        UserInfoResponse dto = userMapper.toDTO(user, wallet.getBalance());
+        UserInfoResponse dto = userMapper.toDTO(wallet.getUser(), wallet.getBalance());
         return ResponseEntity.ok(dto);
 
     }
+
+    // Body: {"currentPassword": ..., "newPassword": ...}. Every token issued before the change is revoked;
+    // the response carries a fresh one.
+    @PutMapping("/me/password")
+    public ResponseEntity<Map<String, Object>> changePassword(@AuthenticatedUser User user,
+                                                              @RequestBody Map<String, String> body) {
+        logger.info("Changing password");
+
+        String token = userService.changePassword(user, body.get("currentPassword"), body.get("newPassword"));
+        logger.info("Password changed for email: {}", user.getEmail());
+
+        return ResponseEntity.ok(Map.of("message", "Password changed successfully!", "token", token));
+    }
 }
@@ -1,25 +1,37 @@
 package com.example.digitalWalletApp.controller;
 
+import com.example.digitalWalletApp.config.AuthenticatedPrincipal;
+import com.example.digitalWalletApp.config.AuthenticatedUser;
+import com.example.digitalWalletApp.dto.AsyncTransferResponse;
+import com.example.digitalWalletApp.dto.BatchTransferRequest;
+import com.example.digitalWalletApp.dto.BatchTransferResponse;
 import com.example.digitalWalletApp.dto.LoadMoneyResponse;
 import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.dto.TransactionSliceResponse;
 import com.example.digitalWalletApp.dto.TransferRequest;
 import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.model.Wallet;
-import com.example.digitalWalletApp.service.UserService;
 import com.example.digitalWalletApp.service.WalletService;
-import com.example.digitalWalletApp.exception.UnauthorizedException;
+import com.example.digitalWalletApp.service.history.TransactionExporter;
+import com.example.digitalWalletApp.service.idempotency.IdempotencyService;
+import com.example.digitalWalletApp.service.transfer.AsyncTransferService;
 
 import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/wallet")
@@ -27,29 +39,35 @@ public class WalletController {
 
     private static final Logger logger = LoggerFactory.getLogger(WalletController.class);
 
-    private final UserService userService;
     private final WalletService walletService;
     private final WalletFactory walletFactory;
+    private final IdempotencyService idempotencyService;
+    private final AsyncTransferService asyncTransferService;
+    private final TransactionExporter transactionExporter;
 
-    public WalletController(UserService userService, WalletService walletService, WalletFactory walletFactory) {
-        this.userService = userService;
+    public WalletController(WalletService walletService, WalletFactory walletFactory, IdempotencyService idempotencyService,
+                            AsyncTransferService asyncTransferService, TransactionExporter transactionExporter) {
         this.walletService = walletService;
         this.walletFactory = walletFactory;
+        this.idempotencyService = idempotencyService;
+        this.asyncTransferService = asyncTransferService;
+        this.transactionExporter = transactionExporter;
     }
 
 
     // --------------------------------------------------------------------
-    // Get Wallet Balance
+    // Get Wallet Balance (claims only: the User row is loaded just on a wallet cache miss)
     // --------------------------------------------------------------------
     @GetMapping("/balance")
-    public ResponseEntity<LoadMoneyResponse> getBalance(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+    public ResponseEntity<LoadMoneyResponse> getBalance(@AuthenticatedUser AuthenticatedPrincipal principal) {
         logger.info("Fetching wallet balance request");
 
-        User user = userService.getUserFromToken(authHeader);
-        if (user == null) throw new UnauthorizedException("Unauthorized access");
-
-        Wallet wallet = walletFactory.getOrCreateWallet(user);
-        logger.info("User {} wallet balance fetched: {}", user.getEmail(), wallet.getBalance());
+        Wallet wallet = walletFactory.getCachedWallet(principal.userId(), () -> {
+            User user = walletService.getUserById(principal.userId());
+            if (user == null) throw new UserNotFoundException("User not found with ID " + principal.userId());
+            return user;
+        });
+        logger.info("User {} wallet balance fetched: {}", principal.email(), wallet.getBalance());
 
         LoadMoneyResponse response = walletService.toLoadMoneyResponse(wallet);
         return ResponseEntity.ok(response);
@@ -60,66 +78,151 @@ public class WalletController {
     // --------------------------------------------------------------------
     @GetMapping("/transactions")
     public ResponseEntity<Page<TransactionDTO>> getTransactions(
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @AuthenticatedUser User user,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-
         logger.info("Fetching transactions request with page={} and size={}", page, size);
 
-        User user = userService.getUserFromToken(authHeader);
-        if (user == null) throw new UnauthorizedException("Unauthorized access");
-
         Page<TransactionDTO> transactions = walletService.getTransactions(user, page, size);
         logger.info("Fetched {} transactions (page {}) for user {}", transactions.getNumberOfElements(), page, user.getEmail());
 
         return ResponseEntity.ok(transactions);
     }
 
+    // --------------------------------------------------------------------
+    // Transactions by cursor (keyset: newest first, pass nextCursor back for the following page; no total count)
+    // --------------------------------------------------------------------
+    @GetMapping("/transactions/cursor")
+    public ResponseEntity<TransactionSliceResponse> getTransactionsByCursor(
+            @AuthenticatedUser AuthenticatedPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        logger.info("Fetching transactions by cursor: size={}, first={}", size, cursor == null);
+
+        TransactionSliceResponse slice = walletService.getTransactionSlice(principal.userId(), cursor, size);
+        logger.info("Fetched {} transactions for user {}, hasMore={}",
+                slice.getTransactions().size(), principal.email(), slice.isHasMore());
+
+        return ResponseEntity.ok(slice);
+    }
+
+    // --------------------------------------------------------------------
+    // Export Transactions (whole history streamed as ndjson or csv; optional [from, to) and type filters)
+    // --------------------------------------------------------------------
+    @GetMapping("/transactions/export")
+    public void exportTransactions(
+            @AuthenticatedUser AuthenticatedPrincipal principal,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String type,
+            HttpServletResponse response) throws IOException {
+        logger.info("Transaction export request: user={}, format={}, from={}, to={}, type={}",
+                principal.email(), format, from, to, type);
+
+        TransactionExporter.Format exportFormat = TransactionExporter.Format.parse(format);
+        TransactionExporter.validateRange(from, to);
+
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + exportFormat.extension() + "\"");
+        long rows = transactionExporter.export(principal.userId(), from, to, type, exportFormat, response.getOutputStream());
+
+        logger.info("Exported {} transactions for user {}", rows, principal.email());
+    }
+
 
     // --------------------------------------------------------------------
-    // Load Money (with unique transactionId)
+    // Load Money (time-ordered transactionId, claimed under the client's Idempotency-Key when one is sent)
     // --------------------------------------------------------------------
     @PostMapping("/load")
-    public ResponseEntity<LoadMoneyResponse> loadMoney(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+    public ResponseEntity<LoadMoneyResponse> loadMoney(@AuthenticatedUser User user,
+                                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                                        @RequestBody TransferRequest request) {
-        User user = userService.getUserFromToken(authHeader);
-        if (user == null) throw new UnauthorizedException("Unauthorized access");
+        logger.info("Wallet load request: user={}, amount={}, idempotencyKey={}",
+                user.getEmail(), request.getAmount(), idempotencyKey);
 
-        String transactionId = UUID.randomUUID().toString(); // ✅ unique txn ID
-        logger.info("Wallet load request: user={}, amount={}, transactionId={}",
-                user.getEmail(), request.getAmount(), transactionId);
+        IdempotencyService.Outcome<LoadMoneyResponse> outcome = idempotencyService.execute(
+                user, idempotencyKey, "LOAD", request, LoadMoneyResponse.class,
+                transactionId -> walletService.loadMoney(user, request.getAmount(), transactionId));
 
-        LoadMoneyResponse response = walletService.loadMoney(user, request.getAmount(), transactionId);
+        logger.info("Wallet load successful: user={}, replayed={}, newBalance={}",
+                user.getEmail(), outcome.replayed(), outcome.response().getBalance());
 
-        logger.info("Wallet load successful: user={}, transactionId={}, newBalance={}",
-                user.getEmail(), transactionId, response.getBalance());
-
-        return ResponseEntity.ok(response);
+        return withReplayHeader(outcome);
     }
 
     // --------------------------------------------------------------------
-    // Transfer Money (with unique transactionId)
+    // Transfer Money (time-ordered transactionId, claimed under the client's Idempotency-Key when one is sent)
     // --------------------------------------------------------------------
     @PostMapping("/transfer")
-    public ResponseEntity<TransferResponse> transfer(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+    public ResponseEntity<TransferResponse> transfer(@AuthenticatedUser User sender,
+                                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                                      @RequestBody TransferRequest request) {
-        User sender = userService.getUserFromToken(authHeader);
-        if (sender == null) throw new UnauthorizedException("Unauthorized access");
+        logger.info("Transfer request: sender={}, receiverId={}, amount={}, idempotencyKey={}",
+                sender.getEmail(), request.getReceiverId(), request.getAmount(), idempotencyKey);
 
-        String transactionId = UUID.randomUUID().toString(); // ✅ unique txn ID
-        logger.info("Transfer request: sender={}, receiverId={}, amount={}, transactionId={}",
-                sender.getEmail(), request.getReceiverId(), request.getAmount(), transactionId);
+        IdempotencyService.Outcome<TransferResponse> outcome = idempotencyService.execute(
+                sender, idempotencyKey, "TRANSFER", request, TransferResponse.class,
+                transactionId -> walletService.transferAmount(sender, request.getReceiverId(), request.getAmount(), transactionId));
 
-        TransferResponse response = walletService.transferAmount(
-                sender,
-                request.getReceiverId(),
-                request.getAmount(),
-                transactionId
-        );
+        logger.info("Transfer successful: sender={}, receiverId={}, amount={}, replayed={}",
+                sender.getEmail(), request.getReceiverId(), request.getAmount(), outcome.replayed());
 
-        logger.info("Transfer successful: sender={}, receiverId={}, amount={}, transactionId={}",
-                sender.getEmail(), request.getReceiverId(), request.getAmount(), transactionId);
+        return withReplayHeader(outcome);
+    }
 
-        return ResponseEntity.ok(response);
+    // --------------------------------------------------------------------
+    // Async Transfer: 202 + transfer id right away, applied by a worker; poll GET /transfers/{id}
+    // --------------------------------------------------------------------
+    @PostMapping("/transfers/async")
+    public ResponseEntity<AsyncTransferResponse> transferAsync(@AuthenticatedUser User sender,
+                                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                               @RequestBody TransferRequest request) {
+        logger.info("Async transfer request: sender={}, receiverId={}, amount={}, idempotencyKey={}",
+                sender.getEmail(), request.getReceiverId(), request.getAmount(), idempotencyKey);
+
+        IdempotencyService.Outcome<AsyncTransferResponse> outcome = idempotencyService.execute(
+                sender, idempotencyKey, "TRANSFER_ASYNC", request, AsyncTransferResponse.class,
+                transactionId -> asyncTransferService.submit(sender, request, transactionId),
+                asyncTransferService::findByTransactionId); // submitted = stored, whether or not applied yet
+
+        ResponseEntity.BodyBuilder accepted = ResponseEntity.accepted();
+        if (outcome.replayed()) accepted.header(IdempotencyService.REPLAYED_HEADER, "true");
+        return accepted.body(outcome.response());
+    }
+
+    @GetMapping("/transfers/{transferId}")
+    public ResponseEntity<AsyncTransferResponse> getTransfer(@AuthenticatedUser AuthenticatedPrincipal principal,
+                                                             @PathVariable Long transferId) {
+        logger.info("Async transfer status request: transferId={}", transferId);
+        return ResponseEntity.ok(asyncTransferService.get(principal.userId(), transferId));
+    }
+
+    // --------------------------------------------------------------------
+    // Batch Transfer (one unique transactionId per item)
+    // --------------------------------------------------------------------
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@AuthenticatedUser User sender,
+                                                               @RequestBody BatchTransferRequest request) {
+        logger.info("Batch transfer request: sender={}, items={}, failureMode={}",
+                sender.getEmail(), request.getTransfers() == null ? 0 : request.getTransfers().size(), request.getFailureMode());
+
+        BatchTransferResponse response = walletService.transferBatch(sender, request);
+
+        logger.info("Batch transfer finished: sender={}, applied={}, succeeded={}, failed={}",
+                sender.getEmail(), response.isApplied(), response.getSucceeded(), response.getFailed());
+
+        // all-or-nothing batch rejected as a whole → 422 with the per-item reasons
+        return response.isApplied()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+
+    private static <T> ResponseEntity<T> withReplayHeader(IdempotencyService.Outcome<T> outcome) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (outcome.replayed()) ok.header(IdempotencyService.REPLAYED_HEADER, "true");
+        return ok.body(outcome.response());
     }
 }
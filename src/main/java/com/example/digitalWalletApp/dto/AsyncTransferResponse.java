@@ -0,0 +1,68 @@
+package com.example.digitalWalletApp.dto;
+
+import com.example.digitalWalletApp.model.AsyncTransfer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+// money fields in minor units (cents), serialized in major units; the balances are only set once COMPLETED
+public class AsyncTransferResponse {
+    private Long transferId;
+    private String status;
+    private Long receiverId;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long amount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long senderBalance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long remainingDailyLimit;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public static AsyncTransferResponse from(AsyncTransfer transfer) {
+        AsyncTransferResponse response = new AsyncTransferResponse();
+        response.transferId = transfer.getId();
+        response.status = transfer.getStatus().name();
+        response.receiverId = transfer.getRecipientId();
+        response.amount = transfer.getAmount();
+        response.senderBalance = transfer.getSenderBalance();
+        response.remainingDailyLimit = transfer.getRemainingDailyLimit();
+        response.message = transfer.getMessage();
+        response.createdAt = transfer.getCreatedAt();
+        response.completedAt = transfer.getCompletedAt();
+        return response;
+    }
+
+    // Getters & Setters
+    public Long getTransferId() { return transferId; }
+    public void setTransferId(Long transferId) { this.transferId = transferId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getReceiverId() { return receiverId; }
+    public void setReceiverId(Long receiverId) { this.receiverId = receiverId; }
+
+    public Long getAmount() { return amount; }
+    public void setAmount(Long amount) { this.amount = amount; }
+
+    public Long getSenderBalance() { return senderBalance; }
+    public void setSenderBalance(Long senderBalance) { this.senderBalance = senderBalance; }
+
+    public Long getRemainingDailyLimit() { return remainingDailyLimit; }
+    public void setRemainingDailyLimit(Long remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,37 @@
+package com.example.digitalWalletApp.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+public class BatchTransferItemResult {
+
+    public enum Status { SUCCESS, FAILED, NOT_APPLIED, UNKNOWN } // UNKNOWN: gave up waiting, may still be applied
+
+    private int index;
+    private Long receiverId;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long amount; // minor units
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long transactionId; // sent as a string: 64-bit ids do not fit a JavaScript number
+    private Status status;
+    private String message;
+
+    public BatchTransferItemResult(int index, Long receiverId, Long amount) {
+        this.index = index;
+        this.receiverId = receiverId;
+        this.amount = amount;
+    }
+
+    public int getIndex() { return index; }
+    public Long getReceiverId() { return receiverId; }
+    public Long getAmount() { return amount; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,17 @@
+package com.example.digitalWalletApp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchTransferRequest {
+    private List<TransferRequest> transfers = new ArrayList<>();
+    private String failureMode; // "all_or_nothing" | "per_item"; null = wallet.engine.batch.failure-mode
+
+    public BatchTransferRequest() {}
+
+    public List<TransferRequest> getTransfers() { return transfers; }
+    public void setTransfers(List<TransferRequest> transfers) { this.transfers = transfers; }
+
+    public String getFailureMode() { return failureMode; }
+    public void setFailureMode(String failureMode) { this.failureMode = failureMode; }
+}
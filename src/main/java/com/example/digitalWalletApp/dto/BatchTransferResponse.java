@@ -0,0 +1,47 @@
+package com.example.digitalWalletApp.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+
+public class BatchTransferResponse {
+    private String failureMode;
+    private boolean applied;       // false only when an all-or-nothing batch was rejected as a whole
+    private int succeeded;
+    private int failed;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long senderBalance;    // minor units
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long remainingDailyLimit;    // minor units
+    private Boolean frozen;
+    private List<BatchTransferItemResult> results;
+    private String message;
+
+    // Getters & Setters
+    public String getFailureMode() { return failureMode; }
+    public void setFailureMode(String failureMode) { this.failureMode = failureMode; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public Long getSenderBalance() { return senderBalance; }
+    public void setSenderBalance(Long senderBalance) { this.senderBalance = senderBalance; }
+
+    public Long getRemainingDailyLimit() { return remainingDailyLimit; }
+    public void setRemainingDailyLimit(Long remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
+
+    public Boolean getFrozen() { return frozen; }
+    public void setFrozen(Boolean frozen) { this.frozen = frozen; }
+
+    public List<BatchTransferItemResult> getResults() { return results; }
+    public void setResults(List<BatchTransferItemResult> results) { this.results = results; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
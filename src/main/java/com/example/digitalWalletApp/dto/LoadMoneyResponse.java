@@ -1,21 +1,31 @@
 package com.example.digitalWalletApp.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// money fields in minor units (cents), serialized in major units
 public class LoadMoneyResponse {
-    private Double balance;
-    private Double dailySpent;
-    private Double remainingDailyLimit;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long balance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long dailySpent;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long remainingDailyLimit;
     private Boolean frozen;
     private String message;
 
     // Getters & Setters
-    public Double getBalance() { return balance; }
-    public void setBalance(Double balance) { this.balance   = balance; }
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance   = balance; }
 
-    public Double getDailySpent() { return dailySpent; }
-    public void setDailySpent(Double dailySpent) { this.dailySpent = dailySpent; }
+    public long getDailySpent() { return dailySpent; }
+    public void setDailySpent(long dailySpent) { this.dailySpent = dailySpent; }
 
-    public Double getRemainingDailyLimit() { return remainingDailyLimit; }
-    public void setRemainingDailyLimit(Double remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
+    public long getRemainingDailyLimit() { return remainingDailyLimit; }
+    public void setRemainingDailyLimit(long remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
 
     public Boolean getFrozen() { return frozen; }
     public void setFrozen(Boolean frozen) { this.frozen = frozen; }
@@ -0,0 +1,54 @@
+package com.example.digitalWalletApp.dto;
+
+import com.example.digitalWalletApp.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/*
+Keeps the JSON contract in major units while the fields behind it are long minor units (cents):
+  @JsonSerialize(using = MoneyJson.Serializer.class)     long 12345 → 123.45
+  @JsonDeserialize(using = MoneyJson.Deserializer.class) 123.45 or "123.45" → 12345
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {}
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long minor, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(Money.toMajor(minor));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            BigDecimal major;
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                try {
+                    major = new BigDecimal(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), "not a decimal amount");
+                }
+            } else if (p.currentToken().isNumeric()) {
+                major = p.getDecimalValue();
+            } else {
+                return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+            }
+
+            try {
+                return Money.ofMajor(major);
+            } catch (IllegalArgumentException e) {
+                return (Long) ctxt.handleWeirdNumberValue(Long.class, major, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.digitalWalletApp.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class PayoutItemRequest {
+    private Long recipientId;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long amount; // minor units
+
+    public PayoutItemRequest() {}
+
+    public PayoutItemRequest(Long recipientId, Long amount) {
+        this.recipientId = recipientId;
+        this.amount = amount;
+    }
+
+    public Long getRecipientId() { return recipientId; }
+    public void setRecipientId(Long recipientId) { this.recipientId = recipientId; }
+
+    public Long getAmount() { return amount; }
+    public void setAmount(Long amount) { this.amount = amount; }
+}
@@ -0,0 +1,61 @@
+package com.example.digitalWalletApp.dto;
+
+import com.example.digitalWalletApp.model.PayoutJob;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+public class PayoutJobResponse {
+    private Long jobId;
+    private Long sourceUserId;
+    private String status;
+    private int totalItems;
+    private int processedItems;
+    private int paidItems;
+    private int failedItems;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long totalAmount;    // minor units
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long paidAmount;    // minor units
+    private int chunksCompleted;
+    private double progressPercent;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static PayoutJobResponse from(PayoutJob job) {
+        PayoutJobResponse response = new PayoutJobResponse();
+        response.jobId = job.getId();
+        response.sourceUserId = job.getSourceUserId();
+        response.status = job.getStatus().name();
+        response.totalItems = job.getTotalItems();
+        response.processedItems = job.getNextSeq();
+        response.paidItems = job.getPaidItems();
+        response.failedItems = job.getFailedItems();
+        response.totalAmount = job.getTotalAmount();
+        response.paidAmount = job.getPaidAmount();
+        response.chunksCompleted = job.getChunksCompleted();
+        response.progressPercent = job.getTotalItems() == 0 ? 0.0
+                : Math.round(job.getNextSeq() * 1000.0 / job.getTotalItems()) / 10.0;
+        response.errorMessage = job.getErrorMessage();
+        response.createdAt = job.getCreatedAt();
+        response.updatedAt = job.getUpdatedAt();
+        return response;
+    }
+
+    // Getters
+    public Long getJobId() { return jobId; }
+    public Long getSourceUserId() { return sourceUserId; }
+    public String getStatus() { return status; }
+    public int getTotalItems() { return totalItems; }
+    public int getProcessedItems() { return processedItems; }
+    public int getPaidItems() { return paidItems; }
+    public int getFailedItems() { return failedItems; }
+    public long getTotalAmount() { return totalAmount; }
+    public long getPaidAmount() { return paidAmount; }
+    public int getChunksCompleted() { return chunksCompleted; }
+    public double getProgressPercent() { return progressPercent; }
+    public String getErrorMessage() { return errorMessage; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,17 @@
+package com.example.digitalWalletApp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PayoutRequest {
+    private Long sourceUserId;
+    private List<PayoutItemRequest> items = new ArrayList<>();
+
+    public PayoutRequest() {}
+
+    public Long getSourceUserId() { return sourceUserId; }
+    public void setSourceUserId(Long sourceUserId) { this.sourceUserId = sourceUserId; }
+
+    public List<PayoutItemRequest> getItems() { return items; }
+    public void setItems(List<PayoutItemRequest> items) { this.items = items; }
+}
@@ -1,21 +1,35 @@
 package com.example.digitalWalletApp.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.LocalDateTime;
 
 public class TransactionDTO {
     private Long id;
-    private Double amount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long amount; // minor units
     private String type;
     private LocalDateTime timestamp;
 
     private String userEmail;
 
+    public TransactionDTO() {}
+
+    // Constructor expression target for TransactionRepository's history projections (no entity, no User row)
+    public TransactionDTO(Long id, long amount, String type, LocalDateTime timestamp, String userEmail) {
+        this.id = id;
+        this.amount = amount;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.userEmail = userEmail;
+    }
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
 
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
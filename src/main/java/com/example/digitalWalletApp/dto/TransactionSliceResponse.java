@@ -0,0 +1,28 @@
+package com.example.digitalWalletApp.dto;
+
+import java.util.List;
+
+// One keyset page of history: newest first, no total count; nextCursor is null on the last page
+public class TransactionSliceResponse {
+    private List<TransactionDTO> transactions;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TransactionSliceResponse() {}
+
+    public TransactionSliceResponse(List<TransactionDTO> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters & Setters
+    public List<TransactionDTO> getTransactions() { return transactions; }
+    public void setTransactions(List<TransactionDTO> transactions) { this.transactions = transactions; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
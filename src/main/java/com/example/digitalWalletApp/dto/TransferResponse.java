@@ -1,25 +1,37 @@
 package com.example.digitalWalletApp.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// money fields in minor units (cents), serialized in major units
 public class TransferResponse {
-    private Double amountTransferred;
-    private Double senderBalance;
-    private Double recipientBalance;
-    private Double remainingDailyLimit;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amountTransferred;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long senderBalance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long recipientBalance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long remainingDailyLimit;
     private Boolean frozen;
     private String message;
 
     // Getters & Setters
-    public Double getAmountTransferred() { return amountTransferred; }
-    public void setAmountTransferred(Double amountTransferred) { this.amountTransferred = amountTransferred; }
+    public long getAmountTransferred() { return amountTransferred; }
+    public void setAmountTransferred(long amountTransferred) { this.amountTransferred = amountTransferred; }
 
-    public Double getSenderBalance() { return senderBalance; }
-    public void setSenderBalance(Double senderBalance) { this.senderBalance = senderBalance; }
+    public long getSenderBalance() { return senderBalance; }
+    public void setSenderBalance(long senderBalance) { this.senderBalance = senderBalance; }
 
-    //public Double getRecipientBalance() { return recipientBalance; }
-    public void setRecipientBalance(Double recipientBalance) { this.recipientBalance = recipientBalance; }
+    //public long getRecipientBalance() { return recipientBalance; }
+    public void setRecipientBalance(long recipientBalance) { this.recipientBalance = recipientBalance; }
 
-    public Double getRemainingDailyLimit() { return remainingDailyLimit; }
-    public void setRemainingDailyLimit(Double remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
+    public long getRemainingDailyLimit() { return remainingDailyLimit; }
+    public void setRemainingDailyLimit(long remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
 
     public Boolean getFrozen() { return frozen; }
     public void setFrozen(Boolean frozen) { this.frozen = frozen; }
@@ -1,11 +1,14 @@
 package com.example.digitalWalletApp.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 public class UserInfoResponse {
     private String name;
     private String email;
-    private Double balance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance; // minor units
 
-    public UserInfoResponse(String name, String email, Double balance) {
+    public UserInfoResponse(String name, String email, long balance) {
         this.name = name;
         this.email = email;
         this.balance = balance;
@@ -13,5 +16,5 @@ public class UserInfoResponse {
 
     public String getName() { return name; }
     public String getEmail() { return email; }
-    public Double getBalance() { return balance; }
+    public long getBalance() { return balance; }
 }
@@ -2,8 +2,11 @@ package com.example.digitalWalletApp.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -52,6 +55,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    // ✅ Unreadable body (malformed JSON, or an amount with more than two decimals)
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        logger.warn("⚠️ Unreadable request body: {}", ex.getMostSpecificCause().getMessage());
+
+        Map<String, String> errors = Map.of("reason", ex.getMostSpecificCause().getMessage());
+        ErrorResponse response = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid request data",
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     // ✅ UserNotFoundException
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFound(UserNotFoundException ex) {
@@ -68,6 +87,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    // ✅ TransferNotFoundException
+    @ExceptionHandler(TransferNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTransferNotFound(TransferNotFoundException ex) {
+        logger.warn("⚠️ Transfer not found: {}", ex.getMessage());
+
+        Map<String, String> errors = Map.of("reason", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND.value(),
+                "Transfer not found",
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
     // ✅ UnauthorizedException
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorized(UnauthorizedException ex) {
@@ -100,6 +135,77 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
 
+    // ✅ IdempotencyConflictException (same Idempotency-Key still being processed)
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        logger.warn("⚠️ Idempotency conflict: {}", ex.getMessage());
+
+        Map<String, String> errors = Map.of("reason", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                "Request already in progress",
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // ✅ ServiceBusyException (bounded resource saturated, e.g. the password hashing queue)
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusy(ServiceBusyException ex) {
+        logger.warn("🚦 Service busy: {}", ex.getMessage());
+
+        Map<String, String> errors = Map.of("reason", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service busy",
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    // ✅ OutcomeUnknownException (gave up waiting, the operation may still complete)
+    @ExceptionHandler(OutcomeUnknownException.class)
+    public ResponseEntity<ErrorResponse> handleOutcomeUnknown(OutcomeUnknownException ex) {
+        logger.warn("⏳ Outcome unknown for txnId={}: {}", ex.getTransactionId(), ex.getMessage());
+
+        Map<String, String> errors = Map.of(
+                "reason", ex.getMessage(),
+                "transactionId", String.valueOf(ex.getTransactionId())
+        );
+        ErrorResponse response = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                "Outcome unknown: retry with the same Idempotency-Key or check the transaction history",
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response);
+    }
+
+    // ✅ TooManyRequestsException (per-caller limit, e.g. credential checks for one email)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        logger.warn("🚦 Too many requests: {}", ex.getMessage());
+
+        Map<String, String> errors = Map.of("reason", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests",
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     // ✅ Validation exception (Bad Request)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
@@ -120,8 +226,9 @@ public class GlobalExceptionHandler {
     }
 
     // ✅ Optimistic Locking exception (Concurrency conflict)
-    @ExceptionHandler(OptimisticLockException.class)
-    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockException ex) {
+    // Spring's wrapper is what reaches us when the ContentionManager gives up on a hot wallet
+    @ExceptionHandler({OptimisticLockException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(RuntimeException ex) {
         logger.warn("⚠️ Optimistic lock conflict: {}", ex.getMessage());
 
         Map<String, String> errors = Map.of(
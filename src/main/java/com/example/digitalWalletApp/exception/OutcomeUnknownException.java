@@ -0,0 +1,14 @@
+package com.example.digitalWalletApp.exception;
+
+// The caller stopped waiting but the operation may still be applied (e.g. a wallet shard that answered too late):
+// 504, and the transaction id stays reserved so a retry under the same Idempotency-Key cannot apply it twice
+public class OutcomeUnknownException extends RuntimeException {
+    private final long transactionId;
+
+    public OutcomeUnknownException(String message, long transactionId, Throwable cause) {
+        super(message, cause);
+        this.transactionId = transactionId;
+    }
+
+    public long getTransactionId() { return transactionId; }
+}
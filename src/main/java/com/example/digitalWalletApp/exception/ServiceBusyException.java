@@ -0,0 +1,13 @@
+package com.example.digitalWalletApp.exception;
+
+// Work was shed because a bounded resource is saturated: 503 with Retry-After
+public class ServiceBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,13 @@
+package com.example.digitalWalletApp.exception;
+
+// The caller (not the server) is over its limit: 429 with Retry-After
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
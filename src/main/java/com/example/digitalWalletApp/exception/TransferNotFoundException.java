@@ -0,0 +1,8 @@
+package com.example.digitalWalletApp.exception;
+
+// Unknown transfer id, or one that belongs to another sender (the two are indistinguishable to the caller): 404
+public class TransferNotFoundException extends RuntimeException {
+    public TransferNotFoundException(String message) {
+        super(message);
+    }
+}
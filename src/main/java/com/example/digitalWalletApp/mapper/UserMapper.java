@@ -9,7 +9,7 @@ import org.mapstruct.Mapping;
 public interface UserMapper {
     @Mapping(source = "user.email", target = "email")
     @Mapping(source = "user.name", target = "name")
-    UserInfoResponse toDTO(User user, Double balance);
+    UserInfoResponse toDTO(User user, long balance);
 }
 
 /*
@@ -21,7 +21,7 @@ So we ignore fields like password, id, role, age.
 DTO has balance but User entity doesn’t.
 
 @Override
-public UserInfoResponse toDTO(User user, Double balance) {
+public UserInfoResponse toDTO(User user, long balance) {
     if (user == null) {
         return null;
     }
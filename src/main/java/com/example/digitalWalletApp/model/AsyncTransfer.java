@@ -0,0 +1,87 @@
+package com.example.digitalWalletApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Transfer accepted by POST /api/wallet/transfers/async and applied later by AsyncTransferRunner
+@Entity
+@Table(name = "async_transfer", indexes = @Index(name = "idx_async_transfer_status", columnList = "status"))
+public class AsyncTransfer {
+
+    public enum Status {
+        PENDING,    // queued or being applied
+        COMPLETED,
+        FAILED      // rejected by the wallet rules (balance, limits, frozen, ...) or the queue was full
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long senderId;
+
+    @Column(nullable = false)
+    private Long recipientId;
+
+    private long amount; // minor units
+
+    // ledger transaction id, fixed at submission: applying the transfer twice is refused as a duplicate
+    @Column(nullable = false, unique = true)
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    // result, once COMPLETED (minor units)
+    private Long senderBalance;
+    private Long remainingDailyLimit;
+
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    public AsyncTransfer() {}
+
+    public AsyncTransfer(Long senderId, Long recipientId, long amount, Long transactionId) {
+        this.senderId = senderId;
+        this.recipientId = recipientId;
+        this.amount = amount;
+        this.transactionId = transactionId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+        if (createdAt == null) createdAt = updatedAt;
+    }
+
+    // --- Getters & Setters ---
+    public Long getId() { return id; }
+
+    public Long getSenderId() { return senderId; }
+    public Long getRecipientId() { return recipientId; }
+    public long getAmount() { return amount; }
+    public Long getTransactionId() { return transactionId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getSenderBalance() { return senderBalance; }
+    public void setSenderBalance(Long senderBalance) { this.senderBalance = senderBalance; }
+
+    public Long getRemainingDailyLimit() { return remainingDailyLimit; }
+    public void setRemainingDailyLimit(Long remainingDailyLimit) { this.remainingDailyLimit = remainingDailyLimit; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
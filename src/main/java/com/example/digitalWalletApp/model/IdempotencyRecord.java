@@ -0,0 +1,64 @@
+package com.example.digitalWalletApp.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Outcome of one client request sent with an Idempotency-Key; a retry with the same key gets responseBody replayed.
+// Inserted as a claim (no responseBody yet) before the operation runs, completed once it succeeded.
+// Purged wallet.idempotency.ttl-hours after createdAt.
+@Entity
+@Table(name = "idempotency_record",
+        indexes = @Index(name = "idx_idempotency_created_at", columnList = "created_at")) // TTL purge, startup seeding
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 160)
+    private String key; // "<userId>:<client key>" so two users can pick the same key
+
+    @Column(nullable = false, length = 16)
+    private String operation; // LOAD | TRANSFER | TRANSFER_ASYNC
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request body: the same key with a different body is rejected
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(length = 4000)
+    private String responseBody; // null while the claiming request is still running
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt; // when the key was claimed (or last taken over)
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String key, String operation, String requestHash, Long transactionId) {
+        this.key = key;
+        this.operation = operation;
+        this.requestHash = requestHash;
+        this.transactionId = transactionId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // The key is assigned, so tell Spring Data to INSERT (a duplicate key must fail, not merge)
+    @Override
+    public String getId() { return key; }
+
+    @Override
+    public boolean isNew() { return createdAt == null; }
+
+    public String getKey() { return key; }
+    public String getOperation() { return operation; }
+    public String getRequestHash() { return requestHash; }
+    public Long getTransactionId() { return transactionId; }
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public boolean isCompleted() { return responseBody != null; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
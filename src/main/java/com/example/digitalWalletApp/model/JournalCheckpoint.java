@@ -0,0 +1,45 @@
+package com.example.digitalWalletApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// How far a journal has been projected into the tables; written in the same DB transaction as the projected rows
+@Entity
+@Table(name = "journal_checkpoint")
+public class JournalCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long appliedOffset;
+
+    // Transfers whose debit leg is at or before appliedOffset and whose closing leg is not: "txnId:sender:recipient:amount,..."
+    @Lob
+    private String openTransfers;
+
+    private LocalDateTime updatedAt;
+
+    public JournalCheckpoint() {}
+
+    public JournalCheckpoint(String name, long appliedOffset) {
+        this.name = name;
+        this.appliedOffset = appliedOffset;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public String getName() { return name; }
+
+    public long getAppliedOffset() { return appliedOffset; }
+    public void setAppliedOffset(long appliedOffset) { this.appliedOffset = appliedOffset; }
+
+    public String getOpenTransfers() { return openTransfers; }
+    public void setOpenTransfers(String openTransfers) { this.openTransfers = openTransfers; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,60 @@
+package com.example.digitalWalletApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A ledger row the sharded engine's write-behind could not insert after wallet.engine.flush-max-attempts tries.
+// The wallet balances already include it: reconcile by hand, then delete the entry.
+@Entity
+@Table(name = "ledger_dead_letter")
+public class LedgerDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    private Long userId;
+
+    private String type;
+
+    private long amount; // minor units
+
+    private LocalDateTime timestamp; // of the ledger row
+
+    @Column(length = 1000)
+    private String error; // last failure
+
+    private int attempts;
+
+    private LocalDateTime deadLetteredAt;
+
+    public LedgerDeadLetter() {}
+
+    public LedgerDeadLetter(Transaction txn, int attempts, String error) {
+        this.transactionId = txn.getTransactionId();
+        this.userId = txn.getUser() == null ? null : txn.getUser().getId();
+        this.type = txn.getType();
+        this.amount = txn.getAmount();
+        this.timestamp = txn.getTimestamp();
+        this.attempts = attempts;
+        this.error = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        deadLetteredAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public Long getTransactionId() { return transactionId; }
+    public Long getUserId() { return userId; }
+    public String getType() { return type; }
+    public long getAmount() { return amount; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getError() { return error; }
+    public int getAttempts() { return attempts; }
+    public LocalDateTime getDeadLetteredAt() { return deadLetteredAt; }
+}
@@ -0,0 +1,43 @@
+package com.example.digitalWalletApp.model;
+
+import java.math.BigDecimal;
+
+/*
+Money is held as a primitive long of minor units (cents) everywhere behind the API: entities, validation,
+limits, ledger and engines. Arithmetic on it is exact and allocation-free.
+
+Major units (the decimal amounts clients send and receive) only exist at the edges: JSON (MoneyJson),
+configuration (WalletProperties) and CSV uploads.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_MAJOR = 100;
+
+    private Money() {}
+
+    // Exact conversion; more than two decimal places is an input error, not something to round away
+    public static long ofMajor(BigDecimal major) {
+        try {
+            return major.setScale(SCALE).movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + major.toPlainString() + " must have at most " + SCALE + " decimal places");
+        }
+    }
+
+    // For values that already are doubles (configuration, tests); rounds to the nearest cent
+    public static long ofMajor(double major) {
+        if (Double.isNaN(major) || Double.isInfinite(major))
+            throw new IllegalArgumentException("Amount must be a finite number");
+        return Math.round(major * MINOR_PER_MAJOR);
+    }
+
+    // Nearest double; prints back as the exact decimal for any realistic amount (< 2^53 cents)
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    public static String format(long minor) {
+        return BigDecimal.valueOf(minor, SCALE).toPlainString();
+    }
+}
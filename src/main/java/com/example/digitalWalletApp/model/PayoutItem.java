@@ -0,0 +1,50 @@
+package com.example.digitalWalletApp.model;
+
+import jakarta.persistence.*;
+
+// One (recipient, amount) line of a PayoutJob; inserted in JDBC batches by PayoutItemWriter
+@Entity
+@Table(name = "payout_item",
+        indexes = @Index(name = "idx_payout_item_job_seq", columnList = "job_id, seq", unique = true))
+public class PayoutItem {
+
+    public enum Status { PENDING, PAID, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private int seq; // position in the uploaded list, 0-based
+
+    private Long recipientId;
+    private Long amount; // minor units; null when the uploaded line had none (fails individually)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    private Long transactionId;
+    private String message;
+
+    public PayoutItem() {}
+
+    // --- Getters & Setters ---
+    public Long getId() { return id; }
+    public Long getJobId() { return jobId; }
+    public int getSeq() { return seq; }
+    public Long getRecipientId() { return recipientId; }
+    public Long getAmount() { return amount; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
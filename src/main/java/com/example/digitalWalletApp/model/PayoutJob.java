@@ -0,0 +1,99 @@
+package com.example.digitalWalletApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Admin bulk payout: one source wallet → many recipients, processed in chunks by PayoutJobRunner
+@Entity
+@Table(name = "payout_job")
+public class PayoutJob {
+
+    public enum Status {
+        CREATED,    // items are still being uploaded
+        PENDING,    // queued for the background executor
+        RUNNING,
+        COMPLETED,
+        FAILED      // stopped (e.g. source balance too low); can be resumed
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long sourceUserId;
+
+    private Long requestedBy; // admin user id
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.CREATED;
+
+    private int chunkSize;
+    private int totalItems;
+    private long totalAmount; // minor units
+
+    // Checkpoint: seq of the first item not processed yet, committed together with each chunk
+    private int nextSeq;
+    private int chunksCompleted;
+    private int paidItems;
+    private int failedItems;
+    private long paidAmount;  // minor units
+
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public PayoutJob() {}
+
+    public PayoutJob(Long sourceUserId, Long requestedBy, int chunkSize) {
+        this.sourceUserId = sourceUserId;
+        this.requestedBy = requestedBy;
+        this.chunkSize = chunkSize;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+        if (createdAt == null) createdAt = updatedAt;
+    }
+
+    // --- Getters & Setters ---
+    public Long getId() { return id; }
+
+    public Long getSourceUserId() { return sourceUserId; }
+    public Long getRequestedBy() { return requestedBy; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getChunkSize() { return chunkSize; }
+
+    public int getTotalItems() { return totalItems; }
+    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
+
+    public long getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(long totalAmount) { this.totalAmount = totalAmount; }
+
+    public int getNextSeq() { return nextSeq; }
+    public void setNextSeq(int nextSeq) { this.nextSeq = nextSeq; }
+
+    public int getChunksCompleted() { return chunksCompleted; }
+    public void setChunksCompleted(int chunksCompleted) { this.chunksCompleted = chunksCompleted; }
+
+    public int getPaidItems() { return paidItems; }
+    public void setPaidItems(int paidItems) { this.paidItems = paidItems; }
+
+    public int getFailedItems() { return failedItems; }
+    public void setFailedItems(int failedItems) { this.failedItems = failedItems; }
+
+    public long getPaidAmount() { return paidAmount; }
+    public void setPaidAmount(long paidAmount) { this.paidAmount = paidAmount; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -2,33 +2,45 @@ package com.example.digitalWalletApp.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Entity  // Tells JPA this class maps to a database table.
-@Table(name = "`transactions`")// good practice to use plural table name
+@Table(name = "`transactions`", // good practice to use plural table name
+        // both legs of a transfer share transaction_id, told apart by type. Once TransactionPartitionManager has
+        // partitioned the table by month this key also carries timestamp (MySQL requires it), and the unpartitioned
+        // transaction_dedupe table, filled by an insert trigger, keeps (transaction_id, type) unique
+        uniqueConstraints = @UniqueConstraint(name = "uk_transactions_txn_type", columnNames = {"transaction_id", "type"}),
+        // keyset history: seek to (timestamp, id) within one user and read the next rows in index order
+        indexes = @Index(name = "idx_transactions_user_ts_id", columnList = "user_id, timestamp, id"))
+@NamedEntityGraph(name = Transaction.WITH_USER, attributeNodes = @NamedAttributeNode("user")) // entity reads mapped to TransactionDTO.userEmail
 public class Transaction {
 
+    public static final String WITH_USER = "Transaction.withUser";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50) // pooled: lets Hibernate batch inserts
     private Long id; // ✅ PRIMARY KEY
 
-    private Double amount;
+    @Column(nullable = false)
+    private long amount; // minor units (cents)
 
     private String type; // "DEBIT" or "CREDIT"
 
-    private LocalDateTime timestamp;
+    @Column(nullable = false)
+    private LocalDateTime timestamp; // partitioning column on MySQL
 
-    @ManyToOne // multiple transactions can happen per user (N : 1)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user; // ✅ FOREIGN KEY (references user.id)
+    @ManyToOne(fetch = FetchType.LAZY) // multiple transactions can happen per user (N : 1); only user_id is needed to write a row
+    @JoinColumn(name = "user_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)) // partitioned tables cannot carry foreign keys
+    private User user; // references user.id; users are never deleted while they have a ledger
 
-    @Column(unique = true, nullable = false)
-    private String transactionId = UUID.randomUUID().toString();
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId; // time-ordered (TransactionIdGenerator); both legs of a transfer share it
 
     // --- Constructors ---
     public Transaction() {}
 
-    public Transaction(User user, Double amount, String type) {
+    public Transaction(User user, long amount, String type) {
         this.user = user;
         this.amount = amount;
         this.type = type;
@@ -48,11 +60,11 @@ public class Transaction {
         return id;
     }
 
-    public Double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
@@ -80,11 +92,11 @@ public class Transaction {
         this.user = user;
     }
 
-    public String getTransactionId() {
+    public Long getTransactionId() {
         return transactionId;
     }
 
-    public void setTransactionId(String transactionId) {
+    public void setTransactionId(Long transactionId) {
         this.transactionId = transactionId;
     }
 }
\ No newline at end of file
@@ -11,7 +11,8 @@ import jakarta.validation.constraints.Min;
 @Table(name = "`user`")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50) // pooled: lets Hibernate batch inserts
     private Long id; // Primary key
 
     private String name;
@@ -46,6 +47,11 @@ public class User {
     @Column(nullable = false)
     private String role = "USER"; // Default is normal user
 
+    // Copied into every issued JWT ("ver" claim); bumped on a password or role change (UserService), which revokes
+    // all of the user's outstanding tokens
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     public User(long l, String john, String mail, String password123) {
     }
 
@@ -53,6 +59,9 @@ public class User {
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
 
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+
 
     // Getters & Setters
     public Long getId() {
@@ -1,23 +1,36 @@
 package com.example.digitalWalletApp.model;
 
+import com.example.digitalWalletApp.dto.MoneyJson;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCacheListener;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "`wallet`")
+@NamedEntityGraph(name = Wallet.WITH_USER, attributeNodes = @NamedAttributeNode("user")) // admin views only
+@EntityListeners(WalletCacheListener.class) // committed writes go through to the wallet cache
 public class Wallet {
 
+    public static final String WITH_USER = "Wallet.withUser";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_seq")
+    @SequenceGenerator(name = "wallet_seq", sequenceName = "wallet_seq", allocationSize = 50) // pooled: lets Hibernate batch inserts
     private Long id; // Primary Key
 
-    private Double balance;
+    // minor units (cents), BIGINT; serialized in major units because the admin API returns this entity
+    @Column(nullable = false)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY) // money paths only need user_id; load the owner with the WITH_USER graph
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    private Double dailySpent = 0.0;
+    @Column(nullable = false)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long dailySpent;
     private Boolean frozen = false;
     private LocalDate lastTransactionDate;
 
@@ -30,8 +43,8 @@ public class Wallet {
 
     public Wallet(User user) {
         this.user = user;
-        this.balance = 0.0;
-        this.dailySpent = 0.0;
+        this.balance = 0L;
+        this.dailySpent = 0L;
         this.frozen = false;
         this.lastTransactionDate = LocalDate.now();
     }
@@ -45,11 +58,11 @@ public class Wallet {
         this.id = id;
     }
 
-    public Double getBalance() {
+    public long getBalance() {
         return balance;
     }
 
-    public void setBalance(Double balance) {
+    public void setBalance(long balance) {
         this.balance = balance;
     }
 
@@ -61,11 +74,11 @@ public class Wallet {
         this.user = user;
     }
 
-    public Double getDailySpent() {
+    public long getDailySpent() {
         return dailySpent;
     }
 
-    public void setDailySpent(Double dailySpent) {
+    public void setDailySpent(long dailySpent) {
         this.dailySpent = dailySpent;
     }
 
@@ -94,10 +107,11 @@ public class Wallet {
     }
 
     // --- Helper ---
-    public void resetDailyIfNewDay() {
-        LocalDate today = LocalDate.now();
-        if (lastTransactionDate == null || !lastTransactionDate.equals(today)) {
-            this.dailySpent = 0.0;
+    // today comes from DailyLimitClock. Normally a no-op: DailyLimitResetJob has already reset the row at midnight;
+    // this covers wallets the job has not reached yet (or a missed run)
+    public void resetDailyIfNewDay(LocalDate today) {
+        if (lastTransactionDate == null || lastTransactionDate.toEpochDay() != today.toEpochDay()) {
+            this.dailySpent = 0L;
             this.frozen = false;
             this.lastTransactionDate = today;
         }
@@ -0,0 +1,18 @@
+package com.example.digitalWalletApp.repository;
+
+import com.example.digitalWalletApp.model.AsyncTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AsyncTransferRepository extends JpaRepository<AsyncTransfer, Long> {
+
+    Optional<AsyncTransfer> findByIdAndSenderId(Long id, Long senderId);
+
+    List<AsyncTransfer> findByStatusOrderByIdAsc(AsyncTransfer.Status status);
+
+    Optional<AsyncTransfer> findByTransactionId(Long transactionId);
+}
@@ -0,0 +1,35 @@
+package com.example.digitalWalletApp.repository;
+
+import com.example.digitalWalletApp.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Seeds the Bloom filter at startup: only keys still inside the TTL can be replayed
+    @Query("SELECT r.key FROM IdempotencyRecord r WHERE r.createdAt >= :since")
+    List<String> findKeysCreatedSince(@Param("since") LocalDateTime since);
+
+    // Takes over a stale, unfinished claim; 0 when another request completed or took it over first
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :now " +
+            "WHERE r.key = :key AND r.responseBody IS NULL AND r.createdAt = :claimedAt")
+    int takeOver(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.responseBody = :responseBody WHERE r.key = :key AND r.responseBody IS NULL")
+    int complete(@Param("key") String key, @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,19 @@
+package com.example.digitalWalletApp.repository;
+
+import com.example.digitalWalletApp.model.PayoutItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PayoutItemRepository extends JpaRepository<PayoutItem, Long> {
+
+    // Next chunk after the job's checkpoint (uses idx_payout_item_job_seq); items already PAID / FAILED are
+    // never picked up again, even from a stale checkpoint
+    List<PayoutItem> findByJobIdAndStatusAndSeqGreaterThanEqualOrderBySeqAsc(Long jobId, PayoutItem.Status status,
+                                                                             int seq, Pageable pageable);
+
+    long countByJobIdAndStatus(Long jobId, PayoutItem.Status status);
+}
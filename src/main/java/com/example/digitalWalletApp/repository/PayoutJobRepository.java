@@ -0,0 +1,25 @@
+package com.example.digitalWalletApp.repository;
+
+import com.example.digitalWalletApp.model.PayoutJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayoutJobRepository extends JpaRepository<PayoutJob, Long> {
+
+    List<PayoutJob> findByStatusIn(Collection<PayoutJob.Status> statuses);
+
+    // SELECT ... FOR UPDATE of the job row: a runner holds it for the whole chunk, so two runners working the
+    // same job (resume on every node's start, an overlapping admin resume) take turns instead of paying a chunk twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM PayoutJob j WHERE j.id = :id")
+    Optional<PayoutJob> lockById(@Param("id") Long id);
+}
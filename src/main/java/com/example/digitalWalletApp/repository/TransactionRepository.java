@@ -1,10 +1,14 @@
 package com.example.digitalWalletApp.repository;
 
+import com.example.digitalWalletApp.dto.TransactionDTO;
 import com.example.digitalWalletApp.model.Transaction;
 import com.example.digitalWalletApp.model.User;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,15 +16,31 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     //List<Transaction> findByUser(User user);
+    @EntityGraph(Transaction.WITH_USER) // TransactionMapper reads user.email
     Page<Transaction> findByUser(User user, Pageable pageable);
 
+    // History read paths select straight into TransactionDTO: five columns (email via the join), nothing enters
+    // the persistence context, so there is no User row, password hash, snapshot or dirty check per page.
+    String HISTORY_DTO = "SELECT new com.example.digitalWalletApp.dto.TransactionDTO(" +
+            "t.id, t.amount, t.type, t.timestamp, u.email) " +
+            "FROM Transaction t JOIN t.user u ";
+
+    @Query(value = HISTORY_DTO +
+            "WHERE u.id = :userId " +
+            "ORDER BY t.timestamp DESC, t.id DESC",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.user.id = :userId")
+    Page<TransactionDTO> findHistoryPage(@Param("userId") Long userId, Pageable pageable);
+
     // Fetch transactions for a user between two timestamps
     //List<Transaction> findByUserAndTimestampBetween(User user, LocalDateTime start, LocalDateTime end);
 
@@ -34,5 +54,58 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("end") LocalDateTime end
     );
 
-    Optional<Transaction> findByTransactionId(String transactionId);
+    boolean existsByTransactionId(Long transactionId);
+
+    // Duplicate check bounded by TransactionIdGenerator.earliestLedgerTime, so it prunes to the recent partitions
+    boolean existsByTransactionIdAndTimestampGreaterThanEqual(Long transactionId, LocalDateTime since);
+
+    // Keyset history (idx_transactions_user_ts_id), newest first. Pageable only carries the row limit:
+    // a List return type means no COUNT query, and the seek predicate replaces OFFSET.
+    @Query(HISTORY_DTO +
+            "WHERE u.id = :userId " +
+            "ORDER BY t.timestamp DESC, t.id DESC")
+    List<TransactionDTO> findHistoryFirstPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query(HISTORY_DTO +
+            "WHERE u.id = :userId " +
+            "AND t.timestamp <= :timestamp AND (t.timestamp < :timestamp OR t.id < :id) " + // plain range on timestamp: prunes partitions
+            "ORDER BY t.timestamp DESC, t.id DESC")
+    List<TransactionDTO> findHistoryPageAfter(
+            @Param("userId") Long userId,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
+    // Rows per JDBC round trip while streaming an export (MySQL needs useCursorFetch=true on the URL to honour it)
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // Export: one forward-only pass over the user's ledger, oldest first; no OFFSET, no COUNT.
+    // from/to are always bound (TransactionExporter fills open ends), so the plain range prunes partitions.
+    // Must be consumed inside a transaction, and rows should be detached once written (see TransactionExporter)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.user.id = :userId " +
+            "AND t.timestamp >= :from AND t.timestamp < :to " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "ORDER BY t.id")
+    Stream<Transaction> streamForExport(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("type") String type
+    );
+
+    // Archival (TransactionArchiver): the next chunk of rows before the cutoff, in segment order. Archived rows are
+    // deleted, so each call simply takes the oldest-user-first head of what is left.
+    @Query("SELECT t FROM Transaction t WHERE t.timestamp < :cutoff ORDER BY t.user.id, t.timestamp, t.id")
+    List<Transaction> findArchiveChunk(@Param("cutoff") LocalDateTime cutoff, Pageable limit);
+
+    // The cutoff bound keeps the delete inside the partitions being archived
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids AND t.timestamp < :cutoff")
+    int deleteArchived(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
 }
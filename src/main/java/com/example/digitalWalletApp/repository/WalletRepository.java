@@ -2,13 +2,112 @@ package com.example.digitalWalletApp.repository;
 
 import com.example.digitalWalletApp.model.Wallet;
 import com.example.digitalWalletApp.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     Optional<Wallet> findByUser(User user); // 👈 Add this line
+
+    // Optimistic path: all wallets of a load / transfer in one statement, wallet rows only (w.user stays a lazy proxy)
+    List<Wallet> findByUserIdIn(Collection<Long> userIds);
+
+    // Admin views that serialize the wallet with its owner
+    @EntityGraph(Wallet.WITH_USER)
+    Optional<Wallet> findWithUserByUserId(Long userId);
+
+    // SELECT ... FOR UPDATE of all given owners' wallets in ascending wallet id order (wallet.engine.mode=locked),
+    // so two transactions locking the same pair always take the row locks in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.user.id IN :userIds ORDER BY w.id")
+    List<Wallet> lockByUserIdsInIdOrder(@Param("userIds") Collection<Long> userIds);
+
+    // Writes a wallet state computed elsewhere (sharded engine) without a version check,
+    // but still bumps the version so any concurrent JPA-path writer sees a conflict.
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = :balance, w.dailySpent = :dailySpent, w.frozen = :frozen, " +
+            "w.lastTransactionDate = :lastTransactionDate, w.version = w.version + 1 " +
+            "WHERE w.id = :id")
+    int overwriteState(@Param("id") Long id,
+                       @Param("balance") long balance,
+                       @Param("dailySpent") long dailySpent,
+                       @Param("frozen") Boolean frozen,
+                       @Param("lastTransactionDate") LocalDate lastTransactionDate);
+
+    /*
+    Atomic fast path (wallet.engine.mode=atomic): the business checks live in the WHERE clause and the caller
+    reads the affected-row count (1 = applied, 0 = rejected), so there is no read-modify-write and no version conflict.
+
+    A wallet whose lastTransactionDate is not today is treated as having dailySpent = 0 and frozen = false,
+    which is exactly what Wallet.resetDailyIfNewDay() does on the JPA path.
+
+    Assignment order matters: MySQL applies single-table SET clauses left to right and later expressions see
+    the new values, so every column that others depend on (frozen, dailySpent, lastTransactionDate) is
+    assigned after the expressions that read it. With this order MySQL and standard SQL give the same result.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET " +
+            "w.frozen = CASE WHEN (CASE WHEN w.lastTransactionDate = :today THEN w.dailySpent ELSE 0 END) + :amount >= :dailyLimit " +
+            "THEN true ELSE false END, " +
+            "w.balance = w.balance - :amount, " +
+            "w.dailySpent = (CASE WHEN w.lastTransactionDate = :today THEN w.dailySpent ELSE 0 END) + :amount, " +
+            "w.lastTransactionDate = :today, " +
+            "w.version = w.version + 1 " +
+            "WHERE w.user.id = :userId " +
+            "AND w.balance >= :amount " +
+            "AND (w.lastTransactionDate IS NULL OR w.lastTransactionDate <> :today " +
+            "     OR (w.frozen = false AND w.dailySpent + :amount <= :dailyLimit)) " +
+            "AND :amount <= :dailyLimit")
+    int tryDebit(@Param("userId") Long userId,
+                 @Param("amount") long amount,
+                 @Param("dailyLimit") long dailyLimit,
+                 @Param("today") LocalDate today);
+
+    // Self-load: counts towards the daily limit like a debit but needs no balance and ignores frozen (same as performLoadMoney)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET " +
+            "w.frozen = CASE WHEN (CASE WHEN w.lastTransactionDate = :today THEN w.dailySpent ELSE 0 END) + :amount >= :dailyLimit " +
+            "THEN true WHEN w.lastTransactionDate = :today THEN w.frozen ELSE false END, " +
+            "w.balance = w.balance + :amount, " +
+            "w.dailySpent = (CASE WHEN w.lastTransactionDate = :today THEN w.dailySpent ELSE 0 END) + :amount, " +
+            "w.lastTransactionDate = :today, " +
+            "w.version = w.version + 1 " +
+            "WHERE w.user.id = :userId " +
+            "AND (CASE WHEN w.lastTransactionDate = :today THEN w.dailySpent ELSE 0 END) + :amount <= :dailyLimit")
+    int tryLoad(@Param("userId") Long userId,
+                @Param("amount") long amount,
+                @Param("dailyLimit") long dailyLimit,
+                @Param("today") LocalDate today);
+
+    // Credits have no business rule that can reject them: plain delta update
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.version = w.version + 1 WHERE w.user.id = :userId")
+    int credit(@Param("userId") Long userId, @Param("amount") long amount);
+
+    // Daily reset job (DailyLimitResetJob): walks the table by wallet id range up to the current max
+    @Query("SELECT COALESCE(MAX(w.id), 0) FROM Wallet w")
+    long maxId();
+
+    // Starts a new limit day for every wallet in (afterId, upToId] not already on it. Rows already on `today` are
+    // skipped, so a re-run (or a wallet that transacted after midnight) is untouched. No version bump: nothing a
+    // concurrent writer read is changed except the day's counters, which it resets itself when it sees the old date.
+    @Modifying
+    @Query("UPDATE Wallet w SET w.dailySpent = 0, w.frozen = false, w.lastTransactionDate = :today " +
+            "WHERE w.id > :afterId AND w.id <= :upToId " +
+            "AND (w.lastTransactionDate IS NULL OR w.lastTransactionDate <> :today)")
+    int resetDailyLimits(@Param("afterId") long afterId,
+                         @Param("upToId") long upToId,
+                         @Param("today") LocalDate today);
 }
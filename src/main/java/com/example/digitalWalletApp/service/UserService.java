@@ -1,20 +1,37 @@
 package com.example.digitalWalletApp.service;
 
 import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.config.TokenVersionCache;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.service.auth.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private TokenVersionCache tokenVersions;
+
     // Extract user from JWT token
     public User getUserFromToken(String authHeader) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
@@ -23,4 +40,40 @@ public class UserService {
         String email = jwtUtil.getEmailFromToken(token);
         return userRepository.findByEmail(email).orElse(null);
     }
-}
\ No newline at end of file
+
+    // New password; every token issued before it stops working. Returns a fresh token for the caller.
+    public String changePassword(User user, String currentPassword, String newPassword) {
+        if (newPassword == null || newPassword.isBlank()) {
+            throw new IllegalArgumentException("New password must not be empty");
+        }
+        if (currentPassword == null || !passwordHasher.matches(user.getEmail(), currentPassword, user.getPassword())) {
+            throw new IllegalArgumentException("Current password is incorrect");
+        }
+        user.setPassword(passwordHasher.encode(user.getEmail(), newPassword));
+        User saved = revokeTokens(user);
+        logger.info("🔑 [AUTH] Password changed for user {} | tokenVersion={}", saved.getId(), saved.getTokenVersion());
+        return jwtUtil.generateToken(saved);
+    }
+
+    // New role; tokens carrying the old role stop working
+    public User changeRole(Long userId, String role) {
+        if (!ROLES.contains(role)) {
+            throw new IllegalArgumentException("Role must be one of " + ROLES);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID " + userId));
+        if (role.equals(user.getRole())) return user;
+
+        user.setRole(role);
+        User saved = revokeTokens(user);
+        logger.info("🔑 [AUTH] Role of user {} changed to {} | tokenVersion={}", userId, role, saved.getTokenVersion());
+        return saved;
+    }
+
+    private User revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.saveAndFlush(user);
+        tokenVersions.bumped(saved.getId(), saved.getTokenVersion());
+        return saved;
+    }
+}
@@ -1,89 +1,109 @@
 package com.example.digitalWalletApp.service;
 
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.config.WalletEngineProperties.Batch.FailureMode;
 import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.dto.BatchTransferItemResult;
+import com.example.digitalWalletApp.dto.BatchTransferRequest;
+import com.example.digitalWalletApp.dto.BatchTransferResponse;
 import com.example.digitalWalletApp.dto.LoadMoneyResponse;
 import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.dto.TransactionSliceResponse;
+import com.example.digitalWalletApp.dto.TransferRequest;
 import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.OutcomeUnknownException;
+import com.example.digitalWalletApp.exception.ServiceBusyException;
 import com.example.digitalWalletApp.exception.UserNotFoundException;
-import com.example.digitalWalletApp.mapper.TransactionMapper;
 import com.example.digitalWalletApp.mapper.WalletMapper;
-import com.example.digitalWalletApp.model.Transaction;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.model.Wallet;
 import com.example.digitalWalletApp.repository.TransactionRepository;
 import com.example.digitalWalletApp.repository.UserRepository;
-import com.example.digitalWalletApp.repository.WalletRepository;
-import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import com.example.digitalWalletApp.service.archive.TransactionArchive;
+import com.example.digitalWalletApp.service.history.HistoryCursor;
+import com.example.digitalWalletApp.service.wallet.AtomicWalletUpdater;
+import com.example.digitalWalletApp.service.wallet.BatchTransferProcessor;
+import com.example.digitalWalletApp.service.wallet.OptimisticWalletUpdater;
+import com.example.digitalWalletApp.service.wallet.OrderedLockingWalletUpdater;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
 import com.example.digitalWalletApp.service.wallet.WalletTransactionService;
-import com.example.digitalWalletApp.service.wallet.WalletValidator;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionManager;
+import com.example.digitalWalletApp.service.wallet.engine.ShardedWalletEngine;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
 public class WalletService {
 
     private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
-    private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final WalletProperties walletProperties;
-    private final TransactionMapper transactionMapper;
+    private final WalletEngineProperties engineProperties;
     private final WalletMapper walletMapper;
-
-    private final WalletFactory walletFactory;
-    private final WalletValidator walletValidator;
     private final WalletTransactionService txnService;
-
-    public WalletService(WalletRepository walletRepository,
-                         TransactionRepository transactionRepository,
+    private final ContentionManager contentionManager;
+    private final BatchTransferProcessor batchProcessor;
+    private final TransactionIdGenerator idGenerator;
+    private final OptimisticWalletUpdater optimisticUpdater;
+    private final TransactionArchive archive;
+
+    // Present only when wallet.engine.mode=sharded / atomic / locked; otherwise the JPA path below is used
+    private final ShardedWalletEngine shardedEngine;
+    private final AtomicWalletUpdater atomicUpdater;
+    private final OrderedLockingWalletUpdater lockingUpdater;
+
+    public WalletService(TransactionRepository transactionRepository,
                          UserRepository userRepository,
                          WalletProperties walletProperties,
-                         TransactionMapper transactionMapper,
+                         WalletEngineProperties engineProperties,
                          WalletMapper walletMapper,
-                         WalletFactory walletFactory,
-                         WalletValidator walletValidator,
-                         WalletTransactionService txnService) {
-        this.walletRepository = walletRepository;
+                         WalletTransactionService txnService,
+                         ContentionManager contentionManager,
+                         BatchTransferProcessor batchProcessor,
+                         TransactionIdGenerator idGenerator,
+                         OptimisticWalletUpdater optimisticUpdater,
+                         TransactionArchive archive,
+                         @Nullable ShardedWalletEngine shardedEngine,
+                         @Nullable AtomicWalletUpdater atomicUpdater,
+                         @Nullable OrderedLockingWalletUpdater lockingUpdater) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
         this.walletProperties = walletProperties;
-        this.transactionMapper = transactionMapper;
+        this.engineProperties = engineProperties;
         this.walletMapper = walletMapper;
-        this.walletFactory = walletFactory;
-        this.walletValidator = walletValidator;
         this.txnService = txnService;
+        this.contentionManager = contentionManager;
+        this.batchProcessor = batchProcessor;
+        this.idGenerator = idGenerator;
+        this.optimisticUpdater = optimisticUpdater;
+        this.archive = archive;
+        this.shardedEngine = shardedEngine;
+        this.atomicUpdater = atomicUpdater;
+        this.lockingUpdater = lockingUpdater;
     }
 
     // --------------------------------------------------------------------
-    // Helper: sleep
-    // --------------------------------------------------------------------
-    private void sleep(long ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    // --------------------------------------------------------------------
-    // LOAD MONEY (with retries + optimistic locking) — orchestration
+    // LOAD MONEY (optimistic locking, conflicts handled by ContentionManager) — orchestration
     // --------------------------------------------------------------------
-    public LoadMoneyResponse loadMoney(User user, double amount, String transactionId) {
+    public LoadMoneyResponse loadMoney(User user, long amount, long transactionId) {
         String thread = Thread.currentThread().getName();
         logger.info("🚀 [LOAD][{}] Start loadMoney | user={} | txnId={} | amount={}",
                 thread, user.getEmail(), transactionId, amount);
@@ -94,82 +114,33 @@ public class WalletService {
             throw new IllegalArgumentException("Duplicate transaction — already processed.");
         }
 
-        int maxRetries = 3;
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                logger.info("🔁 [LOAD][{}] Attempt {}/{}", thread, attempt, maxRetries);
-                return performLoadMoney(user, amount, transactionId);
-            } catch (ObjectOptimisticLockingFailureException e) {
-                logger.warn("🔒 [LOAD][{}] Version conflict detected (OptimisticLock) — retrying...",
-                        thread);
-                if (attempt == maxRetries)
-                    throw new RuntimeException("Load failed after retries", e);
-                sleep(500);
-            }
+        if (shardedEngine != null) {
+            return shardedEngine.loadMoney(user, amount, transactionId);
         }
-        throw new RuntimeException("Unexpected loadMoney failure");
-    }
-
-    @Transactional(
-            propagation = Propagation.REQUIRES_NEW,
-            isolation = Isolation.REPEATABLE_READ,
-            rollbackFor = Exception.class
-    )
-    public LoadMoneyResponse performLoadMoney(User user, double amount, String transactionId) {
-        String thread = Thread.currentThread().getName();
-
-        // validations
-        walletValidator.validateAmount(amount, "Load");
-
-        // get/create wallet and reset daily if new day
-        Wallet wallet = walletFactory.getOrCreateWallet(user);
-        wallet.resetDailyIfNewDay();
 
-        // validate daily limit (after reset)
-        walletValidator.validateDailyLimit(wallet, amount);
-
-        double oldBalance = wallet.getBalance();
-        long oldVersion = wallet.getVersion();
-
-        logger.info("👀 [{}] Read wallet → balance={} | version={}", thread, oldBalance, oldVersion);
-
-        wallet.setBalance(wallet.getBalance() + amount);
-        wallet.setDailySpent(wallet.getDailySpent() + amount);
-
-        if (wallet.getDailySpent() >= walletProperties.getDailyLimit()) {
-            wallet.setFrozen(true);
+        // rows are locked before they are read, so there is no conflict to retry
+        if (lockingUpdater != null) {
+            return lockingUpdater.load(user, amount, transactionId);
         }
 
-        logger.info("⏳ [{}] Simulating delay (3s)...", thread);
-        sleep(3000);
+        return contentionManager.execute("LOAD", user.getId(),
+                () -> performLoadMoney(user, amount, transactionId));
+    }
 
-        try {
-            walletRepository.saveAndFlush(wallet);
-            logger.info("💾 [{}] Update success → newBalance={} | newVersion={} ✅",
-                    thread, wallet.getBalance(), wallet.getVersion());
-        } catch (ObjectOptimisticLockingFailureException e) {
-            logger.warn("💥 [{}] OptimisticLockException → version conflict (oldVersion={})", thread, oldVersion);
-            throw e;
+    // One attempt inside the ContentionManager loop. The JPA unit of work is OptimisticWalletUpdater: a separate bean,
+    // so its REQUIRES_NEW transaction applies to every attempt (a @Transactional method here would be self-invoked).
+    public LoadMoneyResponse performLoadMoney(User user, long amount, long transactionId) {
+        // conditional UPDATE fast path: cannot hit a version conflict, so the retry loop never spins
+        if (atomicUpdater != null) {
+            return atomicUpdater.load(user, amount, transactionId);
         }
-
-        // Record transaction only if wallet update succeeded
-        txnService.recordLoadTransaction(user, amount, transactionId);
-
-        LoadMoneyResponse response = walletMapper.toLoadMoneyResponse(wallet);
-        response.setRemainingDailyLimit(walletProperties.getDailyLimit() - wallet.getDailySpent());
-        response.setFrozen(wallet.getFrozen());
-        response.setMessage("Wallet loaded successfully ✅");
-
-        logger.info("✅ [{}] SUCCESS | txnId={} | finalBalance={} | version={}",
-                thread, transactionId, wallet.getBalance(), wallet.getVersion());
-
-        return response;
+        return optimisticUpdater.load(user, amount, transactionId);
     }
 
     // --------------------------------------------------------------------
-    // TRANSFER MONEY (with retries + optimistic locking) — orchestration
+    // TRANSFER MONEY (optimistic locking, conflicts handled by ContentionManager) — orchestration
     // --------------------------------------------------------------------
-    public TransferResponse transferAmount(User sender, Long recipientId, double amount, String transactionId) {
+    public TransferResponse transferAmount(User sender, Long recipientId, long amount, long transactionId) {
         String thread = Thread.currentThread().getName();
         logger.info("🚀 [TRANSFER][{}] Start | txnId={} | from={} → to={} | amount={}",
                 thread, transactionId, sender.getEmail(), recipientId, amount);
@@ -178,84 +149,102 @@ public class WalletService {
             throw new IllegalArgumentException("Duplicate transaction — already processed.");
         }
 
-        int maxRetries = 3;
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                logger.info("🔁 [TRANSFER][{}] Attempt {}/{}", thread, attempt, maxRetries);
-                return performTransfer(sender, recipientId, amount, transactionId);
-            } catch (ObjectOptimisticLockingFailureException e) {
-                logger.warn("🔒 [TRANSFER][{}] Version conflict detected (OptimisticLock) — retrying...",
-                        thread);
-                if (attempt == maxRetries)
-                    throw new RuntimeException("Transfer failed after retries", e);
-                sleep(500);
-            }
+        if (shardedEngine != null) {
+            return shardedEngine.transfer(sender, recipientId, amount, transactionId);
         }
-        throw new RuntimeException("Unexpected transfer failure");
-    }
-
-    @Transactional(
-            propagation = Propagation.REQUIRES_NEW,
-            isolation = Isolation.REPEATABLE_READ,
-            rollbackFor = Exception.class
-    )
-    public TransferResponse performTransfer(User sender, Long recipientId, double amount, String transactionId) {
-        String thread = Thread.currentThread().getName();
 
-        // validations
-        walletValidator.validateAmount(amount, "Transfer");
-
-        Wallet senderWallet = walletFactory.getOrCreateWallet(sender);
-        senderWallet.resetDailyIfNewDay();
-        walletValidator.validateFrozen(senderWallet);
-        walletValidator.validateBalance(senderWallet, amount);
-
-        User recipient = userRepository.findById(recipientId)
-                .orElseThrow(() -> new UserNotFoundException("Recipient not found"));
-        Wallet recipientWallet = walletFactory.getOrCreateWallet(recipient);
-        recipientWallet.resetDailyIfNewDay();
+        // striped in-process locks + FOR UPDATE, both in a fixed order: opposing transfers queue instead of failing
+        if (lockingUpdater != null) {
+            return lockingUpdater.transfer(sender, recipientId, amount, transactionId);
+        }
 
-        double senderOld = senderWallet.getBalance();
-        double receiverOld = recipientWallet.getBalance();
+        // conflicts count against both wallets, so a hot recipient is queued as well as a hot sender
+        return contentionManager.execute("TRANSFER", Arrays.asList(sender.getId(), recipientId),
+                () -> performTransfer(sender, recipientId, amount, transactionId));
+    }
 
-        logger.info("👀 [TRANSFER][{}] Read wallets | senderBal={} (v={}) | recvBal={} (v={})",
-                thread, senderOld, senderWallet.getVersion(), receiverOld, recipientWallet.getVersion());
+    public TransferResponse performTransfer(User sender, Long recipientId, long amount, long transactionId) {
+        // debit + credit as two conditional UPDATEs in one DB transaction
+        if (atomicUpdater != null) {
+            return atomicUpdater.transfer(sender, recipientId, amount, transactionId);
+        }
+        return optimisticUpdater.transfer(sender, recipientId, amount, transactionId);
+    }
 
-        // --- Update balances ---
-        senderWallet.setBalance(senderOld - amount);
-        senderWallet.setDailySpent(senderWallet.getDailySpent() + amount);
-        if (senderWallet.getDailySpent() >= walletProperties.getDailyLimit())
-            senderWallet.setFrozen(true);
+    // --------------------------------------------------------------------
+    // BATCH TRANSFER (one sender, many recipients) — orchestration
+    // --------------------------------------------------------------------
+    public BatchTransferResponse transferBatch(User sender, BatchTransferRequest request) {
+        String thread = Thread.currentThread().getName();
+        List<TransferRequest> items = request.getTransfers() == null ? List.of() : request.getTransfers();
+        int maxSize = engineProperties.getBatch().getMaxSize();
 
-        recipientWallet.setBalance(receiverOld + amount);
+        if (items.isEmpty())
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        if (items.size() > maxSize)
+            throw new IllegalArgumentException("Batch too large: at most " + maxSize + " transfers per request");
 
-        logger.info("⏳ [TRANSFER][{}] Simulating delay (3s) — holding before commit...", thread);
-        sleep(3000);
+        FailureMode mode = request.getFailureMode() == null
+                ? engineProperties.getBatch().getFailureMode()
+                : parseFailureMode(request.getFailureMode());
 
-        // Force Hibernate to immediately check optimistic lock version
-        walletRepository.saveAndFlush(senderWallet);
-        walletRepository.saveAndFlush(recipientWallet);
+        logger.info("🚀 [BATCH][{}] Start | sender={} | items={} | mode={}", thread, sender.getEmail(), items.size(), mode);
 
-        logger.info("💾 [TRANSFER][{}] Updated | sender={}→{} | receiver={}→{} | vS={}→{} | vR={}→{} ✅",
-                thread,
-                senderOld, senderWallet.getBalance(),
-                receiverOld, recipientWallet.getBalance(),
-                senderWallet.getVersion() - 1, senderWallet.getVersion(),
-                recipientWallet.getVersion() - 1, recipientWallet.getVersion());
+        // wallet state lives in the shards, so the items have to go through the engine one by one
+        if (shardedEngine != null) {
+            return transferBatchOneByOne(sender, items, mode);
+        }
+        return batchProcessor.process(sender, items, mode);
+    }
 
-        // --- Create transactions via txnService ---
-        txnService.recordTransferTransactions(sender, recipient, amount, transactionId);
+    private FailureMode parseFailureMode(String value) {
+        try {
+            return FailureMode.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown failureMode '" + value + "' (expected all_or_nothing or per_item)");
+        }
+    }
 
-        // --- Prepare response ---
-        TransferResponse response = walletMapper.toTransferResponse(senderWallet);
-        response.setAmountTransferred(amount);
-        response.setRemainingDailyLimit(walletProperties.getDailyLimit() - senderWallet.getDailySpent());
-        response.setFrozen(senderWallet.getFrozen());
-        response.setMessage("Transfer successful ✅");
+    private BatchTransferResponse transferBatchOneByOne(User sender, List<TransferRequest> items, FailureMode mode) {
+        if (mode == FailureMode.ALL_OR_NOTHING)
+            throw new IllegalArgumentException("all_or_nothing batches are not supported by the sharded engine, use per_item");
 
-        logger.info("✅ [TRANSFER][{}] SUCCESS | txnId={} | Final senderBal={} | receiverBal={}",
-                thread, transactionId, senderWallet.getBalance(), recipientWallet.getBalance());
+        List<BatchTransferItemResult> results = new ArrayList<>(items.size());
+        TransferResponse last = null;
+        for (int i = 0; i < items.size(); i++) {
+            TransferRequest item = items.get(i);
+            BatchTransferItemResult result = new BatchTransferItemResult(i, item.getReceiverId(), item.getAmount());
+            results.add(result);
+            try {
+                if (item.getReceiverId() == null || item.getAmount() == null)
+                    throw new IllegalArgumentException("Receiver id and amount are required");
+                long transactionId = idGenerator.nextId();
+                last = shardedEngine.transfer(sender, item.getReceiverId(), item.getAmount(), transactionId);
+                result.setTransactionId(transactionId);
+                result.setStatus(BatchTransferItemResult.Status.SUCCESS);
+                result.setMessage(last.getMessage());
+            } catch (IllegalArgumentException | UserNotFoundException | ServiceBusyException e) {
+                result.setStatus(BatchTransferItemResult.Status.FAILED);
+                result.setMessage(e.getMessage());
+            } catch (OutcomeUnknownException e) {
+                result.setTransactionId(e.getTransactionId());
+                result.setStatus(BatchTransferItemResult.Status.UNKNOWN);
+                result.setMessage(e.getMessage());
+            }
+        }
 
+        BatchTransferResponse response = new BatchTransferResponse();
+        response.setFailureMode(mode.name());
+        response.setApplied(true);
+        response.setResults(results);
+        response.setSucceeded((int) results.stream().filter(r -> r.getStatus() == BatchTransferItemResult.Status.SUCCESS).count());
+        response.setFailed(results.size() - response.getSucceeded());
+        if (last != null) {
+            response.setSenderBalance(last.getSenderBalance());
+            response.setRemainingDailyLimit(last.getRemainingDailyLimit());
+            response.setFrozen(last.getFrozen());
+        }
+        response.setMessage(response.getFailed() == 0 ? "Batch transfer successful ✅" : "Batch transfer partially applied ⚠️");
         return response;
     }
 
@@ -270,15 +259,59 @@ public class WalletService {
         return userRepository.findById(userId).orElse(null);
     }
 
+    // Newest first; rows come back as TransactionDTO projections (see TransactionRepository.HISTORY_DTO).
+    // Archived rows (TransactionArchive) are older than every row left in the table, so they continue the pages
+    // once the table's rows run out, and count towards the total. A full table page only needs the archive's
+    // in-memory row count.
     public Page<TransactionDTO> getTransactions(User user, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Transaction> transactionPage = transactionRepository.findByUser(user, pageable);
-        return transactionPage.map(transactionMapper::toDTO);
+        Page<TransactionDTO> hot = transactionRepository.findHistoryPage(user.getId(), pageable);
+        long archived = archive.archivedCount(user.getId());
+        if (archived == 0) return hot;
+
+        List<TransactionDTO> content = new ArrayList<>(hot.getContent());
+        if (content.size() < size) {
+            long skip = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+            content.addAll(archive.newestFirst(user.getId(), user.getEmail(), null, skip, size - content.size()));
+        }
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived);
+    }
+
+    // Keyset variant of getTransactions: newest first, seeks past the cursor instead of skipping rows and
+    // never counts, so page 10,000 costs what page 1 does. One extra row is read to know whether more follow.
+    // When the table has no more rows the slice continues into the archive, with the same cursor format.
+    public TransactionSliceResponse getTransactionSlice(Long userId, @Nullable String cursor, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE)
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        HistoryCursor after = cursor == null || cursor.isBlank() ? null : HistoryCursor.decode(cursor);
+        List<TransactionDTO> rows = after == null
+                ? transactionRepository.findHistoryFirstPage(userId, limit)
+                : transactionRepository.findHistoryPageAfter(userId, after.timestamp(), after.id(), limit);
+
+        if (rows.size() <= size && archive.hasArchived(userId)) {
+            // every archived row is older than the table rows just read; the cursor only matters once past them
+            String email = rows.isEmpty()
+                    ? userRepository.findById(userId).map(User::getEmail).orElse(null)
+                    : rows.get(0).getUserEmail();
+            rows = new ArrayList<>(rows);
+            rows.addAll(archive.newestFirst(userId, email, rows.isEmpty() ? after : null, 0, size + 1 - rows.size()));
+        }
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionDTO last = rows.get(rows.size() - 1);
+            nextCursor = new HistoryCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new TransactionSliceResponse(rows, nextCursor);
     }
 
     public LoadMoneyResponse toLoadMoneyResponse(Wallet wallet) {
         LoadMoneyResponse response = walletMapper.toLoadMoneyResponse(wallet);
-        response.setRemainingDailyLimit(walletProperties.getDailyLimit() - wallet.getDailySpent());
+        response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - wallet.getDailySpent());
         response.setFrozen(wallet.getFrozen());
         response.setMessage("Balance fetched successfully 🥳");
         return response;
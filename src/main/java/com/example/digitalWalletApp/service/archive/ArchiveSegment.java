@@ -0,0 +1,383 @@
+package com.example.digitalWalletApp.service.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+One immutable archive file: ledger rows of a user-id range, sorted by (user_id, timestamp, id).
+
+  header   magic "WTXA", version
+  blocks   [raw length][compressed length][deflated rows] — blockRows rows each, compressed independently
+  index    one entry per block: first row's (user_id, timestamp, id), file offset, row count;
+           then one entry per user: user_id, row count
+  trailer  index offset, magic
+
+The index is sparse (one key per block) and small enough to keep in memory for every segment:
+ - rowCount(userId) answers from the user entries without touching the file
+ - a user's rows are read lazily, block by block, newest or oldest first; blocks wholly on the wrong side of a
+   cursor are skipped by their first key, so a page decompresses only the blocks it returns rows from
+Files are written once under a temporary name and renamed into place; they are never modified afterwards.
+ */
+public final class ArchiveSegment {
+
+    static final int MAGIC = 0x57545841; // "WTXA"
+    static final short VERSION = 1;
+    private static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final long minUserId;
+    private final long maxUserId;
+    private final long rowCount;
+    private final long[] blockUserIds;      // first row's key per block
+    private final LocalDateTime[] blockTimestamps;
+    private final long[] blockIds;
+    private final long[] blockOffsets;
+    private final long[] userIds;           // sorted
+    private final long[] userRows;
+
+    private ArchiveSegment(Path path, long rowCount, long[] blockUserIds, LocalDateTime[] blockTimestamps,
+                           long[] blockIds, long[] blockOffsets, long[] userIds, long[] userRows) {
+        this.path = path;
+        this.minUserId = userIds[0];
+        this.maxUserId = userIds[userIds.length - 1];
+        this.rowCount = rowCount;
+        this.blockUserIds = blockUserIds;
+        this.blockTimestamps = blockTimestamps;
+        this.blockIds = blockIds;
+        this.blockOffsets = blockOffsets;
+        this.userIds = userIds;
+        this.userRows = userRows;
+    }
+
+    public Path path() { return path; }
+    public long minUserId() { return minUserId; }
+    public long maxUserId() { return maxUserId; }
+    public long rowCount() { return rowCount; }
+
+    public boolean covers(long userId) {
+        return userId >= minUserId && userId <= maxUserId;
+    }
+
+    // Rows of this user in the segment, from the in-memory user entries
+    public long rowCount(long userId) {
+        int i = Arrays.binarySearch(userIds, userId);
+        return i < 0 ? 0 : userRows[i];
+    }
+
+    // --------------------------------------------------------------------
+    // Writing
+    // --------------------------------------------------------------------
+
+    // Writes rows (already sorted by user_id, timestamp, id) to file and forces it to disk
+    public static void write(Path file, List<ArchivedTransaction> rows, int blockRows) throws IOException {
+        if (rows.isEmpty()) throw new IllegalArgumentException("Empty archive segment");
+        int perBlock = Math.max(1, blockRows);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+            DataOutputStream index = new DataOutputStream(indexBytes);
+            int blocks = (rows.size() + perBlock - 1) / perBlock;
+            index.writeInt(blocks);
+
+            writeFully(channel, ByteBuffer.allocate(Integer.BYTES + Short.BYTES).putInt(MAGIC).putShort(VERSION).flip());
+            Deflater deflater = new Deflater();
+            try {
+                for (int from = 0; from < rows.size(); from += perBlock) {
+                    List<ArchivedTransaction> block = rows.subList(from, Math.min(rows.size(), from + perBlock));
+                    index.writeLong(block.get(0).userId());
+                    writeTimestamp(index, block.get(0).timestamp());
+                    index.writeLong(block.get(0).id());
+                    index.writeLong(channel.position());
+                    index.writeInt(block.size());
+
+                    byte[] raw = encode(block);
+                    byte[] compressed = deflate(deflater, raw);
+                    writeFully(channel, ByteBuffer.allocate(2 * Integer.BYTES).putInt(raw.length).putInt(compressed.length).flip());
+                    writeFully(channel, ByteBuffer.wrap(compressed));
+                }
+            } finally {
+                deflater.end();
+            }
+            writeUserEntries(index, rows);
+
+            long indexOffset = channel.position();
+            writeFully(channel, ByteBuffer.wrap(indexBytes.toByteArray()));
+            writeFully(channel, ByteBuffer.allocate(TRAILER_BYTES).putLong(indexOffset).putInt(MAGIC).flip());
+            channel.force(true);
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Reading
+    // --------------------------------------------------------------------
+
+    // Loads the trailer and sparse index; throws IOException for a missing, truncated or foreign file
+    public static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + Short.BYTES + TRAILER_BYTES) throw new IOException("Truncated segment " + file);
+
+            ByteBuffer header = readFully(channel, 0, Integer.BYTES + Short.BYTES);
+            int magic = header.getInt();
+            short version = header.getShort();
+            ByteBuffer trailer = readFully(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            long indexOffset = trailer.getLong();
+            if (magic != MAGIC || trailer.getInt() != MAGIC || indexOffset < 0 || indexOffset > size - TRAILER_BYTES)
+                throw new IOException("Incomplete segment " + file);
+            if (version != VERSION) throw new IOException("Unsupported segment version " + version + " in " + file);
+
+            DataInputStream index = new DataInputStream(new ByteArrayInputStream(
+                    readFully(channel, indexOffset, (int) (size - TRAILER_BYTES - indexOffset)).array()));
+            int blocks = index.readInt();
+            if (blocks == 0) throw new IOException("Empty segment " + file);
+            long[] blockUserIds = new long[blocks];
+            LocalDateTime[] blockTimestamps = new LocalDateTime[blocks];
+            long[] blockIds = new long[blocks];
+            long[] offsets = new long[blocks];
+            long rows = 0;
+            for (int b = 0; b < blocks; b++) {
+                blockUserIds[b] = index.readLong();
+                blockTimestamps[b] = readTimestamp(index);
+                blockIds[b] = index.readLong();
+                offsets[b] = index.readLong();
+                rows += index.readInt();
+            }
+
+            int count = index.readInt();
+            long[][] users = new long[2][count];
+            for (int u = 0; u < count; u++) {
+                users[0][u] = index.readLong();
+                users[1][u] = index.readLong();
+            }
+            if (count == 0) throw new IOException("Empty segment " + file);
+            return new ArchiveSegment(file, rows, blockUserIds, blockTimestamps, blockIds, offsets, users[0], users[1]);
+        }
+    }
+
+    // The user's rows, newest first, strictly before (beforeTimestamp, beforeId) when a cursor is given.
+    // Blocks are read one at a time as the iterator advances.
+    public Iterator<ArchivedTransaction> newestFirst(long userId, LocalDateTime beforeTimestamp, long beforeId) {
+        return new UserRows(userId, false, beforeTimestamp, beforeId);
+    }
+
+    // The user's rows, oldest first, from `from` on when given. Blocks are read one at a time as the iterator advances.
+    public Iterator<ArchivedTransaction> oldestFirst(long userId, LocalDateTime from) {
+        return new UserRows(userId, true, from, Long.MIN_VALUE);
+    }
+
+    // First row of the file, used to tell whether an unpublished segment's rows were deleted
+    public ArchivedTransaction firstRow() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readBlock(channel, blockOffsets[0]).get(0);
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    // Lazily walks the blocks that can hold one user's rows, in either direction, skipping blocks that lie
+    // entirely on the wrong side of the bound (exclusive upper bound newest first, inclusive lower bound oldest first)
+    private final class UserRows implements Iterator<ArchivedTransaction> {
+
+        private final long userId;
+        private final boolean ascending;
+        private final LocalDateTime boundTimestamp;
+        private final long boundId;
+        private final int firstBlock;
+        private final int lastBlock;
+        private final Deque<ArchivedTransaction> buffer = new ArrayDeque<>();
+        private int nextBlock;
+
+        UserRows(long userId, boolean ascending, LocalDateTime boundTimestamp, long boundId) {
+            this.userId = userId;
+            this.ascending = ascending;
+            this.boundTimestamp = boundTimestamp;
+            this.boundId = boundId;
+            // last block starting before the user: it may hold the user's first rows
+            int first = 0;
+            while (first + 1 < blockUserIds.length && blockUserIds[first + 1] < userId) first++;
+            int last = first;
+            while (last + 1 < blockUserIds.length && blockUserIds[last + 1] <= userId) last++;
+            boolean any = rowCount(userId) > 0;
+            this.firstBlock = first;
+            this.lastBlock = any ? last : first - 1;
+            this.nextBlock = ascending ? firstBlock : lastBlock;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (buffer.isEmpty() && nextBlock >= firstBlock && nextBlock <= lastBlock) {
+                int b = nextBlock;
+                nextBlock += ascending ? 1 : -1;
+                if (!skip(b)) fill(b);
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public ArchivedTransaction next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return buffer.poll();
+        }
+
+        private boolean skip(int b) {
+            if (boundTimestamp == null) return false;
+            if (ascending) {
+                // every row of block b sorts before the next block's first row
+                return b + 1 <= lastBlock && blockUserIds[b + 1] == userId && blockTimestamps[b + 1].isBefore(boundTimestamp);
+            }
+            return compareBlockKey(b) >= 0; // first row already at or past the cursor
+        }
+
+        private int compareBlockKey(int b) {
+            int byUser = Long.compare(blockUserIds[b], userId);
+            if (byUser != 0) return byUser;
+            int byTime = blockTimestamps[b].compareTo(boundTimestamp);
+            return byTime != 0 ? byTime : Long.compare(blockIds[b], boundId);
+        }
+
+        private void fill(int b) {
+            List<ArchivedTransaction> rows;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                rows = readBlock(channel, blockOffsets[b]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archive segment " + path, e);
+            }
+            for (ArchivedTransaction row : rows) {
+                if (row.userId() != userId) continue;
+                if (boundTimestamp != null) {
+                    int cmp = row.compareKey(boundTimestamp, boundId);
+                    if (ascending ? cmp < 0 : cmp >= 0) continue;
+                }
+                if (ascending) buffer.addLast(row);
+                else buffer.addFirst(row);
+            }
+        }
+    }
+
+    private static void writeUserEntries(DataOutputStream index, List<ArchivedTransaction> rows) throws IOException {
+        long[][] users = userEntries(rows);
+        index.writeInt(users[0].length);
+        for (int u = 0; u < users[0].length; u++) {
+            index.writeLong(users[0][u]);
+            index.writeLong(users[1][u]);
+        }
+    }
+
+    // {user ids, row counts} of rows sorted by user_id
+    private static long[][] userEntries(List<ArchivedTransaction> rows) {
+        List<long[]> entries = new ArrayList<>();
+        for (ArchivedTransaction row : rows) {
+            long[] last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+            if (last != null && last[0] == row.userId()) last[1]++;
+            else entries.add(new long[]{row.userId(), 1});
+        }
+        long[][] users = new long[2][entries.size()];
+        for (int u = 0; u < entries.size(); u++) {
+            users[0][u] = entries.get(u)[0];
+            users[1][u] = entries.get(u)[1];
+        }
+        return users;
+    }
+
+    private static byte[] encode(List<ArchivedTransaction> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (ArchivedTransaction row : rows) {
+            out.writeLong(row.id());
+            out.writeLong(row.transactionId());
+            out.writeLong(row.userId());
+            out.writeLong(row.amount());
+            out.writeUTF(row.type() == null ? "" : row.type());
+            writeTimestamp(out, row.timestamp());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ArchivedTransaction> readBlock(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = readFully(channel, offset, 2 * Integer.BYTES);
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        byte[] raw = inflate(readFully(channel, offset + 2 * Integer.BYTES, compressedLength).array(), rawLength);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        while (in.available() > 0) {
+            rows.add(new ArchivedTransaction(in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readUTF(), readTimestamp(in)));
+        }
+        return rows;
+    }
+
+    // LocalDateTime as written by the entity: seconds and nanos of the wall-clock value, no zone conversion
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != rawLength) throw new IOException("Corrupt archive block");
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of segment");
+        }
+        return buffer.flip();
+    }
+}
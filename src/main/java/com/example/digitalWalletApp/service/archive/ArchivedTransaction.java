@@ -0,0 +1,26 @@
+package com.example.digitalWalletApp.service.archive;
+
+import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.model.Transaction;
+
+import java.time.LocalDateTime;
+
+// One ledger row as stored in an archive segment (amount in minor units)
+public record ArchivedTransaction(long id, long transactionId, long userId, long amount, String type,
+                                  LocalDateTime timestamp) {
+
+    public static ArchivedTransaction of(Transaction txn) {
+        return new ArchivedTransaction(txn.getId(), txn.getTransactionId(), txn.getUser().getId(), txn.getAmount(),
+                txn.getType(), txn.getTimestamp());
+    }
+
+    public TransactionDTO toDto(String userEmail) {
+        return new TransactionDTO(id, amount, type, timestamp, userEmail);
+    }
+
+    // History order within one user: (timestamp, id)
+    public int compareKey(LocalDateTime otherTimestamp, long otherId) {
+        int byTime = timestamp.compareTo(otherTimestamp);
+        return byTime != 0 ? byTime : Long.compare(id, otherId);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.digitalWalletApp.service.archive;
+
+import com.example.digitalWalletApp.config.TransactionArchiveProperties;
+import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.service.history.HistoryCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+Cold tier of the ledger: transactions older than wallet.archive.retention-days live in ArchiveSegment files under
+wallet.archive.directory instead of the transactions table (moved there by TransactionArchiver).
+
+ - segments are listed once at startup; only their sparse indexes and per-user row counts are held in memory
+ - archivedCount/hasArchived answer from those counts, so history reads for users with nothing archived never
+   touch the disk, and a full table page only needs the count for its total
+ - reads are lazy: pages decompress blocks newest first from the cursor and stop at the limit, exports stream
+   oldest first
+ - archived rows are always older than the user's rows still in the table (the archive takes everything before a
+   cutoff), so merged history is "table rows, then archive rows" newest first, or the reverse oldest first
+ - new segments are written as *.seg.tmp and only become visible through publish() (an atomic rename)
+ */
+@Component
+public class TransactionArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchive.class);
+
+    static final String SUFFIX = ".seg";
+    static final String PENDING_SUFFIX = ".seg.tmp";
+    private static final Comparator<ArchivedTransaction> HISTORY_ORDER =
+            Comparator.comparing(ArchivedTransaction::timestamp).thenComparingLong(ArchivedTransaction::id);
+    private static final Pattern NAME = Pattern.compile("segment-(\\d+)-u\\d+-u\\d+\\.seg(\\.tmp)?");
+
+    private final Path directory;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>(); // in sequence order
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    public TransactionArchive(TransactionArchiveProperties properties) {
+        this.directory = Paths.get(properties.getDirectory());
+        loadSegments();
+    }
+
+    // --------------------------------------------------------------------
+    // Reads
+    // --------------------------------------------------------------------
+
+    // Archived rows of a user, from the segments' in-memory user entries (no disk access)
+    public long archivedCount(long userId) {
+        long rows = 0;
+        for (ArchiveSegment segment : segments) rows += segment.rowCount(userId);
+        return rows;
+    }
+
+    public boolean hasArchived(long userId) {
+        return archivedCount(userId) > 0;
+    }
+
+    // A page of the user's archived rows newest first: strictly before `before` when given, after skipping `skip`
+    // rows. Blocks are decompressed newest first and only until the page is full.
+    public List<TransactionDTO> newestFirst(long userId, String userEmail, @Nullable HistoryCursor before,
+                                            long skip, int limit) {
+        List<TransactionDTO> page = new ArrayList<>();
+        if (limit <= 0) return page;
+        List<Iterator<ArchivedTransaction>> sources = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.rowCount(userId) == 0) continue;
+            sources.add(before == null
+                    ? segment.newestFirst(userId, null, 0)
+                    : segment.newestFirst(userId, before.timestamp(), before.id()));
+        }
+        Iterator<ArchivedTransaction> rows = merge(sources, HISTORY_ORDER.reversed());
+        long skipped = 0;
+        while (rows.hasNext() && page.size() < limit) {
+            ArchivedTransaction row = rows.next();
+            if (skipped++ < skip) continue;
+            page.add(row.toDto(userEmail));
+        }
+        return page;
+    }
+
+    // The user's archived rows oldest first, from `from` on when given, read lazily block by block
+    public Stream<ArchivedTransaction> oldestFirst(long userId, @Nullable LocalDateTime from) {
+        List<Iterator<ArchivedTransaction>> sources = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.rowCount(userId) > 0) sources.add(segment.oldestFirst(userId, from));
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                merge(sources, HISTORY_ORDER), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // --------------------------------------------------------------------
+    // Writing (TransactionArchiver)
+    // --------------------------------------------------------------------
+
+    // Writes rows to a new pending segment, not yet visible to reads
+    Path writePending(List<ArchivedTransaction> rows, int blockRows) throws IOException {
+        Files.createDirectories(directory);
+        long sequence = lastSequence.incrementAndGet();
+        String name = String.format("segment-%010d-u%d-u%d", sequence,
+                rows.get(0).userId(), rows.get(rows.size() - 1).userId());
+        Path pending = directory.resolve(name + PENDING_SUFFIX);
+        ArchiveSegment.write(pending, rows, blockRows);
+        return pending;
+    }
+
+    // Renames a pending segment into place and makes it readable
+    ArchiveSegment publish(Path pending) throws IOException {
+        String name = pending.getFileName().toString();
+        Path target = pending.resolveSibling(name.substring(0, name.length() - PENDING_SUFFIX.length()) + SUFFIX);
+        Files.move(pending, target, StandardCopyOption.ATOMIC_MOVE);
+        ArchiveSegment segment = ArchiveSegment.open(target);
+        segments.add(segment);
+        return segment;
+    }
+
+    List<Path> pendingSegments() throws IOException {
+        List<Path> pending = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return pending;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PENDING_SUFFIX)) {
+            files.forEach(pending::add);
+        }
+        pending.sort(Comparator.naturalOrder());
+        return pending;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    // Segments hold each user's rows in order; a user spread over several segments is merged by its head rows
+    private static Iterator<ArchivedTransaction> merge(List<Iterator<ArchivedTransaction>> sources,
+                                                       Comparator<ArchivedTransaction> order) {
+        if (sources.size() == 1) return sources.get(0);
+        record Head(ArchivedTransaction row, Iterator<ArchivedTransaction> rest) {}
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::row, order));
+        for (Iterator<ArchivedTransaction> source : sources) {
+            if (source.hasNext()) heads.add(new Head(source.next(), source));
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public ArchivedTransaction next() {
+                Head head = heads.remove();
+                if (head.rest().hasNext()) heads.add(new Head(head.rest().next(), head.rest()));
+                return head.row();
+            }
+        };
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) return;
+        List<ArchiveSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher m = NAME.matcher(file.getFileName().toString());
+                if (!m.matches()) continue;
+                lastSequence.accumulateAndGet(Long.parseLong(m.group(1)), Math::max);
+                if (m.group(2) == null) loaded.add(ArchiveSegment.open(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load transaction archive from " + directory, e);
+        }
+        loaded.sort(Comparator.comparing(s -> s.path().getFileName().toString()));
+        segments.addAll(loaded);
+        logger.info("🧊 [ARCHIVE] {} segment(s), {} row(s) in {}", loaded.size(),
+                loaded.stream().mapToLong(ArchiveSegment::rowCount).sum(), directory.toAbsolutePath());
+    }
+}
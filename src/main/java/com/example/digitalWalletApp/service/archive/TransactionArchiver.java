@@ -0,0 +1,158 @@
+package com.example.digitalWalletApp.service.archive;
+
+import com.example.digitalWalletApp.config.TransactionArchiveProperties;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+Moves transactions older than wallet.archive.retention-days out of the table into TransactionArchive segments.
+
+Chunk by chunk (wallet.archive.chunk-size rows, ordered by user_id, timestamp, id):
+  write the rows to a pending segment and force it to disk → delete them from the table in one DB transaction →
+  rename the segment into place.
+A crash can leave a pending segment behind; at the next start (and before every run) it is published if its rows
+are gone from the table, and discarded if they are still there, so a row is never lost and never in both places.
+
+Safe to re-run at any time: each run just archives whatever is older than its cutoff. Run it on one instance only.
+ */
+@Component
+public class TransactionArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    public record Run(LocalDateTime cutoff, int segments, long rows) {}
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive archive;
+    private final TransactionArchiveProperties properties;
+    private final TransactionTemplate txTemplate;
+
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               TransactionArchive archive,
+                               TransactionArchiveProperties properties,
+                               PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.archive = archive;
+        this.properties = properties;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        recoverPendingSegments();
+    }
+
+    @Scheduled(cron = "${wallet.archive.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) archive();
+    }
+
+    // Archives everything older than now - retention-days
+    public Run archive() {
+        return archive(LocalDateTime.now().minusDays(properties.getRetentionDays()));
+    }
+
+    public synchronized Run archive(LocalDateTime cutoff) {
+        recoverPendingSegments();
+        logger.info("🧊 [ARCHIVE] Run started | cutoff={}", cutoff);
+
+        int segments = 0;
+        long rows = 0;
+        while (true) {
+            List<Transaction> chunk = transactionRepository.findArchiveChunk(cutoff,
+                    PageRequest.of(0, Math.max(1, properties.getChunkSize())));
+            if (chunk.isEmpty()) break;
+
+            ArchiveSegment segment = archiveChunk(chunk.stream().map(ArchivedTransaction::of).toList(), cutoff);
+            segments++;
+            rows += segment.rowCount();
+            logger.info("📦 [ARCHIVE] Segment {} | rows={} | users {}..{} | archived so far={}",
+                    segment.path().getFileName(), segment.rowCount(), segment.minUserId(), segment.maxUserId(), rows);
+        }
+
+        logger.info("✅ [ARCHIVE] Run finished | cutoff={} | segments={} | rows={}", cutoff, segments, rows);
+        return new Run(cutoff, segments, rows);
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private ArchiveSegment archiveChunk(List<ArchivedTransaction> rows, LocalDateTime cutoff) {
+        List<Long> ids = rows.stream().map(ArchivedTransaction::id).toList();
+        Path pending;
+        try {
+            pending = archive.writePending(rows, properties.getBlockRows()); // a half-written file is dropped by recovery
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment", e);
+        }
+
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                int deleted = transactionRepository.deleteArchived(ids, cutoff);
+                if (deleted != ids.size()) {
+                    throw new IllegalStateException("Archived " + ids.size() + " rows but deleted " + deleted
+                            + ": is another archiver running?");
+                }
+            });
+        } catch (RuntimeException e) {
+            discard(pending); // rolled back: the rows are still in the table
+            throw e;
+        }
+
+        // rows are deleted: from here on the pending file is the only copy, and recovery publishes it
+        try {
+            return archive.publish(pending);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish archive segment " + pending, e);
+        }
+    }
+
+    private synchronized void recoverPendingSegments() {
+        try {
+            for (Path pending : archive.pendingSegments()) {
+                ArchiveSegment segment;
+                try {
+                    segment = ArchiveSegment.open(pending);
+                } catch (IOException e) {
+                    logger.warn("⚠️ [ARCHIVE] Dropping incomplete segment {}", pending.getFileName());
+                    discard(pending);
+                    continue;
+                }
+                if (transactionRepository.existsById(segment.firstRow().id())) {
+                    logger.warn("⚠️ [ARCHIVE] Dropping segment {}: its rows were never deleted", pending.getFileName());
+                    discard(pending);
+                } else {
+                    archive.publish(pending);
+                    logger.info("♻️ [ARCHIVE] Published segment {} left by an interrupted run", pending.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover pending archive segments", e);
+        }
+    }
+
+    private static void discard(Path pending) {
+        if (pending == null) return;
+        try {
+            Files.deleteIfExists(pending);
+        } catch (IOException e) {
+            logger.warn("⚠️ [ARCHIVE] Cannot delete {}: {}", pending, e.getMessage());
+        }
+    }
+}
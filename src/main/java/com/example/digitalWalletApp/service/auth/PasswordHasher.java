@@ -0,0 +1,162 @@
+package com.example.digitalWalletApp.service.auth;
+
+import com.example.digitalWalletApp.config.PasswordHashingProperties;
+import com.example.digitalWalletApp.exception.ServiceBusyException;
+import com.example.digitalWalletApp.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+BCrypt encode/matches for signup and login, off the request threads.
+
+A bcrypt call is ~100 ms of CPU. Run on Tomcat threads, a login storm takes every request thread and starves
+wallet traffic; here it takes at most wallet.auth.hashing.threads cores.
+
+ - fixed pool with a bounded queue (wallet.auth.hashing.queue-capacity): when it is full the call fails fast with
+   ServiceBusyException (503 + Retry-After) instead of piling up
+ - per-email limit (wallet.auth.hashing.per-email-concurrency): further checks for an email that already has that
+   many in flight get TooManyRequestsException (429 + Retry-After), so guessing one account's password cannot
+   monopolize the pool
+ - the request thread waits at most wallet.auth.hashing.timeout-ms for its hash
+ - hash time, queue wait and rejections are exposed at GET /api/wallet/admin/metrics/password-hashing
+ - stays a platform-thread pool with spring.threads.virtual.enabled=true: the work is CPU, and once the Tomcat thread
+   cap is gone this pool is what keeps a login storm off the cores serving wallet traffic
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor executor;
+    private final PasswordHashingProperties properties;
+    private final ConcurrentHashMap<String, AtomicInteger> inFlightByEmail = new ConcurrentHashMap<>();
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedPerEmail = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public PasswordHasher(PasswordHashingProperties properties) {
+        this.properties = properties;
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String email, String rawPassword) {
+        return run(email, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String email, String rawPassword, String encodedPassword) {
+        return run(email, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    public PasswordHashingMetrics metrics() {
+        long count = hashes.sum();
+        return new PasswordHashingMetrics(
+                count,
+                rejectedQueueFull.sum(),
+                rejectedPerEmail.sum(),
+                timeouts.sum(),
+                count == 0 ? 0 : hashNanos.sum() / 1e6 / count,
+                maxHashNanos.get() / 1e6,
+                count == 0 ? 0 : queueWaitNanos.sum() / 1e6 / count,
+                executor.getActiveCount(),
+                executor.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private <T> T run(String email, Supplier<T> hashing) {
+        String key = email == null ? "" : email.toLowerCase(Locale.ROOT);
+        AtomicInteger inFlight = inFlightByEmail.compute(key, (k, count) -> {
+            AtomicInteger c = count == null ? new AtomicInteger() : count;
+            c.incrementAndGet();
+            return c;
+        });
+        try {
+            if (inFlight.get() > properties.getPerEmailConcurrency()) {
+                rejectedPerEmail.increment();
+                logger.warn("🚦 Credential check rejected: {} already has {} in flight", key, inFlight.get() - 1);
+                throw new TooManyRequestsException("Too many attempts for this account, retry later",
+                        properties.getRetryAfterSeconds());
+            }
+            return await(submit(hashing));
+        } finally {
+            inFlightByEmail.computeIfPresent(key, (k, count) -> count.decrementAndGet() == 0 ? null : count);
+        }
+    }
+
+    private <T> Future<T> submit(Supplier<T> hashing) {
+        long queuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long start = System.nanoTime();
+                queueWaitNanos.add(start - queuedAt);
+                try {
+                    return hashing.get();
+                } finally {
+                    long took = System.nanoTime() - start;
+                    hashes.increment();
+                    hashNanos.add(took);
+                    maxHashNanos.accumulateAndGet(took, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            logger.warn("🚦 Password hashing queue full ({} waiting), shedding request", executor.getQueue().size());
+            throw new ServiceBusyException("Authentication is busy, retry later", properties.getRetryAfterSeconds());
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(properties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new ServiceBusyException("Authentication is busy, retry later", properties.getRetryAfterSeconds());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Authentication was interrupted, retry later", properties.getRetryAfterSeconds());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.digitalWalletApp.service.auth;
+
+public record PasswordHashingMetrics(
+        long hashes,
+        long rejectedQueueFull,
+        long rejectedPerEmail,
+        long timeouts,
+        double avgHashMs,
+        double maxHashMs,
+        double avgQueueWaitMs,
+        int active,
+        int queued
+) {}
@@ -0,0 +1,163 @@
+package com.example.digitalWalletApp.service.history;
+
+import com.example.digitalWalletApp.model.Money;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.service.archive.ArchivedTransaction;
+import com.example.digitalWalletApp.service.archive.TransactionArchive;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/*
+GET /api/wallet/transactions/export: the caller's whole ledger (optionally a time range / one type) in one response,
+for reconciliation clients that used to walk thousands of PageRequest pages (each one an OFFSET scan plus a COUNT).
+
+ - archived rows first (TransactionArchive.oldestFirst, all older than the table's, read block by block), then one
+   streaming query (TransactionRepository.streamForExport, JDBC fetch size EXPORT_FETCH_SIZE), oldest first
+ - each row is written straight to the response and detached, so memory stays constant whatever the row count
+ - ndjson: one JSON object per line; csv: header line + one row per transaction; amounts in major units
+ */
+@Service
+public class TransactionExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExporter.class);
+
+    // open ends of the export range; a bound range (rather than ":from IS NULL OR ...") lets MySQL prune partitions
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format '" + value + "' (ndjson or csv)");
+            }
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive archive;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public TransactionExporter(TransactionRepository transactionRepository, TransactionArchive archive,
+                               EntityManager entityManager, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.archive = archive;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // Call before the response is committed: once rows are written an error can no longer become a 400
+    public static void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to))
+            throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+
+    // Writes the matching rows to out and returns how many were written. out is flushed, not closed.
+    @Transactional(readOnly = true)
+    public long export(Long userId, LocalDateTime from, LocalDateTime to, String type, Format format,
+                       OutputStream out) throws IOException {
+        String typeFilter = type == null || type.isBlank() ? null : type.trim().toUpperCase(Locale.ROOT);
+
+        // archived rows are older than the table's: stop at the first one past `to`
+        Stream<ArchivedTransaction> archived = archive.oldestFirst(userId, from)
+                .takeWhile(row -> to == null || row.timestamp().isBefore(to))
+                .filter(row -> typeFilter == null || typeFilter.equals(row.type()));
+
+        long rows;
+        try (Stream<Transaction> stream = transactionRepository.streamForExport(userId,
+                from == null ? EARLIEST : from, to == null ? LATEST : to, typeFilter)) {
+            rows = format == Format.CSV ? writeCsv(archived, stream, out) : writeNdjson(archived, stream, out);
+        }
+        logger.info("📤 [EXPORT] user={} | format={} | from={} | to={} | type={} | rows={}",
+                userId, format, from, to, typeFilter, rows);
+        return rows;
+    }
+
+    // --------------------------------------------------------------------
+    // Writers
+    // --------------------------------------------------------------------
+    private long writeNdjson(Stream<ArchivedTransaction> archived, Stream<Transaction> stream, OutputStream out)
+            throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long rows = 0;
+        for (ArchivedTransaction row : (Iterable<ArchivedTransaction>) archived::iterator) {
+            writeJson(json, row.id(), row.transactionId(), row.type(), row.amount(), row.timestamp());
+            rows++;
+        }
+        for (Transaction txn : (Iterable<Transaction>) stream::iterator) {
+            writeJson(json, txn.getId(), txn.getTransactionId(), txn.getType(), txn.getAmount(), txn.getTimestamp());
+            entityManager.detach(txn);
+            rows++;
+        }
+        json.flush();
+        return rows;
+    }
+
+    private long writeCsv(Stream<ArchivedTransaction> archived, Stream<Transaction> stream, OutputStream out)
+            throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("id,transactionId,type,amount,timestamp\n");
+        long rows = 0;
+        for (ArchivedTransaction row : (Iterable<ArchivedTransaction>) archived::iterator) {
+            writeCsvRow(csv, row.id(), row.transactionId(), row.type(), row.amount(), row.timestamp());
+            rows++;
+        }
+        for (Transaction txn : (Iterable<Transaction>) stream::iterator) {
+            writeCsvRow(csv, txn.getId(), txn.getTransactionId(), txn.getType(), txn.getAmount(), txn.getTimestamp());
+            entityManager.detach(txn);
+            rows++;
+        }
+        csv.flush();
+        return rows;
+    }
+
+    private static void writeJson(JsonGenerator json, long id, long transactionId, String type, long amount,
+                                  LocalDateTime timestamp) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeNumberField("transactionId", transactionId);
+        json.writeStringField("type", type);
+        json.writeNumberField("amount", Money.toMajor(amount));
+        json.writeStringField("timestamp", String.valueOf(timestamp));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsvRow(Writer csv, long id, long transactionId, String type, long amount,
+                                    LocalDateTime timestamp) throws IOException {
+        csv.write(id + "," + transactionId + "," + type + "," + Money.format(amount) + "," + timestamp + "\n");
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.digitalWalletApp.service.idempotency;
+
+import com.example.digitalWalletApp.config.IdempotencyProperties;
+import com.example.digitalWalletApp.exception.IdempotencyConflictException;
+import com.example.digitalWalletApp.exception.OutcomeUnknownException;
+import com.example.digitalWalletApp.model.IdempotencyRecord;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.IdempotencyRecordRepository;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import com.example.digitalWalletApp.service.wallet.WalletTransactionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/*
+Client-driven idempotency for load and transfer (Idempotency-Key request header).
+
+A key is looked up in three tiers, cheapest first:
+  1. RecentResponses — bounded LRU of recent keys with their serialized responses (a quick retry never leaves memory),
+  2. BloomFilter     — "definitely new" for almost every fresh key, so those skip the DB,
+  3. idempotency_record — the source of truth, only queried when the filter says "maybe".
+A known key replays the stored response without touching any wallet; the same key with a different body is rejected.
+
+A new key is claimed first: its record is inserted with a fresh transaction id and no response yet, so of two copies
+racing past the lookup only one wins the insert and moves money; the other gets 409 while the claim is open and the
+stored response once it is completed. A failed operation removes its claim so the client can retry with the same key.
+Requests without the header keep the old behavior (a fresh transaction id, no replay).
+
+ - an operation whose outcome is unknown (OutcomeUnknownException: it may still be applied) keeps its claim
+ - a claim left unfinished for wallet.idempotency.claim-timeout-ms (a crash between claim and response, or an unknown
+   outcome) is settled by the next retry: it takes the claim over, then asks whether the claim's transaction id was
+   applied (the ledger by default). Applied: the claim is completed with an "already processed" response. Not
+   applied: the operation runs again under the same transaction id, so a late original is still refused as a duplicate
+ - records expire wallet.idempotency.ttl-hours after the claim (purge job); only those keys seed the Bloom filter
+ - the filter has two generations: new keys go into the current one, lookups ask both, and every ttl-hours the purge
+   job turns the current generation into the previous one and drops the old previous. A key stays covered for at
+   least the ttl of its record, and expired keys leave the filter, so its false-positive rate stays where it was sized
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    public record Outcome<T>(T response, boolean replayed) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionIdGenerator idGenerator;
+    private final WalletTransactionService transactionService;
+    private final int maxKeyLength;
+    private final int ttlHours;
+    private final long claimTimeoutMs;
+    private final int expectedKeys;
+    private final double falsePositiveRate;
+    private volatile KeyFilters seenKeys; // swapped for the next generation by the purge job
+    private final RecentResponses recent;
+
+    private record KeyFilters(BloomFilter current, BloomFilter previous, long startedAtMs) {
+
+        boolean mightContain(String key) {
+            return current.mightContain(key) || (previous != null && previous.mightContain(key));
+        }
+    }
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              TransactionIdGenerator idGenerator,
+                              WalletTransactionService transactionService,
+                              IdempotencyProperties properties) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.idGenerator = idGenerator;
+        this.transactionService = transactionService;
+        this.maxKeyLength = properties.getMaxKeyLength();
+        this.ttlHours = properties.getTtlHours();
+        this.claimTimeoutMs = properties.getClaimTimeoutMs();
+        this.expectedKeys = properties.getExpectedKeys();
+        this.falsePositiveRate = properties.getFalsePositiveRate();
+        this.seenKeys = new KeyFilters(newFilter(), null, System.currentTimeMillis());
+        this.recent = new RecentResponses(properties.getCacheSize(), Duration.ofHours(ttlHours));
+
+        List<String> keys = repository.findKeysCreatedSince(LocalDateTime.now().minusHours(ttlHours));
+        keys.forEach(seenKeys.current()::put);
+        logger.info("🔑 Idempotency store ready: {} key(s) from the last {}h, LRU of {}",
+                keys.size(), ttlHours, properties.getCacheSize());
+    }
+
+    /*
+    Runs action(transactionId) once per (user, clientKey); later calls with the same key get the first response back.
+    Failed operations are not recorded, so the client may retry them with the same key.
+    A stale claim counts as applied when the ledger holds its transaction id.
+     */
+    public <T> Outcome<T> execute(User user, String clientKey, String operation, Object request,
+                                  Class<T> responseType, LongFunction<T> action) {
+        return execute(user, clientKey, operation, request, responseType, action,
+                txnId -> transactionService.isDuplicate(txnId) ? alreadyProcessed(txnId, responseType) : null);
+    }
+
+    // applied(transactionId): the response to record for a stale claim whose operation took effect, null if it did not
+    public <T> Outcome<T> execute(User user, String clientKey, String operation, Object request,
+                                  Class<T> responseType, LongFunction<T> action, LongFunction<T> applied) {
+        if (clientKey == null || clientKey.isBlank()) {
+            return new Outcome<>(action.apply(idGenerator.nextId()), false);
+        }
+        if (clientKey.length() > maxKeyLength) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + maxKeyLength + " characters");
+        }
+
+        String key = user.getId() + ":" + clientKey.trim();
+        String requestHash = sha256(operation + ":" + toJson(request));
+
+        IdempotencyRecord known = lookup(key);
+        if (known != null) return replay(known, operation, requestHash, responseType, action, applied);
+
+        IdempotencyRecord claim = new IdempotencyRecord(key, operation, requestHash, idGenerator.nextId());
+        try {
+            repository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            // a copy of this request claimed the key first: answer like a retry would
+            IdempotencyRecord winner = repository.findById(key).orElse(null);
+            if (winner != null) return replay(winner, operation, requestHash, responseType, action, applied);
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        seenKeys.current().put(key);
+        return run(claim, action, null);
+    }
+
+    @Scheduled(cron = "${wallet.idempotency.purge-cron:0 */10 * * * *}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (purged > 0) logger.info("🔑 [IDEMPOTENCY] Purged {} record(s) older than {}h", purged, ttlHours);
+
+        long now = System.currentTimeMillis();
+        KeyFilters filters = seenKeys;
+        if (now - filters.startedAtMs() >= TimeUnit.HOURS.toMillis(ttlHours)) {
+            seenKeys = new KeyFilters(newFilter(), filters.current(), now);
+            logger.info("🔑 [IDEMPOTENCY] Rotated the key filter, keys older than {}h left it", ttlHours);
+        }
+    }
+
+    // Runs the claimed operation and completes the claim. `applied` is set when re-running a taken-over claim.
+    private <T> Outcome<T> run(IdempotencyRecord claim, LongFunction<T> action, LongFunction<T> applied) {
+        T response;
+        try {
+            response = action.apply(claim.getTransactionId());
+        } catch (OutcomeUnknownException e) {
+            throw e; // may still be applied: keep the claim, a retry after claim-timeout-ms settles it
+        } catch (RuntimeException e) {
+            T late = applied == null ? null : applied.apply(claim.getTransactionId());
+            if (late != null) return complete(claim, late, true); // the original finished after all
+            repository.deleteById(claim.getKey()); // nothing was applied: free the key for a retry
+            throw e;
+        }
+        return complete(claim, response, false);
+    }
+
+    private <T> Outcome<T> complete(IdempotencyRecord claim, T response, boolean replayed) {
+        String body = toJson(response);
+        repository.complete(claim.getKey(), body);
+        claim.setResponseBody(body);
+        recent.put(claim);
+        return new Outcome<>(response, replayed);
+    }
+
+    private <T> Outcome<T> replay(IdempotencyRecord known, String operation, String requestHash, Class<T> responseType,
+                                  LongFunction<T> action, LongFunction<T> applied) {
+        if (!known.getOperation().equals(operation) || !known.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        if (!known.isCompleted()) {
+            if (isStale(known)) return settle(known, action, applied);
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        recent.put(known);
+        logger.info("♻️ [IDEMPOTENCY] Replaying {} for key {} (txnId={})", operation, known.getKey(), known.getTransactionId());
+        return new Outcome<>(fromJson(known.getResponseBody(), responseType), true);
+    }
+
+    // Takes over a stale claim, then completes it from `applied` or runs the operation again under its transaction id
+    private <T> Outcome<T> settle(IdempotencyRecord claim, LongFunction<T> action, LongFunction<T> applied) {
+        if (repository.takeOver(claim.getKey(), claim.getCreatedAt(), LocalDateTime.now()) == 0) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        T response = applied.apply(claim.getTransactionId());
+        if (response != null) {
+            logger.warn("♻️ [IDEMPOTENCY] Stale claim {} was applied (txnId={}), completing it", claim.getKey(), claim.getTransactionId());
+            return complete(claim, response, true);
+        }
+        logger.warn("♻️ [IDEMPOTENCY] Stale claim {} was not applied (txnId={}), running it again", claim.getKey(), claim.getTransactionId());
+        return run(claim, action, applied);
+    }
+
+    private boolean isStale(IdempotencyRecord claim) {
+        return claim.getCreatedAt() != null
+                && claim.getCreatedAt().isBefore(LocalDateTime.now().minusNanos(claimTimeoutMs * 1_000_000));
+    }
+
+    // Stands in for a response that was never recorded; only the message is known
+    private <T> T alreadyProcessed(long transactionId, Class<T> responseType) {
+        return objectMapper.convertValue(Map.of("message",
+                "Already processed as transaction " + transactionId + " ✅ (original response not recorded)"), responseType);
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedKeys, falsePositiveRate);
+    }
+
+    private IdempotencyRecord lookup(String key) {
+        IdempotencyRecord cached = recent.get(key);
+        if (cached != null) return cached;
+        if (!seenKeys.mightContain(key)) return null; // definitely new: no DB round trip
+
+        return repository.findById(key).orElse(null);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is not a " + type.getSimpleName(), e);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.digitalWalletApp.service.idempotency;
+
+import com.example.digitalWalletApp.model.IdempotencyRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded LRU of the most recently used idempotency records, so a client's quick retry is answered from memory.
+// An entry expires with its record (ttl after the claim), so a key is never replayed from here after the purge job
+// would have deleted it from the table.
+// ReentrantLock instead of synchronized, so virtual request threads do not pin their carrier while waiting.
+class RecentResponses {
+
+    private record Entry(IdempotencyRecord record, LocalDateTime expiresAt) { }
+
+    private final Map<String, Entry> entries;
+    private final Duration ttl;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    RecentResponses(int capacity, Duration ttl) {
+        int max = Math.max(1, capacity);
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    IdempotencyRecord get(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (!LocalDateTime.now().isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.record();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(IdempotencyRecord record) {
+        LocalDateTime createdAt = record.getCreatedAt() != null ? record.getCreatedAt() : LocalDateTime.now();
+        lock.lock();
+        try {
+            entries.put(record.getKey(), new Entry(record, createdAt.plus(ttl)));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
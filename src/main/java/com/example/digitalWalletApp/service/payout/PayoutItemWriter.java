@@ -0,0 +1,66 @@
+package com.example.digitalWalletApp.service.payout;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Streams payout items into payout_item with JDBC batch inserts while the request / CSV is being read,
+so a large upload never has to be held in memory as a whole.
+ */
+@Component
+class PayoutItemWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payout_item (job_id, seq, recipient_id, amount, status) VALUES (?, ?, ?, ?, 'PENDING')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    PayoutItemWriter(JdbcTemplate jdbcTemplate,
+                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    Sink open(Long jobId, int maxItems) {
+        return new Sink(jobId, maxItems);
+    }
+
+    void deleteItems(Long jobId) {
+        jdbcTemplate.update("DELETE FROM payout_item WHERE job_id = ?", jobId);
+    }
+
+    final class Sink {
+        private final Long jobId;
+        private final int maxItems;
+        private final List<Object[]> buffer = new ArrayList<>();
+        private int count;
+        private long total; // minor units
+
+        private Sink(Long jobId, int maxItems) {
+            this.jobId = jobId;
+            this.maxItems = maxItems;
+        }
+
+        void add(Long recipientId, Long amount) {
+            if (count >= maxItems)
+                throw new IllegalArgumentException("Payout too large: at most " + maxItems + " items per job");
+            buffer.add(new Object[]{jobId, count++, recipientId, amount});
+            if (amount != null) total += amount;
+            if (buffer.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (buffer.isEmpty()) return;
+            jdbcTemplate.batchUpdate(INSERT_SQL, buffer);
+            buffer.clear();
+        }
+
+        int count() { return count; }
+        long total() { return total; }
+    }
+}
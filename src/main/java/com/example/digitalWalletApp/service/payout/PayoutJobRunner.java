@@ -0,0 +1,266 @@
+package com.example.digitalWalletApp.service.payout;
+
+import com.example.digitalWalletApp.config.PayoutProperties;
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.model.Money;
+import com.example.digitalWalletApp.model.PayoutItem;
+import com.example.digitalWalletApp.model.PayoutJob;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.PayoutItemRepository;
+import com.example.digitalWalletApp.repository.PayoutJobRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.service.wallet.LedgerBatchWriter;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+Background executor for payout jobs.
+
+A job is processed chunk by chunk (wallet.payout.chunk-size items), each chunk in its own DB transaction:
+  lock source + recipient wallets (one query, wallet id order) → debit the source once for the whole chunk →
+  credit recipients (batched UPDATEs) → ledger rows (JDBC batch) → mark the items PAID/FAILED → move the job's
+  checkpoint (nextSeq) forward.
+The job row is locked (FOR UPDATE) for the whole chunk, so runners on different nodes, or a resume overlapping a
+running job, process chunks one after the other; each reads the checkpoint the previous one committed and only
+selects PENDING items.
+Money movement and checkpoint commit together, so after a crash or restart the job continues at nextSeq and
+nobody is paid twice. Ledger transaction ids are derived from job id + seq, which the (transaction_id, type) unique
+key on transactions turns into a second guard against double payment.
+
+PENDING / RUNNING jobs are picked up again when the application starts; under the sharded engine, which keeps
+balances in memory and cannot take these row locks, they are failed with a message instead.
+ */
+@Component
+public class PayoutJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayoutJobRunner.class);
+
+    static final String SHARDED_UNSUPPORTED = "Payouts are not supported by the sharded wallet engine";
+
+    private final PayoutJobRepository jobRepository;
+    private final PayoutItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final WalletFactory walletFactory;
+    private final LedgerBatchWriter ledgerWriter;
+    private final WalletEngineProperties engineProperties;
+    private final TransactionTemplate txTemplate;
+    private final ExecutorService executor;
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public PayoutJobRunner(PayoutJobRepository jobRepository,
+                           PayoutItemRepository itemRepository,
+                           UserRepository userRepository,
+                           WalletFactory walletFactory,
+                           LedgerBatchWriter ledgerWriter,
+                           PayoutProperties payoutProperties,
+                           WalletEngineProperties engineProperties,
+                           PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.walletFactory = walletFactory;
+        this.ledgerWriter = ledgerWriter;
+        this.engineProperties = engineProperties;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, payoutProperties.getThreads()), r -> {
+            Thread t = new Thread(r, "payout-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Queues a job unless it is already being processed on this node
+    public void submit(Long jobId) {
+        if (activeJobs.add(jobId)) {
+            executor.submit(() -> run(jobId));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        List<PayoutJob> jobs = jobRepository.findByStatusIn(List.of(PayoutJob.Status.PENDING, PayoutJob.Status.RUNNING));
+        for (PayoutJob job : jobs) {
+            if (engineProperties.getMode() == WalletEngineProperties.Mode.SHARDED) {
+                logger.warn("🛑 [PAYOUT] Job {} not resumed: {}", job.getId(), SHARDED_UNSUPPORTED);
+                updateJob(job.getId(), j -> {
+                    j.setStatus(PayoutJob.Status.FAILED);
+                    j.setErrorMessage(SHARDED_UNSUPPORTED);
+                });
+                continue;
+            }
+            logger.info("♻️ [PAYOUT] Resuming job {} at item {}/{}", job.getId(), job.getNextSeq(), job.getTotalItems());
+            submit(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // an interrupted chunk rolls back; the job stays RUNNING and is resumed on the next start
+        executor.shutdownNow();
+    }
+
+    // --------------------------------------------------------------------
+    // Job loop
+    // --------------------------------------------------------------------
+    private void run(Long jobId) {
+        try {
+            updateJob(jobId, job -> {
+                job.setStatus(PayoutJob.Status.RUNNING);
+                job.setErrorMessage(null);
+            });
+            logger.info("🚚 [PAYOUT][{}] Job {} started", Thread.currentThread().getName(), jobId);
+
+            while (!executor.isShutdown() && runChunk(jobId)) {
+                // next chunk
+            }
+        } catch (RuntimeException e) {
+            if (executor.isShutdown()) return;
+            logger.warn("🛑 [PAYOUT] Job {} stopped: {}", jobId, e.getMessage());
+            updateJob(jobId, job -> {
+                job.setStatus(PayoutJob.Status.FAILED);
+                job.setErrorMessage(e.getMessage());
+            });
+        } finally {
+            activeJobs.remove(jobId);
+        }
+    }
+
+    // Processes the chunk after the checkpoint; returns false once the job is complete
+    private boolean runChunk(Long jobId) {
+        return Boolean.TRUE.equals(txTemplate.execute(status -> {
+            PayoutJob job = jobRepository.lockById(jobId).orElseThrow();
+            if (job.getStatus() == PayoutJob.Status.COMPLETED) {
+                return false; // another runner finished the job while this one waited for the lock
+            }
+            List<PayoutItem> items = itemRepository.findByJobIdAndStatusAndSeqGreaterThanEqualOrderBySeqAsc(
+                    jobId, PayoutItem.Status.PENDING, job.getNextSeq(), PageRequest.of(0, job.getChunkSize()));
+            if (items.isEmpty()) {
+                job.setStatus(PayoutJob.Status.COMPLETED);
+                return false;
+            }
+
+            User source = userRepository.findById(job.getSourceUserId())
+                    .orElseThrow(() -> new IllegalStateException("Source user " + job.getSourceUserId() + " not found"));
+
+            // --- recipients in one query; invalid lines fail individually ---
+            Set<Long> recipientIds = items.stream()
+                    .map(PayoutItem::getRecipientId)
+                    .filter(id -> id != null && !id.equals(source.getId()))
+                    .collect(Collectors.toSet());
+            Map<Long, User> recipients = userRepository.findAllById(recipientIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            List<PayoutItem> payable = new ArrayList<>();
+            for (PayoutItem item : items) {
+                String reason = rejectReason(item, source, recipients);
+                if (reason != null) {
+                    item.setStatus(PayoutItem.Status.FAILED);
+                    item.setMessage(reason);
+                } else {
+                    payable.add(item);
+                }
+            }
+
+            // --- source + recipient wallets in one query, row-locked in id order ---
+            List<User> owners = new ArrayList<>(recipients.values());
+            owners.add(source);
+            Map<Long, Wallet> wallets = walletFactory.lockWalletsInIdOrder(owners);
+            Wallet sourceWallet = wallets.get(source.getId());
+
+            long chunkTotal = payable.stream().mapToLong(PayoutItem::getAmount).sum();
+            if (sourceWallet.getBalance() < chunkTotal) {
+                throw new IllegalStateException(String.format(
+                        "Insufficient source balance for items %d-%d: need %s, have %s",
+                        items.get(0).getSeq(), items.get(items.size() - 1).getSeq(),
+                        Money.format(chunkTotal), Money.format(sourceWallet.getBalance())));
+            }
+
+            // --- one debit for the chunk, one credit per item ---
+            int chunkNo = job.getChunksCompleted();
+            List<Transaction> ledger = new ArrayList<>(payable.size() + 1);
+            if (!payable.isEmpty()) {
+                sourceWallet.setBalance(sourceWallet.getBalance() - chunkTotal);
+                ledger.add(ledgerRow(source, chunkTotal, "DEBIT", TransactionIdGenerator.payoutId(jobId, chunkNo)));
+            }
+            for (PayoutItem item : payable) {
+                Wallet wallet = wallets.get(item.getRecipientId());
+                wallet.setBalance(wallet.getBalance() + item.getAmount());
+
+                long transactionId = TransactionIdGenerator.payoutId(jobId, item.getSeq());
+                ledger.add(ledgerRow(recipients.get(item.getRecipientId()), item.getAmount(), "CREDIT", transactionId));
+                item.setStatus(PayoutItem.Status.PAID);
+                item.setTransactionId(transactionId);
+            }
+            ledgerWriter.insertAll(ledger);
+
+            // --- checkpoint, committed with the money movement ---
+            int paid = payable.size();
+            job.setNextSeq(items.get(items.size() - 1).getSeq() + 1);
+            job.setChunksCompleted(chunkNo + 1);
+            job.setPaidItems(job.getPaidItems() + paid);
+            job.setFailedItems(job.getFailedItems() + items.size() - paid);
+            job.setPaidAmount(job.getPaidAmount() + chunkTotal);
+
+            logger.info("📦 [PAYOUT][{}] Job {} chunk {} | items={} | paid={} | amount={} | progress={}/{}",
+                    Thread.currentThread().getName(), jobId, chunkNo, items.size(), paid, chunkTotal,
+                    job.getNextSeq(), job.getTotalItems());
+
+            if (job.getNextSeq() >= job.getTotalItems()) {
+                job.setStatus(PayoutJob.Status.COMPLETED);
+                logger.info("✅ [PAYOUT] Job {} completed | paid={} | failed={} | amount={}",
+                        jobId, job.getPaidItems(), job.getFailedItems(), job.getPaidAmount());
+                return false;
+            }
+            return true;
+        }));
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private static String rejectReason(PayoutItem item, User source, Map<Long, User> recipients) {
+        if (item.getAmount() == null || !(item.getAmount() > 0)) return "Amount must be greater than 0";
+        if (item.getRecipientId() == null) return "Recipient id is required";
+        if (item.getRecipientId().equals(source.getId())) return "Recipient is the source wallet";
+        if (!recipients.containsKey(item.getRecipientId())) return "Recipient not found";
+        return null;
+    }
+
+    private static Transaction ledgerRow(User user, long amount, String type, long transactionId) {
+        Transaction txn = new Transaction(user, amount, type);
+        txn.setTransactionId(transactionId);
+        return txn;
+    }
+
+    // Status changes outside a chunk; a job another runner has completed meanwhile stays COMPLETED
+    private void updateJob(Long jobId, Consumer<PayoutJob> change) {
+        txTemplate.executeWithoutResult(status -> jobRepository.lockById(jobId)
+                .filter(job -> job.getStatus() != PayoutJob.Status.COMPLETED)
+                .ifPresent(change));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.digitalWalletApp.service.payout;
+
+import com.example.digitalWalletApp.config.PayoutProperties;
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.dto.PayoutItemRequest;
+import com.example.digitalWalletApp.dto.PayoutJobResponse;
+import com.example.digitalWalletApp.dto.PayoutRequest;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.model.Money;
+import com.example.digitalWalletApp.model.PayoutJob;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.PayoutJobRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+Creates admin payout jobs (JSON list or CSV upload), hands them to PayoutJobRunner and reports progress.
+
+Items are streamed into payout_item as they are read; the job only becomes PENDING once the whole upload is
+stored, so the runner never starts on a partial list. A failed upload deletes its items again.
+ */
+@Service
+public class PayoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayoutService.class);
+
+    private final PayoutJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final PayoutItemWriter itemWriter;
+    private final PayoutJobRunner runner;
+    private final PayoutProperties payoutProperties;
+    private final WalletEngineProperties engineProperties;
+
+    public PayoutService(PayoutJobRepository jobRepository,
+                         UserRepository userRepository,
+                         PayoutItemWriter itemWriter,
+                         PayoutJobRunner runner,
+                         PayoutProperties payoutProperties,
+                         WalletEngineProperties engineProperties) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.itemWriter = itemWriter;
+        this.runner = runner;
+        this.payoutProperties = payoutProperties;
+        this.engineProperties = engineProperties;
+    }
+
+    public PayoutJobResponse createJob(User admin, PayoutRequest request) {
+        List<PayoutItemRequest> items = request.getItems() == null ? List.of() : request.getItems();
+        return create(admin, request.getSourceUserId(), sink -> items.forEach(i -> sink.add(i.getRecipientId(), i.getAmount())));
+    }
+
+    // CSV: one "recipientId,amount" per line; an optional header line, blank lines and # comments are skipped
+    public PayoutJobResponse createJobFromCsv(User admin, Long sourceUserId, InputStream csv) {
+        return create(admin, sourceUserId, sink -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+                String line;
+                int lineNo = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNo++;
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+
+                    String[] cols = line.split(",");
+                    if (cols.length != 2) throw new IllegalArgumentException("Invalid CSV line " + lineNo + ": " + line);
+                    try {
+                        sink.add(Long.parseLong(cols[0].trim()), Money.ofMajor(new BigDecimal(cols[1].trim())));
+                    } catch (NumberFormatException e) {
+                        if (lineNo == 1) continue; // header
+                        throw new IllegalArgumentException("Invalid CSV line " + lineNo + ": " + line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read payout CSV", e);
+            }
+        });
+    }
+
+    public PayoutJobResponse getJob(Long jobId) {
+        return PayoutJobResponse.from(findJob(jobId));
+    }
+
+    // Restarts a stopped job at its checkpoint (e.g. after the source wallet was topped up)
+    public PayoutJobResponse resume(Long jobId) {
+        if (engineProperties.getMode() == WalletEngineProperties.Mode.SHARDED)
+            throw new IllegalArgumentException(PayoutJobRunner.SHARDED_UNSUPPORTED);
+        PayoutJob job = findJob(jobId);
+        if (job.getStatus() != PayoutJob.Status.FAILED || job.getTotalItems() == 0)
+            throw new IllegalArgumentException("Only a failed payout job with uploaded items can be resumed (status " + job.getStatus() + ")");
+
+        job.setStatus(PayoutJob.Status.PENDING);
+        job.setErrorMessage(null);
+        jobRepository.save(job);
+        runner.submit(jobId);
+
+        logger.info("♻️ [PAYOUT] Job {} resumed at item {}/{}", jobId, job.getNextSeq(), job.getTotalItems());
+        return PayoutJobResponse.from(job);
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private PayoutJobResponse create(User admin, Long sourceUserId, Consumer<PayoutItemWriter.Sink> producer) {
+        if (engineProperties.getMode() == WalletEngineProperties.Mode.SHARDED)
+            throw new IllegalArgumentException(PayoutJobRunner.SHARDED_UNSUPPORTED);
+        if (sourceUserId == null)
+            throw new IllegalArgumentException("sourceUserId is required");
+        if (!userRepository.existsById(sourceUserId))
+            throw new UserNotFoundException("Source user not found with ID " + sourceUserId);
+
+        PayoutJob job = jobRepository.save(new PayoutJob(sourceUserId, admin.getId(), Math.max(1, payoutProperties.getChunkSize())));
+        PayoutItemWriter.Sink sink = itemWriter.open(job.getId(), payoutProperties.getMaxItems());
+        try {
+            producer.accept(sink);
+            sink.flush();
+            if (sink.count() == 0) throw new IllegalArgumentException("Payout must contain at least one item");
+        } catch (RuntimeException e) {
+            itemWriter.deleteItems(job.getId());
+            job.setStatus(PayoutJob.Status.FAILED);
+            job.setErrorMessage("Upload failed: " + e.getMessage());
+            jobRepository.save(job);
+            throw e;
+        }
+
+        job.setTotalItems(sink.count());
+        job.setTotalAmount(sink.total());
+        job.setStatus(PayoutJob.Status.PENDING);
+        jobRepository.save(job);
+        runner.submit(job.getId());
+
+        logger.info("🧾 [PAYOUT] Job {} created by {} | source={} | items={} | amount={}",
+                job.getId(), admin.getEmail(), sourceUserId, sink.count(), sink.total());
+        return PayoutJobResponse.from(job);
+    }
+
+    private PayoutJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Payout job not found with ID " + jobId));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.digitalWalletApp.service.schema;
+
+import com.example.digitalWalletApp.config.TransactionSchemaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Schema upkeep for `transactions` that ddl-auto cannot express: monthly RANGE partitions on timestamp.
+
+Queries with a plain timestamp range only open the partitions of the months asked for: cursor history pages
+(findHistoryPageAfter), duplicate checks (bounded by TransactionIdGenerator.earliestLedgerTime), exports and the
+archive chunk/delete. The first history page and offset pages have no lower bound: they read the head of the
+(user_id, timestamp, id) index in every partition, one short index dive per month kept.
+
+ - off by default (wallet.schema.transactions.partitioning-enabled). The first start with it on converts an
+   unpartitioned table once: foreign keys dropped (not allowed on partitioned tables), timestamp made NOT NULL,
+   timestamp added to the primary and unique keys (every unique key must contain the partitioning column), then
+   partitioned from the month of the oldest row to wallet.schema.transactions.months-ahead months past the current
+   one, plus pmax. The ALTER rebuilds the table: turn it on for one instance, started in a maintenance window
+ - (transaction_id, type) stays unique through transaction_dedupe: an unpartitioned two-column table filled by a
+   BEFORE INSERT trigger, so every ledger insert claims its key in the same statement and transaction as the row
+   itself, and a duplicate fails the insert as the old unique key did. Created and back-filled before the key change
+ - the scheduled job (wallet.schema.transactions.maintenance-cron) splits the next months off pmax ahead of time,
+   while pmax is still empty and the split is a metadata-only change
+ - MySQL only: on any other database (H2 in tests) it logs once and does nothing
+ */
+@Component
+public class TransactionPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionManager.class);
+
+    private static final String UNIQUE_KEY = "uk_transactions_txn_type";
+    private static final String HISTORY_INDEX = "idx_transactions_user_ts_id";
+    private static final String DEDUPE_TABLE = "transaction_dedupe";
+    private static final String DEDUPE_TRIGGER = "trg_transactions_dedupe";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionSchemaProperties properties;
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate, TransactionSchemaProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!properties.isPartitioningEnabled()) return;
+        if (!isMySql()) {
+            logger.info("🗂️ [SCHEMA] Transaction partitioning skipped: not a MySQL database");
+            return;
+        }
+        ensureDedupe(); // before the unique key loses its two-column guarantee
+        if (existingPartitions().isEmpty()) partitionTable();
+        maintain();
+    }
+
+    @Scheduled(cron = "${wallet.schema.transactions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!properties.isPartitioningEnabled() || !isMySql()) return;
+
+        List<String> existing = existingPartitions();
+        if (existing.isEmpty()) return; // conversion runs at startup only
+
+        List<YearMonth> missing = TransactionPartitionPlan.missingMonths(existing, targetMonth());
+        if (missing.isEmpty()) return;
+
+        jdbcTemplate.execute(TransactionPartitionPlan.addMonths(missing));
+        logger.info("🗂️ [SCHEMA] Added transaction partitions {} to {}",
+                TransactionPartitionPlan.partitionName(missing.get(0)),
+                TransactionPartitionPlan.partitionName(missing.get(missing.size() - 1)));
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private void partitionTable() {
+        logger.info("🗂️ [SCHEMA] Partitioning transactions by month, this rebuilds the table");
+
+        for (String fk : jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+                "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions'", String.class)) {
+            jdbcTemplate.execute("ALTER TABLE " + TransactionPartitionPlan.TABLE + " DROP FOREIGN KEY `" + fk + "`");
+        }
+
+        List<String> keyChanges = new ArrayList<>();
+        keyChanges.add("MODIFY `timestamp` DATETIME(6) NOT NULL");
+        if (!indexColumns("PRIMARY").contains("timestamp")) {
+            keyChanges.add("DROP PRIMARY KEY, ADD PRIMARY KEY (`id`, `timestamp`)");
+        }
+        List<String> uniqueColumns = indexColumns(UNIQUE_KEY);
+        if (!uniqueColumns.contains("timestamp")) {
+            if (!uniqueColumns.isEmpty()) keyChanges.add("DROP INDEX `" + UNIQUE_KEY + "`");
+            keyChanges.add("ADD UNIQUE KEY `" + UNIQUE_KEY + "` (`transaction_id`, `type`, `timestamp`)");
+        }
+        if (indexColumns(HISTORY_INDEX).isEmpty()) {
+            keyChanges.add("ADD INDEX `" + HISTORY_INDEX + "` (`user_id`, `timestamp`, `id`)");
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TransactionPartitionPlan.TABLE + " " + String.join(", ", keyChanges));
+
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(`timestamp`) FROM " + TransactionPartitionPlan.TABLE, Timestamp.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDateTime());
+        jdbcTemplate.execute(TransactionPartitionPlan.partitionTable(TransactionPartitionPlan.months(first, targetMonth())));
+        logger.info("🗂️ [SCHEMA] Transactions partitioned from {} to {}",
+                TransactionPartitionPlan.partitionName(first), TransactionPartitionPlan.partitionName(targetMonth()));
+    }
+
+    private void ensureDedupe() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS `" + DEDUPE_TABLE + "` (" +
+                "`transaction_id` BIGINT NOT NULL, `type` VARCHAR(255) NOT NULL, " +
+                "PRIMARY KEY (`transaction_id`, `type`))");
+        Integer triggers = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TRIGGERS " +
+                "WHERE TRIGGER_SCHEMA = DATABASE() AND TRIGGER_NAME = ?", Integer.class, DEDUPE_TRIGGER);
+        if (triggers != null && triggers > 0) return;
+
+        jdbcTemplate.execute("CREATE TRIGGER `" + DEDUPE_TRIGGER + "` BEFORE INSERT ON " + TransactionPartitionPlan.TABLE +
+                " FOR EACH ROW INSERT INTO `" + DEDUPE_TABLE + "` (`transaction_id`, `type`) VALUES (NEW.`transaction_id`, NEW.`type`)");
+        // rows written before the trigger existed; IGNORE skips the ones it has already claimed since
+        int copied = jdbcTemplate.update("INSERT IGNORE INTO `" + DEDUPE_TABLE + "` (`transaction_id`, `type`) " +
+                "SELECT `transaction_id`, `type` FROM " + TransactionPartitionPlan.TABLE);
+        logger.info("🗂️ [SCHEMA] Transaction dedupe table ready, {} existing key(s) copied", copied);
+    }
+
+    private YearMonth targetMonth() {
+        return YearMonth.now().plusMonths(Math.max(0, properties.getMonthsAhead()));
+    }
+
+    private List<String> existingPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+    }
+
+    private List<String> indexColumns(String index) {
+        return jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND INDEX_NAME = ? " +
+                "ORDER BY SEQ_IN_INDEX", String.class, index);
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+}
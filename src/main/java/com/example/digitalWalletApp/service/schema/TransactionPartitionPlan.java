@@ -0,0 +1,69 @@
+package com.example.digitalWalletApp.service.schema;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+MySQL DDL for the monthly partitions of `transactions`: one partition per month, named pYYYYMM and holding
+[first day of the month, first day of the next month), plus a pmax catch-all that new months are split off from.
+Pure string building, so it can be checked without a MySQL server.
+ */
+public final class TransactionPartitionPlan {
+
+    public static final String TABLE = "`transactions`";
+    public static final String CATCH_ALL = "pmax";
+
+    private static final Pattern MONTHLY = Pattern.compile("p(\\d{4})(\\d{2})");
+
+    private TransactionPartitionPlan() {}
+
+    public static String partitionName(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    public static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher m = MONTHLY.matcher(partitionName);
+        if (!m.matches()) return Optional.empty();
+        return Optional.of(YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+    }
+
+    // Months from `first` to `last`, both included
+    public static List<YearMonth> months(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) months.add(m);
+        return months;
+    }
+
+    // Months up to `target` that have no partition yet, after the newest existing monthly partition
+    public static List<YearMonth> missingMonths(Collection<String> existingPartitions, YearMonth target) {
+        Optional<YearMonth> newest = existingPartitions.stream()
+                .map(TransactionPartitionPlan::monthOf)
+                .flatMap(Optional::stream)
+                .max(YearMonth::compareTo);
+        return newest.map(n -> months(n.plusMonths(1), target)).orElse(List.of());
+    }
+
+    // Initial conversion of an unpartitioned table
+    public static String partitionTable(List<YearMonth> months) {
+        return "ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(`timestamp`) (" + definitions(months) + ")";
+    }
+
+    // Splits the new months off pmax; pmax must be empty of rows for those months (it is, unless the job fell behind)
+    public static String addMonths(List<YearMonth> months) {
+        return "ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + CATCH_ALL + " INTO (" + definitions(months) + ")";
+    }
+
+    private static String definitions(List<YearMonth> months) {
+        String monthly = months.stream()
+                .map(m -> "PARTITION " + partitionName(m) + " VALUES LESS THAN ('" + m.plusMonths(1).atDay(1) + " 00:00:00')")
+                .collect(Collectors.joining(", "));
+        String catchAll = "PARTITION " + CATCH_ALL + " VALUES LESS THAN (MAXVALUE)";
+        return monthly.isEmpty() ? catchAll : monthly + ", " + catchAll;
+    }
+}
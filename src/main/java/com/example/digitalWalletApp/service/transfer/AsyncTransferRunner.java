@@ -0,0 +1,221 @@
+package com.example.digitalWalletApp.service.transfer;
+
+import com.example.digitalWalletApp.config.AsyncTransferProperties;
+import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.OutcomeUnknownException;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.model.AsyncTransfer;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.AsyncTransferRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.WalletTransactionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Workers that apply accepted async transfers.
+
+wallet.transfer.async.workers transfers run in parallel, each through WalletService.transferAmount: the same
+engine, validation and contention handling (backoff, hot-wallet queue) as POST /transfer, only the waiting happens
+on a worker instead of an HTTP request. Up to wallet.transfer.async.queue-capacity accepted transfers wait for a
+worker; submit() returns false beyond that.
+
+The transfer's ledger transaction id is fixed at submission, so a transfer that was applied but whose status was
+not yet written (crash, shutdown) is recognised by its ledger row and only marked COMPLETED. The same ledger check
+decides every outcome the worker cannot be sure of:
+ - OutcomeUnknownException (the engine stopped waiting, the transfer may still be applied): stays PENDING and the
+   ledger is re-checked every wallet.transfer.async.outcome-recheck-ms; found → COMPLETED. After
+   outcome-recheck-attempts it is left PENDING for the next start, it is never reported FAILED on a guess
+ - any other failure: COMPLETED if the ledger row exists after all, FAILED otherwise
+PENDING transfers are picked up again when the application starts.
+ */
+@Component
+public class AsyncTransferRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferRunner.class);
+
+    private final AsyncTransferRepository transferRepository;
+    private final WalletTransactionService txnService;
+    private final UserRepository userRepository;
+    private final WalletService walletService;
+    private final AsyncTransferProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService rechecks;
+    private final Set<Long> activeTransfers = ConcurrentHashMap.newKeySet();
+
+    public AsyncTransferRunner(AsyncTransferRepository transferRepository,
+                               WalletTransactionService txnService,
+                               UserRepository userRepository,
+                               WalletService walletService,
+                               AsyncTransferProperties properties) {
+        this.transferRepository = transferRepository;
+        this.txnService = txnService;
+        this.userRepository = userRepository;
+        this.walletService = walletService;
+        this.properties = properties;
+
+        int workers = Math.max(1, properties.getWorkers());
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "async-transfer-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rechecks = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "async-transfer-recheck");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Queues a transfer unless it is already queued on this node; false when the queue is full
+    public boolean submit(Long transferId) {
+        if (!activeTransfers.add(transferId)) return true;
+        try {
+            executor.execute(() -> run(transferId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            activeTransfers.remove(transferId);
+            return false;
+        }
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingTransfers() {
+        List<AsyncTransfer> pending = transferRepository.findByStatusOrderByIdAsc(AsyncTransfer.Status.PENDING);
+        if (!pending.isEmpty()) logger.info("♻️ [ASYNC-TRANSFER] Resuming {} pending transfer(s)", pending.size());
+        for (AsyncTransfer transfer : pending) {
+            if (!submit(transfer.getId())) {
+                logger.warn("⚠️ [ASYNC-TRANSFER] Queue full, transfer {} stays PENDING until the next start", transfer.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // an interrupted transfer stays PENDING and is picked up on the next start
+        executor.shutdownNow();
+        rechecks.shutdownNow();
+    }
+
+    // --------------------------------------------------------------------
+    // Worker
+    // --------------------------------------------------------------------
+    private void run(Long transferId) {
+        boolean rechecking = false;
+        try {
+            AsyncTransfer transfer = transferRepository.findById(transferId).orElse(null);
+            if (transfer == null || transfer.getStatus() != AsyncTransfer.Status.PENDING) return;
+
+            try {
+                if (applied(transfer)) {
+                    complete(transfer, null, "Transfer already applied");
+                } else {
+                    User sender = userRepository.findById(transfer.getSenderId())
+                            .orElseThrow(() -> new UserNotFoundException("Sender not found"));
+                    TransferResponse result = walletService.transferAmount(
+                            sender, transfer.getRecipientId(), transfer.getAmount(), transfer.getTransactionId());
+                    complete(transfer, result, result.getMessage());
+                }
+            } catch (OutcomeUnknownException e) {
+                if (executor.isShutdown()) return;
+                logger.warn("⏳ [ASYNC-TRANSFER] Transfer {} outcome unknown ({}), re-checking the ledger", transferId, e.getMessage());
+                transfer.setMessage("Outcome unknown, checking the ledger");
+                rechecking = true;
+            } catch (RuntimeException e) {
+                if (executor.isShutdown()) return;
+                if (applied(transfer)) {
+                    complete(transfer, null, "Transfer applied");
+                } else {
+                    logger.warn("🛑 [ASYNC-TRANSFER] Transfer {} failed: {}", transferId, e.getMessage());
+                    transfer.setStatus(AsyncTransfer.Status.FAILED);
+                    transfer.setMessage(e.getMessage());
+                    transfer.setCompletedAt(LocalDateTime.now());
+                }
+            }
+            transferRepository.save(transfer);
+            if (rechecking) scheduleRecheck(transferId, 1);
+        } finally {
+            if (!rechecking) activeTransfers.remove(transferId);
+        }
+    }
+
+    private void scheduleRecheck(Long transferId, int attempt) {
+        try {
+            rechecks.schedule(() -> recheck(transferId, attempt), properties.getOutcomeRecheckMs(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            activeTransfers.remove(transferId); // shutting down: stays PENDING for the next start
+        }
+    }
+
+    // Outcome unknown: the transfer is COMPLETED once its ledger row shows up; it is not re-applied here because its
+    // transaction id may still be reserved by the engine call that timed out
+    private void recheck(Long transferId, int attempt) {
+        boolean again = false;
+        try {
+            AsyncTransfer transfer = transferRepository.findById(transferId).orElse(null);
+            if (transfer == null || transfer.getStatus() != AsyncTransfer.Status.PENDING) return;
+
+            if (applied(transfer)) {
+                complete(transfer, null, "Transfer applied");
+                transferRepository.save(transfer);
+            } else if (attempt < properties.getOutcomeRecheckAttempts()) {
+                again = true;
+                scheduleRecheck(transferId, attempt + 1);
+            } else {
+                logger.warn("⚠️ [ASYNC-TRANSFER] Transfer {} not in the ledger after {} re-checks, stays PENDING until the next start",
+                        transferId, attempt);
+                transfer.setMessage("Outcome unknown, checked again on the next start");
+                transferRepository.save(transfer);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ [ASYNC-TRANSFER] Re-check of transfer {} failed: {}", transferId, e.getMessage());
+            if (!again && attempt < properties.getOutcomeRecheckAttempts()) {
+                again = true;
+                scheduleRecheck(transferId, attempt + 1);
+            }
+        } finally {
+            if (!again) activeTransfers.remove(transferId);
+        }
+    }
+
+    private boolean applied(AsyncTransfer transfer) {
+        return txnService.isDuplicate(transfer.getTransactionId());
+    }
+
+    private void complete(AsyncTransfer transfer, TransferResponse result, String message) {
+        transfer.setStatus(AsyncTransfer.Status.COMPLETED);
+        if (result != null) {
+            transfer.setSenderBalance(result.getSenderBalance());
+            transfer.setRemainingDailyLimit(result.getRemainingDailyLimit());
+        }
+        transfer.setMessage(message);
+        transfer.setCompletedAt(LocalDateTime.now());
+        logger.info("✅ [ASYNC-TRANSFER][{}] Transfer {} completed | txnId={}",
+                Thread.currentThread().getName(), transfer.getId(), transfer.getTransactionId());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.digitalWalletApp.service.transfer;
+
+import com.example.digitalWalletApp.config.AsyncTransferProperties;
+import com.example.digitalWalletApp.dto.AsyncTransferResponse;
+import com.example.digitalWalletApp.dto.TransferRequest;
+import com.example.digitalWalletApp.exception.ServiceBusyException;
+import com.example.digitalWalletApp.exception.TransferNotFoundException;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.model.AsyncTransfer;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.AsyncTransferRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.service.wallet.WalletValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/*
+POST /api/wallet/transfers/async: checks what can be checked without touching the wallets (amount limits,
+recipient), stores the transfer as PENDING and hands it to AsyncTransferRunner. The client gets 202 with the
+transfer id right away and polls GET /api/wallet/transfers/{id}; retries under contention no longer hold an HTTP
+request open. Balance, daily limit and frozen checks happen when the transfer is applied, a failure there ends
+up as status FAILED with the reason.
+ */
+@Service
+public class AsyncTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferService.class);
+
+    private final AsyncTransferRepository transferRepository;
+    private final UserRepository userRepository;
+    private final WalletValidator walletValidator;
+    private final AsyncTransferRunner runner;
+    private final AsyncTransferProperties properties;
+
+    public AsyncTransferService(AsyncTransferRepository transferRepository,
+                                UserRepository userRepository,
+                                WalletValidator walletValidator,
+                                AsyncTransferRunner runner,
+                                AsyncTransferProperties properties) {
+        this.transferRepository = transferRepository;
+        this.userRepository = userRepository;
+        this.walletValidator = walletValidator;
+        this.runner = runner;
+        this.properties = properties;
+    }
+
+    public AsyncTransferResponse submit(User sender, TransferRequest request, long transactionId) {
+        if (request.getReceiverId() == null || request.getAmount() == null)
+            throw new IllegalArgumentException("Receiver id and amount are required");
+        walletValidator.validateAmount(request.getAmount(), "Transfer");
+        if (request.getReceiverId().equals(sender.getId()))
+            throw new IllegalArgumentException("Cannot transfer to your own wallet");
+        if (!userRepository.existsById(request.getReceiverId()))
+            throw new UserNotFoundException("Recipient not found");
+
+        AsyncTransfer transfer = transferRepository.save(
+                new AsyncTransfer(sender.getId(), request.getReceiverId(), request.getAmount(), transactionId));
+
+        if (!runner.submit(transfer.getId())) {
+            transfer.setStatus(AsyncTransfer.Status.FAILED);
+            transfer.setMessage("Transfer queue full");
+            transfer.setCompletedAt(LocalDateTime.now());
+            transferRepository.save(transfer);
+            throw new ServiceBusyException("Too many transfers waiting, retry later", properties.getRetryAfterSeconds());
+        }
+
+        logger.info("📥 [ASYNC-TRANSFER] Transfer {} accepted | txnId={} | from={} → to={} | amount={} | queued={}",
+                transfer.getId(), transactionId, sender.getId(), request.getReceiverId(), request.getAmount(), runner.queued());
+        return AsyncTransferResponse.from(transfer);
+    }
+
+    // The transfer stored under a ledger transaction id, if submit() got that far (settles a stale idempotency claim)
+    public AsyncTransferResponse findByTransactionId(long transactionId) {
+        return transferRepository.findByTransactionId(transactionId).map(AsyncTransferResponse::from).orElse(null);
+    }
+
+    // Only the sender can read a transfer; someone else's id looks like an unknown one (404)
+    public AsyncTransferResponse get(Long senderId, Long transferId) {
+        return transferRepository.findByIdAndSenderId(transferId, senderId)
+                .map(AsyncTransferResponse::from)
+                .orElseThrow(() -> new TransferNotFoundException("Transfer not found with ID " + transferId));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.mapper.WalletMapper;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/*
+Conditional-UPDATE fast path (wallet.engine.mode=atomic).
+
+Balance, frozen and daily-limit checks are evaluated by the database inside a single UPDATE and the
+affected-row count tells us whether the operation was applied. A transfer is one debit UPDATE plus one
+credit UPDATE in the same DB transaction — no SELECT-then-save, no version conflict, no retry loop.
+
+Only when an UPDATE matches no row do we read the wallet back, to report the same error the JPA path would.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.engine", name = "mode", havingValue = "atomic")
+public class AtomicWalletUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(AtomicWalletUpdater.class);
+
+    private final WalletRepository walletRepository;
+    private final UserRepository userRepository;
+    private final WalletProperties walletProperties;
+    private final WalletValidator walletValidator;
+    private final WalletFactory walletFactory;
+    private final WalletMapper walletMapper;
+    private final WalletTransactionService txnService;
+    private final WalletCache walletCache;
+    private final DailyLimitClock dailyLimitClock;
+
+    public AtomicWalletUpdater(WalletRepository walletRepository,
+                               UserRepository userRepository,
+                               WalletProperties walletProperties,
+                               WalletValidator walletValidator,
+                               WalletFactory walletFactory,
+                               WalletMapper walletMapper,
+                               WalletTransactionService txnService,
+                               WalletCache walletCache,
+                               DailyLimitClock dailyLimitClock) {
+        this.walletRepository = walletRepository;
+        this.userRepository = userRepository;
+        this.walletProperties = walletProperties;
+        this.walletValidator = walletValidator;
+        this.walletFactory = walletFactory;
+        this.walletMapper = walletMapper;
+        this.txnService = txnService;
+        this.walletCache = walletCache;
+        this.dailyLimitClock = dailyLimitClock;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public LoadMoneyResponse load(User user, long amount, long transactionId) {
+        walletValidator.validateAmount(amount, "Load");
+
+        LocalDate today = dailyLimitClock.today();
+        int updated = walletRepository.tryLoad(user.getId(), amount, walletProperties.getDailyLimitMinor(), today);
+        if (updated == 0) {
+            Wallet wallet = walletFactory.getOrCreateWallet(user);
+            wallet.resetDailyIfNewDay(today);
+            walletValidator.validateDailyLimit(wallet, amount);
+            // Wallet did not exist yet and has just been created — apply again
+            updated = walletRepository.tryLoad(user.getId(), amount, walletProperties.getDailyLimitMinor(), today);
+            if (updated == 0) throw new IllegalArgumentException("Daily limit exceeded");
+        }
+
+        txnService.recordLoadTransaction(user, amount, transactionId);
+
+        // the UPDATE bypassed the entity listener; the re-read row is what commits
+        Wallet wallet = walletRepository.findByUser(user).orElseThrow();
+        walletCache.writeThrough(wallet);
+        LoadMoneyResponse response = walletMapper.toLoadMoneyResponse(wallet);
+        response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - wallet.getDailySpent());
+        response.setFrozen(wallet.getFrozen());
+        response.setMessage("Wallet loaded successfully ✅");
+
+        logger.info("⚡ [ATOMIC][LOAD] txnId={} | user={} | balance={}", transactionId, user.getEmail(), wallet.getBalance());
+        return response;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public TransferResponse transfer(User sender, Long recipientId, long amount, long transactionId) {
+        walletValidator.validateAmount(amount, "Transfer");
+
+        int debited = walletRepository.tryDebit(sender.getId(), amount, walletProperties.getDailyLimitMinor(), dailyLimitClock.today());
+        if (debited == 0) {
+            throw explainRejectedDebit(sender, amount);
+        }
+
+        if (walletRepository.credit(recipientId, amount) == 0) {
+            // No wallet row for the recipient: either the user does not exist (roll back the debit) or has no wallet yet
+            User recipient = userRepository.findById(recipientId)
+                    .orElseThrow(() -> new UserNotFoundException("Recipient not found"));
+            walletFactory.getOrCreateWallet(recipient);
+            walletRepository.credit(recipientId, amount);
+        }
+
+        txnService.recordTransferTransactions(sender, userRepository.getReferenceById(recipientId), amount, transactionId);
+
+        Wallet senderWallet = walletRepository.findByUser(sender).orElseThrow();
+        walletCache.writeThrough(senderWallet);
+        walletCache.evictAfterCommit(recipientId);
+        TransferResponse response = walletMapper.toTransferResponse(senderWallet);
+        response.setAmountTransferred(amount);
+        response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - senderWallet.getDailySpent());
+        response.setFrozen(senderWallet.getFrozen());
+        response.setMessage("Transfer successful ✅");
+
+        logger.info("⚡ [ATOMIC][TRANSFER] txnId={} | from={} → to={} | amount={} | senderBal={}",
+                transactionId, sender.getEmail(), recipientId, amount, senderWallet.getBalance());
+        return response;
+    }
+
+    // Re-reads the wallet to report why the conditional debit matched no row
+    private IllegalArgumentException explainRejectedDebit(User sender, long amount) {
+        Wallet wallet = walletRepository.findByUser(sender).orElse(null);
+        if (wallet == null) return new IllegalArgumentException("Insufficient balance");
+
+        wallet.resetDailyIfNewDay(dailyLimitClock.today());
+        walletValidator.validateFrozen(wallet);
+        walletValidator.validateBalance(wallet, amount);
+        walletValidator.validateDailyLimit(wallet, amount);
+        // Every check passes on the re-read row, so a concurrent debit changed it between the two statements
+        return new IllegalArgumentException("Wallet changed concurrently. Please retry.");
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.config.WalletEngineProperties.Batch.FailureMode;
+import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.dto.BatchTransferItemResult;
+import com.example.digitalWalletApp.dto.BatchTransferItemResult.Status;
+import com.example.digitalWalletApp.dto.BatchTransferResponse;
+import com.example.digitalWalletApp.dto.TransferRequest;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+Applies many transfers of one sender in a single DB transaction (POST /api/wallet/transfers/batch).
+
+ - every item is validated up front (WalletValidator), recipients are fetched with one query
+ - all wallets involved are fetched and row-locked with one query, in wallet id order
+ - the items are replayed in memory against the sender's running balance / daily counters, with the same
+   WalletValidator checks as a single transfer; the entities are only changed once the outcome is known, and a
+   rejected all-or-nothing batch rolls the transaction back
+ - each wallet is then updated once (Hibernate flushes them as one JDBC batch, hibernate.jdbc.batch_size)
+   and the debit/credit rows go through LedgerBatchWriter
+ */
+@Component
+public class BatchTransferProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTransferProcessor.class);
+
+    private final UserRepository userRepository;
+    private final WalletProperties walletProperties;
+    private final WalletValidator walletValidator;
+    private final WalletFactory walletFactory;
+    private final LedgerBatchWriter ledgerWriter;
+    private final TransactionIdGenerator idGenerator;
+    private final TransactionTemplate txTemplate;
+    private final DailyLimitClock dailyLimitClock;
+
+    public BatchTransferProcessor(UserRepository userRepository,
+                                  WalletProperties walletProperties,
+                                  WalletValidator walletValidator,
+                                  WalletFactory walletFactory,
+                                  LedgerBatchWriter ledgerWriter,
+                                  TransactionIdGenerator idGenerator,
+                                  PlatformTransactionManager transactionManager,
+                                  DailyLimitClock dailyLimitClock) {
+        this.userRepository = userRepository;
+        this.walletProperties = walletProperties;
+        this.walletValidator = walletValidator;
+        this.walletFactory = walletFactory;
+        this.ledgerWriter = ledgerWriter;
+        this.idGenerator = idGenerator;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.dailyLimitClock = dailyLimitClock;
+    }
+
+    public BatchTransferResponse process(User sender, List<TransferRequest> items, FailureMode mode) {
+        return txTemplate.execute(status -> {
+            BatchTransferResponse response = apply(sender, items, mode);
+            if (!response.isApplied()) status.setRollbackOnly();
+            return response;
+        });
+    }
+
+    private BatchTransferResponse apply(User sender, List<TransferRequest> items, FailureMode mode) {
+        List<BatchTransferItemResult> results = new ArrayList<>(items.size());
+
+        // --- 1. stateless checks ---
+        for (int i = 0; i < items.size(); i++) {
+            TransferRequest item = items.get(i);
+            BatchTransferItemResult result = new BatchTransferItemResult(i, item.getReceiverId(), item.getAmount());
+            results.add(result);
+            try {
+                if (item.getReceiverId() == null) throw new IllegalArgumentException("Receiver id is required");
+                if (item.getAmount() == null) throw new IllegalArgumentException("Amount is required");
+                walletValidator.validateAmount(item.getAmount(), "Transfer");
+            } catch (IllegalArgumentException e) {
+                fail(result, e.getMessage());
+            }
+        }
+
+        // --- 2. recipients in one query ---
+        Set<Long> recipientIds = results.stream()
+                .filter(r -> r.getStatus() == null)
+                .map(BatchTransferItemResult::getReceiverId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, User> recipients = userRepository.findAllById(recipientIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        results.stream()
+                .filter(r -> r.getStatus() == null && !recipients.containsKey(r.getReceiverId()))
+                .forEach(r -> fail(r, "Recipient not found"));
+
+        if (mode == FailureMode.ALL_OR_NOTHING && anyFailed(results)) {
+            return rejected(results, mode, null);
+        }
+
+        // --- 3. all wallets in one query, row-locked in id order ---
+        List<User> owners = new ArrayList<>(recipients.values());
+        owners.add(sender);
+        Map<Long, Wallet> wallets = walletFactory.lockWalletsInIdOrder(owners);
+        LocalDate today = dailyLimitClock.today();
+        wallets.values().forEach(wallet -> wallet.resetDailyIfNewDay(today));
+        Wallet senderWallet = wallets.get(sender.getId());
+
+        // --- 4. replay against the sender's running state (a detached copy the validator can check) ---
+        Wallet running = new Wallet();
+        running.setBalance(senderWallet.getBalance());
+        running.setDailySpent(senderWallet.getDailySpent());
+        running.setFrozen(senderWallet.getFrozen());
+        Map<Long, Long> credits = new HashMap<>();
+        List<Transaction> ledger = new ArrayList<>();
+
+        for (BatchTransferItemResult result : results) {
+            if (result.getStatus() != null) continue;
+            long amount = result.getAmount();
+
+            try {
+                walletValidator.validateFrozen(running);
+                walletValidator.validateBalance(running, amount);
+            } catch (IllegalArgumentException e) {
+                fail(result, e.getMessage());
+                if (mode == FailureMode.ALL_OR_NOTHING) return rejected(results, mode, senderWallet);
+                continue;
+            }
+
+            running.setBalance(running.getBalance() - amount);
+            running.setDailySpent(running.getDailySpent() + amount);
+            if (running.getDailySpent() >= walletProperties.getDailyLimitMinor()) running.setFrozen(true);
+            if (result.getReceiverId().equals(sender.getId())) running.setBalance(running.getBalance() + amount);
+            credits.merge(result.getReceiverId(), amount, Long::sum);
+
+            long transactionId = idGenerator.nextId();
+            ledger.add(ledgerRow(sender, amount, "DEBIT", transactionId));
+            ledger.add(ledgerRow(recipients.get(result.getReceiverId()), amount, "CREDIT", transactionId));
+            result.setTransactionId(transactionId);
+            result.setStatus(Status.SUCCESS);
+            result.setMessage("Transfer successful ✅");
+        }
+
+        // --- 5. write: one UPDATE per wallet + the ledger rows, flushed together as JDBC batches ---
+        credits.forEach((recipientId, credit) -> {
+            if (!recipientId.equals(sender.getId())) {
+                Wallet wallet = wallets.get(recipientId);
+                wallet.setBalance(wallet.getBalance() + credit);
+            }
+        });
+        senderWallet.setBalance(running.getBalance());
+        senderWallet.setDailySpent(running.getDailySpent());
+        senderWallet.setFrozen(running.getFrozen());
+        ledgerWriter.insertAll(ledger);
+
+        BatchTransferResponse response = summary(results, mode, senderWallet);
+        response.setApplied(true);
+        response.setMessage(response.getFailed() == 0
+                ? "Batch transfer successful ✅"
+                : "Batch transfer partially applied ⚠️");
+
+        logger.info("📦 [BATCH] sender={} | items={} | succeeded={} | failed={} | wallets={} | senderBal={}",
+                sender.getEmail(), results.size(), response.getSucceeded(), response.getFailed(),
+                wallets.size(), senderWallet.getBalance());
+        return response;
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private static Transaction ledgerRow(User user, long amount, String type, long transactionId) {
+        Transaction txn = new Transaction(user, amount, type);
+        txn.setTransactionId(transactionId);
+        return txn;
+    }
+
+    private static void fail(BatchTransferItemResult result, String reason) {
+        result.setStatus(Status.FAILED);
+        result.setMessage(reason);
+    }
+
+    private static boolean anyFailed(List<BatchTransferItemResult> results) {
+        return results.stream().anyMatch(r -> r.getStatus() == Status.FAILED);
+    }
+
+    // All-or-nothing: nothing was written; every item that did not fail itself is reported as not applied
+    private BatchTransferResponse rejected(List<BatchTransferItemResult> results, FailureMode mode, Wallet senderWallet) {
+        for (BatchTransferItemResult result : results) {
+            if (result.getStatus() != Status.FAILED) {
+                result.setStatus(Status.NOT_APPLIED);
+                result.setTransactionId(null);
+                result.setMessage("Not applied — another item in the batch failed");
+            }
+        }
+        BatchTransferResponse response = summary(results, mode, senderWallet);
+        response.setApplied(false);
+        response.setMessage("Batch rejected, no transfer applied ❌");
+        logger.warn("📦 [BATCH] rejected | items={} | failed={}", results.size(), response.getFailed());
+        return response;
+    }
+
+    private BatchTransferResponse summary(List<BatchTransferItemResult> results, FailureMode mode, Wallet senderWallet) {
+        BatchTransferResponse response = new BatchTransferResponse();
+        response.setFailureMode(mode.name());
+        response.setResults(results);
+        response.setSucceeded((int) results.stream().filter(r -> r.getStatus() == Status.SUCCESS).count());
+        response.setFailed((int) results.stream().filter(r -> r.getStatus() == Status.FAILED).count());
+        if (senderWallet != null) {
+            response.setSenderBalance(senderWallet.getBalance());
+            response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - senderWallet.getDailySpent());
+            response.setFrozen(senderWallet.getFrozen());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.config.DailyLimitResetProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/*
+The current daily-limit day in wallet.daily-reset.time-zone.
+
+today() is on every load and transfer, so the day and its [start, end) epoch-millisecond bounds are cached: a call is
+one clock read and two comparisons, and the zone rules are only consulted when the day rolls over.
+ */
+@Component
+public class DailyLimitClock {
+
+    private record Day(LocalDate date, long startMillis, long endMillis) {}
+
+    private final ZoneId zone;
+    private volatile Day current;
+
+    public DailyLimitClock(DailyLimitResetProperties properties) {
+        this.zone = properties.zoneId();
+        this.current = dayAt(System.currentTimeMillis());
+    }
+
+    public LocalDate today() {
+        long now = System.currentTimeMillis();
+        Day day = current;
+        if (now < day.startMillis() || now >= day.endMillis()) {
+            day = dayAt(now);
+            current = day;
+        }
+        return day.date();
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    private Day dayAt(long millis) {
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+        return new Day(date,
+                date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.config.DailyLimitResetProperties;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/*
+Starts the new daily-limit day for every wallet at midnight in wallet.daily-reset.time-zone: dailySpent = 0,
+frozen = false, lastTransactionDate = today.
+
+ - set-based: one UPDATE per wallet.daily-reset.chunk-size wallet ids, each in its own short DB transaction, so
+   the row locks are held briefly and never for the whole table
+ - safe to re-run: wallets already on today are skipped by the UPDATE itself, so a second run (or a run that
+   overlaps the first requests of the day) resets nothing twice
+ - the per-wallet resetDailyIfNewDay(today) on the hot paths stays as the fallback for a missed or late run; after
+   a run it finds every wallet already on today and does nothing
+ - progress() reports the current or last run (GET /api/wallet/admin/metrics/daily-reset)
+ */
+@Component
+public class DailyLimitResetJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyLimitResetJob.class);
+
+    public record Progress(LocalDate day, boolean running, long lastWalletId, long maxWalletId,
+                           int chunks, long walletsReset, Instant startedAt, Instant finishedAt) {}
+
+    private final WalletRepository walletRepository;
+    private final WalletCache walletCache;
+    private final DailyLimitClock clock;
+    private final DailyLimitResetProperties properties;
+    private final TransactionTemplate txTemplate;
+
+    private volatile Progress progress = new Progress(null, false, 0, 0, 0, 0, null, null);
+
+    public DailyLimitResetJob(WalletRepository walletRepository,
+                              WalletCache walletCache,
+                              DailyLimitClock clock,
+                              DailyLimitResetProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.walletRepository = walletRepository;
+        this.walletCache = walletCache;
+        this.clock = clock;
+        this.properties = properties;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${wallet.daily-reset.cron:0 0 0 * * *}", zone = "${wallet.daily-reset.time-zone:}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) run();
+    }
+
+    public synchronized Progress run() {
+        LocalDate today = clock.today();
+        long maxId = walletRepository.maxId(); // wallets created later start on today already
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        Instant startedAt = Instant.now();
+        logger.info("🌅 [DAILY-RESET] Run started | day={} | zone={} | wallets up to id {}", today, clock.zone(), maxId);
+
+        int chunks = 0;
+        long reset = 0;
+        long afterId = 0;
+        progress = new Progress(today, true, afterId, maxId, chunks, reset, startedAt, null);
+        try {
+            while (afterId < maxId) {
+                long from = afterId;
+                long upTo = Math.min(maxId, afterId + chunkSize);
+                Integer updated = txTemplate.execute(status -> walletRepository.resetDailyLimits(from, upTo, today));
+                chunks++;
+                reset += updated == null ? 0 : updated;
+                afterId = upTo;
+                progress = new Progress(today, true, afterId, maxId, chunks, reset, startedAt, null);
+                logger.debug("🌅 [DAILY-RESET] Chunk {} | ids ({}, {}] | reset={} | total={}", chunks, from, upTo, updated, reset);
+            }
+        } finally {
+            walletCache.invalidateAll(); // rows changed under the cache, whether or not every chunk made it
+            progress = new Progress(today, false, afterId, maxId, chunks, reset, startedAt, Instant.now());
+        }
+
+        logger.info("✅ [DAILY-RESET] Run finished | day={} | chunks={} | walletsReset={}", today, chunks, reset);
+        return progress;
+    }
+
+    public Progress progress() {
+        return progress;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.model.Transaction;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+Writes Transaction rows with JDBC batching (one round trip per batch-size rows).
+
+Transaction ids come from a pooled sequence (one sequence call per allocationSize rows), so Hibernate can batch
+the INSERTs itself (hibernate.jdbc.batch_size, hibernate.order_inserts). Rows are flushed and detached every
+batch-size rows, which keeps the persistence context small on bulk writes without touching the caller's other
+managed entities. Must run inside the caller's JPA transaction.
+ */
+@Component
+public class LedgerBatchWriter {
+
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public LedgerBatchWriter(EntityManager entityManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) return;
+
+        int flushed = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            entityManager.persist(transactions.get(i));
+            if (i + 1 - flushed == batchSize) {
+                flushAndDetach(transactions.subList(flushed, i + 1));
+                flushed = i + 1;
+            }
+        }
+        flushAndDetach(transactions.subList(flushed, transactions.size()));
+    }
+
+    private void flushAndDetach(List<Transaction> written) {
+        if (written.isEmpty()) return;
+        entityManager.flush();
+        written.forEach(entityManager::detach);
+    }
+}
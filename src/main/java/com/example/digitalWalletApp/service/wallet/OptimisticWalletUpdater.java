@@ -0,0 +1,193 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.mapper.WalletMapper;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/*
+Optimistic path (default wallet.engine.mode=jpa): one load or transfer = one DB transaction.
+
+Lives in its own bean so that WalletService (and the ContentionManager retry loop around it) calls it through the
+Spring proxy: REQUIRES_NEW + REPEATABLE_READ actually apply, and each retry starts a fresh transaction.
+
+ - the wallets are read with one query (WalletFactory.findWalletsByOwnerIds) and only the wallet rows: the owners
+   stay lazy proxies, their ids are all the ledger rows need. The recipient's User row is only looked up when it
+   has no wallet yet
+ - balances are changed on the managed entities and written by a single flush together with the ledger rows:
+   versioned UPDATEs + the INSERT batch, then one commit
+ - a version conflict surfaces at that flush as ObjectOptimisticLockingFailureException, after dropping the
+   cached wallets, and the whole transaction rolls back
+ */
+@Component
+public class OptimisticWalletUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticWalletUpdater.class);
+
+    private final WalletRepository walletRepository;
+    private final UserRepository userRepository;
+    private final WalletProperties walletProperties;
+    private final WalletEngineProperties engineProperties;
+    private final WalletValidator walletValidator;
+    private final WalletFactory walletFactory;
+    private final WalletMapper walletMapper;
+    private final WalletTransactionService txnService;
+    private final WalletCache walletCache;
+    private final DailyLimitClock dailyLimitClock;
+
+    public OptimisticWalletUpdater(WalletRepository walletRepository,
+                                   UserRepository userRepository,
+                                   WalletProperties walletProperties,
+                                   WalletEngineProperties engineProperties,
+                                   WalletValidator walletValidator,
+                                   WalletFactory walletFactory,
+                                   WalletMapper walletMapper,
+                                   WalletTransactionService txnService,
+                                   WalletCache walletCache,
+                                   DailyLimitClock dailyLimitClock) {
+        this.walletRepository = walletRepository;
+        this.userRepository = userRepository;
+        this.walletProperties = walletProperties;
+        this.engineProperties = engineProperties;
+        this.walletValidator = walletValidator;
+        this.walletFactory = walletFactory;
+        this.walletMapper = walletMapper;
+        this.txnService = txnService;
+        this.walletCache = walletCache;
+        this.dailyLimitClock = dailyLimitClock;
+    }
+
+    @Transactional(
+            propagation = Propagation.REQUIRES_NEW,
+            isolation = Isolation.REPEATABLE_READ,
+            rollbackFor = Exception.class
+    )
+    public LoadMoneyResponse load(User user, long amount, long transactionId) {
+        String thread = Thread.currentThread().getName();
+        walletValidator.validateAmount(amount, "Load");
+
+        Wallet wallet = walletFactory.findWalletsByOwnerIds(List.of(user.getId())).get(user.getId());
+        if (wallet == null) wallet = walletFactory.getOrCreateWallet(user);
+        wallet.resetDailyIfNewDay(dailyLimitClock.today());
+        walletValidator.validateDailyLimit(wallet, amount);
+
+        long oldVersion = wallet.getVersion();
+        logger.info("👀 [{}] Read wallet → balance={} | version={}", thread, wallet.getBalance(), oldVersion);
+
+        wallet.setBalance(wallet.getBalance() + amount);
+        wallet.setDailySpent(wallet.getDailySpent() + amount);
+        if (wallet.getDailySpent() >= walletProperties.getDailyLimitMinor()) {
+            wallet.setFrozen(true);
+        }
+        simulateDelay(thread);
+
+        txnService.recordLoadTransaction(wallet.getUser(), amount, transactionId);
+        flush(thread, oldVersion, user.getId());
+
+        LoadMoneyResponse response = walletMapper.toLoadMoneyResponse(wallet);
+        response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - wallet.getDailySpent());
+        response.setFrozen(wallet.getFrozen());
+        response.setMessage("Wallet loaded successfully ✅");
+
+        logger.info("✅ [{}] SUCCESS | txnId={} | finalBalance={} | version={}",
+                thread, transactionId, wallet.getBalance(), wallet.getVersion());
+        return response;
+    }
+
+    @Transactional(
+            propagation = Propagation.REQUIRES_NEW,
+            isolation = Isolation.REPEATABLE_READ,
+            rollbackFor = Exception.class
+    )
+    public TransferResponse transfer(User sender, Long recipientId, long amount, long transactionId) {
+        String thread = Thread.currentThread().getName();
+        walletValidator.validateAmount(amount, "Transfer");
+
+        Map<Long, Wallet> wallets = walletFactory.findWalletsByOwnerIds(List.of(sender.getId(), recipientId));
+        Wallet senderWallet = wallets.get(sender.getId());
+        if (senderWallet == null) senderWallet = walletFactory.getOrCreateWallet(sender);
+        Wallet recipientWallet = wallets.get(recipientId);
+        if (recipientWallet == null) {
+            User recipient = userRepository.findById(recipientId)
+                    .orElseThrow(() -> new UserNotFoundException("Recipient not found"));
+            recipientWallet = walletFactory.getOrCreateWallet(recipient);
+        }
+
+        LocalDate today = dailyLimitClock.today();
+
+        senderWallet.resetDailyIfNewDay(today);
+        walletValidator.validateFrozen(senderWallet);
+        walletValidator.validateBalance(senderWallet, amount);
+        recipientWallet.resetDailyIfNewDay(today);
+
+        long senderOld = senderWallet.getBalance();
+        long receiverOld = recipientWallet.getBalance();
+        long senderVersion = senderWallet.getVersion();
+        logger.info("👀 [TRANSFER][{}] Read wallets | senderBal={} (v={}) | recvBal={} (v={})",
+                thread, senderOld, senderVersion, receiverOld, recipientWallet.getVersion());
+
+        senderWallet.setBalance(senderOld - amount);
+        senderWallet.setDailySpent(senderWallet.getDailySpent() + amount);
+        if (senderWallet.getDailySpent() >= walletProperties.getDailyLimitMinor())
+            senderWallet.setFrozen(true);
+        recipientWallet.setBalance(recipientWallet.getBalance() + amount);
+        simulateDelay(thread);
+
+        txnService.recordTransferTransactions(senderWallet.getUser(), recipientWallet.getUser(), amount, transactionId);
+        flush(thread, senderVersion, sender.getId(), recipientId);
+
+        TransferResponse response = walletMapper.toTransferResponse(senderWallet);
+        response.setAmountTransferred(amount);
+        response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - senderWallet.getDailySpent());
+        response.setFrozen(senderWallet.getFrozen());
+        response.setMessage("Transfer successful ✅");
+
+        logger.info("✅ [TRANSFER][{}] SUCCESS | txnId={} | sender={}→{} | receiver={}→{}",
+                thread, transactionId, senderOld, senderWallet.getBalance(), receiverOld, recipientWallet.getBalance());
+        return response;
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+
+    // The one write of the unit of work: wallet UPDATEs (version-checked) and the ledger INSERTs
+    private void flush(String thread, long oldVersion, Long... ownerIds) {
+        try {
+            walletRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("💥 [{}] OptimisticLockException → version conflict (oldVersion={})", thread, oldVersion);
+            for (Long ownerId : ownerIds) walletCache.invalidate(ownerId);
+            throw e;
+        }
+    }
+
+    private void simulateDelay(String thread) {
+        long ms = engineProperties.getSimulatedDelayMs();
+        if (ms <= 0) return;
+        logger.info("⏳ [{}] Simulating delay ({} ms)...", thread, ms);
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.mapper.WalletMapper;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/*
+Pessimistic path (wallet.engine.mode=locked).
+
+1. Take the in-process stripes of both wallets, in stripe order (StripedWalletLocks).
+2. Inside a new DB transaction, SELECT ... FOR UPDATE both wallet rows in wallet id order.
+3. Validate, mutate, commit, then release the stripes.
+
+The stripes make concurrent requests on this node queue in memory instead of piling up on DB row locks;
+the ordered FOR UPDATE keeps other nodes (and anything else writing wallets) deadlock-free. Because the rows
+are locked before they are read, a version conflict cannot happen and no retry is needed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.engine", name = "mode", havingValue = "locked")
+public class OrderedLockingWalletUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderedLockingWalletUpdater.class);
+
+    private final UserRepository userRepository;
+    private final WalletProperties walletProperties;
+    private final WalletEngineProperties engineProperties;
+    private final WalletValidator walletValidator;
+    private final WalletFactory walletFactory;
+    private final WalletMapper walletMapper;
+    private final WalletTransactionService txnService;
+    private final TransactionTemplate txTemplate;
+    private final StripedWalletLocks locks;
+    private final DailyLimitClock dailyLimitClock;
+
+    public OrderedLockingWalletUpdater(UserRepository userRepository,
+                                       WalletProperties walletProperties,
+                                       WalletEngineProperties engineProperties,
+                                       WalletValidator walletValidator,
+                                       WalletFactory walletFactory,
+                                       WalletMapper walletMapper,
+                                       WalletTransactionService txnService,
+                                       PlatformTransactionManager transactionManager,
+                                       DailyLimitClock dailyLimitClock) {
+        this.userRepository = userRepository;
+        this.walletProperties = walletProperties;
+        this.engineProperties = engineProperties;
+        this.walletValidator = walletValidator;
+        this.walletFactory = walletFactory;
+        this.walletMapper = walletMapper;
+        this.txnService = txnService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        this.locks = new StripedWalletLocks(engineProperties.getLockStripes());
+        this.dailyLimitClock = dailyLimitClock;
+    }
+
+    public LoadMoneyResponse load(User user, long amount, long transactionId) {
+        walletValidator.validateAmount(amount, "Load");
+
+        try (StripedWalletLocks.Held ignored = locks.lockAll(engineProperties.getOperationTimeoutMs(), user.getId())) {
+            return txTemplate.execute(status -> {
+                Wallet wallet = walletFactory.lockWalletsInIdOrder(List.of(user)).get(user.getId());
+                wallet.resetDailyIfNewDay(dailyLimitClock.today());
+                walletValidator.validateDailyLimit(wallet, amount);
+
+                wallet.setBalance(wallet.getBalance() + amount);
+                wallet.setDailySpent(wallet.getDailySpent() + amount);
+                if (wallet.getDailySpent() >= walletProperties.getDailyLimitMinor()) {
+                    wallet.setFrozen(true);
+                }
+                simulateDelay();
+
+                txnService.recordLoadTransaction(user, amount, transactionId);
+
+                LoadMoneyResponse response = walletMapper.toLoadMoneyResponse(wallet);
+                response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - wallet.getDailySpent());
+                response.setFrozen(wallet.getFrozen());
+                response.setMessage("Wallet loaded successfully ✅");
+
+                logger.info("🔒 [LOCKED][LOAD] txnId={} | user={} | balance={}", transactionId, user.getEmail(), wallet.getBalance());
+                return response;
+            });
+        }
+    }
+
+    public TransferResponse transfer(User sender, Long recipientId, long amount, long transactionId) {
+        walletValidator.validateAmount(amount, "Transfer");
+
+        User recipient = userRepository.findById(recipientId)
+                .orElseThrow(() -> new UserNotFoundException("Recipient not found"));
+
+        try (StripedWalletLocks.Held ignored =
+                     locks.lockAll(engineProperties.getOperationTimeoutMs(), sender.getId(), recipientId)) {
+            return txTemplate.execute(status -> {
+                Map<Long, Wallet> wallets = walletFactory.lockWalletsInIdOrder(List.of(sender, recipient));
+                Wallet senderWallet = wallets.get(sender.getId());
+                Wallet recipientWallet = wallets.get(recipientId);
+
+                LocalDate today = dailyLimitClock.today();
+
+                senderWallet.resetDailyIfNewDay(today);
+                walletValidator.validateFrozen(senderWallet);
+                walletValidator.validateBalance(senderWallet, amount);
+                recipientWallet.resetDailyIfNewDay(today);
+
+                senderWallet.setBalance(senderWallet.getBalance() - amount);
+                senderWallet.setDailySpent(senderWallet.getDailySpent() + amount);
+                if (senderWallet.getDailySpent() >= walletProperties.getDailyLimitMinor())
+                    senderWallet.setFrozen(true);
+                recipientWallet.setBalance(recipientWallet.getBalance() + amount);
+                simulateDelay();
+
+                txnService.recordTransferTransactions(sender, recipient, amount, transactionId);
+
+                TransferResponse response = walletMapper.toTransferResponse(senderWallet);
+                response.setAmountTransferred(amount);
+                response.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - senderWallet.getDailySpent());
+                response.setFrozen(senderWallet.getFrozen());
+                response.setMessage("Transfer successful ✅");
+
+                logger.info("🔒 [LOCKED][TRANSFER] txnId={} | from={} → to={} | amount={} | senderBal={}",
+                        transactionId, sender.getEmail(), recipientId, amount, senderWallet.getBalance());
+                return response;
+            });
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private void simulateDelay() {
+        long ms = engineProperties.getSimulatedDelayMs();
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Fixed-size table of fair locks; a wallet maps to stripe floorMod(walletKey, stripes).
+
+All stripes an operation needs are taken in ascending stripe index, never in request order. Sorting by the raw
+key would not be enough: with striping, keys 3 < 8 can map to stripes 3 > 0, and a second pair could map the
+other way round. Ordering by stripe index is a single global order, so A→B and B→A transfers queue behind each
+other instead of deadlocking.
+ */
+final class StripedWalletLocks {
+
+    private final ReentrantLock[] stripes;
+
+    StripedWalletLocks(int stripeCount) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    // Locks the stripes of all keys (duplicates collapse to one stripe); close() releases them in reverse order
+    Held lockAll(long timeoutMs, Long... walletKeys) {
+        int[] indexes = Arrays.stream(walletKeys)
+                .mapToInt(key -> Math.floorMod(key, stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new ObjectOptimisticLockingFailureException(
+                            "Timed out waiting for wallet lock " + Arrays.toString(walletKeys) + ", retry later", null);
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for wallet lock", e);
+        } finally {
+            if (acquired < indexes.length) unlock(indexes, acquired);
+        }
+        return () -> unlock(indexes, indexes.length);
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.digitalWalletApp.service.wallet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Time-ordered 64-bit transaction ids (Snowflake layout), so ledger inserts append to the right edge of the
+transaction_id index instead of landing on a random page like a UUID does.
+
+  bit 63      sign (always 0)
+  bits 62-22  milliseconds since 2024-01-01T00:00Z (41 bits ≈ 69 years)
+  bits 21-12  node id, wallet.ids.node-id (0-1023, unique per running instance)
+  bits 11-0   sequence within the millisecond (4096 ids/ms per node)
+
+Lock-free: one CAS on (timestamp, sequence). A sequence overflow, or the clock stepping back, just borrows the next
+millisecond, so ids stay unique and increasing on this node without ever blocking or touching SecureRandom.
+
+Ids with the sign bit set are reserved for payouts (payoutId): bits 62-32 carry the job id, bits 31-0 the item seq
+(CREDIT rows) or chunk number (DEBIT row), so a re-run payout chunk collides with its first attempt on the
+(transaction_id, type) unique key instead of paying again.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    static final long EPOCH_MS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    static final Duration CLOCK_SKEW_MARGIN = Duration.ofDays(1); // nodes' clocks, and the ids borrowing ahead
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_PAYOUT_JOB_ID = (1L << 31) - 1;
+
+    private final long nodeBits;
+    private final AtomicLong lastState = new AtomicLong(); // (ms since EPOCH_MS) << SEQUENCE_BITS | sequence
+
+    public TransactionIdGenerator(@Value("${wallet.ids.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("wallet.ids.node-id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS;
+        long state = lastState.updateAndGet(last -> Math.max(last + 1, now));
+
+        long millis = state >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (state & SEQUENCE_MASK);
+    }
+
+    // Deterministic id in the reserved payout range; never equal to an id from nextId()
+    public static long payoutId(long jobId, int position) {
+        if (jobId < 0 || jobId > MAX_PAYOUT_JOB_ID || position < 0) {
+            throw new IllegalArgumentException("No payout id for job " + jobId + " position " + position);
+        }
+        return Long.MIN_VALUE | (jobId << 32) | position;
+    }
+
+    // Epoch millisecond an id was generated in (approximate when the sequence borrowed ahead)
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+
+    // Lower bound for the timestamp of a ledger row carrying this id: rows are written after their id is generated.
+    // Duplicate checks add it as a predicate so MySQL only probes the monthly partitions that can hold the row.
+    public static LocalDateTime earliestLedgerTime(long id) {
+        long millis = Math.min(timestampOf(id), System.currentTimeMillis()); // ids from elsewhere may decode to the future
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).minus(CLOCK_SKEW_MARGIN);
+    }
+}
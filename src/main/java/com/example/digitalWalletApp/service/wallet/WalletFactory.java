@@ -3,30 +3,89 @@ package com.example.digitalWalletApp.service.wallet;
 import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.model.Wallet;
 import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Component
 public class WalletFactory {
     private static final Logger log = LoggerFactory.getLogger(WalletFactory.class);
     private final WalletRepository walletRepository;
+    private final WalletCache walletCache;
+    private final DailyLimitClock dailyLimitClock;
 
-    public WalletFactory(WalletRepository walletRepository) {
+    public WalletFactory(WalletRepository walletRepository, WalletCache walletCache, DailyLimitClock dailyLimitClock) {
         this.walletRepository = walletRepository;
+        this.walletCache = walletCache;
+        this.dailyLimitClock = dailyLimitClock;
+    }
+
+    // Read-only view for balance / info lookups, served from WalletCache when possible. Never mutate or save it;
+    // writers use getOrCreateWallet / lockWalletsInIdOrder, which always read the database.
+    public Wallet getCachedWallet(User user) {
+        return walletCache.get(user.getId(), () -> getOrCreateWallet(user));
+    }
+
+    // Same, for callers that only know the owner's id: the owner is only loaded on a cache miss
+    public Wallet getCachedWallet(Long userId, Supplier<User> owner) {
+        return walletCache.get(userId, () -> getOrCreateWallet(owner.get()));
+    }
+
+    // Same, plus the owner's name and email (wallet.getUser()) for the info endpoints. Both come from the cache
+    // when it has them; the owner is only loaded on a miss, or once for an entry written through without them.
+    public Wallet getCachedWalletWithOwner(Long userId, Supplier<User> owner) {
+        User[] loaded = new User[1];
+        Wallet wallet = getCachedWallet(userId, () -> loaded[0] = owner.get());
+        if (!WalletCache.hasOwnerDetails(wallet)) {
+            User user = loaded[0] != null ? loaded[0] : owner.get();
+            walletCache.rememberOwner(user);
+            wallet.setUser(user);
+        }
+        return wallet;
+    }
+
+    // Wallet with its owner initialized, straight from the database (admin views that return the entity)
+    public Wallet getWalletWithOwner(User user) {
+        return walletRepository.findWithUserByUserId(user.getId()).orElseGet(() -> getOrCreateWallet(user));
     }
 
     public Wallet getOrCreateWallet(User user) {
         return walletRepository.findByUser(user).orElseGet(() -> {
             log.info("🪙 Creating wallet for new user {}", user.getEmail());
             Wallet wallet = new Wallet(user);
-            wallet.setBalance(0.0);
-            wallet.setDailySpent(0.0);
+            wallet.setBalance(0L);
+            wallet.setDailySpent(0L);
             wallet.setFrozen(false);
-            wallet.setLastTransactionDate(LocalDate.now());
+            wallet.setLastTransactionDate(dailyLimitClock.today());
             return walletRepository.save(wallet);
         });
     }
+
+    // Wallets of the given owners in one query, keyed by owner id; the owners are not loaded (lazy proxies, id only).
+    // Owners without a wallet are simply missing from the map. Must run inside a transaction to get managed entities.
+    public Map<Long, Wallet> findWalletsByOwnerIds(Collection<Long> ownerIds) {
+        return walletRepository.findByUserIdIn(ownerIds.stream().distinct().toList()).stream()
+                .collect(Collectors.toMap(w -> w.getUser().getId(), Function.identity()));
+    }
+
+    // Row-locks (SELECT ... FOR UPDATE) the owners' wallets in wallet id order, keyed by owner id.
+    // Wallets that do not exist yet are created first. Must run inside a transaction.
+    public Map<Long, Wallet> lockWalletsInIdOrder(Collection<User> owners) {
+        List<Long> ownerIds = owners.stream().map(User::getId).distinct().toList();
+        List<Wallet> locked = walletRepository.lockByUserIdsInIdOrder(ownerIds);
+        if (locked.size() < ownerIds.size()) {
+            owners.forEach(this::getOrCreateWallet);
+            locked = walletRepository.lockByUserIdsInIdOrder(ownerIds);
+        }
+        return locked.stream().collect(Collectors.toMap(w -> w.getUser().getId(), Function.identity()));
+    }
 }
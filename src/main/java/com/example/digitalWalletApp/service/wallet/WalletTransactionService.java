@@ -5,6 +5,8 @@ import com.example.digitalWalletApp.model.User;
 import com.example.digitalWalletApp.repository.TransactionRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class WalletTransactionService {
 
@@ -14,23 +16,25 @@ public class WalletTransactionService {
         this.transactionRepository = transactionRepository;
     }
 
-    public boolean isDuplicate(String txnId) {
-        return transactionRepository.findByTransactionId(txnId).isPresent();
+    public boolean isDuplicate(long txnId) {
+        return transactionRepository.existsByTransactionIdAndTimestampGreaterThanEqual(
+                txnId, TransactionIdGenerator.earliestLedgerTime(txnId));
     }
 
-    public void recordLoadTransaction(User user, double amount, String txnId) {
+    public void recordLoadTransaction(User user, long amount, long txnId) {
         Transaction txn = new Transaction(user, amount, "SELF_CREDITED");
         txn.setTransactionId(txnId);
         transactionRepository.save(txn);
     }
 
-    public void recordTransferTransactions(User sender, User receiver, double amount, String txnId) {
+    public void recordTransferTransactions(User sender, User receiver, long amount, long txnId) {
         Transaction debit = new Transaction(sender, amount, "DEBIT");
         debit.setTransactionId(txnId);
-        transactionRepository.save(debit);
 
         Transaction credit = new Transaction(receiver, amount, "CREDIT");
-        credit.setTransactionId(txnId + "-CREDIT");
-        transactionRepository.save(credit);
+        credit.setTransactionId(txnId); // same id, told apart by type
+
+        // one save: both legs are flushed together, as a single JDBC batch
+        transactionRepository.saveAll(List.of(debit, credit));
     }
 }
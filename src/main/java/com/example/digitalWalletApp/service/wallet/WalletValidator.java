@@ -1,9 +1,11 @@
 package com.example.digitalWalletApp.service.wallet;
 
 import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.model.Money;
 import com.example.digitalWalletApp.model.Wallet;
 import org.springframework.stereotype.Component;
 
+// All amounts in minor units (cents)
 @Component
 public class WalletValidator {
 
@@ -13,16 +15,16 @@ public class WalletValidator {
         this.walletProperties = walletProperties;
     }
 
-    public void validateAmount(double amount, String operation) {
+    public void validateAmount(long amount, String operation) {
         if (amount <= 0)
             throw new IllegalArgumentException("Amount must be greater than 0");
-        if (amount < walletProperties.getMinAmount() || amount > walletProperties.getMaxAmount())
+        if (amount < walletProperties.getMinAmountMinor() || amount > walletProperties.getMaxAmountMinor())
             throw new IllegalArgumentException(operation + " amount must be between "
-                    + walletProperties.getMinAmount() + " and " + walletProperties.getMaxAmount());
+                    + Money.format(walletProperties.getMinAmountMinor()) + " and " + Money.format(walletProperties.getMaxAmountMinor()));
     }
 
-    public void validateDailyLimit(Wallet wallet, double amount) {
-        double remaining = walletProperties.getDailyLimit() - wallet.getDailySpent();
+    public void validateDailyLimit(Wallet wallet, long amount) {
+        long remaining = walletProperties.getDailyLimitMinor() - wallet.getDailySpent();
         if (amount > remaining)
             throw new IllegalArgumentException("Daily limit exceeded");
     }
@@ -32,7 +34,7 @@ public class WalletValidator {
             throw new IllegalArgumentException("Wallet frozen. Cannot proceed.");
     }
 
-    public void validateBalance(Wallet wallet, double amount) {
+    public void validateBalance(Wallet wallet, long amount) {
         if (wallet.getBalance() < amount)
             throw new IllegalArgumentException("Insufficient balance");
     }
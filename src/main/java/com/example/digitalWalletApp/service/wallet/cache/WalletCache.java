@@ -0,0 +1,241 @@
+package com.example.digitalWalletApp.service.wallet.cache;
+
+import com.example.digitalWalletApp.config.WalletCacheProperties;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+Bounded in-process cache of wallets keyed by owner (user) id, in front of WalletFactory.getOrCreateWallet for
+the read-only lookups (GET /api/wallet/balance, user info, the admin wallet/balance endpoints).
+
+ - LRU bounded by wallet.cache.max-size; entries also expire after wallet.cache.ttl-ms
+ - write-through: WalletCacheListener hands every inserted/updated Wallet entity to writeThrough(), which puts
+   it once its transaction commits; bulk JPQL updates (atomic mode, sharded persisters) evict after commit instead
+ - version-aware: an entry is only replaced by an equal or newer version, and a read-through load is dropped
+   if anything was invalidated while it ran, so a slow reader never puts back a state older than a committed write
+ - entries are copies and every hit returns a fresh copy: never save what get() returns
+ - the copy's owner is a detached User holding the id, plus name and email when they were loaded, so the info
+   endpoints can answer from memory too; a write-through without them keeps the ones already cached
+ - guarded by a ReentrantLock rather than synchronized: a virtual thread waiting for a monitor pins its carrier
+ */
+@Component
+public class WalletCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;                        // owner id → entry, access-ordered
+    private final Map<Long, Long> ownerByWalletId = new HashMap<>(); // for evictions that only know the wallet id
+
+    // all guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private long invalidationEpoch;
+    private long hits, misses, evictions, expirations, invalidations;
+
+    private record Entry(Wallet wallet, long loadedAt) {}
+
+    public WalletCache(WalletCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.ttlNanos = properties.getTtlMs() * 1_000_000L;
+        int max = Math.max(1, properties.getMaxSize());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= max) return false;
+                ownerByWalletId.remove(eldest.getValue().wallet().getId());
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    // Cached copy of the owner's wallet, or loader's result (cached unless an invalidation raced with it)
+    public Wallet get(Long userId, Supplier<Wallet> loader) {
+        if (!enabled) return loader.get();
+
+        long epoch;
+        lock.lock();
+        try {
+            Entry entry = entries.get(userId);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                hits++;
+                return copy(entry.wallet());
+            }
+            if (entry != null) {
+                remove(userId);
+                expirations++;
+            }
+            misses++;
+            epoch = invalidationEpoch;
+        } finally {
+            lock.unlock();
+        }
+
+        Wallet loaded = loader.get();
+        lock.lock();
+        try {
+            if (epoch == invalidationEpoch) putIfNotOlder(loaded);
+        } finally {
+            lock.unlock();
+        }
+        return copy(loaded); // never the managed entity: callers may reattach an owner to what they get back
+    }
+
+    // Puts the wallet's state once the surrounding transaction commits (right away without one)
+    public void writeThrough(Wallet wallet) {
+        if (!enabled) return;
+        afterCompletion(committed -> {
+            if (committed) put(wallet);
+            else invalidate(wallet.getUser().getId());
+        });
+    }
+
+    // For writes that bypass the entity (JPQL updates): drop the entry once the transaction is over
+    public void evictAfterCommit(Long userId) {
+        if (!enabled) return;
+        afterCompletion(committed -> invalidate(userId));
+    }
+
+    public void evictWalletAfterCommit(Long walletId) {
+        if (!enabled) return;
+        afterCompletion(committed -> invalidateWallet(walletId));
+    }
+
+    // Adds the owner's name and email to a cached entry that was written through without them
+    public void rememberOwner(User owner) {
+        if (!enabled || owner == null) return;
+        lock.lock();
+        try {
+            Entry entry = entries.get(owner.getId());
+            if (entry != null && !hasOwnerDetails(entry.wallet())) entry.wallet().setUser(ownerView(owner));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static boolean hasOwnerDetails(Wallet wallet) {
+        User owner = wallet.getUser();
+        return owner != null && Hibernate.isInitialized(owner) && owner.getEmail() != null;
+    }
+
+    public void invalidate(Long userId) {
+        lock.lock();
+        try {
+            invalidationEpoch++;
+            if (remove(userId) != null) invalidations++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateWallet(Long walletId) {
+        lock.lock();
+        try {
+            invalidationEpoch++;
+            Long userId = ownerByWalletId.get(walletId);
+            if (userId != null && remove(userId) != null) invalidations++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For bulk updates over many wallets (daily limit reset)
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidationEpoch++;
+            invalidations += entries.size();
+            entries.clear();
+            ownerByWalletId.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public WalletCacheMetrics metrics() {
+        lock.lock();
+        try {
+            return new WalletCacheMetrics(enabled, entries.size(), hits, misses, evictions, expirations, invalidations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private void put(Wallet wallet) {
+        lock.lock();
+        try {
+            putIfNotOlder(wallet);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putIfNotOlder(Wallet wallet) {
+        if (wallet == null || wallet.getId() == null || wallet.getUser() == null) return;
+        Long userId = wallet.getUser().getId();
+        Entry current = entries.get(userId);
+        if (current != null && current.wallet().getVersion() > wallet.getVersion()) return;
+        Wallet snapshot = copy(wallet);
+        if (current != null && !hasOwnerDetails(snapshot) && hasOwnerDetails(current.wallet())) {
+            snapshot.setUser(current.wallet().getUser());
+        }
+        entries.put(userId, new Entry(snapshot, System.nanoTime()));
+        ownerByWalletId.put(wallet.getId(), userId);
+    }
+
+    private Entry remove(Long userId) {
+        Entry removed = entries.remove(userId);
+        if (removed != null) ownerByWalletId.remove(removed.wallet().getId());
+        return removed;
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static Wallet copy(Wallet source) {
+        Wallet wallet = new Wallet();
+        wallet.setId(source.getId());
+        wallet.setUser(ownerView(source.getUser()));
+        wallet.setBalance(source.getBalance());
+        wallet.setDailySpent(source.getDailySpent());
+        wallet.setFrozen(source.getFrozen());
+        wallet.setLastTransactionDate(source.getLastTransactionDate());
+        wallet.setVersion(source.getVersion());
+        return wallet;
+    }
+
+    // Owner outside any persistence context: never a lazy proxy that fails once its session is gone
+    private static User ownerView(User source) {
+        if (source == null) return null;
+        User owner = new User();
+        owner.setId(source.getId());
+        if (Hibernate.isInitialized(source)) {
+            owner.setName(source.getName());
+            owner.setEmail(source.getEmail());
+        }
+        return owner;
+    }
+}
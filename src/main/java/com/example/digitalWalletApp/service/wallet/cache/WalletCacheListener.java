@@ -0,0 +1,24 @@
+package com.example.digitalWalletApp.service.wallet.cache;
+
+import com.example.digitalWalletApp.model.Wallet;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener on Wallet: every INSERT/UPDATE Hibernate flushes for a Wallet is written through to the cache
+// on commit. Spring hands Hibernate this bean (SpringBeanContainer), so it shares the application's WalletCache.
+@Component
+public class WalletCacheListener {
+
+    private final WalletCache walletCache;
+
+    public WalletCacheListener(WalletCache walletCache) {
+        this.walletCache = walletCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(Wallet wallet) {
+        walletCache.writeThrough(wallet);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.digitalWalletApp.service.wallet.cache;
+
+public record WalletCacheMetrics(
+        boolean enabled,
+        int size,
+        long hits,
+        long misses,
+        long evictions,     // dropped to stay within wallet.cache.max-size
+        long expirations,   // older than wallet.cache.ttl-ms when read
+        long invalidations  // dropped after a write the cache could not follow (bulk UPDATE, version conflict, rollback)
+) {}
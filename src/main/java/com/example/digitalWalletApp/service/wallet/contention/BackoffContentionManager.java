@@ -0,0 +1,215 @@
+package com.example.digitalWalletApp.service.wallet.contention;
+
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+Default ContentionManager.
+
+ - Retries optimistic-lock conflicts with exponential backoff and "equal jitter"
+   (sleep = cap/2 + random(0..cap/2), cap doubling from initial-backoff-ms up to max-backoff-ms),
+   so colliding requests spread out instead of waking up together again.
+ - Tracks conflicts per wallet in a sliding window. A wallet that sees hot-threshold conflicts within
+   hot-window-ms is "hot": new requests for it wait in a fair in-process queue (one at a time) instead of
+   racing and failing, until the wallet cools down again. A transfer's conflict counts against both of its
+   wallets, so a recipient paid by many senders turns hot even though no single sender conflicts often.
+ - Counts attempts / conflicts / retries / give-ups / queued executions for the admin metrics endpoint.
+
+Only wallets that had a conflict get a tracker entry; entries without a conflict in the current window, and with
+nobody holding or waiting on their queue, are dropped again on the next success. Recording a conflict and dropping
+an entry both run inside the map's per-key compute, so a conflict never lands on an entry that is being dropped.
+ */
+@Component
+public class BackoffContentionManager implements ContentionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackoffContentionManager.class);
+
+    private final WalletEngineProperties.Contention config;
+    private final Map<Long, WalletContention> trackers = new ConcurrentHashMap<>();
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder giveUps = new LongAdder();
+    private final LongAdder queuedExecutions = new LongAdder();
+
+    public BackoffContentionManager(WalletEngineProperties engineProperties) {
+        this.config = engineProperties.getContention();
+        // a queued request waits for everyone ahead of it; each of them holds the wallet at least simulated-delay-ms
+        long operationMs = engineProperties.getSimulatedDelayMs();
+        if (operationMs > 0 && config.getQueueTimeoutMs() < 3 * operationMs) {
+            logger.warn("⚠️ [CONTENTION] queue-timeout-ms={} covers fewer than 3 operations of simulated-delay-ms={}: "
+                    + "queued requests on a hot wallet will time out", config.getQueueTimeoutMs(), operationMs);
+        }
+    }
+
+    @Override
+    public <T> T execute(String operation, Collection<Long> walletKeys, Supplier<T> attempt) {
+        String thread = Thread.currentThread().getName();
+        List<Long> keys = walletKeys.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        List<WalletContention> queued = new ArrayList<>(keys.size()); // queues held, in key order
+
+        try {
+            enqueueHot(operation, keys, queued);
+
+            for (int n = 1; ; n++) {
+                attempts.increment();
+                try {
+                    T result = attempt.get();
+                    if (queued.isEmpty()) keys.forEach(this::dropIfCold);
+                    return result;
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    conflicts.increment();
+                    // every wallet of the operation is charged: a recipient paid by many senders collects all their conflicts
+                    long now = System.currentTimeMillis();
+                    for (Long key : keys) {
+                        trackers.compute(key, (k, tracker) -> {
+                            WalletContention t = tracker != null ? tracker : new WalletContention();
+                            t.recordConflict(now, config);
+                            return t;
+                        });
+                    }
+
+                    if (n >= config.getMaxAttempts()) {
+                        giveUps.increment();
+                        logger.warn("🛑 [{}][{}] Giving up on wallets {} after {} attempts", operation, thread, keys, n);
+                        throw e;
+                    }
+                    retries.increment();
+
+                    if (hasUnqueuedHotWallet(keys, queued)) {
+                        logger.info("🔥 [{}][{}] Wallets {} are hot — switching to in-process queue", operation, thread, keys);
+                        release(queued);
+                        enqueueHot(operation, keys, queued);
+                    } else {
+                        long backoff = backoffMs(n);
+                        logger.info("🔁 [{}][{}] Version conflict on wallets {} — attempt {}/{}, backing off {} ms",
+                                operation, thread, keys, n, config.getMaxAttempts(), backoff);
+                        sleep(backoff, e);
+                    }
+                }
+            }
+        } finally {
+            release(queued);
+        }
+    }
+
+    @Override
+    public ContentionMetrics metrics() {
+        long now = System.currentTimeMillis();
+        int hot = (int) trackers.values().stream().filter(t -> t.isHot(now)).count();
+        return new ContentionMetrics(attempts.sum(), conflicts.sum(), retries.sum(), giveUps.sum(),
+                queuedExecutions.sum(), hot);
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private long backoffMs(int attempt) {
+        long cap = Math.min(config.getMaxBackoffMs(), config.getInitialBackoffMs() << Math.min(attempt - 1, 20));
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(cap - half + 1);
+    }
+
+    // Takes the queue of every hot wallet in ascending key order, so two transfers between the same pair of
+    // wallets (in either direction) cannot each hold one queue and wait for the other
+    private void enqueueHot(String operation, List<Long> keys, List<WalletContention> queued) {
+        long now = System.currentTimeMillis();
+        for (Long key : keys) {
+            WalletContention tracker = trackers.get(key);
+            if (tracker == null || !tracker.isHot(now)) continue;
+            try {
+                if (!tracker.queue.tryLock(config.getQueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    giveUps.increment();
+                    throw new ObjectOptimisticLockingFailureException(
+                            operation + " queue for wallet " + key + " is full, retry later", null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queued for wallet " + key, e);
+            }
+            if (trackers.get(key) != tracker) {
+                // cooled down and dropped while we waited: its queue no longer serializes anyone
+                tracker.queue.unlock();
+                continue;
+            }
+            queued.add(tracker);
+            queuedExecutions.increment();
+        }
+    }
+
+    private boolean hasUnqueuedHotWallet(List<Long> keys, List<WalletContention> queued) {
+        long now = System.currentTimeMillis();
+        for (Long key : keys) {
+            WalletContention tracker = trackers.get(key);
+            if (tracker != null && tracker.isHot(now) && !queued.contains(tracker)) return true;
+        }
+        return false;
+    }
+
+    private static void release(List<WalletContention> queued) {
+        queued.forEach(tracker -> tracker.queue.unlock());
+        queued.clear();
+    }
+
+    // Only a wallet without conflicts in the current window is dropped; otherwise the successes of one sender
+    // would keep resetting a recipient that many senders are contending on
+    private void dropIfCold(Long walletKey) {
+        long now = System.currentTimeMillis();
+        trackers.computeIfPresent(walletKey, (k, tracker) -> tracker.isIdle(now, config) ? null : tracker);
+    }
+
+    private void sleep(long ms, RuntimeException onInterrupt) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw onInterrupt;
+        }
+    }
+
+    // Conflict-rate tracker of a single wallet
+    private static final class WalletContention {
+        final ReentrantLock queue = new ReentrantLock(true);
+        final AtomicLong windowStart = new AtomicLong();
+        final AtomicInteger windowConflicts = new AtomicInteger();
+        volatile long hotUntil;
+
+        void recordConflict(long now, WalletEngineProperties.Contention config) {
+            long start = windowStart.get();
+            if (now - start > config.getHotWindowMs() && windowStart.compareAndSet(start, now)) {
+                windowConflicts.set(0);
+            }
+            if (windowConflicts.incrementAndGet() >= config.getHotThreshold()) {
+                hotUntil = now + config.getHotWindowMs();
+            }
+        }
+
+        boolean isHot(long now) {
+            return now < hotUntil;
+        }
+
+        // cold, and nobody holds or waits on the queue
+        boolean isIdle(long now, WalletEngineProperties.Contention config) {
+            return !isHot(now) && now - windowStart.get() > config.getHotWindowMs()
+                    && !queue.isLocked() && !queue.hasQueuedThreads();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.digitalWalletApp.service.wallet.contention;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+Decides how an optimistic-locking conflict on a wallet is handled: when to retry, how long to back off,
+and when to stop retrying and serialize the callers instead.
+
+walletKey identifies the contended wallet (we use the owner's user id, which is known before the wallet is read).
+An operation touching several wallets (a transfer) passes all of their keys, so a conflict on any of them counts.
+ */
+public interface ContentionManager {
+
+    default <T> T execute(String operation, Long walletKey, Supplier<T> attempt) {
+        return execute(operation, List.of(walletKey), attempt);
+    }
+
+    <T> T execute(String operation, Collection<Long> walletKeys, Supplier<T> attempt);
+
+    ContentionMetrics metrics();
+}
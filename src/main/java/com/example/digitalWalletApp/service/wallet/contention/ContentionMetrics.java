@@ -0,0 +1,10 @@
+package com.example.digitalWalletApp.service.wallet.contention;
+
+public record ContentionMetrics(
+        long attempts,
+        long conflicts,
+        long retries,
+        long giveUps,
+        long queuedExecutions,
+        int hotWallets
+) {}
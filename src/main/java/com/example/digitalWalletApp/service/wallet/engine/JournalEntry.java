@@ -0,0 +1,118 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.service.wallet.engine.WalletStatePersister.TransferMarker;
+import com.example.digitalWalletApp.service.wallet.engine.WalletStatePersister.WalletSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+One ledger journal record: the wallet states after one operation (or one leg of a transfer), the ledger rows it
+produced and, for transfers, the marker that pairs the debit leg with its credit leg.
+
+Binary layout (DataOutputStream, big endian):
+  byte version
+  short n, n × { long walletId, long balance, long dailySpent, boolean frozen, long lastTransactionEpochDay | -1 }
+  short m, m × { long userId, long amount, long epochSecond, int nano, utf type, long transactionId }
+  byte marker (0 none, 1 opens, 2 closes), then { long transactionId [, long sender, long recipient, long amount] }
+ */
+record JournalEntry(List<WalletSnapshot> wallets, List<LedgerRow> ledger, TransferMarker transfer) {
+
+    private static final byte VERSION = 2; // 2: transaction ids are longs
+    private static final long NO_DATE = -1L;
+
+    record LedgerRow(long userId, long amount, String type, long transactionId, LocalDateTime timestamp) {
+        static LedgerRow of(Transaction txn) {
+            return new LedgerRow(txn.getUser().getId(), txn.getAmount(), txn.getType(), txn.getTransactionId(), txn.getTimestamp());
+        }
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 48 * wallets.size() + 96 * ledger.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+
+            out.writeShort(wallets.size());
+            for (WalletSnapshot w : wallets) {
+                out.writeLong(w.walletId());
+                out.writeLong(w.balance());
+                out.writeLong(w.dailySpent());
+                out.writeBoolean(w.frozen());
+                out.writeLong(w.lastTransactionDate() == null ? NO_DATE : w.lastTransactionDate().toEpochDay());
+            }
+
+            out.writeShort(ledger.size());
+            for (LedgerRow row : ledger) {
+                out.writeLong(row.userId());
+                out.writeLong(row.amount());
+                out.writeLong(row.timestamp().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(row.timestamp().getNano());
+                out.writeUTF(row.type());
+                out.writeLong(row.transactionId());
+            }
+
+            if (transfer == null) {
+                out.writeByte(0);
+            } else if (transfer.opens()) {
+                out.writeByte(1);
+                out.writeLong(transfer.transactionId());
+                out.writeLong(transfer.senderUserId());
+                out.writeLong(transfer.recipientUserId());
+                out.writeLong(transfer.amount());
+            } else {
+                out.writeByte(2);
+                out.writeLong(transfer.transactionId());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalEntry decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != VERSION) throw new IllegalStateException("Unsupported journal record version " + version);
+
+            int walletCount = in.readUnsignedShort();
+            List<WalletSnapshot> wallets = new ArrayList<>(walletCount);
+            for (int i = 0; i < walletCount; i++) {
+                long walletId = in.readLong();
+                long balance = in.readLong();
+                long dailySpent = in.readLong();
+                boolean frozen = in.readBoolean();
+                long epochDay = in.readLong();
+                wallets.add(new WalletSnapshot(walletId, balance, dailySpent, frozen,
+                        epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay)));
+            }
+
+            int rowCount = in.readUnsignedShort();
+            List<LedgerRow> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                long userId = in.readLong();
+                long amount = in.readLong();
+                LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+                rows.add(new LedgerRow(userId, amount, in.readUTF(), in.readLong(), timestamp));
+            }
+
+            TransferMarker transfer = switch (in.readByte()) {
+                case 1 -> TransferMarker.opened(in.readLong(), in.readLong(), in.readLong(), in.readLong());
+                case 2 -> TransferMarker.closed(in.readLong());
+                default -> null;
+            };
+            return new JournalEntry(wallets, rows, transfer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt journal record", e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import com.example.digitalWalletApp.model.JournalCheckpoint;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.JournalCheckpointRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.DailyLimitClock;
+import com.example.digitalWalletApp.service.wallet.LedgerBatchWriter;
+import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import com.example.digitalWalletApp.service.wallet.engine.JournalEntry.LedgerRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+Journal-backed persistence for the sharded engine (wallet.engine.persistence=journal).
+
+Every operation is appended to the LedgerJournal on the shard thread (a memory copy); the request thread then
+waits for the group-committed fsync and only then acknowledges. A background applier reads the durable records
+from the last checkpoint and projects them into the tables, in one DB transaction per batch:
+  wallet snapshots (coalesced, latest per wallet) → ledger rows (JDBC batch) → journal_checkpoint.appliedOffset.
+Because the checkpoint commits with the rows, replaying from it after a crash applies every record exactly once.
+
+Transfers are two records: the debit leg on the sender's shard, then the credit leg on the recipient's (or, if the
+credit failed, a refund on the sender's; the engine always appends one of the two). The applier projects records
+as they come and carries the transfers it has seen opened but not closed in the checkpoint, so an open transfer
+never holds back the records after it. After a crash, recovery replays from the checkpoint starting from that open
+set, and completes whatever is still open at the end of the journal (roll forward).
+ */
+class JournalPersister implements WalletStatePersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPersister.class);
+
+    static final String CHECKPOINT_NAME = "ledger-journal";
+
+    private final LedgerJournal journal;
+    private final WalletRepository walletRepository;
+    private final UserRepository userRepository;
+    private final WalletFactory walletFactory;
+    private final LedgerBatchWriter ledgerWriter;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletCache walletCache;
+    private final int applyBatchSize;
+    private final long durableTimeoutMs;
+
+    private final Set<Long> pendingTransactionIds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService applier;
+    private final DailyLimitClock dailyLimitClock;
+    private volatile long appliedOffset;
+    private Map<Long, TransferMarker> openTransfers = new LinkedHashMap<>(); // as of appliedOffset (applier thread only)
+
+    JournalPersister(Path directory,
+                     int segmentBytes,
+                     int applyBatchSize,
+                     long applyIntervalMs,
+                     long durableTimeoutMs,
+                     WalletRepository walletRepository,
+                     UserRepository userRepository,
+                     WalletFactory walletFactory,
+                     LedgerBatchWriter ledgerWriter,
+                     JournalCheckpointRepository checkpointRepository,
+                     TransactionTemplate transactionTemplate,
+                     WalletCache walletCache,
+                     DailyLimitClock dailyLimitClock) {
+        this.walletRepository = walletRepository;
+        this.userRepository = userRepository;
+        this.walletFactory = walletFactory;
+        this.ledgerWriter = ledgerWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.walletCache = walletCache;
+        this.dailyLimitClock = dailyLimitClock;
+        this.applyBatchSize = Math.max(1, applyBatchSize);
+        this.durableTimeoutMs = durableTimeoutMs;
+        this.journal = LedgerJournal.open(directory, segmentBytes);
+
+        // shards load wallets from the DB on first touch, so the DB must be up to date before the engine serves
+        recover();
+
+        this.applier = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-journal-applier");
+            t.setDaemon(true);
+            return t;
+        });
+        this.applier.scheduleWithFixedDelay(this::applySafely, applyIntervalMs, applyIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean reserveTransactionId(long transactionId) {
+        return pendingTransactionIds.add(transactionId);
+    }
+
+    @Override
+    public void releaseTransactionId(long transactionId) {
+        pendingTransactionIds.remove(transactionId);
+    }
+
+    @Override
+    public long persist(List<Wallet> wallets, List<Transaction> ledgerRows, TransferMarker transfer) {
+        List<WalletSnapshot> snapshots = wallets.stream().map(WalletSnapshot::of).toList();
+        List<LedgerRow> rows = ledgerRows.stream().map(LedgerRow::of).toList();
+        return journal.append(new JournalEntry(snapshots, rows, transfer).encode());
+    }
+
+    @Override
+    public void awaitDurable(long ticket) {
+        try {
+            if (!journal.awaitDurable(ticket, durableTimeoutMs)) {
+                throw new IllegalStateException("Ledger journal did not confirm the write within " + durableTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ledger journal", e);
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Applier
+    // --------------------------------------------------------------------
+    private void applySafely() {
+        try {
+            while (applyNextBatch() >= applyBatchSize) {
+                // keep draining while there is a backlog
+            }
+        } catch (Exception e) {
+            logger.error("💥 [JOURNAL] Apply failed at offset {}, will retry on next tick: {}", appliedOffset, e.getMessage(), e);
+        }
+    }
+
+    // Projects the next durable records into the tables; returns how many were applied
+    private int applyNextBatch() {
+        List<LedgerJournal.Entry> entries = journal.read(appliedOffset, applyBatchSize);
+        if (entries.isEmpty()) return 0;
+
+        List<JournalEntry> records = new ArrayList<>(entries.size());
+        for (LedgerJournal.Entry entry : entries) {
+            records.add(JournalEntry.decode(entry.payload()));
+        }
+        apply(records, entries.get(entries.size() - 1).nextOffset());
+        return records.size();
+    }
+
+    private void apply(List<JournalEntry> records, long nextOffset) {
+        Map<Long, WalletSnapshot> latest = new LinkedHashMap<>();
+        List<LedgerRow> rows = new ArrayList<>();
+        Map<Long, TransferMarker> open = new LinkedHashMap<>(openTransfers);
+        for (JournalEntry record : records) {
+            record.wallets().forEach(s -> latest.put(s.walletId(), s));
+            rows.addAll(record.ledger());
+            TransferMarker marker = record.transfer();
+            if (marker == null) continue;
+            if (marker.opens()) open.put(marker.transactionId(), marker);
+            else open.remove(marker.transactionId());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (WalletSnapshot s : latest.values()) {
+                walletRepository.overwriteState(s.walletId(), s.balance(), s.dailySpent(), s.frozen(), s.lastTransactionDate());
+                walletCache.evictWalletAfterCommit(s.walletId());
+            }
+            ledgerWriter.insertAll(rows.stream().map(this::toTransaction).toList());
+
+            JournalCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                    .orElseGet(() -> new JournalCheckpoint(CHECKPOINT_NAME, 0L));
+            checkpoint.setAppliedOffset(nextOffset);
+            checkpoint.setOpenTransfers(encodeOpen(open.values()));
+            checkpointRepository.save(checkpoint);
+        });
+
+        appliedOffset = nextOffset;
+        openTransfers = open;
+        rows.forEach(r -> pendingTransactionIds.remove(r.transactionId()));
+        journal.deleteSegmentsBefore(nextOffset);
+        logger.debug("💾 [JOURNAL] Applied {} record(s): {} wallet(s), {} ledger row(s), {} open transfer(s)",
+                records.size(), latest.size(), rows.size(), open.size());
+    }
+
+    private Transaction toTransaction(LedgerRow row) {
+        Transaction txn = new Transaction(userRepository.getReferenceById(row.userId()), row.amount(), row.type());
+        txn.setTimestamp(row.timestamp());
+        txn.setTransactionId(row.transactionId());
+        return txn;
+    }
+
+    // --------------------------------------------------------------------
+    // Recovery
+    // --------------------------------------------------------------------
+    private void recover() {
+        JournalCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME).orElse(null);
+        appliedOffset = checkpoint == null ? 0L : checkpoint.getAppliedOffset();
+        openTransfers = decodeOpen(checkpoint == null ? null : checkpoint.getOpenTransfers());
+        long start = appliedOffset;
+
+        int replayed = 0;
+        int applied;
+        while ((applied = applyNextBatch()) > 0) {
+            replayed += applied;
+        }
+
+        // debit legs without a credit leg or refund: the sender was charged, so complete the transfer
+        List<TransferMarker> open = List.copyOf(openTransfers.values());
+        for (TransferMarker marker : open) {
+            awaitDurable(rollForward(marker));
+        }
+        while (applyNextBatch() > 0) {
+            // apply the completions
+        }
+
+        if (replayed > 0 || !open.isEmpty()) {
+            logger.info("♻️ [JOURNAL] Recovered {} record(s) from offset {}, completed {} open transfer(s)",
+                    replayed, start, open.size());
+        }
+    }
+
+    private long rollForward(TransferMarker marker) {
+        User sender = userRepository.findById(marker.senderUserId())
+                .orElseThrow(() -> new IllegalStateException("Journal references unknown sender " + marker.senderUserId()));
+        User recipient = userRepository.findById(marker.recipientUserId())
+                .orElseThrow(() -> new IllegalStateException("Journal references unknown recipient " + marker.recipientUserId()));
+        Wallet wallet = transactionTemplate.execute(status -> walletFactory.getOrCreateWallet(recipient));
+
+        wallet.resetDailyIfNewDay(dailyLimitClock.today());
+        wallet.setBalance(wallet.getBalance() + marker.amount());
+
+        Transaction debit = new Transaction(sender, marker.amount(), "DEBIT");
+        debit.setTransactionId(marker.transactionId());
+        Transaction credit = new Transaction(recipient, marker.amount(), "CREDIT");
+        credit.setTransactionId(marker.transactionId());
+
+        logger.warn("↪️ [JOURNAL] Completing transfer {} after restart: credit {} to user {}",
+                marker.transactionId(), marker.amount(), recipient.getId());
+        return persist(List.of(wallet), List.of(debit, credit), TransferMarker.closed(marker.transactionId()));
+    }
+
+    private static String encodeOpen(Collection<TransferMarker> open) {
+        if (open.isEmpty()) return null;
+        StringJoiner joined = new StringJoiner(",");
+        for (TransferMarker m : open) {
+            joined.add(m.transactionId() + ":" + m.senderUserId() + ":" + m.recipientUserId() + ":" + m.amount());
+        }
+        return joined.toString();
+    }
+
+    private static Map<Long, TransferMarker> decodeOpen(String encoded) {
+        Map<Long, TransferMarker> open = new LinkedHashMap<>();
+        if (encoded == null || encoded.isBlank()) return open;
+        for (String item : encoded.split(",")) {
+            String[] f = item.split(":");
+            TransferMarker marker = TransferMarker.opened(Long.parseLong(f[0]), Long.parseLong(f[1]),
+                    Long.parseLong(f[2]), Long.parseLong(f[3]));
+            open.put(marker.transactionId(), marker);
+        }
+        return open;
+    }
+
+    @Override
+    public void shutdown() throws InterruptedException {
+        applier.shutdown();
+        applier.awaitTermination(5, TimeUnit.SECONDS);
+        applySafely();
+        journal.close();
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/*
+Append-only, memory-mapped journal with group commit.
+
+The journal is a directory of fixed-size segment files (ledger-0000000000.journal, ...). A record is
+  [int payload length][int CRC32C of the payload][payload]
+and an offset is (segment number << 32 | position in segment), so offsets grow monotonically across segments.
+
+append() only copies the record into the mapped segment and returns the offset after it. A single sync thread
+forces (msync) everything appended so far and then wakes every writer waiting in awaitDurable(): while one
+force is running, further appends pile up and are made durable together by the next one (group commit).
+
+On open, the tail of the last segment is scanned; a torn record (length or CRC wrong) ends the readable log and
+writing continues in a fresh segment. Readers only ever see records up to the durable offset.
+ */
+public final class LedgerJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".journal";
+
+    public record Entry(long offset, long nextOffset, byte[] payload) {}
+
+    private static final class Segment {
+        final int number;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(int number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        int size() {
+            return buffer.capacity();
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition syncNeeded = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+
+    private Segment active;
+    private int writePosition;
+    private long writtenOffset;
+    private long durableOffset;
+    private long appendCount;
+    private long syncCount;
+    private boolean running = true;
+
+    private final Thread syncThread;
+
+    private LedgerJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    int number = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                    segments.put(number, map(number, file, (int) Files.size(file)));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            active = segments.lastEntry().getValue();
+            writePosition = scanTail(active);
+            if (writePosition < 0) {
+                logger.warn("⚠️ [JOURNAL] Torn record at the end of {}, continuing in a new segment", active.path.getFileName());
+                active = createSegment(active.number + 1);
+                writePosition = 0;
+            }
+        }
+        // whatever survived the restart is what the journal holds
+        writtenOffset = durableOffset = offset(active.number, writePosition);
+
+        syncThread = new Thread(this::syncLoop, "ledger-journal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    public static LedgerJournal open(Path directory, int segmentBytes) {
+        try {
+            return new LedgerJournal(directory, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open ledger journal in " + directory, e);
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Write side
+    // --------------------------------------------------------------------
+
+    // Copies the record into the journal and returns the offset right after it (the ticket for awaitDurable)
+    public long append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes)
+            throw new IllegalArgumentException("Journal record of " + recordBytes + " bytes exceeds the segment size");
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (!running) throw new IllegalStateException("Ledger journal is closed");
+            if (writePosition + recordBytes > active.size()) roll();
+
+            MappedByteBuffer buffer = active.buffer;
+            buffer.putInt(writePosition + 4, (int) crc.getValue());
+            buffer.put(writePosition + HEADER_BYTES, payload);
+            buffer.putInt(writePosition, payload.length);
+
+            writePosition += recordBytes;
+            writtenOffset = offset(active.number, writePosition);
+            appendCount++;
+            syncNeeded.signal();
+            return writtenOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits until everything up to the given offset has been forced to disk; false on timeout
+    public boolean awaitDurable(long offset, long timeoutMs) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while (durableOffset < offset) {
+                if (nanos <= 0) return false;
+                nanos = durableAdvanced.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            Segment segment;
+            int from;
+            long target;
+            lock.lock();
+            try {
+                while (running && durableOffset >= writtenOffset) {
+                    syncNeeded.awaitUninterruptibly();
+                }
+                if (durableOffset >= writtenOffset) return;
+                segment = active;
+                target = writtenOffset;
+                from = segmentOf(durableOffset) == segment.number ? positionOf(durableOffset) : 0;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                segment.buffer.force(from, positionOf(target) - from);
+            } catch (RuntimeException e) {
+                // retried after a short pause; writers waiting meanwhile may time out
+                logger.error("💥 [JOURNAL] Sync of {} failed: {}", segment.path.getFileName(), e.getMessage(), e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+
+            lock.lock();
+            try {
+                if (target > durableOffset) durableOffset = target;
+                syncCount++;
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Called with the lock held: the full segment is forced here, so the sync thread only ever deals with the active one
+    private void roll() {
+        active.buffer.force();
+        durableOffset = Math.max(durableOffset, offset(active.number, writePosition));
+        durableAdvanced.signalAll();
+        try {
+            active = createSegment(active.number + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment", e);
+        }
+        writePosition = 0;
+    }
+
+    // --------------------------------------------------------------------
+    // Read side
+    // --------------------------------------------------------------------
+
+    // Durable records starting at the given offset, at most maxEntries of them
+    public List<Entry> read(long fromOffset, int maxEntries) {
+        List<Entry> entries = new ArrayList<>();
+        long position = Math.max(fromOffset, firstOffset());
+        long durable = durableOffset();
+
+        while (entries.size() < maxEntries && position < durable) {
+            Segment segment = segment(segmentOf(position));
+            if (segment == null) break;
+
+            int p = positionOf(position);
+            byte[] payload = p + HEADER_BYTES <= segment.size() ? readRecord(segment, p) : null;
+            if (payload == null) {
+                // end of this segment (rolled, or torn tail before a restart)
+                position = offset(segment.number + 1, 0);
+                continue;
+            }
+            long next = offset(segment.number, p + HEADER_BYTES + payload.length);
+            entries.add(new Entry(position, next, payload));
+            position = next;
+        }
+        return entries;
+    }
+
+    // Drops segments that lie completely before the offset (already applied)
+    public void deleteSegmentsBefore(long offset) {
+        int keepFrom = segmentOf(offset);
+        List<Segment> obsolete = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Integer, Segment>> it = segments.entrySet().iterator();
+            while (it.hasNext()) {
+                Segment segment = it.next().getValue();
+                if (segment.number >= keepFrom || segment == active) break;
+                obsolete.add(segment);
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Segment segment : obsolete) {
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path); // the mapping itself is released when the buffer is collected
+                logger.info("🧹 [JOURNAL] Deleted applied segment {}", segment.path.getFileName());
+            } catch (IOException e) {
+                logger.warn("⚠️ [JOURNAL] Could not delete {}: {}", segment.path, e.getMessage());
+            }
+        }
+    }
+
+    public long firstOffset() {
+        lock.lock();
+        try {
+            return offset(segments.firstKey(), 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long durableOffset() {
+        lock.lock();
+        try {
+            return durableOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendCount() {
+        lock.lock();
+        try {
+            return appendCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long syncCount() {
+        lock.lock();
+        try {
+            return syncCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            syncNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            active.buffer.force();
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ [JOURNAL] Error while closing: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    static long offset(int segment, int position) {
+        return ((long) segment << 32) | position;
+    }
+
+    static int segmentOf(long offset) {
+        return (int) (offset >>> 32);
+    }
+
+    static int positionOf(long offset) {
+        return (int) offset;
+    }
+
+    private Segment segment(int number) {
+        lock.lock();
+        try {
+            return segments.get(number);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Payload of the record at the position, or null if there is no valid record there
+    private static byte[] readRecord(Segment segment, int position) {
+        MappedByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + length > segment.size()) return null;
+
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? payload : null;
+    }
+
+    // Position after the last valid record, or -1 if the segment ends in a torn record
+    private static int scanTail(Segment segment) {
+        int position = 0;
+        while (position + HEADER_BYTES <= segment.size()) {
+            byte[] payload = readRecord(segment, position);
+            if (payload == null) {
+                return segment.buffer.getInt(position) == 0 ? position : -1;
+            }
+            position += HEADER_BYTES + payload.length;
+        }
+        return position;
+    }
+
+    private Segment createSegment(int number) throws IOException {
+        Path path = directory.resolve(String.format("%s%010d%s", PREFIX, number, SUFFIX));
+        Segment segment = map(number, path, segmentBytes);
+        segments.put(number, segment);
+        logger.info("📒 [JOURNAL] Opened segment {}", path.getFileName());
+        return segment;
+    }
+
+    private static Segment map(int number, Path path, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(number, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.config.WalletProperties;
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.OutcomeUnknownException;
+import com.example.digitalWalletApp.exception.ServiceBusyException;
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.mapper.WalletMapper;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.JournalCheckpointRepository;
+import com.example.digitalWalletApp.repository.LedgerDeadLetterRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.DailyLimitClock;
+import com.example.digitalWalletApp.service.wallet.LedgerBatchWriter;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import com.example.digitalWalletApp.service.wallet.WalletValidator;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import com.example.digitalWalletApp.service.wallet.engine.WalletStatePersister.TransferMarker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+Sharded single-writer wallet engine (wallet.engine.mode=sharded).
+
+Wallets are partitioned by user id into N shards. Each shard owns an in-memory table of its wallets
+(balance / dailySpent / frozen) and a single writer thread, so operations on the same wallet are
+serialized by construction: no version checks, no retry loop, no sleep.
+
+How changes reach the wallet and transactions tables is up to the WalletStatePersister
+(wallet.engine.persistence):
+ - write_behind (default): acknowledged as soon as the shard applied them, flushed every
+   wallet.engine.persist-interval-ms,
+ - journal: acknowledged once the operation is durable in the ledger journal (group-committed fsync),
+   projected into the tables by a background applier and replayed from its checkpoint after a crash.
+Either way the DB trails the engine a little; reads that go straight to WalletRepository may see that lag.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.engine", name = "mode", havingValue = "sharded")
+public class ShardedWalletEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedWalletEngine.class);
+
+    private final WalletFactory walletFactory;
+    private final WalletValidator walletValidator;
+    private final WalletMapper walletMapper;
+    private final WalletProperties walletProperties;
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final long operationTimeoutMs;
+
+    private final WalletShard[] shards;
+    private final WalletStatePersister persister;
+    private final DailyLimitClock dailyLimitClock;
+
+    public ShardedWalletEngine(WalletEngineProperties engineProperties,
+                               WalletProperties walletProperties,
+                               WalletFactory walletFactory,
+                               WalletValidator walletValidator,
+                               WalletMapper walletMapper,
+                               UserRepository userRepository,
+                               WalletRepository walletRepository,
+                               TransactionRepository transactionRepository,
+                               LedgerBatchWriter ledgerWriter,
+                               JournalCheckpointRepository checkpointRepository,
+                               LedgerDeadLetterRepository deadLetterRepository,
+                               WalletCache walletCache,
+                               PlatformTransactionManager transactionManager,
+                               DailyLimitClock dailyLimitClock) {
+        this.walletFactory = walletFactory;
+        this.walletValidator = walletValidator;
+        this.walletMapper = walletMapper;
+        this.walletProperties = walletProperties;
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.operationTimeoutMs = engineProperties.getOperationTimeoutMs();
+        this.dailyLimitClock = dailyLimitClock;
+
+        int shardCount = Math.max(1, engineProperties.getShards());
+        this.shards = new WalletShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new WalletShard(i);
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        if (engineProperties.getPersistence() == WalletEngineProperties.Persistence.JOURNAL) {
+            WalletEngineProperties.Journal journal = engineProperties.getJournal();
+            this.persister = new JournalPersister(Path.of(journal.getDirectory()), journal.getSegmentBytes(),
+                    journal.getApplyBatchSize(), journal.getApplyIntervalMs(), operationTimeoutMs,
+                    walletRepository, userRepository, walletFactory, ledgerWriter, checkpointRepository, transactionTemplate, walletCache, dailyLimitClock);
+        } else {
+            this.persister = new WriteBehindPersister(walletRepository, transactionRepository, transactionTemplate,
+                    walletCache, deadLetterRepository, engineProperties.getPersistIntervalMs(), engineProperties.getFlushMaxAttempts());
+        }
+
+        logger.info("🧩 Sharded wallet engine started with {} shard(s), persistence {}",
+                shardCount, engineProperties.getPersistence());
+    }
+
+    // --------------------------------------------------------------------
+    // LOAD MONEY — applied on the owner shard of the user
+    // --------------------------------------------------------------------
+    public LoadMoneyResponse loadMoney(User user, long amount, long transactionId) {
+        walletValidator.validateAmount(amount, "Load");
+        reserve(transactionId);
+
+        WalletShard.Task<Applied<LoadMoneyResponse>> load = shardFor(user.getId()).submit(wallets -> {
+            Wallet wallet = walletOf(wallets, user);
+            wallet.resetDailyIfNewDay(dailyLimitClock.today());
+            walletValidator.validateDailyLimit(wallet, amount);
+
+            wallet.setBalance(wallet.getBalance() + amount);
+            wallet.setDailySpent(wallet.getDailySpent() + amount);
+            if (wallet.getDailySpent() >= walletProperties.getDailyLimitMinor()) {
+                wallet.setFrozen(true);
+            }
+
+            Transaction txn = new Transaction(user, amount, "SELF_CREDITED");
+            txn.setTransactionId(transactionId);
+            long ticket = persister.persist(List.of(wallet), List.of(txn), null);
+
+            LoadMoneyResponse r = walletMapper.toLoadMoneyResponse(wallet);
+            r.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - wallet.getDailySpent());
+            r.setFrozen(wallet.getFrozen());
+            return new Applied<>(r, ticket);
+        });
+        Applied<LoadMoneyResponse> applied = await(load, load.result(), transactionId);
+        awaitDurable(applied.ticket(), transactionId);
+
+        LoadMoneyResponse response = applied.result();
+        response.setMessage("Wallet loaded successfully ✅");
+        return response;
+    }
+
+    // --------------------------------------------------------------------
+    // TRANSFER — debit on the sender's shard, then credit on the recipient's shard.
+    // The credit has no business rule that can reject it, so once the debit is applied the transfer
+    // only fails on an infrastructure error, in which case the debit is compensated.
+    // The credit leg (or the refund) is chained to the debit leg rather than driven by the request thread,
+    // so it completes even when the caller stops waiting: a transfer always ends fully applied or refunded.
+    // Both legs carry a transfer marker so the journal can complete a transfer cut in half by a crash.
+    // --------------------------------------------------------------------
+    public TransferResponse transfer(User sender, Long recipientId, long amount, long transactionId) {
+        walletValidator.validateAmount(amount, "Transfer");
+        User recipient = userRepository.findById(recipientId)
+                .orElseThrow(() -> new UserNotFoundException("Recipient not found"));
+        reserve(transactionId);
+
+        WalletShard.Task<TransferResponse> debit = shardFor(sender.getId()).submit(wallets -> {
+            Wallet senderWallet = walletOf(wallets, sender);
+            senderWallet.resetDailyIfNewDay(dailyLimitClock.today());
+            walletValidator.validateFrozen(senderWallet);
+            walletValidator.validateBalance(senderWallet, amount);
+
+            senderWallet.setBalance(senderWallet.getBalance() - amount);
+            senderWallet.setDailySpent(senderWallet.getDailySpent() + amount);
+            if (senderWallet.getDailySpent() >= walletProperties.getDailyLimitMinor())
+                senderWallet.setFrozen(true);
+            persister.persist(List.of(senderWallet), List.of(),
+                    TransferMarker.opened(transactionId, sender.getId(), recipient.getId(), amount));
+
+            TransferResponse r = walletMapper.toTransferResponse(senderWallet);
+            r.setAmountTransferred(amount);
+            r.setRemainingDailyLimit(walletProperties.getDailyLimitMinor() - senderWallet.getDailySpent());
+            r.setFrozen(senderWallet.getFrozen());
+            return r;
+        });
+        CompletableFuture<Applied<TransferResponse>> transfer = debit.result().thenCompose(response ->
+                credit(sender, recipient, amount, transactionId).thenApply(ticket -> new Applied<>(response, ticket)));
+
+        // the credit leg was appended after the debit leg, so its ticket covers both
+        Applied<TransferResponse> applied = await(debit, transfer, transactionId);
+        awaitDurable(applied.ticket(), transactionId);
+
+        TransferResponse response = applied.result();
+        response.setMessage("Transfer successful ✅");
+        return response;
+    }
+
+    // Credit leg on the recipient's shard; if it fails, the refund on the sender's shard closes the transfer instead
+    private CompletableFuture<Long> credit(User sender, User recipient, long amount, long transactionId) {
+        CompletableFuture<Long> credited;
+        try {
+            credited = shardFor(recipient.getId()).submit(wallets -> {
+                Wallet recipientWallet = walletOf(wallets, recipient);
+                recipientWallet.resetDailyIfNewDay(dailyLimitClock.today());
+                recipientWallet.setBalance(recipientWallet.getBalance() + amount);
+
+                Transaction debit = new Transaction(sender, amount, "DEBIT");
+                debit.setTransactionId(transactionId);
+                Transaction credit = new Transaction(recipient, amount, "CREDIT");
+                credit.setTransactionId(transactionId);
+                return persister.persist(List.of(recipientWallet), List.of(debit, credit), TransferMarker.closed(transactionId));
+            }).result();
+        } catch (RuntimeException e) {
+            credited = CompletableFuture.failedFuture(e); // shard no longer accepting work
+        }
+        return credited.exceptionallyCompose(failure -> refund(sender, amount, transactionId, unwrap(failure)));
+    }
+
+    // Completes exceptionally either way: with Refunded once the sender has the money back, or with
+    // OutcomeUnknownException if even the refund failed (the transfer is then left to journal recovery)
+    private CompletableFuture<Long> refund(User sender, long amount, long transactionId, Throwable creditFailure) {
+        logger.error("💥 [SHARDED] Credit leg failed for txnId={} — refunding sender", transactionId, creditFailure);
+        CompletableFuture<Long> refunded;
+        try {
+            refunded = shardFor(sender.getId()).submit(wallets -> {
+                Wallet senderWallet = walletOf(wallets, sender);
+                senderWallet.setBalance(senderWallet.getBalance() + amount);
+                senderWallet.setDailySpent(Math.max(0L, senderWallet.getDailySpent() - amount));
+                return persister.persist(List.of(senderWallet), List.of(), TransferMarker.closed(transactionId));
+            }).result();
+        } catch (RuntimeException e) {
+            refunded = CompletableFuture.failedFuture(e);
+        }
+        return refunded.handle((refundTicket, refundFailure) -> {
+            if (refundFailure != null) {
+                logger.error("💥 [SHARDED] Refund failed for txnId={}", transactionId, unwrap(refundFailure));
+                throw new OutcomeUnknownException("Transfer could not be completed nor refunded", transactionId, unwrap(refundFailure));
+            }
+            throw new Refunded(creditFailure, refundTicket);
+        });
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+    private WalletShard shardFor(Long userId) {
+        return shards[(int) Math.floorMod(userId, (long) shards.length)];
+    }
+
+    // First touch of a wallet loads it from the DB on the shard thread; afterwards the shard's copy is authoritative.
+    private Wallet walletOf(Map<Long, Wallet> wallets, User user) {
+        return wallets.computeIfAbsent(user.getId(), id -> walletFactory.getOrCreateWallet(user));
+    }
+
+    private record Applied<T>(T result, long ticket) {}
+
+    // The caller's DB check can race with the persister releasing an id it just wrote, so look again once reserved
+    private void reserve(long transactionId) {
+        if (!persister.reserveTransactionId(transactionId)) {
+            throw new IllegalArgumentException("Duplicate transaction — already processed.");
+        }
+        if (transactionRepository.existsByTransactionIdAndTimestampGreaterThanEqual(
+                transactionId, TransactionIdGenerator.earliestLedgerTime(transactionId))) {
+            persister.releaseTransactionId(transactionId);
+            throw new IllegalArgumentException("Duplicate transaction — already processed.");
+        }
+    }
+
+    /*
+    Waits for an operation whose first shard task is `first`. How the reservation of the transaction id ends:
+     - the operation failed, or timed out before `first` started (cancelled, so it never will): released
+     - it timed out after `first` started: it may still apply, so the caller gets OutcomeUnknownException and the id
+       stays reserved until the persister writes its ledger rows (or is released if the operation fails after all)
+     */
+    private <T> T await(WalletShard.Task<?> first, CompletableFuture<T> outcome, long transactionId) {
+        try {
+            return outcome.get(operationTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failed(unwrap(e), transactionId);
+        } catch (TimeoutException e) {
+            throw gaveUp(first, outcome, transactionId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw gaveUp(first, outcome, transactionId, e);
+        }
+    }
+
+    private RuntimeException failed(Throwable failure, long transactionId) {
+        if (failure instanceof OutcomeUnknownException unknown) return unknown;
+        if (failure instanceof Refunded refunded) {
+            awaitDurable(refunded.ticket, transactionId); // told "failed" only once the refund survives a crash
+            failure = refunded.getCause();
+        }
+        persister.releaseTransactionId(transactionId);
+        return failure instanceof RuntimeException re ? re : new IllegalStateException("Wallet operation failed", failure);
+    }
+
+    private RuntimeException gaveUp(WalletShard.Task<?> first, CompletableFuture<?> outcome, long transactionId, Exception e) {
+        if (first.cancel()) {
+            persister.releaseTransactionId(transactionId);
+            return new ServiceBusyException("Wallet shard did not start the operation within " + operationTimeoutMs
+                    + " ms; nothing was applied", 1);
+        }
+        outcome.whenComplete((result, failure) -> {
+            if (failure == null) return; // applied: the persister releases the id with the ledger rows
+            if (!(unwrap(failure) instanceof OutcomeUnknownException)) persister.releaseTransactionId(transactionId);
+        });
+        logger.warn("⏳ [SHARDED] txnId={} still running after {} ms, reporting its outcome as unknown", transactionId, operationTimeoutMs);
+        return new OutcomeUnknownException("Wallet shard did not finish within " + operationTimeoutMs
+                + " ms; the operation may still be applied", transactionId, e);
+    }
+
+    // The operation is applied in memory; until it is durable a crash could still lose it
+    private void awaitDurable(long ticket, long transactionId) {
+        try {
+            persister.awaitDurable(ticket);
+        } catch (RuntimeException e) {
+            throw new OutcomeUnknownException("Wallet operation applied but not yet confirmed durable", transactionId, e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    // A transfer whose credit leg failed and whose sender was refunded (definitely not applied)
+    private static final class Refunded extends RuntimeException {
+        private final long ticket;
+
+        Refunded(Throwable creditFailure, long ticket) {
+            super(creditFailure.getMessage(), creditFailure, false, false);
+            this.ticket = ticket;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (WalletShard shard : shards) {
+            shard.shutdown(operationTimeoutMs);
+        }
+        persister.shutdown();
+        logger.info("🧩 Sharded wallet engine stopped, pending state flushed");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import com.example.digitalWalletApp.model.Wallet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/*
+One shard = one writer thread + the wallets it owns.
+
+Every read/modify of a wallet owned by this shard runs on the shard thread, so operations on the
+same wallet are applied one after another without locks or optimistic retries. The state map is
+only touched from that thread, which is why a plain HashMap is enough.
+
+Submitted operations are Tasks: a task that has not started yet can be cancelled, and then never runs. Once the
+shard thread has picked it up it always runs to the end, so a caller that stops waiting must not assume it failed.
+ */
+class WalletShard {
+
+    private final int index;
+    private final ExecutorService writer;
+    private final Map<Long, Wallet> wallets = new HashMap<>(); // userId -> in-memory wallet (shard thread only)
+
+    WalletShard(int index) {
+        this.index = index;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "wallet-shard-" + index);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    static final class Task<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        CompletableFuture<T> result() {
+            return result;
+        }
+
+        // true if the task had not started: it never will, and it has touched no wallet
+        boolean cancel() {
+            if (!started.compareAndSet(false, true)) return false;
+            result.cancel(false);
+            return true;
+        }
+    }
+
+    // Queues the operation for the shard thread. The function receives the shard's wallet table.
+    <T> Task<T> submit(Function<Map<Long, Wallet>, T> operation) {
+        Task<T> task = new Task<>();
+        writer.execute(() -> {
+            if (!task.started.compareAndSet(false, true)) return; // cancelled while queued
+            try {
+                task.result.complete(operation.apply(wallets));
+            } catch (Throwable e) {
+                task.result.completeExceptionally(e);
+            }
+        });
+        return task;
+    }
+
+    void shutdown(long timeoutMs) throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.Wallet;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+How the sharded engine gets its in-memory state into the wallet and transactions tables
+(wallet.engine.persistence):
+ - WriteBehindPersister: acknowledged immediately, flushed to the DB every persist-interval-ms,
+ - JournalPersister: acknowledged once the operation is durable in the ledger journal, projected into the DB
+   by a background applier.
+
+persist() is called on the shard thread that owns the wallets, so the order of calls for one wallet is the
+order in which its operations were applied.
+ */
+interface WalletStatePersister {
+
+    record WalletSnapshot(Long walletId, long balance, long dailySpent, boolean frozen, LocalDate lastTransactionDate) {
+        static WalletSnapshot of(Wallet wallet) {
+            return new WalletSnapshot(wallet.getId(), wallet.getBalance(), wallet.getDailySpent(),
+                    wallet.getFrozen(), wallet.getLastTransactionDate());
+        }
+    }
+
+    // Marks the two legs of a transfer: the debit leg opens it, the credit leg (or the refund after a failed credit) closes it
+    record TransferMarker(long transactionId, boolean opens, long senderUserId, long recipientUserId, long amount) {
+        static TransferMarker opened(long transactionId, long senderUserId, long recipientUserId, long amount) {
+            return new TransferMarker(transactionId, true, senderUserId, recipientUserId, amount);
+        }
+
+        static TransferMarker closed(long transactionId) {
+            return new TransferMarker(transactionId, false, 0L, 0L, 0L);
+        }
+    }
+
+    // Reserves a transaction id until its ledger rows are written, so a duplicate submitted inside the
+    // persistence window is still rejected (the DB check in WalletTransactionService cannot see it yet).
+    boolean reserveTransactionId(long transactionId);
+
+    void releaseTransactionId(long transactionId);
+
+    // Records the state of the wallets after an operation plus its ledger rows; returns a ticket for awaitDurable
+    long persist(List<Wallet> wallets, List<Transaction> ledgerRows, TransferMarker transfer);
+
+    // Blocks the caller (not the shard thread) until the operation behind the ticket survives a crash
+    void awaitDurable(long ticket);
+
+    void shutdown() throws InterruptedException;
+}
@@ -0,0 +1,232 @@
+package com.example.digitalWalletApp.service.wallet.engine;
+
+import com.example.digitalWalletApp.model.LedgerDeadLetter;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.LedgerDeadLetterRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+Write-behind for the sharded engine (wallet.engine.persistence=write_behind).
+
+Shard threads hand over a snapshot of every wallet they change plus the ledger rows of the operation.
+A single background thread flushes them every few milliseconds in one DB transaction:
+ - wallet snapshots are coalesced per wallet (only the latest state of a hot wallet is written),
+ - ledger rows are inserted in arrival order.
+
+When that transaction fails, the same flush writes every snapshot and row on its own, so one bad row cannot hold
+back the rest. A failure is charged to its item only if the database took other writes in that pass, or rejected
+the item itself (integrity violation). With the database unreachable nothing is charged and everything waits.
+After wallet.engine.flush-max-attempts charged failures:
+ - a ledger row goes to ledger_dead_letter (LedgerDeadLetter) with an error log; its transaction id stays reserved,
+   since the wallets already include the operation
+ - a wallet snapshot is dropped with an error log; the table keeps the older state until the wallet changes again
+ */
+class WriteBehindPersister implements WalletStatePersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindPersister.class);
+
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletCache walletCache;
+    private final LedgerDeadLetterRepository deadLetters;
+    private final int maxAttempts;
+
+    // a queued ledger row and how many charged failures it has had
+    private record PendingRow(Transaction row, int attempts) {
+        // a failed INSERT leaves the sequence id on the entity: retry with a copy that has none
+        PendingRow retry(boolean charged) {
+            Transaction copy = new Transaction(row.getUser(), row.getAmount(), row.getType());
+            copy.setTransactionId(row.getTransactionId());
+            copy.setTimestamp(row.getTimestamp());
+            return new PendingRow(copy, charged ? attempts + 1 : attempts);
+        }
+    }
+
+    private final Map<Long, WalletSnapshot> dirtyWallets = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> snapshotAttempts = new ConcurrentHashMap<>(); // flusher thread only
+    private final ConcurrentLinkedQueue<PendingRow> pendingTransactions = new ConcurrentLinkedQueue<>();
+    private final Set<Long> pendingTransactionIds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    WriteBehindPersister(WalletRepository walletRepository,
+                         TransactionRepository transactionRepository,
+                         TransactionTemplate transactionTemplate,
+                         WalletCache walletCache,
+                         LedgerDeadLetterRepository deadLetters,
+                         long flushIntervalMs,
+                         int maxAttempts) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.walletCache = walletCache;
+        this.deadLetters = deadLetters;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wallet-persister");
+            t.setDaemon(true);
+            return t;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean reserveTransactionId(long transactionId) {
+        return pendingTransactionIds.add(transactionId);
+    }
+
+    @Override
+    public void releaseTransactionId(long transactionId) {
+        pendingTransactionIds.remove(transactionId);
+    }
+
+    // Transfer markers are not needed here: both legs live only in memory until the next flush
+    @Override
+    public long persist(List<Wallet> wallets, List<Transaction> ledgerRows, TransferMarker transfer) {
+        for (Wallet wallet : wallets) {
+            dirtyWallets.put(wallet.getId(), WalletSnapshot.of(wallet));
+        }
+        for (Transaction row : ledgerRows) pendingTransactions.add(new PendingRow(row, 0));
+        return 0L;
+    }
+
+    @Override
+    public void awaitDurable(long ticket) {
+        // acknowledged on apply; durability trails by up to one flush interval
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("💥 [PERSIST] Flush failed, will retry on next tick: {}", e.getMessage(), e);
+        }
+    }
+
+    void flush() {
+        if (dirtyWallets.isEmpty() && pendingTransactions.isEmpty()) return;
+
+        List<WalletSnapshot> snapshots = new ArrayList<>();
+        for (Long walletId : dirtyWallets.keySet()) {
+            WalletSnapshot snapshot = dirtyWallets.remove(walletId);
+            if (snapshot != null) snapshots.add(snapshot);
+        }
+        List<PendingRow> rows = new ArrayList<>();
+        PendingRow pending;
+        while ((pending = pendingTransactions.poll()) != null) {
+            rows.add(pending);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                snapshots.forEach(this::write);
+                transactionRepository.saveAll(rows.stream().map(PendingRow::row).toList());
+            });
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ [PERSIST] Batch flush failed ({}), writing {} wallet(s) and {} ledger row(s) one by one",
+                    e.getMessage(), snapshots.size(), rows.size());
+            flushOneByOne(snapshots, rows);
+            return;
+        }
+
+        snapshots.forEach(s -> snapshotAttempts.remove(s.walletId()));
+        rows.forEach(r -> pendingTransactionIds.remove(r.row().getTransactionId()));
+        logger.debug("💾 [PERSIST] Flushed {} wallet(s), {} ledger row(s)", snapshots.size(), rows.size());
+    }
+
+    private void flushOneByOne(List<WalletSnapshot> snapshots, List<PendingRow> rows) {
+        Map<WalletSnapshot, RuntimeException> failedSnapshots = new LinkedHashMap<>();
+        Map<PendingRow, RuntimeException> failedRows = new LinkedHashMap<>();
+        int written = 0;
+        for (WalletSnapshot s : snapshots) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(s));
+                snapshotAttempts.remove(s.walletId());
+                written++;
+            } catch (RuntimeException e) {
+                failedSnapshots.put(s, e);
+            }
+        }
+        for (PendingRow r : rows) {
+            PendingRow attempt = r.retry(false);
+            try {
+                transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAndFlush(attempt.row()));
+                pendingTransactionIds.remove(attempt.row().getTransactionId());
+                written++;
+            } catch (RuntimeException e) {
+                failedRows.put(attempt, e);
+            }
+        }
+
+        boolean databaseUp = written > 0;
+        failedSnapshots.forEach((s, e) -> {
+            boolean charged = databaseUp || e instanceof DataIntegrityViolationException;
+            int attempts = charged ? snapshotAttempts.merge(s.walletId(), 1, Integer::sum) : snapshotAttempts.getOrDefault(s.walletId(), 0);
+            if (attempts < maxAttempts) {
+                dirtyWallets.putIfAbsent(s.walletId(), s); // a newer snapshot taken meanwhile wins
+                return;
+            }
+            snapshotAttempts.remove(s.walletId());
+            logger.error("💀 [PERSIST] Dropping wallet {} snapshot after {} attempts (balance={}, dailySpent={}, frozen={}): {}",
+                    s.walletId(), attempts, s.balance(), s.dailySpent(), s.frozen(), e.getMessage(), e);
+        });
+        failedRows.forEach((r, e) -> {
+            PendingRow next = databaseUp || e instanceof DataIntegrityViolationException ? r.retry(true) : r;
+            if (next.attempts() < maxAttempts) pendingTransactions.add(next);
+            else deadLetter(next, e);
+        });
+
+        int failed = failedSnapshots.size() + failedRows.size();
+        if (failed > 0) {
+            logger.warn("⚠️ [PERSIST] One-by-one flush: {} written, {} failed (database {})",
+                    written, failed, databaseUp ? "up" : "unreachable, nothing charged");
+        }
+    }
+
+    private void write(WalletSnapshot s) {
+        walletRepository.overwriteState(s.walletId(), s.balance(), s.dailySpent(), s.frozen(), s.lastTransactionDate());
+        walletCache.evictWalletAfterCommit(s.walletId());
+    }
+
+    // The transaction id is not released: the wallets already include this operation, it must not be applied again
+    private void deadLetter(PendingRow pending, RuntimeException cause) {
+        Transaction row = pending.row();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    deadLetters.save(new LedgerDeadLetter(row, pending.attempts(), String.valueOf(cause.getMessage()))));
+        } catch (RuntimeException e) {
+            logger.error("💥 [PERSIST] Could not dead-letter ledger row txnId={}, keeping it queued: {}",
+                    row.getTransactionId(), e.getMessage());
+            pendingTransactions.add(pending);
+            return;
+        }
+        logger.error("💀 [PERSIST] Ledger row dead-lettered after {} attempts | txnId={} | user={} | type={} | amount={}: {}",
+                pending.attempts(), row.getTransactionId(), row.getUser() == null ? null : row.getUser().getId(),
+                row.getType(), row.getAmount(), cause.getMessage(), cause);
+    }
+
+    @Override
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
@@ -0,0 +1,25 @@
+-- ===========================================
+-- MIGRATION: money as long minor units (cents)
+-- ===========================================
+-- Amounts used to be DOUBLE major units (12.34). The entities now hold them as
+-- BIGINT cents (1234). ddl-auto=update does not change existing column types,
+-- so run this once against an existing schema before starting the new build.
+-- ROUND() absorbs the binary-fraction noise the DOUBLE columns accumulated.
+
+USE digitalWalletApp;
+
+UPDATE `wallet` SET balance = ROUND(balance * 100), daily_spent = ROUND(daily_spent * 100);
+ALTER TABLE `wallet`
+    MODIFY balance BIGINT NOT NULL DEFAULT 0,
+    MODIFY daily_spent BIGINT NOT NULL DEFAULT 0;
+
+UPDATE `transactions` SET amount = ROUND(amount * 100);
+ALTER TABLE `transactions` MODIFY amount BIGINT NOT NULL;
+
+UPDATE payout_item SET amount = ROUND(amount * 100);
+ALTER TABLE payout_item MODIFY amount BIGINT;
+
+UPDATE payout_job SET total_amount = ROUND(total_amount * 100), paid_amount = ROUND(paid_amount * 100);
+ALTER TABLE payout_job
+    MODIFY total_amount BIGINT NOT NULL DEFAULT 0,
+    MODIFY paid_amount BIGINT NOT NULL DEFAULT 0;
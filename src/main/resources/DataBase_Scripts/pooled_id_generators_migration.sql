@@ -0,0 +1,27 @@
+-- ===========================================
+-- MIGRATION: pooled id generators for transactions, wallet and user
+-- ===========================================
+-- The primary keys used to be AUTO_INCREMENT (GenerationType.IDENTITY), which
+-- stops Hibernate from batching INSERTs. They now come from pooled generators
+-- (allocationSize 50). MySQL has no sequences, so Hibernate keeps each one in a
+-- single-row table (<name>_seq.next_val). ddl-auto=update would create these
+-- tables starting at 1 and hand out ids that already exist, so run this once
+-- against an existing schema before starting the new build.
+--
+-- next_val is the upper end of the next block Hibernate hands out, so seed it one
+-- block (50) above the current maximum. AUTO_INCREMENT stays on the columns; it
+-- is harmless once the application supplies the ids.
+
+USE digitalWalletApp;
+
+CREATE TABLE IF NOT EXISTS transactions_seq (next_val BIGINT);
+DELETE FROM transactions_seq;
+INSERT INTO transactions_seq SELECT COALESCE(MAX(id), 0) + 51 FROM `transactions`;
+
+CREATE TABLE IF NOT EXISTS wallet_seq (next_val BIGINT);
+DELETE FROM wallet_seq;
+INSERT INTO wallet_seq SELECT COALESCE(MAX(id), 0) + 51 FROM `wallet`;
+
+CREATE TABLE IF NOT EXISTS user_seq (next_val BIGINT);
+DELETE FROM user_seq;
+INSERT INTO user_seq SELECT COALESCE(MAX(id), 0) + 51 FROM `user`;
@@ -0,0 +1,47 @@
+-- ===========================================
+-- MIGRATION: numeric time-ordered transaction ids
+-- ===========================================
+-- transaction_id used to be a random UUID string (VARCHAR, unique), and the
+-- credit leg of a transfer carried "<id>-CREDIT". It is now a BIGINT from
+-- TransactionIdGenerator, shared by both legs and unique per (transaction_id, type).
+-- ddl-auto=update does not change column types or drop indexes, so run this once
+-- against an existing schema before starting the new build. If the sharded engine
+-- ran with wallet.engine.persistence=journal, let it apply the journal and stop it
+-- cleanly first: the journal record format changed as well.
+--
+-- Old rows get their primary key as id (far below any generated id, so no clash);
+-- the old string is kept in legacy_transaction_id.
+
+USE digitalWalletApp;
+
+ALTER TABLE `transactions` CHANGE transaction_id legacy_transaction_id VARCHAR(255) NULL;
+ALTER TABLE `transactions` ADD COLUMN transaction_id BIGINT NULL;
+
+UPDATE `transactions` SET transaction_id = id WHERE legacy_transaction_id NOT LIKE '%-CREDIT';
+UPDATE `transactions` c
+    JOIN `transactions` d ON c.legacy_transaction_id = CONCAT(d.legacy_transaction_id, '-CREDIT')
+    SET c.transaction_id = d.transaction_id;
+UPDATE `transactions` SET transaction_id = id WHERE transaction_id IS NULL;
+
+-- drop the old unique index on the string column (named UK_... by Hibernate; see SHOW INDEX FROM `transactions`)
+-- ALTER TABLE `transactions` DROP INDEX <old unique index>;
+ALTER TABLE `transactions`
+    MODIFY transaction_id BIGINT NOT NULL,
+    ADD CONSTRAINT uk_transactions_txn_type UNIQUE (transaction_id, type);
+
+ALTER TABLE payout_item CHANGE transaction_id legacy_transaction_id VARCHAR(255) NULL;
+ALTER TABLE payout_item ADD COLUMN transaction_id BIGINT NULL;
+UPDATE payout_item p
+    JOIN `transactions` t ON t.legacy_transaction_id = p.legacy_transaction_id
+    SET p.transaction_id = t.transaction_id;
+
+-- idempotency records: the transaction id becomes numeric, the response is empty while a request is in flight
+ALTER TABLE idempotency_record CHANGE transaction_id legacy_transaction_id VARCHAR(64) NULL;
+ALTER TABLE idempotency_record ADD COLUMN transaction_id BIGINT NULL;
+UPDATE idempotency_record r
+    JOIN `transactions` t ON t.legacy_transaction_id = r.legacy_transaction_id
+    SET r.transaction_id = t.transaction_id;
+DELETE FROM idempotency_record WHERE transaction_id IS NULL;
+ALTER TABLE idempotency_record
+    MODIFY transaction_id BIGINT NOT NULL,
+    MODIFY response_body VARCHAR(4000) NULL;
@@ -0,0 +1,144 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.simulated-delay-ms=0",
+        "wallet.transfer.async.workers=2"
+})
+@AutoConfigureMockMvc
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class AsyncTransferIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferIntegrationTest.class);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TestWallets testWallets;
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    private long submit(User sender, Long receiverId, String amount) throws Exception {
+        String body = mockMvc.perform(post("/api/wallet/transfers/async")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(sender))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"receiverId\":" + receiverId + ",\"amount\":" + amount + "}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("transferId").asLong();
+    }
+
+    // Polls GET /transfers/{id} until the transfer left PENDING
+    private JsonNode awaitFinished(User sender, long transferId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/wallet/transfers/" + transferId)
+                            .header(HttpHeaders.AUTHORIZATION, bearer(sender)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode transfer = objectMapper.readTree(body);
+            if (!"PENDING".equals(transfer.get("status").asText())) return transfer;
+            assertThat(System.currentTimeMillis()).as("transfer still PENDING").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ✅ 202 with an id, then COMPLETED with the resulting balance
+    // ------------------------------------------------------------
+    @Test
+    void acceptedTransfer_completesInTheBackground() throws Exception {
+        logger.info("🔹 TEST START: acceptedTransfer_completesInTheBackground");
+
+        User sender = testWallets.newUserWithWallet("async-sender@example.com", 10_000L);
+        User recipient = testWallets.newUserWithWallet("async-recipient@example.com", 0L);
+
+        long transferId = submit(sender, recipient.getId(), "25.00");
+        JsonNode done = awaitFinished(sender, transferId);
+
+        assertThat(done.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(done.get("senderBalance").asDouble()).isEqualTo(75.00);
+        assertThat(walletRepository.findByUser(recipient).orElseThrow().getBalance()).isEqualTo(2500L);
+        logger.info("✅ Test passed — transfer {} completed asynchronously", transferId);
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Wallet rules are applied by the worker: FAILED with the reason, nothing moved
+    // ------------------------------------------------------------
+    @Test
+    void insufficientBalance_endsAsFailed() throws Exception {
+        logger.info("🔹 TEST START: insufficientBalance_endsAsFailed");
+
+        User sender = testWallets.newUserWithWallet("async-poor@example.com", 100L);
+        User recipient = testWallets.newUserWithWallet("async-poor-recipient@example.com", 0L);
+
+        JsonNode done = awaitFinished(sender, submit(sender, recipient.getId(), "50.00"));
+
+        assertThat(done.get("status").asText()).isEqualTo("FAILED");
+        assertThat(done.get("message").asText()).isEqualTo("Insufficient balance");
+        assertThat(walletRepository.findByUser(sender).orElseThrow().getBalance()).isEqualTo(100L);
+        logger.info("✅ Test passed — FAILED: {}", done.get("message").asText());
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Checks that need no wallet are answered at submission; other users cannot read the transfer
+    // ------------------------------------------------------------
+    @Test
+    void invalidSubmissionAndForeignReads_areRejected() throws Exception {
+        logger.info("🔹 TEST START: invalidSubmissionAndForeignReads_areRejected");
+
+        User sender = testWallets.newUserWithWallet("async-strict@example.com", 10_000L);
+        User other = testWallets.newUserWithWallet("async-other@example.com", 0L);
+
+        mockMvc.perform(post("/api/wallet/transfers/async")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(sender))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"receiverId\":999999,\"amount\":5.00}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/wallet/transfers/async")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(sender))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"receiverId\":" + other.getId() + ",\"amount\":50000.00}"))
+                .andExpect(status().isBadRequest());
+
+        long transferId = submit(sender, other.getId(), "1.00");
+        mockMvc.perform(get("/api/wallet/transfers/" + transferId).header(HttpHeaders.AUTHORIZATION, bearer(other)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/wallet/transfers/999999").header(HttpHeaders.AUTHORIZATION, bearer(sender)))
+                .andExpect(status().isNotFound());
+        awaitFinished(sender, transferId);
+        logger.info("✅ Test passed — 404 / 400 at submission, foreign or unknown transfer 404");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.TransferRequest;
+import com.example.digitalWalletApp.model.AsyncTransfer;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.AsyncTransferRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.transfer.AsyncTransferService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Sharded engine with a 1 ms operation timeout: many async transfers end their engine call with "busy" (never applied)
+or "outcome unknown" (applied a moment later). Re-checks every 50 ms, enough of them to outlast the write-behind flush.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=1000000",
+        "wallet.engine.mode=sharded",
+        "wallet.engine.shards=2",
+        "wallet.engine.persist-interval-ms=20",
+        "wallet.engine.operation-timeout-ms=1",
+        "wallet.transfer.async.workers=8",
+        "wallet.transfer.async.outcome-recheck-ms=50",
+        "wallet.transfer.async.outcome-recheck-attempts=100"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class AsyncTransferTimeoutIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferTimeoutIntegrationTest.class);
+
+    @Autowired private AsyncTransferService asyncTransferService;
+    @Autowired private AsyncTransferRepository transferRepository;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TestWallets testWallets;
+
+    private Set<Long> creditedIds(User recipient) {
+        return transactionRepository.findAll().stream()
+                .filter(t -> "CREDIT".equals(t.getType()) && t.getUser().getId().equals(recipient.getId()))
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toSet());
+    }
+
+    // ------------------------------------------------------------
+    // ✅ A transfer whose engine call timed out is COMPLETED if it reached the ledger, FAILED only if it did not
+    // ------------------------------------------------------------
+    @Test
+    void timedOutTransfers_areSettledFromTheLedger() throws Exception {
+        logger.info("🔹 TEST START: timedOutTransfers_areSettledFromTheLedger");
+
+        User a = testWallets.newUserWithWallet("async-timeout-a@example.com", 100_000L);
+        User b = testWallets.newUserWithWallet("async-timeout-b@example.com", 100_000L);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            TransferRequest request = new TransferRequest();
+            request.setReceiverId(b.getId());
+            request.setAmount(100L);
+            ids.add(asyncTransferService.submit(a, request, idGenerator.nextId()).getTransferId());
+        }
+
+        long deadline = System.currentTimeMillis() + 15_000;
+        List<AsyncTransfer> transfers;
+        do {
+            Thread.sleep(100);
+            transfers = transferRepository.findAllById(ids);
+        } while (transfers.stream().anyMatch(t -> t.getStatus() == AsyncTransfer.Status.PENDING)
+                && System.currentTimeMillis() < deadline);
+
+        Set<Long> completed = transfers.stream().filter(t -> t.getStatus() == AsyncTransfer.Status.COMPLETED)
+                .map(AsyncTransfer::getTransactionId).collect(Collectors.toSet());
+        Set<Long> failed = transfers.stream().filter(t -> t.getStatus() == AsyncTransfer.Status.FAILED)
+                .map(AsyncTransfer::getTransactionId).collect(Collectors.toSet());
+        long settledFromLedger = transfers.stream().filter(t -> "Transfer applied".equals(t.getMessage())).count();
+
+        assertThat(completed.size() + failed.size()).as("transfers still PENDING").isEqualTo(100);
+        Set<Long> credited = creditedIds(b);
+        assertThat(credited).isEqualTo(completed);
+        assertThat(credited).doesNotContainAnyElementsOf(failed);
+        long balanceA = walletRepository.findByUser(a).orElseThrow().getBalance();
+        long balanceB = walletRepository.findByUser(b).orElseThrow().getBalance();
+        assertThat(balanceA + balanceB).isEqualTo(200_000L);
+        assertThat(balanceB - 100_000L).isEqualTo(completed.size() * 100L);
+        logger.info("✅ Test passed — {} completed ({} settled from the ledger), {} failed",
+                completed.size(), settledFromLedger, failed.size());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=1000",
+        "wallet.engine.mode=atomic"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class AtomicWalletUpdaterIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AtomicWalletUpdaterIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TestWallets testWallets;
+
+    // ------------------------------------------------------------
+    // ✅ Concurrent debits never overdraw and never hit a version conflict
+    // ------------------------------------------------------------
+    @Test
+    void concurrentTransfers_neverOverdraw() throws Exception {
+        logger.info("🔹 TEST START: concurrentTransfers_neverOverdraw");
+
+        User sender = testWallets.newUserWithWallet("atomic-sender@example.com", 10_000L);
+        User recipient = testWallets.newUserWithWallet("atomic-recipient@example.com", 0L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    walletService.transferAmount(sender, recipient.getId(), 1000L, idGenerator.nextId());
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> f : futures) if (f.get()) succeeded++;
+        executor.shutdown();
+
+        Wallet senderAfter = walletRepository.findByUser(sender).orElseThrow();
+        Wallet recipientAfter = walletRepository.findByUser(recipient).orElseThrow();
+
+        assertThat(succeeded).isEqualTo(10);
+        assertThat(senderAfter.getBalance()).isEqualTo(0L);
+        assertThat(recipientAfter.getBalance()).isEqualTo(10_000L);
+        logger.info("✅ Test passed — exactly 10 of 20 transfers applied, no overdraft");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Daily limit reached → frozen, further debits rejected with the usual message
+    // ------------------------------------------------------------
+    @Test
+    void debitReachingDailyLimit_freezesWallet() {
+        logger.info("🔹 TEST START: debitReachingDailyLimit_freezesWallet");
+
+        User sender = testWallets.newUserWithWallet("atomic-limit@example.com", 500_000L);
+        User recipient = testWallets.newUserWithWallet("atomic-limit-recv@example.com", 0L);
+
+        walletService.transferAmount(sender, recipient.getId(), 100_000L, idGenerator.nextId());
+        assertThat(walletRepository.findByUser(sender).orElseThrow().getFrozen()).isTrue();
+
+        assertThatThrownBy(() -> walletService.transferAmount(sender, recipient.getId(), 100L, idGenerator.nextId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("frozen");
+        logger.info("✅ Test passed — wallet frozen at the daily limit");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Stale daily counters from a previous day are reset by the UPDATE itself
+    // ------------------------------------------------------------
+    @Test
+    void staleDailyCounters_areResetOnFirstDebitOfTheDay() {
+        logger.info("🔹 TEST START: staleDailyCounters_areResetOnFirstDebitOfTheDay");
+
+        User sender = testWallets.newUserWithWallet("atomic-stale@example.com", 50_000L);
+        User recipient = testWallets.newUserWithWallet("atomic-stale-recv@example.com", 0L);
+        Wallet wallet = walletRepository.findByUser(sender).orElseThrow();
+        wallet.setDailySpent(100_000L);
+        wallet.setFrozen(true);
+        wallet.setLastTransactionDate(LocalDate.now().minusDays(1));
+        walletRepository.saveAndFlush(wallet);
+
+        walletService.transferAmount(sender, recipient.getId(), 5000L, idGenerator.nextId());
+
+        Wallet after = walletRepository.findByUser(sender).orElseThrow();
+        assertThat(after.getDailySpent()).isEqualTo(5000L);
+        assertThat(after.getFrozen()).isFalse();
+        assertThat(after.getLastTransactionDate()).isEqualTo(LocalDate.now());
+        logger.info("✅ Test passed — yesterday's counters reset in the same statement");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Unknown recipient rolls back the debit
+    // ------------------------------------------------------------
+    @Test
+    void unknownRecipient_rollsBackDebit() {
+        logger.info("🔹 TEST START: unknownRecipient_rollsBackDebit");
+
+        User sender = testWallets.newUserWithWallet("atomic-rollback@example.com", 10_000L);
+        long txnId = idGenerator.nextId();
+
+        assertThatThrownBy(() -> walletService.transferAmount(sender, 987654L, 5000L, txnId))
+                .isInstanceOf(UserNotFoundException.class);
+
+        assertThat(walletRepository.findByUser(sender).orElseThrow().getBalance()).isEqualTo(10_000L);
+        assertThat(transactionRepository.existsByTransactionId(txnId)).isFalse();
+        logger.info("✅ Test passed — debit rolled back for unknown recipient");
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.auth.PasswordHasher;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.config.location=classpath:application-test.properties")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class AuthenticatedRequestIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticatedRequestIntegrationTest.class);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private PasswordHasher passwordHasher;
+    @MockitoSpyBean private UserRepository userRepository;
+    @MockitoSpyBean private JwtUtil jwtUtil;
+
+    private User newUser(String email, String role, long balance) {
+        User user = new User("Auth", email, "pass");
+        user.setRole(role);
+        user = userRepository.saveAndFlush(user);
+        Wallet wallet = new Wallet(user);
+        wallet.setBalance(balance);
+        walletRepository.saveAndFlush(wallet);
+        return user;
+    }
+
+    private String tokenFor(String email, long balance) {
+        return "Bearer " + jwtUtil.generateToken(newUser(email, "USER", balance));
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Token verified once, the controller gets the User from the SecurityContext
+    // ------------------------------------------------------------
+    @Test
+    void sameToken_isVerifiedOnceAcrossRequests() throws Exception {
+        logger.info("🔹 TEST START: sameToken_isVerifiedOnceAcrossRequests");
+
+        String token = tokenFor("auth-once@example.com", 1234L);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.balance").value(12.34));
+        }
+
+        verify(jwtUtil, times(1)).verify(anyString());
+        verify(jwtUtil, times(0)).validateToken(anyString());
+        verify(jwtUtil, times(0)).getEmailFromToken(anyString());
+        logger.info("✅ Test passed — 3 requests, 1 signature check");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Missing or forged tokens never reach a controller
+    // ------------------------------------------------------------
+    @Test
+    void missingOrInvalidToken_isRejected() throws Exception {
+        logger.info("🔹 TEST START: missingOrInvalidToken_isRejected");
+
+        mockMvc.perform(get("/api/wallet/balance"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, "Bearer not.a.jwt"))
+                .andExpect(status().isUnauthorized());
+        logger.info("✅ Test passed — 401 without a valid token");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A valid USER token does not open the admin endpoints
+    // ------------------------------------------------------------
+    @Test
+    void userToken_isForbiddenOnAdminEndpoints() throws Exception {
+        logger.info("🔹 TEST START: userToken_isForbiddenOnAdminEndpoints");
+
+        String token = tokenFor("auth-user@example.com", 0L);
+
+        mockMvc.perform(get("/api/wallet/admin/users").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        logger.info("✅ Test passed — 403 for a non-admin principal");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Admin authorization comes from the token's claims: no User row is read
+    // ------------------------------------------------------------
+    @Test
+    void adminToken_isAuthorizedWithoutLoadingTheUser() throws Exception {
+        logger.info("🔹 TEST START: adminToken_isAuthorizedWithoutLoadingTheUser");
+
+        String token = "Bearer " + jwtUtil.generateToken(newUser("auth-admin@example.com", "ADMIN", 0L));
+        clearInvocations(userRepository);
+
+        mockMvc.perform(get("/api/wallet/admin/metrics/wallet-cache").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findById(any());
+        logger.info("✅ Test passed — ADMIN authority taken from the claims");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Admin wallet view loads the lazy owner through its entity graph, even after the wallet was cached
+    // ------------------------------------------------------------
+    @Test
+    void adminWalletView_includesTheOwner() throws Exception {
+        logger.info("🔹 TEST START: adminWalletView_includesTheOwner");
+
+        String admin = "Bearer " + jwtUtil.generateToken(newUser("auth-admin-view@example.com", "ADMIN", 0L));
+        User owner = newUser("auth-owner@example.com", "USER", 4200L);
+        mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(owner)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/wallet/admin/users/" + owner.getId() + "/wallet").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(42.00))
+                .andExpect(jsonPath("$.user.email").value("auth-owner@example.com"));
+        logger.info("✅ Test passed — wallet returned with its owner");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A password change revokes the old token at the filter, whatever the endpoint; the new token works
+    // ------------------------------------------------------------
+    @Test
+    void passwordChange_revokesOutstandingTokens() throws Exception {
+        logger.info("🔹 TEST START: passwordChange_revokesOutstandingTokens");
+
+        User user = new User("Auth", "auth-revoked@example.com", passwordHasher.encode("auth-revoked@example.com", "old-pass"));
+        user = userRepository.saveAndFlush(user);
+        walletRepository.saveAndFlush(new Wallet(user));
+        String token = "Bearer " + jwtUtil.generateToken(user);
+        mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/users/me/password").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"wrong\",\"newPassword\":\"new-pass\"}"))
+                .andExpect(status().isBadRequest());
+        MvcResult changed = mockMvc.perform(put("/api/users/me/password").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"old-pass\",\"newPassword\":\"new-pass\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String fresh = "Bearer " + JsonPath.read(changed.getResponse().getContentAsString(), "$.token");
+
+        // the balance endpoint never loads the User row: the check happens in JwtFilter
+        mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, fresh))
+                .andExpect(status().isOk());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getTokenVersion()).isEqualTo(1);
+        logger.info("✅ Test passed — old token refused after the password change");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Login reports the balance in major units, like every other money field
+    // ------------------------------------------------------------
+    @Test
+    void login_returnsBalanceInMajorUnits() throws Exception {
+        logger.info("🔹 TEST START: login_returnsBalanceInMajorUnits");
+
+        User user = new User("Auth", "auth-login@example.com", passwordHasher.encode("auth-login@example.com", "login-pass"));
+        user = userRepository.saveAndFlush(user);
+        Wallet wallet = new Wallet(user);
+        wallet.setBalance(12_345L);
+        walletRepository.saveAndFlush(wallet);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"auth-login@example.com\",\"password\":\"login-pass\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Login successful!"))
+                .andExpect(jsonPath("$.balance").value(123.45));
+        logger.info("✅ Test passed — 12345 minor units returned as 123.45");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A demoted admin's token loses admin access straight away
+    // ------------------------------------------------------------
+    @Test
+    void roleChange_revokesTheOldRole() throws Exception {
+        logger.info("🔹 TEST START: roleChange_revokesTheOldRole");
+
+        String admin = "Bearer " + jwtUtil.generateToken(newUser("auth-role-admin@example.com", "ADMIN", 0L));
+        User demoted = newUser("auth-role-demoted@example.com", "ADMIN", 0L);
+        String demotedToken = "Bearer " + jwtUtil.generateToken(demoted);
+        mockMvc.perform(get("/api/wallet/admin/metrics/wallet-cache").header(HttpHeaders.AUTHORIZATION, demotedToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/wallet/admin/users/" + demoted.getId() + "/role").header(HttpHeaders.AUTHORIZATION, admin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\":\"USER\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("USER"));
+
+        mockMvc.perform(get("/api/wallet/admin/metrics/wallet-cache").header(HttpHeaders.AUTHORIZATION, demotedToken))
+                .andExpect(status().isUnauthorized());
+        logger.info("✅ Test passed — token issued with the old role refused");
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.service.wallet.contention.BackoffContentionManager;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackoffContentionManagerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackoffContentionManagerTest.class);
+
+    private WalletEngineProperties properties;
+    private BackoffContentionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WalletEngineProperties();
+        properties.getContention().setMaxAttempts(3);
+        properties.getContention().setInitialBackoffMs(1);
+        properties.getContention().setMaxBackoffMs(4);
+        properties.getContention().setHotThreshold(2);
+        properties.getContention().setHotWindowMs(60_000);
+        manager = new BackoffContentionManager(properties);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Conflicts are retried and counted
+    // ------------------------------------------------------------
+    @Test
+    void execute_retriesConflictsAndSucceeds() {
+        logger.info("🔹 TEST START: execute_retriesConflictsAndSucceeds");
+
+        AtomicInteger calls = new AtomicInteger();
+        String result = manager.execute("LOAD", 1L, () -> {
+            if (calls.incrementAndGet() == 1) throw new ObjectOptimisticLockingFailureException(Wallet.class, 1L);
+            return "ok";
+        });
+
+        ContentionMetrics metrics = manager.metrics();
+        assertThat(result).isEqualTo("ok");
+        assertThat(metrics.attempts()).isEqualTo(2);
+        assertThat(metrics.conflicts()).isEqualTo(1);
+        assertThat(metrics.retries()).isEqualTo(1);
+        assertThat(metrics.giveUps()).isZero();
+        logger.info("✅ Test passed — one conflict retried");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Gives up after max attempts and rethrows the conflict
+    // ------------------------------------------------------------
+    @Test
+    void execute_givesUpAfterMaxAttempts() {
+        logger.info("🔹 TEST START: execute_givesUpAfterMaxAttempts");
+
+        assertThatThrownBy(() -> manager.execute("TRANSFER", 2L, () -> {
+            throw new ObjectOptimisticLockingFailureException(Wallet.class, 2L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(manager.metrics().giveUps()).isEqualTo(1);
+        assertThat(manager.metrics().attempts()).isEqualTo(3);
+        logger.info("✅ Test passed — gave up after 3 attempts");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ A hot wallet routes later requests through the in-process queue
+    // ------------------------------------------------------------
+    @Test
+    void hotWallet_isQueued() {
+        logger.info("🔹 TEST START: hotWallet_isQueued");
+
+        AtomicInteger calls = new AtomicInteger();
+        manager.execute("LOAD", 3L, () -> {
+            if (calls.incrementAndGet() <= 2) throw new ObjectOptimisticLockingFailureException(Wallet.class, 3L);
+            return null;
+        });
+        assertThat(manager.metrics().hotWallets()).isEqualTo(1);
+
+        manager.execute("LOAD", 3L, () -> null);
+
+        // one switch to the queue during the first call, one for the second call on the hot wallet
+        assertThat(manager.metrics().queuedExecutions()).isEqualTo(2);
+        logger.info("✅ Test passed — hot wallet requests queued");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Many senders, one recipient: the recipient turns hot and later transfers queue on it
+    // ------------------------------------------------------------
+    @Test
+    void hotRecipient_ofManySenders_isQueued() {
+        logger.info("🔹 TEST START: hotRecipient_ofManySenders_isQueued");
+
+        long recipient = 7L;
+        for (long sender = 100; sender < 110; sender++) {
+            AtomicInteger calls = new AtomicInteger();
+            manager.execute("TRANSFER", List.of(sender, recipient), () -> {
+                if (calls.incrementAndGet() == 1) throw new ObjectOptimisticLockingFailureException(Wallet.class, recipient);
+                return null;
+            });
+        }
+
+        // each sender conflicted once, the recipient ten times
+        ContentionMetrics metrics = manager.metrics();
+        assertThat(metrics.hotWallets()).isEqualTo(1);
+        // the second sender switched to the recipient's queue, the other eight were queued up front
+        assertThat(metrics.queuedExecutions()).isEqualTo(9);
+        assertThat(metrics.giveUps()).isZero();
+        logger.info("✅ Test passed — hot recipient detected and queued");
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.BatchTransferItemResult.Status;
+import com.example.digitalWalletApp.dto.BatchTransferRequest;
+import com.example.digitalWalletApp.dto.BatchTransferResponse;
+import com.example.digitalWalletApp.dto.TransferRequest;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.batch.max-size=5"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BatchTransferIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTransferIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TestWallets testWallets;
+
+    private static TransferRequest item(Long receiverId, long amount) {
+        TransferRequest request = new TransferRequest();
+        request.setReceiverId(receiverId);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static BatchTransferRequest batch(String failureMode, TransferRequest... items) {
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setFailureMode(failureMode);
+        request.setTransfers(new ArrayList<>(List.of(items)));
+        return request;
+    }
+
+    private long balanceOf(User user) {
+        return walletRepository.findByUser(user).orElseThrow().getBalance();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Per-item: valid items applied, invalid ones reported and skipped
+    // ------------------------------------------------------------
+    @Test
+    void perItem_appliesValidItemsAndReportsFailures() {
+        logger.info("🔹 TEST START: perItem_appliesValidItemsAndReportsFailures");
+
+        User sender = testWallets.newUserWithWallet("batch-sender@example.com", 30_000L);
+        User r1 = testWallets.newUserWithWallet("batch-r1@example.com", 0L);
+        User r2 = testWallets.newUserWithWallet("batch-r2@example.com", 1000L);
+
+        BatchTransferResponse response = walletService.transferBatch(sender, batch("per_item",
+                item(r1.getId(), 10_000L),
+                item(987654L, 1000L),        // unknown recipient
+                item(r2.getId(), 15_000L),
+                item(r1.getId(), 10_000L)));  // only 50 left → insufficient balance
+
+        assertThat(response.isApplied()).isTrue();
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(r -> r.getStatus())
+                .containsExactly(Status.SUCCESS, Status.FAILED, Status.SUCCESS, Status.FAILED);
+        assertThat(response.getResults().get(3).getMessage()).isEqualTo("Insufficient balance");
+        assertThat(response.getSenderBalance()).isEqualTo(5000L);
+
+        assertThat(balanceOf(sender)).isEqualTo(5000L);
+        assertThat(balanceOf(r1)).isEqualTo(10_000L);
+        assertThat(balanceOf(r2)).isEqualTo(16_000L);
+
+        Long txnId = response.getResults().get(0).getTransactionId();
+        assertThat(transactionRepository.findAll().stream()
+                .filter(t -> t.getTransactionId().equals(txnId)).map(Transaction::getType))
+                .containsExactlyInAnyOrder("DEBIT", "CREDIT"); // both legs share the id
+        logger.info("✅ Test passed — 2 of 4 items applied, failures reported per item");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ All-or-nothing: one failing item → nothing written
+    // ------------------------------------------------------------
+    @Test
+    void allOrNothing_oneFailure_rollsBackEverything() {
+        logger.info("🔹 TEST START: allOrNothing_oneFailure_rollsBackEverything");
+
+        User sender = testWallets.newUserWithWallet("batch-aon@example.com", 10_000L);
+        User recipient = testWallets.newUserWithWallet("batch-aon-r@example.com", 0L);
+        long ledgerBefore = transactionRepository.count();
+
+        BatchTransferResponse response = walletService.transferBatch(sender, batch("all_or_nothing",
+                item(recipient.getId(), 6000L),
+                item(recipient.getId(), 6000L)));
+
+        assertThat(response.isApplied()).isFalse();
+        assertThat(response.getResults()).extracting(r -> r.getStatus())
+                .containsExactly(Status.NOT_APPLIED, Status.FAILED);
+        assertThat(balanceOf(sender)).isEqualTo(10_000L);
+        assertThat(balanceOf(recipient)).isEqualTo(0L);
+        assertThat(transactionRepository.count()).isEqualTo(ledgerBefore);
+        logger.info("✅ Test passed — rejected batch left wallets and ledger untouched");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Oversized batch rejected before touching the database
+    // ------------------------------------------------------------
+    @Test
+    void oversizedBatch_throws() {
+        logger.info("🔹 TEST START: oversizedBatch_throws");
+
+        User sender = testWallets.newUserWithWallet("batch-big@example.com", 10_000L);
+        TransferRequest[] items = new TransferRequest[6];
+        for (int i = 0; i < items.length; i++) items[i] = item(sender.getId(), 100L);
+
+        assertThatThrownBy(() -> walletService.transferBatch(sender, batch(null, items)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most 5");
+        logger.info("✅ Test passed — batch size limit enforced");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.wallet.DailyLimitClock;
+import com.example.digitalWalletApp.service.wallet.DailyLimitResetJob;
+import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Chunk size 2 so a handful of wallets spans several UPDATEs. Scheduled runs are off: every run is started by hand.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.daily-reset.chunk-size=2",
+        "wallet.daily-reset.enabled=false"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class DailyLimitResetIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyLimitResetIntegrationTest.class);
+
+    @Autowired private DailyLimitResetJob job;
+    @Autowired private DailyLimitClock clock;
+    @Autowired private WalletFactory walletFactory;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TestWallets testWallets;
+
+    private User userOnDay(String email, long dailySpent, boolean frozen, LocalDate lastTransactionDate) {
+        return testWallets.newUserWithWallet(email, wallet -> {
+            wallet.setBalance(10_000L);
+            wallet.setDailySpent(dailySpent);
+            wallet.setFrozen(frozen);
+            wallet.setLastTransactionDate(lastTransactionDate);
+        });
+    }
+
+    private Wallet walletOf(User user) {
+        return walletRepository.findByUser(user).orElseThrow();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Yesterday's wallets start the new day; today's are left alone; balances never change
+    // ------------------------------------------------------------
+    @Test
+    void run_resetsOnlyWalletsOnAnOlderDay() {
+        logger.info("🔹 TEST START: run_resetsOnlyWalletsOnAnOlderDay");
+
+        LocalDate today = clock.today();
+        User frozen = userOnDay("reset-frozen@example.com", 50_000L, true, today.minusDays(1));
+        User stale = userOnDay("reset-stale@example.com", 1_200L, false, today.minusDays(30));
+        User active = userOnDay("reset-active@example.com", 700L, false, today);
+        walletFactory.getCachedWallet(frozen); // cached copy still on yesterday
+
+        DailyLimitResetJob.Progress run = job.run();
+
+        assertThat(run.running()).isFalse();
+        assertThat(run.day()).isEqualTo(today);
+        assertThat(run.lastWalletId()).isEqualTo(run.maxWalletId());
+        assertThat(run.chunks()).isEqualTo((int) ((run.maxWalletId() + 1) / 2));
+        assertThat(run.walletsReset()).isGreaterThanOrEqualTo(2);
+
+        for (User user : new User[]{frozen, stale}) {
+            Wallet wallet = walletOf(user);
+            assertThat(wallet.getDailySpent()).isZero();
+            assertThat(wallet.getFrozen()).isFalse();
+            assertThat(wallet.getLastTransactionDate()).isEqualTo(today);
+            assertThat(wallet.getBalance()).isEqualTo(10_000L);
+        }
+        assertThat(walletOf(active).getDailySpent()).isEqualTo(700L);
+        assertThat(walletFactory.getCachedWallet(frozen).getFrozen()).isFalse();
+        logger.info("✅ Test passed — {} wallets reset in {} chunks", run.walletsReset(), run.chunks());
+    }
+
+    // ------------------------------------------------------------
+    // ✅ A second run on the same day finds nothing to reset
+    // ------------------------------------------------------------
+    @Test
+    void rerun_isANoOp() {
+        logger.info("🔹 TEST START: rerun_isANoOp");
+
+        User user = userOnDay("reset-rerun@example.com", 3_000L, true, clock.today().minusDays(1));
+        job.run();
+        long version = walletOf(user).getVersion();
+
+        DailyLimitResetJob.Progress again = job.run();
+
+        assertThat(again.walletsReset()).isZero();
+        assertThat(job.progress()).isEqualTo(again);
+        assertThat(walletOf(user).getVersion()).isEqualTo(version);
+        assertThat(walletOf(user).getDailySpent()).isZero();
+        logger.info("✅ Test passed — second run reset nothing");
+    }
+}
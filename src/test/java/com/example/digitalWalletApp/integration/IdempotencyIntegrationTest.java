@@ -0,0 +1,224 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.dto.TransferRequest;
+import com.example.digitalWalletApp.dto.TransferResponse;
+import com.example.digitalWalletApp.exception.IdempotencyConflictException;
+import com.example.digitalWalletApp.exception.OutcomeUnknownException;
+import com.example.digitalWalletApp.model.IdempotencyRecord;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.IdempotencyRecordRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.idempotency.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.mode=atomic"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class IdempotencyIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyIntegrationTest.class);
+
+    @Autowired private IdempotencyService idempotencyService;
+    @Autowired private WalletService walletService;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TestWallets testWallets;
+
+    private static TransferRequest request(Long receiverId, long amount) {
+        TransferRequest request = new TransferRequest();
+        request.setReceiverId(receiverId);
+        request.setAmount(amount);
+        return request;
+    }
+
+    // same call the controller makes
+    private IdempotencyService.Outcome<TransferResponse> transfer(User sender, String key, TransferRequest request) {
+        return idempotencyService.execute(sender, key, "TRANSFER", request, TransferResponse.class,
+                txnId -> walletService.transferAmount(sender, request.getReceiverId(), request.getAmount(), txnId));
+    }
+
+    private long balanceOf(User user) {
+        return walletRepository.findByUser(user).orElseThrow().getBalance();
+    }
+
+    // load whose caller gave up: the engine may or may not have applied it
+    private IdempotencyService.Outcome<LoadMoneyResponse> unknownLoad(User user, String key, TransferRequest request,
+                                                                      boolean applied) {
+        return idempotencyService.execute(user, key, "LOAD", request, LoadMoneyResponse.class, txnId -> {
+            if (applied) walletService.loadMoney(user, request.getAmount(), txnId);
+            throw new OutcomeUnknownException("Timed out", txnId, null);
+        });
+    }
+
+    // claim older than wallet.idempotency.claim-timeout-ms
+    private void ageClaim(User user, String key) {
+        jdbcTemplate.update("UPDATE idempotency_record SET created_at = ? WHERE idempotency_key = ?",
+                LocalDateTime.now().minusMinutes(5), user.getId() + ":" + key);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ A retried load gets the original response back and the wallet is credited once
+    // ------------------------------------------------------------
+    @Test
+    void retriedLoad_isReplayedWithoutTouchingTheWallet() {
+        logger.info("🔹 TEST START: retriedLoad_isReplayedWithoutTouchingTheWallet");
+
+        User user = testWallets.newUserWithWallet("idem-load@example.com", 0L);
+        TransferRequest request = request(null, 2500L);
+
+        IdempotencyService.Outcome<LoadMoneyResponse> first = idempotencyService.execute(user, "load-1", "LOAD", request,
+                LoadMoneyResponse.class, txnId -> walletService.loadMoney(user, request.getAmount(), txnId));
+        IdempotencyService.Outcome<LoadMoneyResponse> retry = idempotencyService.execute(user, "load-1", "LOAD", request,
+                LoadMoneyResponse.class, txnId -> walletService.loadMoney(user, request.getAmount(), txnId));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().getBalance()).isEqualTo(first.response().getBalance()).isEqualTo(2500L);
+        assertThat(retry.response().getMessage()).isEqualTo(first.response().getMessage());
+        assertThat(balanceOf(user)).isEqualTo(2500L);
+        assertThat(transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId())).count()).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.findById(user.getId() + ":load-1")).isPresent();
+
+        logger.info("✅ Test passed — second call replayed, balance 25.00 credited once");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Concurrent copies of one transfer move the money exactly once
+    // ------------------------------------------------------------
+    @Test
+    void concurrentCopiesOfOneTransfer_areAppliedOnce() throws Exception {
+        logger.info("🔹 TEST START: concurrentCopiesOfOneTransfer_areAppliedOnce");
+
+        User sender = testWallets.newUserWithWallet("idem-sender@example.com", 10_000L);
+        User recipient = testWallets.newUserWithWallet("idem-recipient@example.com", 0L);
+        TransferRequest request = request(recipient.getId(), 1000L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<IdempotencyService.Outcome<TransferResponse>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> transfer(sender, "transfer-1", request)));
+        }
+        int answered = 0;
+        for (Future<IdempotencyService.Outcome<TransferResponse>> f : futures) {
+            try {
+                f.get();
+                answered++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IdempotencyConflictException.class); // copy still in flight
+            }
+        }
+        executor.shutdown();
+
+        assertThat(answered).isPositive();
+        assertThat(balanceOf(sender)).isEqualTo(9000L);
+        assertThat(balanceOf(recipient)).isEqualTo(1000L);
+        assertThat(transfer(sender, "transfer-1", request).replayed()).isTrue();
+
+        logger.info("✅ Test passed — {} of 8 copies answered, money moved once", answered);
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Reusing a key for a different request is rejected; another user's identical key is independent
+    // ------------------------------------------------------------
+    @Test
+    void reusedKeyWithDifferentBody_isRejected() {
+        logger.info("🔹 TEST START: reusedKeyWithDifferentBody_isRejected");
+
+        User sender = testWallets.newUserWithWallet("idem-reuse@example.com", 10_000L);
+        User other = testWallets.newUserWithWallet("idem-other@example.com", 10_000L);
+        User recipient = testWallets.newUserWithWallet("idem-reuse-r@example.com", 0L);
+
+        transfer(sender, "reuse-1", request(recipient.getId(), 500L));
+        assertThatThrownBy(() -> transfer(sender, "reuse-1", request(recipient.getId(), 700L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different request");
+
+        assertThat(transfer(other, "reuse-1", request(recipient.getId(), 700L)).replayed()).isFalse();
+        assertThat(balanceOf(recipient)).isEqualTo(1200L);
+
+        logger.info("✅ Test passed — key reuse rejected, keys scoped per user");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ An unknown outcome keeps the claim; once stale, a retry finds the ledger row and completes it
+    // ------------------------------------------------------------
+    @Test
+    void staleClaim_appliedInTheLedger_isCompletedWithoutApplyingAgain() {
+        logger.info("🔹 TEST START: staleClaim_appliedInTheLedger_isCompletedWithoutApplyingAgain");
+
+        User user = testWallets.newUserWithWallet("idem-unknown-applied@example.com", 0L);
+        TransferRequest request = request(null, 1500L);
+
+        assertThatThrownBy(() -> unknownLoad(user, "unknown-1", request, true))
+                .isInstanceOf(OutcomeUnknownException.class);
+        IdempotencyRecord claim = idempotencyRecordRepository.findById(user.getId() + ":unknown-1").orElseThrow();
+        assertThat(claim.isCompleted()).isFalse();
+        assertThatThrownBy(() -> unknownLoad(user, "unknown-1", request, true))
+                .isInstanceOf(IdempotencyConflictException.class); // not stale yet
+
+        ageClaim(user, "unknown-1");
+        IdempotencyService.Outcome<LoadMoneyResponse> retry = unknownLoad(user, "unknown-1", request, true);
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().getMessage()).contains("Already processed");
+        assertThat(balanceOf(user)).isEqualTo(1500L);
+        assertThat(idempotencyRecordRepository.findById(user.getId() + ":unknown-1").orElseThrow().isCompleted()).isTrue();
+        logger.info("✅ Test passed — stale claim settled from the ledger, credited once");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ A stale claim that never reached the ledger runs again under its own transaction id
+    // ------------------------------------------------------------
+    @Test
+    void staleClaim_notApplied_runsAgainWithTheSameTransactionId() {
+        logger.info("🔹 TEST START: staleClaim_notApplied_runsAgainWithTheSameTransactionId");
+
+        User user = testWallets.newUserWithWallet("idem-unknown-lost@example.com", 0L);
+        TransferRequest request = request(null, 700L);
+
+        assertThatThrownBy(() -> unknownLoad(user, "unknown-2", request, false))
+                .isInstanceOf(OutcomeUnknownException.class);
+        long claimedTxnId = idempotencyRecordRepository.findById(user.getId() + ":unknown-2").orElseThrow().getTransactionId();
+        ageClaim(user, "unknown-2");
+
+        IdempotencyService.Outcome<LoadMoneyResponse> retry = idempotencyService.execute(user, "unknown-2", "LOAD", request,
+                LoadMoneyResponse.class, txnId -> walletService.loadMoney(user, request.getAmount(), txnId));
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(balanceOf(user)).isEqualTo(700L);
+        assertThat(transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId()))
+                .map(t -> t.getTransactionId()).toList()).containsExactly(claimedTxnId);
+        logger.info("✅ Test passed — lost claim re-run as txnId={}", claimedTxnId);
+    }
+}
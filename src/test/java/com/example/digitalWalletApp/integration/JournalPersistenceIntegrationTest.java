@@ -0,0 +1,111 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.JournalCheckpointRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.mode=sharded",
+        "wallet.engine.shards=4",
+        "wallet.engine.persistence=journal",
+        "wallet.engine.journal.directory=target/test-journal/${random.uuid}",
+        "wallet.engine.journal.apply-interval-ms=10"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class JournalPersistenceIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPersistenceIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private JournalCheckpointRepository checkpointRepository;
+    @Autowired private TestWallets testWallets;
+
+    private void awaitApplied(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Acknowledged loads and transfers are projected into the tables and the checkpoint moves
+    // ------------------------------------------------------------
+    @Test
+    void acknowledgedOperations_areAppliedToTheTables() throws Exception {
+        logger.info("🔹 TEST START: acknowledgedOperations_areAppliedToTheTables");
+
+        User a = testWallets.newUserWithWallet("journal-a@example.com", 50_000L);
+        User b = testWallets.newUserWithWallet("journal-b@example.com", 50_000L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> walletService.loadMoney(a, 1000L, idGenerator.nextId())));
+            futures.add(executor.submit(() -> walletService.transferAmount(a, b.getId(), 500L, idGenerator.nextId())));
+            futures.add(executor.submit(() -> walletService.transferAmount(b, a.getId(), 300L, idGenerator.nextId())));
+        }
+        for (Future<?> f : futures) f.get();
+        executor.shutdown();
+
+        awaitApplied(() -> walletRepository.findByUser(a).orElseThrow().getBalance() == 66_000L
+                && walletRepository.findByUser(b).orElseThrow().getBalance() == 54_000L);
+        awaitApplied(() -> transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(a.getId())).count() == 60);
+        assertThat(checkpointRepository.findAll()).singleElement()
+                .satisfies(cp -> assertThat(cp.getAppliedOffset()).isPositive());
+        // every debit leg got its credit leg, so the checkpoint carries no open transfer
+        awaitApplied(() -> checkpointRepository.findAll().get(0).getOpenTransfers() == null);
+
+        logger.info("✅ Test passed — 60 journaled operations applied, a=660, b=540");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A transaction id is rejected while its first use is still only in the journal
+    // ------------------------------------------------------------
+    @Test
+    void duplicateTransactionId_isRejectedBeforeApply() {
+        logger.info("🔹 TEST START: duplicateTransactionId_isRejectedBeforeApply");
+
+        User user = testWallets.newUserWithWallet("journal-dup@example.com", 0L);
+        long txnId = idGenerator.nextId();
+
+        LoadMoneyResponse response = walletService.loadMoney(user, 2500L, txnId);
+        assertThat(response.getBalance()).isEqualTo(2500L);
+        assertThatThrownBy(() -> walletService.loadMoney(user, 2500L, txnId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate");
+
+        logger.info("✅ Test passed — duplicate rejected");
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.LedgerBatchWriter;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Counts the JDBC round trips that write ledger rows. With IDENTITY ids every Transaction INSERT went out on its own;
+with the pooled sequence Hibernate sends them as batches of hibernate.jdbc.batch_size (50 here).
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.simulated-delay-ms=0"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class LedgerInsertBatchingIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerInsertBatchingIntegrationTest.class);
+
+    private static final AtomicInteger ledgerInserts = new AtomicInteger();   // executions of INSERT INTO transactions
+    private static final AtomicInteger sequenceCalls = new AtomicInteger();   // next values fetched from transactions_seq
+
+    @Autowired private WalletService walletService;
+    @Autowired private LedgerBatchWriter ledgerWriter;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private TestWallets testWallets;
+
+    // Wraps the pool so every statement executed by Hibernate or JdbcTemplate is seen
+    @TestConfiguration
+    static class StatementCounting {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (p, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection) return proxy(Connection.class, connection);
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                return countingStatement(statement, sql.toLowerCase(Locale.ROOT));
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static PreparedStatement countingStatement(PreparedStatement target, String sql) {
+        boolean ledgerInsert = sql.startsWith("insert") && sql.contains("transactions");
+        boolean sequence = sql.contains("transactions_seq");
+        InvocationHandler handler = (p, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                if (ledgerInsert) ledgerInserts.incrementAndGet();
+                if (sequence) sequenceCalls.incrementAndGet();
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handler);
+    }
+
+    @BeforeEach
+    void resetCounters() {
+        ledgerInserts.set(0);
+        sequenceCalls.set(0);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Transfer: debit + credit leg in one INSERT round trip
+    // ------------------------------------------------------------
+    @Test
+    void transfer_writesBothLegsInOneBatch() {
+        logger.info("🔹 TEST START: transfer_writesBothLegsInOneBatch");
+
+        User sender = testWallets.newUserWithWallet("batching-sender@example.com", 10_000L);
+        User recipient = testWallets.newUserWithWallet("batching-recipient@example.com", 0L);
+        long rowsBefore = transactionRepository.count();
+        resetCounters();
+
+        walletService.transferAmount(sender, recipient.getId(), 2500L, idGenerator.nextId());
+
+        assertThat(transactionRepository.count()).isEqualTo(rowsBefore + 2);
+        assertThat(ledgerInserts.get()).isEqualTo(1);
+        assertThat(sequenceCalls.get()).isLessThanOrEqualTo(1);
+        logger.info("✅ Test passed — 2 ledger rows, {} INSERT round trip(s)", ledgerInserts.get());
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Bulk: 1,000 rows in batch_size chunks, ids fetched once per 50
+    // ------------------------------------------------------------
+    @Test
+    void bulkLoad_insertsOneThousandRowsInBatches() {
+        logger.info("🔹 TEST START: bulkLoad_insertsOneThousandRowsInBatches");
+
+        User user = testWallets.newUserWithWallet("batching-bulk@example.com", 0L);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Transaction txn = new Transaction(user, 100L, "SELF_CREDITED");
+            txn.setTransactionId(idGenerator.nextId());
+            rows.add(txn);
+        }
+        long rowsBefore = transactionRepository.count();
+        resetCounters();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> ledgerWriter.insertAll(rows));
+
+        assertThat(transactionRepository.count()).isEqualTo(rowsBefore + 1000);
+        assertThat(ledgerInserts.get()).isEqualTo(1000 / 50);
+        assertThat(sequenceCalls.get()).isLessThanOrEqualTo(1000 / 50 + 1);
+        logger.info("✅ Test passed — 1000 ledger rows, {} INSERT round trips, {} sequence calls",
+                ledgerInserts.get(), sequenceCalls.get());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.LoadMoneyResponse;
+import com.example.digitalWalletApp.dto.TransferRequest;
+import com.example.digitalWalletApp.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyJsonTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyJsonTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // ------------------------------------------------------------
+    // ✅ Major-unit JSON amounts become exact cents, numbers and strings alike
+    // ------------------------------------------------------------
+    @Test
+    void requestAmounts_areReadAsMinorUnits() throws Exception {
+        logger.info("🔹 TEST START: requestAmounts_areReadAsMinorUnits");
+
+        assertThat(objectMapper.readValue("{\"receiverId\":2,\"amount\":0.29}", TransferRequest.class).getAmount())
+                .isEqualTo(29L);
+        assertThat(objectMapper.readValue("{\"receiverId\":2,\"amount\":\"1234.5\"}", TransferRequest.class).getAmount())
+                .isEqualTo(123_450L);
+        assertThat(objectMapper.readValue("{\"receiverId\":2,\"amount\":10}", TransferRequest.class).getAmount())
+                .isEqualTo(1000L);
+        assertThat(Money.ofMajor(new BigDecimal("0.1")) + Money.ofMajor(new BigDecimal("0.2")))
+                .isEqualTo(Money.ofMajor(new BigDecimal("0.3")));
+
+        logger.info("✅ Test passed — 0.29 → 29, \"1234.5\" → 123450, 10 → 1000");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Responses keep the major-unit numbers clients already parse
+    // ------------------------------------------------------------
+    @Test
+    void responseAmounts_areWrittenAsMajorUnits() throws Exception {
+        logger.info("🔹 TEST START: responseAmounts_areWrittenAsMajorUnits");
+
+        LoadMoneyResponse response = new LoadMoneyResponse();
+        response.setBalance(12_345L);
+        response.setRemainingDailyLimit(500_000L);
+
+        String json = objectMapper.writeValueAsString(response);
+        assertThat(json).contains("\"balance\":123.45").contains("\"remainingDailyLimit\":5000.0");
+
+        logger.info("✅ Test passed — {}", json);
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Sub-cent amounts are rejected instead of being rounded
+    // ------------------------------------------------------------
+    @Test
+    void subCentAmount_isRejected() {
+        logger.info("🔹 TEST START: subCentAmount_isRejected");
+
+        assertThatThrownBy(() -> objectMapper.readValue("{\"receiverId\":2,\"amount\":10.005}", TransferRequest.class))
+                .isInstanceOf(InvalidFormatException.class)
+                .hasMessageContaining("at most 2 decimal places");
+
+        logger.info("✅ Test passed — 10.005 rejected");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.exception.UserNotFoundException;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionManager;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.mode=locked",
+        "wallet.engine.simulated-delay-ms=20"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OrderedLockingWalletUpdaterIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderedLockingWalletUpdaterIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private ContentionManager contentionManager;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TestWallets testWallets;
+
+    // ------------------------------------------------------------
+    // ✅ Opposing transfers A→B / B→A all succeed, no conflict and no deadlock
+    // ------------------------------------------------------------
+    @Test
+    void opposingTransfers_allSucceedWithoutConflicts() throws Exception {
+        logger.info("🔹 TEST START: opposingTransfers_allSucceedWithoutConflicts");
+
+        User a = testWallets.newUserWithWallet("locked-a@example.com", 100_000L);
+        User b = testWallets.newUserWithWallet("locked-b@example.com", 100_000L);
+        long conflictsBefore = contentionManager.metrics().conflicts();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> walletService.transferAmount(a, b.getId(), 1000L, idGenerator.nextId())));
+            futures.add(executor.submit(() -> walletService.transferAmount(b, a.getId(), 500L, idGenerator.nextId())));
+        }
+        for (Future<?> f : futures) f.get();
+        executor.shutdown();
+
+        assertThat(walletRepository.findByUser(a).orElseThrow().getBalance()).isEqualTo(95_000L);
+        assertThat(walletRepository.findByUser(b).orElseThrow().getBalance()).isEqualTo(105_000L);
+        assertThat(contentionManager.metrics().conflicts()).isEqualTo(conflictsBefore);
+        logger.info("✅ Test passed — 20 opposing transfers applied, balances consistent");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Unknown recipient is rejected before any lock or write
+    // ------------------------------------------------------------
+    @Test
+    void unknownRecipient_throwsAndLeavesBalance() {
+        logger.info("🔹 TEST START: unknownRecipient_throwsAndLeavesBalance");
+
+        User sender = testWallets.newUserWithWallet("locked-missing@example.com", 10_000L);
+        long txnId = idGenerator.nextId();
+
+        assertThatThrownBy(() -> walletService.transferAmount(sender, 987654L, 5000L, txnId))
+                .isInstanceOf(UserNotFoundException.class);
+
+        assertThat(walletRepository.findByUser(sender).orElseThrow().getBalance()).isEqualTo(10_000L);
+        assertThat(transactionRepository.existsByTransactionId(txnId)).isFalse();
+        logger.info("✅ Test passed — unknown recipient rejected");
+    }
+}
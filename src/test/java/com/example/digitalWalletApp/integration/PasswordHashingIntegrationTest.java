@@ -0,0 +1,124 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.exception.TooManyRequestsException;
+import com.example.digitalWalletApp.service.auth.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+One hashing worker and a one-slot queue, so two slow checks (a bcrypt hash of cost 13) are enough to saturate it.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.auth.hashing.threads=1",
+        "wallet.auth.hashing.queue-capacity=1",
+        "wallet.auth.hashing.per-email-concurrency=1",
+        "wallet.auth.hashing.retry-after-seconds=2"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PasswordHashingIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingIntegrationTest.class);
+    private static final String SLOW_HASH = new BCryptPasswordEncoder(13).encode("slow-password");
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private PasswordHasher passwordHasher;
+
+    private CompletableFuture<Boolean> slowCheck(String email) {
+        return CompletableFuture.supplyAsync(() -> passwordHasher.matches(email, "wrong", SLOW_HASH));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Signup + login hash on the pool and show up in the metrics
+    // ------------------------------------------------------------
+    @Test
+    void signupAndLogin_hashOnThePool() throws Exception {
+        logger.info("🔹 TEST START: signupAndLogin_hashOnThePool");
+
+        long before = passwordHasher.metrics().hashes();
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Hash\",\"email\":\"hash-ok@example.com\",\"password\":\"secret\",\"age\":30}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"hash-ok@example.com\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists());
+
+        assertThat(passwordHasher.metrics().hashes() - before).isEqualTo(2);
+        assertThat(passwordHasher.metrics().maxHashMs()).isPositive();
+        logger.info("✅ Test passed — {}", passwordHasher.metrics());
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Second concurrent check for the same email → 429
+    // ------------------------------------------------------------
+    @Test
+    void concurrentChecksForOneEmail_areLimited() throws Exception {
+        logger.info("🔹 TEST START: concurrentChecksForOneEmail_areLimited");
+
+        long rejectedBefore = passwordHasher.metrics().rejectedPerEmail();
+        CompletableFuture<Boolean> first = slowCheck("hash-victim@example.com");
+        waitUntil(() -> passwordHasher.metrics().active() == 1);
+
+        assertThatThrownBy(() -> passwordHasher.matches("HASH-victim@example.com", "guess", SLOW_HASH))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        assertThat(first.join()).isFalse();
+        assertThat(passwordHasher.metrics().rejectedPerEmail() - rejectedBefore).isEqualTo(1);
+        logger.info("✅ Test passed — per-email limit enforced");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Pool busy and queue full → login answers 503 + Retry-After right away
+    // ------------------------------------------------------------
+    @Test
+    void saturatedPool_shedsLoginWith503() throws Exception {
+        logger.info("🔹 TEST START: saturatedPool_shedsLoginWith503");
+
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Hash\",\"email\":\"hash-shed@example.com\",\"password\":\"secret\",\"age\":30}"))
+                .andExpect(status().isOk());
+
+        CompletableFuture<Boolean> running = slowCheck("hash-a@example.com");
+        waitUntil(() -> passwordHasher.metrics().active() == 1);
+        CompletableFuture<Boolean> queued = slowCheck("hash-b@example.com");
+        waitUntil(() -> passwordHasher.metrics().queued() == 1);
+
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"hash-shed@example.com\",\"password\":\"secret\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+
+        CompletableFuture.allOf(running, queued).join();
+        assertThat(passwordHasher.metrics().rejectedQueueFull()).isGreaterThanOrEqualTo(1);
+        logger.info("✅ Test passed — login shed while the pool was saturated");
+    }
+}
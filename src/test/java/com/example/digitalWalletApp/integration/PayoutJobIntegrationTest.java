@@ -0,0 +1,291 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.config.PayoutProperties;
+import com.example.digitalWalletApp.config.WalletEngineProperties;
+import com.example.digitalWalletApp.dto.PayoutItemRequest;
+import com.example.digitalWalletApp.dto.PayoutJobResponse;
+import com.example.digitalWalletApp.dto.PayoutRequest;
+import com.example.digitalWalletApp.model.PayoutItem;
+import com.example.digitalWalletApp.model.PayoutJob;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.PayoutItemRepository;
+import com.example.digitalWalletApp.repository.PayoutJobRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.payout.PayoutJobRunner;
+import com.example.digitalWalletApp.service.payout.PayoutService;
+import com.example.digitalWalletApp.service.wallet.LedgerBatchWriter;
+import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.payout.chunk-size=2"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class PayoutJobIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayoutJobIntegrationTest.class);
+
+    @Autowired private PayoutService payoutService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private PayoutItemRepository itemRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private PayoutJobRepository jobRepository;
+    @Autowired private WalletFactory walletFactory;
+    @Autowired private LedgerBatchWriter ledgerWriter;
+    @Autowired private PayoutProperties payoutProperties;
+    @Autowired private WalletEngineProperties engineProperties;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private TestWallets testWallets;
+
+    // A runner as a second node would have it: same database, its own executor
+    private PayoutJobRunner otherNodeRunner() {
+        return otherNodeRunner(engineProperties);
+    }
+
+    private PayoutJobRunner otherNodeRunner(WalletEngineProperties engine) {
+        return new PayoutJobRunner(jobRepository, itemRepository, userRepository, walletFactory, ledgerWriter,
+                payoutProperties, engine, transactionManager);
+    }
+
+    private User admin(String email) {
+        User admin = new User("Admin", email, "pass");
+        admin.setRole("ADMIN");
+        return userRepository.saveAndFlush(admin);
+    }
+
+    private long balanceOf(User user) {
+        return walletRepository.findByUser(user).orElseThrow().getBalance();
+    }
+
+    private PayoutJobResponse awaitStatus(Long jobId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        PayoutJobResponse job = payoutService.getJob(jobId);
+        while (!status.equals(job.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = payoutService.getJob(jobId);
+        }
+        assertThat(job.getStatus()).isEqualTo(status);
+        return job;
+    }
+
+    // ------------------------------------------------------------
+    // ✅ JSON payout processed in chunks; unknown recipient fails individually
+    // ------------------------------------------------------------
+    @Test
+    void jsonPayout_paysAllValidRecipientsInChunks() throws Exception {
+        logger.info("🔹 TEST START: jsonPayout_paysAllValidRecipientsInChunks");
+
+        User source = testWallets.newUserWithWallet("payout-source@example.com", 100_000L);
+        User r1 = testWallets.newUserWithWallet("payout-r1@example.com", 0L);
+        User r2 = testWallets.newUserWithWallet("payout-r2@example.com", 500L);
+
+        PayoutRequest request = new PayoutRequest();
+        request.setSourceUserId(source.getId());
+        request.setItems(List.of(
+                new PayoutItemRequest(r1.getId(), 10_000L),
+                new PayoutItemRequest(r2.getId(), 5000L),
+                new PayoutItemRequest(987654L, 1000L),
+                new PayoutItemRequest(r1.getId(), 2500L),
+                new PayoutItemRequest(r2.getId(), 2500L)));
+
+        PayoutJobResponse created = payoutService.createJob(admin("payout-admin1@example.com"), request);
+        PayoutJobResponse done = awaitStatus(created.getJobId(), "COMPLETED");
+
+        assertThat(done.getChunksCompleted()).isEqualTo(3);
+        assertThat(done.getPaidItems()).isEqualTo(4);
+        assertThat(done.getFailedItems()).isEqualTo(1);
+        assertThat(done.getPaidAmount()).isEqualTo(20_000L);
+        assertThat(done.getProgressPercent()).isEqualTo(100.0);
+
+        assertThat(balanceOf(source)).isEqualTo(80_000L);
+        assertThat(balanceOf(r1)).isEqualTo(12_500L);
+        assertThat(balanceOf(r2)).isEqualTo(8000L);
+        assertThat(transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(source.getId()))).allMatch(t -> "DEBIT".equals(t.getType())).isNotEmpty();
+        logger.info("✅ Test passed — 4 items paid in 3 chunks, unknown recipient failed");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ CSV payout stops when the source runs dry and resumes at the checkpoint without double payment
+    // ------------------------------------------------------------
+    @Test
+    void csvPayout_failsOnLowBalance_thenResumesAtCheckpoint() throws Exception {
+        logger.info("🔹 TEST START: csvPayout_failsOnLowBalance_thenResumesAtCheckpoint");
+
+        User source = testWallets.newUserWithWallet("payout-csv-source@example.com", 10_000L);
+        User r1 = testWallets.newUserWithWallet("payout-csv-r1@example.com", 0L);
+        User r2 = testWallets.newUserWithWallet("payout-csv-r2@example.com", 0L);
+
+        String csv = "recipientId,amount\n" +
+                r1.getId() + ",40\n" +
+                r2.getId() + ",40\n" +
+                "\n" +
+                r1.getId() + ",40\n" +
+                r2.getId() + ",40\n";
+
+        PayoutJobResponse created = payoutService.createJobFromCsv(admin("payout-admin2@example.com"), source.getId(),
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertThat(created.getTotalItems()).isEqualTo(4);
+
+        PayoutJobResponse failed = awaitStatus(created.getJobId(), "FAILED");
+        assertThat(failed.getProcessedItems()).isEqualTo(2);
+        assertThat(failed.getErrorMessage()).contains("Insufficient source balance");
+        assertThat(balanceOf(source)).isEqualTo(2000L);
+
+        Wallet sourceWallet = walletRepository.findByUser(source).orElseThrow();
+        sourceWallet.setBalance(sourceWallet.getBalance() + 10_000L);
+        walletRepository.saveAndFlush(sourceWallet);
+
+        payoutService.resume(created.getJobId());
+        PayoutJobResponse done = awaitStatus(created.getJobId(), "COMPLETED");
+
+        assertThat(done.getPaidItems()).isEqualTo(4);
+        assertThat(balanceOf(r1)).isEqualTo(8000L);
+        assertThat(balanceOf(r2)).isEqualTo(8000L);
+        assertThat(balanceOf(source)).isEqualTo(4000L);
+        assertThat(itemRepository.countByJobIdAndStatus(created.getJobId(), PayoutItem.Status.PAID)).isEqualTo(4);
+        logger.info("✅ Test passed — resumed at item 2, nobody paid twice");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Two runners on the same job take turns on the job row; every item is paid exactly once
+    // ------------------------------------------------------------
+    @Test
+    void twoRunnersOnSameJob_payEveryItemOnce() throws Exception {
+        logger.info("🔹 TEST START: twoRunnersOnSameJob_payEveryItemOnce");
+
+        User source = testWallets.newUserWithWallet("payout-race-source@example.com", 0L);
+        User r1 = testWallets.newUserWithWallet("payout-race-r1@example.com", 0L);
+        User r2 = testWallets.newUserWithWallet("payout-race-r2@example.com", 0L);
+
+        List<PayoutItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new PayoutItemRequest(i % 2 == 0 ? r1.getId() : r2.getId(), 1000L));
+        }
+        PayoutRequest request = new PayoutRequest();
+        request.setSourceUserId(source.getId());
+        request.setItems(items);
+
+        // empty source: the job stops at its first chunk, then both "nodes" pick it up at once
+        PayoutJobResponse created = payoutService.createJob(admin("payout-admin4@example.com"), request);
+        awaitStatus(created.getJobId(), "FAILED");
+
+        Wallet sourceWallet = walletRepository.findByUser(source).orElseThrow();
+        sourceWallet.setBalance(20_000L); // room for a double payment, so one would show up in the balances
+        walletRepository.saveAndFlush(sourceWallet);
+
+        PayoutJobRunner nodeA = otherNodeRunner();
+        PayoutJobRunner nodeB = otherNodeRunner();
+        try {
+            nodeA.submit(created.getJobId());
+            nodeB.submit(created.getJobId());
+            PayoutJobResponse done = awaitStatus(created.getJobId(), "COMPLETED");
+
+            assertThat(done.getPaidItems()).isEqualTo(10);
+            assertThat(done.getPaidAmount()).isEqualTo(10_000L);
+        } finally {
+            nodeA.shutdown();
+            nodeB.shutdown();
+        }
+
+        assertThat(balanceOf(source)).isEqualTo(10_000L);
+        assertThat(balanceOf(r1)).isEqualTo(5000L);
+        assertThat(balanceOf(r2)).isEqualTo(5000L);
+        assertThat(itemRepository.countByJobIdAndStatus(created.getJobId(), PayoutItem.Status.PAID)).isEqualTo(10);
+        assertThat(transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(r1.getId()))).hasSize(5);
+        logger.info("✅ Test passed — concurrent runners paid 10 items once each");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Under the sharded engine an interrupted job is failed on startup, and cannot be resumed by hand
+    // ------------------------------------------------------------
+    @Test
+    void shardedEngine_failsInterruptedJobInsteadOfRunningIt() throws Exception {
+        logger.info("🔹 TEST START: shardedEngine_failsInterruptedJobInsteadOfRunningIt");
+
+        User source = testWallets.newUserWithWallet("payout-sharded-source@example.com", 0L);
+        User recipient = testWallets.newUserWithWallet("payout-sharded-r@example.com", 0L);
+        PayoutRequest request = new PayoutRequest();
+        request.setSourceUserId(source.getId());
+        request.setItems(List.of(new PayoutItemRequest(recipient.getId(), 1000L)));
+
+        PayoutJobResponse created = payoutService.createJob(admin("payout-admin5@example.com"), request);
+        awaitStatus(created.getJobId(), "FAILED");
+
+        // left PENDING by a node that went down, then the application restarts on the sharded engine
+        PayoutJob job = jobRepository.findById(created.getJobId()).orElseThrow();
+        job.setStatus(PayoutJob.Status.PENDING);
+        jobRepository.saveAndFlush(job);
+        Wallet sourceWallet = walletRepository.findByUser(source).orElseThrow();
+        sourceWallet.setBalance(10_000L);
+        walletRepository.saveAndFlush(sourceWallet);
+
+        WalletEngineProperties sharded = new WalletEngineProperties();
+        sharded.setMode(WalletEngineProperties.Mode.SHARDED);
+        PayoutJobRunner node = otherNodeRunner(sharded);
+        try {
+            node.resumeInterruptedJobs();
+        } finally {
+            node.shutdown();
+        }
+
+        PayoutJob failed = jobRepository.findById(created.getJobId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(PayoutJob.Status.FAILED);
+        assertThat(failed.getErrorMessage()).isEqualTo("Payouts are not supported by the sharded wallet engine");
+        assertThat(balanceOf(source)).isEqualTo(10_000L);
+        assertThat(balanceOf(recipient)).isZero();
+
+        engineProperties.setMode(WalletEngineProperties.Mode.SHARDED);
+        try {
+            assertThatThrownBy(() -> payoutService.resume(created.getJobId()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("sharded");
+        } finally {
+            engineProperties.setMode(WalletEngineProperties.Mode.JPA);
+        }
+        assertThat(jobRepository.findById(created.getJobId()).orElseThrow().getStatus()).isEqualTo(PayoutJob.Status.FAILED);
+        logger.info("✅ Test passed — job failed with a clear message, no money moved");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Malformed CSV rejected, no items kept
+    // ------------------------------------------------------------
+    @Test
+    void malformedCsv_throwsAndDiscardsItems() {
+        logger.info("🔹 TEST START: malformedCsv_throwsAndDiscardsItems");
+
+        User source = testWallets.newUserWithWallet("payout-bad-source@example.com", 10_000L);
+        String csv = source.getId() + ",10\nnot-a-line\n";
+
+        assertThatThrownBy(() -> payoutService.createJobFromCsv(admin("payout-admin3@example.com"), source.getId(),
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+        logger.info("✅ Test passed — malformed CSV rejected");
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.exception.OutcomeUnknownException;
+import com.example.digitalWalletApp.exception.ServiceBusyException;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+A 1 ms operation timeout: most callers give up while their shard task is queued or running, which is exactly the
+case where a caller used to report "failed" for a transfer that was applied afterwards.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=1000000",
+        "wallet.engine.mode=sharded",
+        "wallet.engine.shards=2",
+        "wallet.engine.persist-interval-ms=20",
+        "wallet.engine.operation-timeout-ms=1"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ShardedEngineTimeoutIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedEngineTimeoutIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TestWallets testWallets;
+
+    private Set<Long> creditedIds(User recipient) {
+        return transactionRepository.findAll().stream()
+                .filter(t -> "CREDIT".equals(t.getType()) && t.getUser().getId().equals(recipient.getId()))
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toSet());
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Timed-out transfers are either never applied (busy) or reported unknown; money is conserved either way
+    // ------------------------------------------------------------
+    @Test
+    void timedOutTransfers_areNeverReportedFailedOnceApplied() throws Exception {
+        logger.info("🔹 TEST START: timedOutTransfers_areNeverReportedFailedOnceApplied");
+
+        User a = testWallets.newUserWithWallet("timeout-a@example.com", 100_000L);
+        User b = testWallets.newUserWithWallet("timeout-b@example.com", 100_000L);
+
+        Set<Long> succeeded = ConcurrentHashMap.newKeySet();
+        Set<Long> notApplied = ConcurrentHashMap.newKeySet();
+        Set<Long> unknown = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> {
+                long txnId = idGenerator.nextId();
+                try {
+                    walletService.transferAmount(a, b.getId(), 100L, txnId);
+                    succeeded.add(txnId);
+                } catch (ServiceBusyException e) {
+                    notApplied.add(txnId);
+                } catch (OutcomeUnknownException e) {
+                    unknown.add(txnId);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        executor.shutdown();
+
+        // let the shards and the write-behind flusher drain
+        long deadline = System.currentTimeMillis() + 5000;
+        long balanceA, balanceB;
+        Set<Long> credited;
+        do {
+            Thread.sleep(100);
+            balanceA = walletRepository.findByUser(a).orElseThrow().getBalance();
+            balanceB = walletRepository.findByUser(b).orElseThrow().getBalance();
+            credited = creditedIds(b);
+        } while ((balanceA + balanceB != 200_000L || balanceB - 100_000L != credited.size() * 100L
+                || !credited.containsAll(succeeded)) && System.currentTimeMillis() < deadline);
+
+        assertThat(balanceA + balanceB).isEqualTo(200_000L);
+        assertThat(balanceB - 100_000L).isEqualTo(credited.size() * 100L);
+        assertThat(credited).containsAll(succeeded);
+        assertThat(credited).doesNotContainAnyElementsOf(notApplied);
+        assertThat(succeeded.size() + notApplied.size() + unknown.size()).isEqualTo(200);
+        logger.info("✅ Test passed — {} succeeded, {} not applied, {} unknown ({} of those applied)",
+                succeeded.size(), notApplied.size(), unknown.size(), credited.size() - succeeded.size());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.mode=sharded",
+        "wallet.engine.shards=4",
+        "wallet.engine.persist-interval-ms=20"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ShardedWalletEngineIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedWalletEngineIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TestWallets testWallets;
+
+    private void awaitPersisted(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Concurrent loads on one hot wallet are serialized — no lost updates, no retries
+    // ------------------------------------------------------------
+    @Test
+    void concurrentLoads_onSameWallet_areAllApplied() throws Exception {
+        logger.info("🔹 TEST START: concurrentLoads_onSameWallet_areAllApplied");
+
+        User user = testWallets.newUserWithWallet("hot-wallet@example.com", 0L);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(() -> walletService.loadMoney(user, 1000L, idGenerator.nextId())));
+        }
+        for (Future<?> f : futures) f.get();
+        executor.shutdown();
+
+        awaitPersisted(() -> walletRepository.findByUser(user).orElseThrow().getBalance() == 100_000L);
+        awaitPersisted(() -> transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId())).count() == 100);
+
+        logger.info("✅ Test passed — 100 concurrent loads applied and persisted");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Opposite transfers across shards preserve the total amount of money
+    // ------------------------------------------------------------
+    @Test
+    void oppositeTransfers_preserveTotal() throws Exception {
+        logger.info("🔹 TEST START: oppositeTransfers_preserveTotal");
+
+        User a = testWallets.newUserWithWallet("shard-a@example.com", 50_000L);
+        User b = testWallets.newUserWithWallet("shard-b@example.com", 50_000L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> walletService.transferAmount(a, b.getId(), 500L, idGenerator.nextId())));
+            futures.add(executor.submit(() -> walletService.transferAmount(b, a.getId(), 300L, idGenerator.nextId())));
+        }
+        for (Future<?> f : futures) f.get();
+        executor.shutdown();
+
+        awaitPersisted(() -> walletRepository.findByUser(a).orElseThrow().getBalance() == 46_000L
+                && walletRepository.findByUser(b).orElseThrow().getBalance() == 54_000L);
+
+        logger.info("✅ Test passed — balances a=460, b=540 after opposite transfers");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Business rules still apply and a rejected transfer changes nothing
+    // ------------------------------------------------------------
+    @Test
+    void transfer_withInsufficientBalance_isRejected() throws Exception {
+        logger.info("🔹 TEST START: transfer_withInsufficientBalance_isRejected");
+
+        User poor = testWallets.newUserWithWallet("shard-poor@example.com", 2000L);
+        User rich = testWallets.newUserWithWallet("shard-rich@example.com", 10_000L);
+
+        assertThatThrownBy(() -> walletService.transferAmount(poor, rich.getId(), 20_000L, idGenerator.nextId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient balance");
+
+        Thread.sleep(100);
+        assertThat(walletRepository.findByUser(poor).orElseThrow().getBalance()).isEqualTo(2000L);
+        assertThat(walletRepository.findByUser(rich).orElseThrow().getBalance()).isEqualTo(10_000L);
+
+        logger.info("✅ Test passed — insufficient balance rejected without side effects");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.function.Consumer;
+
+// Shared fixture for the integration tests: a saved user with its wallet. Pull it in with @Import(TestWallets.class).
+@TestComponent
+class TestWallets {
+
+    private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+
+    TestWallets(UserRepository userRepository, WalletRepository walletRepository) {
+        this.userRepository = userRepository;
+        this.walletRepository = walletRepository;
+    }
+
+    User newUserWithWallet(String email, long balance) {
+        return newUserWithWallet(email, wallet -> wallet.setBalance(balance));
+    }
+
+    // setup runs on the new wallet before it is saved
+    User newUserWithWallet(String email, Consumer<Wallet> setup) {
+        User user = userRepository.saveAndFlush(new User("Test", email, "pass"));
+        Wallet wallet = new Wallet(user);
+        setup.accept(wallet);
+        walletRepository.saveAndFlush(wallet);
+        return user;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.dto.TransactionSliceResponse;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.archive.TransactionArchive;
+import com.example.digitalWalletApp.service.archive.TransactionArchiver;
+import com.example.digitalWalletApp.service.history.TransactionExporter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Tiny chunks and blocks (3 rows per segment, 2 per compressed block) so a handful of rows spans several segments,
+several blocks and users sharing a segment.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.archive.directory=target/test-archive/${random.uuid}",
+        "wallet.archive.retention-days=90",
+        "wallet.archive.chunk-size=3",
+        "wallet.archive.block-rows=2"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransactionArchiveIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveIntegrationTest.class);
+    private static final AtomicLong TXN_IDS = new AtomicLong(9_000_000L);
+
+    @Autowired private WalletService walletService;
+    @Autowired private TransactionArchiver archiver;
+    @Autowired private TransactionArchive archive;
+    @Autowired private TransactionExporter exporter;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private User newUser(String email) {
+        return userRepository.saveAndFlush(new User("Archive", email, "pass"));
+    }
+
+    private void ledgerRow(User user, long amount, LocalDateTime timestamp) {
+        Transaction txn = new Transaction(user, amount, "SELF_CREDITED");
+        txn.setTransactionId(TXN_IDS.incrementAndGet());
+        txn.setTimestamp(timestamp);
+        transactionRepository.saveAndFlush(txn);
+    }
+
+    // Amounts 1..old are old (oldest first), old+1..old+recent are recent
+    private void ledger(User user, int old, int recent) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= old; i++) ledgerRow(user, i, now.minusDays(200).plusHours(i));
+        for (int i = 1; i <= recent; i++) ledgerRow(user, old + i, now.minusDays(5).plusHours(i));
+    }
+
+    private static List<Long> amounts(List<TransactionDTO> rows) {
+        return rows.stream().map(TransactionDTO::getAmount).toList();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Old rows leave the table; pages and cursors read table + archive as one newest-first history
+    // ------------------------------------------------------------
+    @Test
+    void archivedRows_areMergedIntoHistory() {
+        logger.info("🔹 TEST START: archivedRows_areMergedIntoHistory");
+
+        User user = newUser("archive-merge@example.com");
+        User neighbour = newUser("archive-neighbour@example.com");
+        ledger(user, 5, 3);
+        ledger(neighbour, 2, 1);
+
+        TransactionArchiver.Run run = archiver.archive();
+
+        assertThat(run.rows()).isEqualTo(7);
+        assertThat(run.segments()).isEqualTo(3);
+        assertThat(transactionRepository.findHistoryPage(user.getId(), PageRequest.of(0, 50))
+                .getTotalElements()).isEqualTo(3);
+        assertThat(archive.archivedCount(user.getId())).isEqualTo(5);
+        assertThat(archive.archivedCount(neighbour.getId())).isEqualTo(2);
+        assertThat(archive.hasArchived(userRepository.saveAndFlush(new User("Archive", "archive-none@example.com", "pass")).getId()))
+                .isFalse();
+
+        Page<TransactionDTO> first = walletService.getTransactions(user, 0, 5);
+        Page<TransactionDTO> second = walletService.getTransactions(user, 1, 5);
+        assertThat(first.getTotalElements()).isEqualTo(8);
+        assertThat(amounts(first.getContent())).containsExactly(8L, 7L, 6L, 5L, 4L);
+        assertThat(amounts(second.getContent())).containsExactly(3L, 2L, 1L);
+        assertThat(second.getContent()).allMatch(dto -> "archive-merge@example.com".equals(dto.getUserEmail()));
+
+        List<TransactionDTO> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionSliceResponse slice = walletService.getTransactionSlice(user.getId(), cursor, 2);
+            walked.addAll(slice.getTransactions());
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        assertThat(amounts(walked)).containsExactly(8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(amounts(walletService.getTransactions(neighbour, 0, 10).getContent())).containsExactly(3L, 2L, 1L);
+        logger.info("✅ Test passed — {} rows in {} segments, history unchanged", run.rows(), run.segments());
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Export writes archived rows first, then the table's, with the same filters
+    // ------------------------------------------------------------
+    @Test
+    void export_includesArchivedRows() throws Exception {
+        logger.info("🔹 TEST START: export_includesArchivedRows");
+
+        User user = newUser("archive-export@example.com");
+        ledger(user, 3, 2);
+        archiver.archive();
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        long rows = exporter.export(user.getId(), null, null, null, TransactionExporter.Format.CSV, all);
+        ByteArrayOutputStream recentOnly = new ByteArrayOutputStream();
+        long recent = exporter.export(user.getId(), LocalDateTime.now().minusDays(30), null, null,
+                TransactionExporter.Format.NDJSON, recentOnly);
+
+        String csv = all.toString(StandardCharsets.UTF_8);
+        assertThat(rows).isEqualTo(5);
+        assertThat(csv.lines().skip(1).map(line -> line.split(",")[3]).toList())
+                .containsExactly("0.01", "0.02", "0.03", "0.04", "0.05");
+        assertThat(recent).isEqualTo(2);
+        logger.info("✅ Test passed — export covered {} rows across both tiers", rows);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Re-running moves nothing new and leaves the archive as it was
+    // ------------------------------------------------------------
+    @Test
+    void rerun_isANoOp() {
+        logger.info("🔹 TEST START: rerun_isANoOp");
+
+        User user = newUser("archive-rerun@example.com");
+        ledger(user, 4, 0);
+        archiver.archive();
+        int segments = archive.segmentCount();
+
+        TransactionArchiver.Run again = archiver.archive();
+
+        assertThat(again.rows()).isZero();
+        assertThat(archive.segmentCount()).isEqualTo(segments);
+        assertThat(amounts(walletService.getTransactions(user, 0, 10).getContent())).containsExactly(4L, 3L, 2L, 1L);
+        logger.info("✅ Test passed — second run archived nothing, {} segments", segments);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.config.location=classpath:application-test.properties")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransactionCursorIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionCursorIntegrationTest.class);
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private User newUser(String email, String role) {
+        User user = new User("Cursor", email, "pass");
+        user.setRole(role);
+        return userRepository.saveAndFlush(user);
+    }
+
+    // count transactions, every group of 5 sharing one timestamp so the id tie-break is exercised
+    private List<Transaction> history(User user, int count) {
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction txn = new Transaction(user, 100L + i, "CREDIT");
+            txn.setTimestamp(DAY.plusMinutes(i / 5));
+            txn.setTransactionId(user.getId() * 1000L + i);
+            rows.add(txn);
+        }
+        return transactionRepository.saveAllAndFlush(rows);
+    }
+
+    private JsonNode page(String url, User caller) throws Exception {
+        String body = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(caller)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Walking the cursors returns every row once, newest first, ties broken by id
+    // ------------------------------------------------------------
+    @Test
+    void cursorWalk_returnsEveryRowOnceInOrder() throws Exception {
+        logger.info("🔹 TEST START: cursorWalk_returnsEveryRowOnceInOrder");
+
+        User user = newUser("cursor-walk@example.com", "USER");
+        List<Long> expected = history(user, 23).stream()
+                .sorted(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+        history(newUser("cursor-noise@example.com", "USER"), 4);
+
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode slice = page("/api/wallet/transactions/cursor?size=7" + (cursor == null ? "" : "&cursor=" + cursor), user);
+            assertThat(slice.has("totalElements")).isFalse();
+            slice.get("transactions").forEach(t -> seen.add(t.get("id").asLong()));
+            pageSizes.add(slice.get("transactions").size());
+            cursor = slice.get("nextCursor").isNull() ? null : slice.get("nextCursor").asText();
+            assertThat(slice.get("hasMore").asBoolean()).isEqualTo(cursor != null);
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(7, 7, 7, 2);
+        assertThat(seen).containsExactlyElementsOf(expected);
+        logger.info("✅ Test passed — {} rows over {} pages", seen.size(), pageSizes.size());
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Admin variant pages another user's history; non-admins are refused
+    // ------------------------------------------------------------
+    @Test
+    void adminCursorEndpoint_pagesAnyUser() throws Exception {
+        logger.info("🔹 TEST START: adminCursorEndpoint_pagesAnyUser");
+
+        User admin = newUser("cursor-admin@example.com", "ADMIN");
+        User user = newUser("cursor-audited@example.com", "USER");
+        history(user, 3);
+
+        JsonNode first = page("/api/wallet/admin/users/" + user.getId() + "/transactions/cursor?size=2", admin);
+        assertThat(first.get("transactions")).hasSize(2);
+        JsonNode second = page("/api/wallet/admin/users/" + user.getId() + "/transactions/cursor?size=2&cursor="
+                + first.get("nextCursor").asText(), admin);
+        assertThat(second.get("transactions")).hasSize(1);
+        assertThat(second.get("nextCursor").isNull()).isTrue();
+
+        mockMvc.perform(get("/api/wallet/admin/users/" + user.getId() + "/transactions/cursor")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user)))
+                .andExpect(status().isForbidden());
+        logger.info("✅ Test passed — admin keyset paging");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Tampered cursor or out-of-range size → 400
+    // ------------------------------------------------------------
+    @Test
+    void invalidCursorOrSize_isRejected() throws Exception {
+        logger.info("🔹 TEST START: invalidCursorOrSize_isRejected");
+
+        String token = "Bearer " + jwtUtil.generateToken(newUser("cursor-invalid@example.com", "USER"));
+
+        mockMvc.perform(get("/api/wallet/transactions/cursor?cursor=not-a-cursor").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/wallet/transactions/cursor?size=0").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/wallet/transactions/cursor?size=101").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        logger.info("✅ Test passed — 400 for bad cursor / size");
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.config.location=classpath:application-test.properties")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransactionExportIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportIntegrationTest.class);
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    // One transaction per hour from DAY on; types alternate CREDIT / DEBIT, amount i.00
+    private User userWithHistory(String email, int count) {
+        User user = userRepository.saveAndFlush(new User("Export", email, "pass"));
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Transaction txn = new Transaction(user, i * 100L, i % 2 == 1 ? "CREDIT" : "DEBIT");
+            txn.setTimestamp(DAY.plusHours(i - 1));
+            txn.setTransactionId(email.hashCode() * 1000L + i);
+            history.add(txn);
+        }
+        transactionRepository.saveAllAndFlush(history);
+        return user;
+    }
+
+    private String export(User user, String query) throws Exception {
+        return mockMvc.perform(get("/api/wallet/transactions/export" + query)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Default ndjson: every transaction of the caller, oldest first, one object per line
+    // ------------------------------------------------------------
+    @Test
+    void ndjson_streamsTheWholeHistoryInOrder() throws Exception {
+        logger.info("🔹 TEST START: ndjson_streamsTheWholeHistoryInOrder");
+
+        User user = userWithHistory("export-ndjson@example.com", 2500);
+        userWithHistory("export-someone-else@example.com", 3);
+
+        String body = export(user, "");
+        String[] lines = body.split("\n");
+
+        assertThat(lines).hasSize(2500);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode last = objectMapper.readTree(lines[lines.length - 1]);
+        assertThat(first.get("type").asText()).isEqualTo("CREDIT");
+        assertThat(first.get("amount").asDouble()).isEqualTo(1.00);
+        assertThat(first.get("timestamp").asText()).isEqualTo("2026-03-01T00:00");
+        assertThat(last.get("amount").asDouble()).isEqualTo(2500.00);
+        assertThat(first.get("id").asLong()).isLessThan(last.get("id").asLong());
+        logger.info("✅ Test passed — {} ndjson lines", lines.length);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ csv with the time range and type filters applied
+    // ------------------------------------------------------------
+    @Test
+    void csv_appliesRangeAndTypeFilters() throws Exception {
+        logger.info("🔹 TEST START: csv_appliesRangeAndTypeFilters");
+
+        User user = userWithHistory("export-csv@example.com", 10);
+
+        mockMvc.perform(get("/api/wallet/transactions/export?format=csv")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\""));
+
+        // hours 2..5 → transactions 3, 4, 5, 6; DEBIT only → 4 and 6
+        String body = export(user, "?format=csv&type=debit&from=2026-03-01T02:00:00&to=2026-03-01T06:00:00");
+        String[] lines = body.split("\n");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,transactionId,type,amount,timestamp");
+        assertThat(lines[1]).endsWith(",DEBIT,4.00,2026-03-01T03:00");
+        assertThat(lines[2]).endsWith(",DEBIT,6.00,2026-03-01T05:00");
+        logger.info("✅ Test passed — filtered csv:\n{}", body);
+    }
+
+    // ------------------------------------------------------------
+    // ❌ Unknown format or an empty range → 400 before anything is streamed
+    // ------------------------------------------------------------
+    @Test
+    void invalidParameters_areRejected() throws Exception {
+        logger.info("🔹 TEST START: invalidParameters_areRejected");
+
+        User user = userWithHistory("export-invalid@example.com", 1);
+        String token = "Bearer " + jwtUtil.generateToken(user);
+
+        mockMvc.perform(get("/api/wallet/transactions/export?format=xml").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/wallet/transactions/export?from=2026-03-02T00:00:00&to=2026-03-01T00:00:00")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        logger.info("✅ Test passed — 400 for bad export parameters");
+    }
+}
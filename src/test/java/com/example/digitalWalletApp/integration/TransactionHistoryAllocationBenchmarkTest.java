@@ -0,0 +1,105 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.dto.TransactionDTO;
+import com.example.digitalWalletApp.mapper.TransactionMapper;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap allocated per history page: the old entity path (Transaction + eager User → TransactionMapper) vs the
+ * TransactionDTO constructor-expression projection that WalletService.getTransactions uses now.
+ *
+ * Tagged "benchmark": excluded from the normal build, run with  mvn test -Pbenchmark
+ * Allocation is measured on the calling thread (com.sun.management.ThreadMXBean) after a warm-up; both paths read
+ * the same page, including its COUNT query.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.show-sql=false"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransactionHistoryAllocationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionHistoryAllocationBenchmarkTest.class);
+
+    private static final int HISTORY = 500;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 300;
+    private static final int ROUNDS = 2_000;
+
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TransactionMapper transactionMapper;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void historyPage_entityVsProjectionAllocation() {
+        logger.info("🔹 TEST START: historyPage_entityVsProjectionAllocation");
+
+        User user = seed();
+        PageRequest page = PageRequest.of(3, PAGE_SIZE);
+
+        Result entity = measure("entity", () -> transactionRepository.findByUser(user, page).map(transactionMapper::toDTO));
+        Result projection = measure("projection", () -> transactionRepository.findHistoryPage(user.getId(), page));
+
+        logger.info("📊 {}", entity);
+        logger.info("📊 {}", projection);
+
+        assertThat(projection.bytesPerPage()).isLessThan(entity.bytesPerPage());
+        logger.info("✅ Benchmark finished");
+    }
+
+    private Result measure(String path, Supplier<Page<TransactionDTO>> readPage) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) assertThat(readPage.get().getContent()).hasSize(PAGE_SIZE);
+
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) readPage.get();
+        long elapsedNanos = System.nanoTime() - start;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        return new Result(path, bytes / ROUNDS, elapsedNanos / 1e3 / ROUNDS);
+    }
+
+    private User seed() {
+        User user = userRepository.saveAndFlush(new User("Bench", "history-bench@bench.example.com", "pass"));
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < HISTORY; i++) {
+            Transaction txn = new Transaction(user, 100L + i, i % 2 == 0 ? "CREDIT" : "DEBIT");
+            txn.setTimestamp(start.plusMinutes(i));
+            txn.setTransactionId(1_000_000L + i);
+            rows.add(txn);
+        }
+        transactionRepository.saveAllAndFlush(rows);
+        return user;
+    }
+
+    private record Result(String path, long bytesPerPage, double microsPerPage) {
+        @Override
+        public String toString() {
+            return String.format("%-10s path: %,d bytes allocated per page of %d, %.0f µs per page",
+                    path, bytesPerPage, PAGE_SIZE, microsPerPage);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionIdGeneratorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIdGeneratorTest.class);
+
+    // ------------------------------------------------------------
+    // ✅ Ids from concurrent threads are unique, and each thread sees them increasing
+    // ------------------------------------------------------------
+    @Test
+    void concurrentIds_areUniqueAndIncreasing() throws Exception {
+        logger.info("🔹 TEST START: concurrentIds_areUniqueAndIncreasing");
+
+        TransactionIdGenerator generator = new TransactionIdGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[50_000];
+                for (int i = 0; i < ids.length; i++) ids[i] = generator.nextId();
+                return ids;
+            }));
+        }
+
+        Set<Long> all = new HashSet<>();
+        for (Future<long[]> f : futures) {
+            long[] ids = f.get();
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                all.add(ids[i]);
+            }
+        }
+        executor.shutdown();
+
+        assertThat(all).hasSize(8 * 50_000);
+        logger.info("✅ Test passed — 400000 unique ids");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ The id carries its timestamp and node id, so two nodes never collide
+    // ------------------------------------------------------------
+    @Test
+    void id_encodesTimestampAndNode() {
+        logger.info("🔹 TEST START: id_encodesTimestampAndNode");
+
+        long before = System.currentTimeMillis();
+        long a = new TransactionIdGenerator(1).nextId();
+        long b = new TransactionIdGenerator(2).nextId();
+
+        assertThat(a).isPositive().isNotEqualTo(b);
+        assertThat((a >>> 12) & 1023).isEqualTo(1);
+        assertThat((b >>> 12) & 1023).isEqualTo(2);
+        assertThat(TransactionIdGenerator.timestampOf(a)).isBetween(before, System.currentTimeMillis());
+
+        logger.info("✅ Test passed — ids {} and {}", a, b);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Payout ids are fixed per (job, position) and live outside the generated range
+    // ------------------------------------------------------------
+    @Test
+    void payoutId_isDeterministicAndReserved() {
+        logger.info("🔹 TEST START: payoutId_isDeterministicAndReserved");
+
+        long id = TransactionIdGenerator.payoutId(42, 7);
+
+        assertThat(id).isNegative().isEqualTo(TransactionIdGenerator.payoutId(42, 7));
+        assertThat(id).isNotEqualTo(TransactionIdGenerator.payoutId(42, 8)).isNotEqualTo(TransactionIdGenerator.payoutId(43, 7));
+        assertThat(new TransactionIdGenerator(1023).nextId()).isPositive();
+        assertThatThrownBy(() -> TransactionIdGenerator.payoutId(1L << 31, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        logger.info("✅ Test passed — payout id {}", id);
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A node id outside 10 bits is rejected at startup
+    // ------------------------------------------------------------
+    @Test
+    void nodeIdOutOfRange_isRejected() {
+        logger.info("🔹 TEST START: nodeIdOutOfRange_isRejected");
+
+        assertThatThrownBy(() -> new TransactionIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("wallet.ids.node-id");
+
+        logger.info("✅ Test passed — node id 1024 rejected");
+    }
+}
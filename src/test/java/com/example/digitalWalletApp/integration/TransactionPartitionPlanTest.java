@@ -0,0 +1,56 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.service.schema.TransactionPartitionPlan;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionPartitionPlanTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionPlanTest.class);
+
+    // ------------------------------------------------------------
+    // ✅ Initial conversion: one partition per month, upper bound is the next month's first day, then pmax
+    // ------------------------------------------------------------
+    @Test
+    void initialPartitioning_coversEveryMonthPlusCatchAll() {
+        logger.info("🔹 TEST START: initialPartitioning_coversEveryMonthPlusCatchAll");
+
+        String ddl = TransactionPartitionPlan.partitionTable(
+                TransactionPartitionPlan.months(YearMonth.of(2025, 11), YearMonth.of(2026, 1)));
+
+        assertThat(ddl).isEqualTo("ALTER TABLE `transactions` PARTITION BY RANGE COLUMNS(`timestamp`) (" +
+                "PARTITION p202511 VALUES LESS THAN ('2025-12-01 00:00:00'), " +
+                "PARTITION p202512 VALUES LESS THAN ('2026-01-01 00:00:00'), " +
+                "PARTITION p202601 VALUES LESS THAN ('2026-02-01 00:00:00'), " +
+                "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+        logger.info("✅ Test passed — {}", ddl);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Maintenance only adds the months after the newest partition, split off pmax
+    // ------------------------------------------------------------
+    @Test
+    void maintenance_addsOnlyMissingFutureMonths() {
+        logger.info("🔹 TEST START: maintenance_addsOnlyMissingFutureMonths");
+
+        List<String> existing = List.of("p202604", "p202605", "pmax");
+
+        List<YearMonth> missing = TransactionPartitionPlan.missingMonths(existing, YearMonth.of(2026, 7));
+        assertThat(missing).containsExactly(YearMonth.of(2026, 6), YearMonth.of(2026, 7));
+        assertThat(TransactionPartitionPlan.addMonths(missing)).isEqualTo(
+                "ALTER TABLE `transactions` REORGANIZE PARTITION pmax INTO (" +
+                "PARTITION p202606 VALUES LESS THAN ('2026-07-01 00:00:00'), " +
+                "PARTITION p202607 VALUES LESS THAN ('2026-08-01 00:00:00'), " +
+                "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+
+        assertThat(TransactionPartitionPlan.missingMonths(existing, YearMonth.of(2026, 5))).isEmpty();
+        assertThat(TransactionPartitionPlan.missingMonths(List.of(), YearMonth.of(2026, 5))).isEmpty();
+        logger.info("✅ Test passed — missing months {}", missing);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Optimistic (retry on version conflict) vs ordered locking (striped locks + FOR UPDATE) for many pairs of
+ * wallets transferring to each other in opposite directions at the same time.
+ *
+ * Tagged "benchmark": excluded from the normal build, run with  mvn test -Pbenchmark
+ * Both schemes run in the same context (mode=locked): the optimistic one calls performTransfer through the
+ * ContentionManager, exactly like the jpa mode does.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.show-sql=false",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=10000000",
+        "wallet.engine.mode=locked",
+        "wallet.engine.simulated-delay-ms=10"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransferLockingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferLockingBenchmarkTest.class);
+
+    private static final int PAIRS = 16;
+    private static final int TRANSFERS_PER_DIRECTION = 10;
+    private static final int THREADS = 32;
+
+    @Autowired private WalletService walletService;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private ContentionManager contentionManager;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TestWallets testWallets;
+
+    private interface TransferCall {
+        void transfer(User sender, User recipient, long txnId);
+    }
+
+    @Test
+    void opposingPairs_optimisticVsOrderedLocking() throws Exception {
+        logger.info("🔹 TEST START: opposingPairs_optimisticVsOrderedLocking");
+
+        Result optimistic = run("optimistic", (s, r, txnId) -> contentionManager.execute("TRANSFER", List.of(s.getId(), r.getId()),
+                () -> walletService.performTransfer(s, r.getId(), 100L, txnId)));
+        Result locked = run("locked", (s, r, txnId) -> walletService.transferAmount(s, r.getId(), 100L, txnId));
+
+        logger.info("📊 {}", optimistic);
+        logger.info("📊 {}", locked);
+
+        assertThat(locked.failed()).isZero();
+        logger.info("✅ Benchmark finished");
+    }
+
+    private Result run(String scheme, TransferCall call) throws Exception {
+        List<User[]> pairs = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            pairs.add(new User[]{testWallets.newUserWithWallet(scheme + "-a" + i + "@bench.example.com", 100_000L), testWallets.newUserWithWallet(scheme + "-b" + i + "@bench.example.com", 100_000L)});
+        }
+
+        Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        long conflictsBefore = contentionManager.metrics().conflicts();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int n = 0; n < TRANSFERS_PER_DIRECTION; n++) {
+            for (User[] pair : pairs) {
+                tasks.add(transferTask(call, pair[0], pair[1], failures));
+                tasks.add(transferTask(call, pair[1], pair[0], failures));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (Future<Void> f : executor.invokeAll(tasks)) f.get();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown();
+
+        // money is conserved whatever failed
+        long total = 0;
+        for (User[] pair : pairs) {
+            total += walletRepository.findByUser(pair[0]).orElseThrow().getBalance();
+            total += walletRepository.findByUser(pair[1]).orElseThrow().getBalance();
+        }
+        assertThat(total).isEqualTo(PAIRS * 2 * 100_000L);
+
+        int failed = failures.values().stream().mapToInt(LongAdder::intValue).sum();
+        return new Result(scheme, tasks.size(), failed,
+                contentionManager.metrics().conflicts() - conflictsBefore, elapsedMs, failures);
+    }
+
+    // failures are counted per exception type: version conflicts that exhausted the retries, DB lock timeouts, deadlocks
+    private Callable<Void> transferTask(TransferCall call, User sender, User recipient, Map<String, LongAdder> failures) {
+        return () -> {
+            try {
+                call.transfer(sender, recipient, idGenerator.nextId());
+            } catch (RuntimeException e) {
+                failures.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+            }
+            return null;
+        };
+    }
+
+    private record Result(String scheme, int transfers, int failed, long conflicts, long elapsedMs,
+                          Map<String, LongAdder> failures) {
+        @Override
+        public String toString() {
+            return String.format("%-10s transfers=%d failed=%d %s conflicts=%d elapsed=%d ms throughput=%.1f/s",
+                    scheme, transfers, failed, failures, conflicts, elapsedMs,
+                    (transfers - failed) * 1000.0 / Math.max(1, elapsedMs));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Statement budget for the default (jpa) money path, measured with Hibernate statistics around the whole
+WalletService call, duplicate check included:
+
+  transfer: duplicate check + one wallet SELECT + versioned wallet UPDATE batch + ledger INSERT batch
+  load:     duplicate check + wallet SELECT + wallet UPDATE + ledger INSERT
+
+Each runs in exactly one DB transaction and never loads a User row (Wallet.user is lazy). Warm-up calls first pull a block of ids from the pooled sequences.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.simulated-delay-ms=0"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransferStatementBudgetIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferStatementBudgetIntegrationTest.class);
+
+    private static final long TRANSFER_STATEMENT_BUDGET = 4;
+    private static final long LOAD_STATEMENT_BUDGET = 4;
+
+    @Autowired private WalletService walletService;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TestWallets testWallets;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long userLoads() {
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Transfer: one transaction, within the statement budget, both ledger legs written
+    // ------------------------------------------------------------
+    @Test
+    void transfer_staysWithinStatementBudget() {
+        logger.info("🔹 TEST START: transfer_staysWithinStatementBudget");
+
+        User sender = testWallets.newUserWithWallet("budget-sender@example.com", 100_000L);
+        User recipient = testWallets.newUserWithWallet("budget-recipient@example.com", 0L);
+        for (int i = 0; i < 2; i++) walletService.transferAmount(sender, recipient.getId(), 100L, idGenerator.nextId()); // warm-up
+
+        long txnId = idGenerator.nextId();
+        statistics.clear();
+        walletService.transferAmount(sender, recipient.getId(), 500L, txnId);
+
+        logger.info("📊 transfer: {} statements, {} transactions, {} entities loaded",
+                statistics.getPrepareStatementCount(), statistics.getTransactionCount(), statistics.getEntityLoadCount());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(TRANSFER_STATEMENT_BUDGET);
+        assertThat(statistics.getSuccessfulTransactionCount()).isEqualTo(1);
+        assertThat(userLoads()).isZero();
+        assertThat(walletRepository.findByUser(recipient).orElseThrow().getBalance()).isEqualTo(700L);
+        assertThat(transactionRepository.existsByTransactionId(txnId)).isTrue();
+        logger.info("✅ Test passed — transfer within {} statements", TRANSFER_STATEMENT_BUDGET);
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Load: one transaction, within the statement budget
+    // ------------------------------------------------------------
+    @Test
+    void load_staysWithinStatementBudget() {
+        logger.info("🔹 TEST START: load_staysWithinStatementBudget");
+
+        User user = testWallets.newUserWithWallet("budget-load@example.com", 0L);
+        for (int i = 0; i < 2; i++) walletService.loadMoney(user, 100L, idGenerator.nextId()); // warm-up
+
+        statistics.clear();
+        walletService.loadMoney(user, 500L, idGenerator.nextId());
+
+        logger.info("📊 load: {} statements, {} transactions, {} entities loaded",
+                statistics.getPrepareStatementCount(), statistics.getTransactionCount(), statistics.getEntityLoadCount());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(LOAD_STATEMENT_BUDGET);
+        assertThat(statistics.getSuccessfulTransactionCount()).isEqualTo(1);
+        assertThat(userLoads()).isZero();
+        assertThat(walletRepository.findByUser(user).orElseThrow().getBalance()).isEqualTo(700L);
+        logger.info("✅ Test passed — load within {} statements", LOAD_STATEMENT_BUDGET);
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A rejected transfer rolls back as a whole: no balance change, no ledger row
+    // ------------------------------------------------------------
+    @Test
+    void rejectedTransfer_leavesNothingBehind() {
+        logger.info("🔹 TEST START: rejectedTransfer_leavesNothingBehind");
+
+        User sender = testWallets.newUserWithWallet("budget-poor@example.com", 100L);
+        User recipient = testWallets.newUserWithWallet("budget-poor-recipient@example.com", 0L);
+        long txnId = idGenerator.nextId();
+
+        try {
+            walletService.transferAmount(sender, recipient.getId(), 5_000L, txnId);
+        } catch (IllegalArgumentException expected) {
+            logger.info("Rejected as expected: {}", expected.getMessage());
+        }
+
+        assertThat(walletRepository.findByUser(sender).orElseThrow().getBalance()).isEqualTo(100L);
+        assertThat(transactionRepository.existsByTransactionId(txnId)).isFalse();
+        logger.info("✅ Test passed — nothing written for the rejected transfer");
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.DigitalWalletAppApplication;
+import com.example.digitalWalletApp.config.JwtUtil;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Platform vs virtual request threads: 5,000 concurrent clients, each sending a few POST /api/wallet/load requests
+ * over real HTTP. Every load blocks for wallet.engine.simulated-delay-ms (a stand-in for slow JDBC) inside its
+ * transaction, so it holds a pooled connection while it waits. The pool (POOL_SIZE) is sized well above
+ * server.tomcat.threads.max: with platform threads concurrency is capped at the 200 request threads and the rest
+ * queue, while virtual threads park and run up to the pool size at once.
+ *
+ * Tagged "benchmark": excluded from the normal build, run with  mvn test -Pbenchmark.
+ * Each mode gets its own application context and in-memory database; compare the two 📊 lines.
+ *
+ * Recorded on JDK 21.0.1, a 1 vCPU / 5 GB sandbox, H2 in memory; 5,000 clients x 4 requests, two runs:
+ *   platform:  31 / 71 req/s, p99 60.0 s / 60.7 s, peak 172 / 200 connections in use
+ *   virtual:   28 / 91 req/s, p99 64.5 s / 63.5 s, peak 900 / 1000 connections in use
+ * On one core the server is CPU-bound long before the thread model matters: p99 sits at the 60 s client timeout and
+ * many clients give up (counted as failed). Virtual threads do take the pool past the 200 request threads, which is
+ * what the test asserts; turning that into throughput needs cores to run the extra concurrency, so rerun on a
+ * multi-core machine before reading anything into the req/s.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadBenchmarkTest.class);
+
+    private static final int CLIENTS = 5_000;
+    private static final int REQUESTS_PER_CLIENT = 4;
+    private static final int BLOCKING_MS = 50;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int POOL_SIZE = 1_000; // > TOMCAT_THREADS, or both modes would stop at the pool
+    private static final int BACKGROUND_CONNECTIONS = 10; // scheduled jobs and write-behind may hold a few
+
+    @Test
+    void loadMoney_platformVsVirtualThreads() throws Exception {
+        logger.info("🔹 TEST START: loadMoney_platformVsVirtualThreads");
+
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        logger.info("📊 {}", platform);
+        logger.info("📊 {}", virtual);
+
+        // every request was answered or counted as failed, in both modes
+        assertThat(platform.requests() + platform.unanswered()).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+        assertThat(virtual.requests() + virtual.unanswered()).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+        // the mechanism under test: platform threads cap the connections in use at the request threads,
+        // virtual threads take the pool beyond that cap (throughput and latency depend on the machine: see above)
+        assertThat(platform.peakConnections()).isLessThanOrEqualTo(TOMCAT_THREADS + BACKGROUND_CONNECTIONS);
+        assertThat(virtual.peakConnections()).isGreaterThan(TOMCAT_THREADS + BACKGROUND_CONNECTIONS);
+        logger.info("✅ Benchmark finished");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(DigitalWalletAppApplication.class).run(
+                "--spring.config.location=classpath:application-test.properties",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.open-in-view=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.digitalWalletApp.integration=INFO", // keep the 📊 lines
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.max-connections=" + (CLIENTS + 100),
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--wallet.engine.simulated-delay-ms=" + BLOCKING_MS,
+                "--wallet.transaction.min-amount=1",
+                "--wallet.transaction.max-amount=30000",
+                "--wallet.transaction.daily-limit=10000000")) {
+
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            List<String> tokens = seedUsers(app, mode);
+            HikariPoolMXBean pool = app.getBean(DataSource.class).unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            return hammer(mode, URI.create("http://localhost:" + port + "/api/wallet/load"), tokens, pool);
+        }
+    }
+
+    private List<String> seedUsers(ConfigurableApplicationContext app, String mode) {
+        UserRepository userRepository = app.getBean(UserRepository.class);
+        WalletRepository walletRepository = app.getBean(WalletRepository.class);
+        JwtUtil jwtUtil = app.getBean(JwtUtil.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) users.add(new User("Bench", mode + "-" + i + "@bench.example.com", "pass"));
+        users = userRepository.saveAll(users);
+        walletRepository.saveAll(users.stream().map(Wallet::new).toList());
+        return users.stream().map(jwtUtil::generateToken).toList();
+    }
+
+    // One virtual thread per client; each client sends its requests one after another
+    private Result hammer(String mode, URI uri, List<String> tokens, HikariPoolMXBean pool) throws Exception {
+        VirtualThreadTaskExecutor clients = new VirtualThreadTaskExecutor("bench-client-");
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clients)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        long[][] latencies = new long[CLIENTS][REQUESTS_PER_CLIENT];
+        LongAdder failed = new LongAdder();
+        LongAdder unanswered = new LongAdder();
+        CountDownLatch go = new CountDownLatch(1);
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            done.add(CompletableFuture.runAsync(() -> {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Authorization", "Bearer " + tokens.get(client))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\": 1.00}"))
+                        .build();
+                try {
+                    go.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[client][r] = System.nanoTime() - start;
+                        if (response.statusCode() != 200) failed.increment();
+                    }
+                } catch (Exception e) {
+                    failed.increment(); // timed out or refused: this client's remaining requests are not sent
+                    unanswered.add(REQUESTS_PER_CLIENT - answered(latencies[client]));
+                }
+            }, clients));
+        }
+
+        // connections in use = requests inside a transaction at once
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger peakConnections = new AtomicInteger();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                peakConnections.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        go.countDown();
+        CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).join();
+        long elapsedNanos = System.nanoTime() - start;
+        running.set(false);
+        sampler.join();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).filter(l -> l > 0).sorted().toArray();
+        return new Result(mode, all.length, failed.intValue(), unanswered.intValue(), peakConnections.get(),
+                elapsedNanos / 1_000_000, all.length * 1e9 / elapsedNanos, percentileMs(all, 0.50), percentileMs(all, 0.99));
+    }
+
+    private static int answered(long[] clientLatencies) {
+        return (int) Arrays.stream(clientLatencies).filter(l -> l > 0).count();
+    }
+
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(String mode, int requests, int failed, int unanswered, int peakConnections, long elapsedMs,
+                          double throughput, double p50Ms, double p99Ms) {
+        @Override
+        public String toString() {
+            return String.format("%-8s threads: %d requests (%d failed, %d not sent) in %d ms → %.0f req/s, p50 %.1f ms, "
+                            + "p99 %.1f ms, peak %d connections in use",
+                    mode, requests, failed, unanswered, elapsedMs, throughput, p50Ms, p99Ms, peakConnections);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.model.Wallet;
+import com.example.digitalWalletApp.repository.UserRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import com.example.digitalWalletApp.service.wallet.WalletFactory;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCacheMetrics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.simulated-delay-ms=0",
+        "wallet.cache.max-size=3"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class WalletCacheIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletCacheIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+    @Autowired private WalletFactory walletFactory;
+    @Autowired private WalletCache walletCache;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private TestWallets testWallets;
+
+    private User coldUserWithWallet(String email, long balance) {
+        User user = testWallets.newUserWithWallet(email, balance);
+        walletCache.invalidate(user.getId()); // start every test from a cold entry
+        return user;
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Second read is served from memory
+    // ------------------------------------------------------------
+    @Test
+    void repeatedReads_hitTheCache() {
+        logger.info("🔹 TEST START: repeatedReads_hitTheCache");
+
+        User user = coldUserWithWallet("cache-read@example.com", 4200L);
+        WalletCacheMetrics before = walletCache.metrics();
+
+        assertThat(walletFactory.getCachedWallet(user).getBalance()).isEqualTo(4200L);
+        assertThat(walletFactory.getCachedWallet(user).getBalance()).isEqualTo(4200L);
+
+        WalletCacheMetrics after = walletCache.metrics();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+        logger.info("✅ Test passed — one miss, then a hit");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Committed writes go through: the next read is a hit with the new balance
+    // ------------------------------------------------------------
+    @Test
+    void committedTransfer_isWrittenThrough() {
+        logger.info("🔹 TEST START: committedTransfer_isWrittenThrough");
+
+        User sender = coldUserWithWallet("cache-sender@example.com", 10_000L);
+        User recipient = coldUserWithWallet("cache-recipient@example.com", 0L);
+        walletFactory.getCachedWallet(sender);
+        walletFactory.getCachedWallet(recipient);
+
+        walletService.transferAmount(sender, recipient.getId(), 2500L, idGenerator.nextId());
+        WalletCacheMetrics before = walletCache.metrics();
+
+        assertThat(walletFactory.getCachedWallet(sender).getBalance()).isEqualTo(7500L);
+        assertThat(walletFactory.getCachedWallet(recipient).getBalance()).isEqualTo(2500L);
+
+        WalletCacheMetrics after = walletCache.metrics();
+        assertThat(after.hits() - before.hits()).isEqualTo(2);
+        assertThat(after.misses()).isEqualTo(before.misses());
+        logger.info("✅ Test passed — both wallets updated in the cache on commit");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Info lookups by id: the owner is loaded on the miss only, and survives a write-through
+    // ------------------------------------------------------------
+    @Test
+    void infoByUserId_loadsOwnerOnMissOnly() {
+        logger.info("🔹 TEST START: infoByUserId_loadsOwnerOnMissOnly");
+
+        User user = coldUserWithWallet("cache-info@example.com", 3000L);
+        User other = coldUserWithWallet("cache-info-other@example.com", 0L);
+        AtomicInteger ownerLoads = new AtomicInteger();
+
+        Wallet first = walletFactory.getCachedWalletWithOwner(user.getId(), () -> {
+            ownerLoads.incrementAndGet();
+            return userRepository.findById(user.getId()).orElseThrow();
+        });
+        walletService.transferAmount(user, other.getId(), 500L, idGenerator.nextId());
+        Wallet second = walletFactory.getCachedWalletWithOwner(user.getId(), () -> {
+            ownerLoads.incrementAndGet();
+            return userRepository.findById(user.getId()).orElseThrow();
+        });
+
+        assertThat(first.getUser().getEmail()).isEqualTo("cache-info@example.com");
+        assertThat(second.getUser().getName()).isEqualTo("Test");
+        assertThat(second.getBalance()).isEqualTo(2500L);
+        assertThat(ownerLoads.get()).isEqualTo(1);
+        logger.info("✅ Test passed — owner loaded once, balance and owner served from memory afterwards");
+    }
+
+    // ------------------------------------------------------------
+    // ❌ A rolled-back write leaves no trace; an older version never replaces a newer one
+    // ------------------------------------------------------------
+    @Test
+    void rollbackAndStaleVersions_neverReachReaders() {
+        logger.info("🔹 TEST START: rollbackAndStaleVersions_neverReachReaders");
+
+        User user = coldUserWithWallet("cache-rollback@example.com", 1000L);
+        Wallet stale = walletFactory.getCachedWallet(user);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Wallet wallet = walletRepository.findByUser(user).orElseThrow();
+            wallet.setBalance(999_999L);
+            walletRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(walletFactory.getCachedWallet(user).getBalance()).isEqualTo(1000L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Wallet wallet = walletRepository.findByUser(user).orElseThrow();
+            wallet.setBalance(1500L);
+        });
+        walletCache.writeThrough(stale); // a slow reader arriving with the old version
+        assertThat(walletFactory.getCachedWallet(user).getBalance()).isEqualTo(1500L);
+        logger.info("✅ Test passed — rollback invalidated, stale version ignored");
+    }
+
+    // ------------------------------------------------------------
+    // ✅ Size bound: the least recently used wallet is evicted
+    // ------------------------------------------------------------
+    @Test
+    void sizeBound_evictsLeastRecentlyUsed() {
+        logger.info("🔹 TEST START: sizeBound_evictsLeastRecentlyUsed");
+
+        WalletCacheMetrics before = walletCache.metrics();
+        for (int i = 0; i < 5; i++) {
+            walletFactory.getCachedWallet(coldUserWithWallet("cache-lru-" + i + "@example.com", i));
+        }
+
+        WalletCacheMetrics after = walletCache.metrics();
+        assertThat(after.size()).isEqualTo(3);
+        assertThat(after.evictions() - before.evictions()).isGreaterThanOrEqualTo(2);
+        logger.info("✅ Test passed — cache held at max-size, {} eviction(s)", after.evictions());
+    }
+}
@@ -47,12 +47,13 @@ public class WalletRepositoryIntegrationTest {
 
         // --- Create & save Wallet linked to User ---
         Wallet wallet = new Wallet(user);
-        wallet.setBalance(500.0);
+        wallet.setBalance(50_000L);
         walletRepository.save(wallet);
         log.info("Saved Wallet for User {}: balance={}", user.getEmail(), wallet.getBalance());
 
         // --- Create & save Transaction linked to User ---
-        Transaction transaction = new Transaction(user, 100.0, "CREDIT");
+        Transaction transaction = new Transaction(user, 10_000L, "CREDIT");
+        transaction.setTransactionId(1L);
         transactionRepository.save(transaction);
         log.info("Saved Transaction for User {}: amount={}, type={}", user.getEmail(), transaction.getAmount(), transaction.getType());
 
@@ -80,10 +81,14 @@ public class WalletRepositoryIntegrationTest {
         log.info("Saved Wallet for User {}: balance={}", user.getEmail(), wallet.getBalance());
 
         // --- Create multiple transactions ---
-        Transaction t1 = transactionRepository.save(new Transaction(user, 50.0, "CREDIT"));
+        Transaction credit = new Transaction(user, 5000L, "CREDIT");
+        credit.setTransactionId(2L);
+        Transaction t1 = transactionRepository.save(credit);
         log.info("Saved Transaction 1 for User {}: amount={}, type={}, timestamp={}", user.getEmail(), t1.getAmount(), t1.getType(), t1.getTimestamp());
 
-        Transaction t2 = transactionRepository.save(new Transaction(user, 20.0, "DEBIT"));
+        Transaction debit = new Transaction(user, 2000L, "DEBIT");
+        debit.setTransactionId(3L);
+        Transaction t2 = transactionRepository.save(debit);
         log.info("Saved Transaction 2 for User {}: amount={}, type={}, timestamp={}", user.getEmail(), t2.getAmount(), t2.getType(), t2.getTimestamp());
 
         // --- Fetch transactions between timestamps ---
@@ -106,12 +111,12 @@ public class WalletRepositoryIntegrationTest {
         log.info("Saved Wallet for User {}: balance={}", user.getEmail(), wallet.getBalance());
 
         // --- Update balance ---
-        wallet.setBalance(1000.0);
+        wallet.setBalance(100_000L);
         walletRepository.save(wallet);
         log.info("Updated Wallet balance for User {} to {}", user.getEmail(), wallet.getBalance());
 
         Wallet updatedWallet = walletRepository.findByUser(user).orElseThrow();
         log.info("Verified updated Wallet balance for User {}: {}", user.getEmail(), updatedWallet.getBalance());
-        assertThat(updatedWallet.getBalance()).isEqualTo(1000.0);
+        assertThat(updatedWallet.getBalance()).isEqualTo(100_000L);
     }
 }
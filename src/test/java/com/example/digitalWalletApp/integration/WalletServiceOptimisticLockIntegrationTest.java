@@ -6,6 +6,7 @@ import com.example.digitalWalletApp.repository.TransactionRepository;
 import com.example.digitalWalletApp.repository.UserRepository;
 import com.example.digitalWalletApp.repository.WalletRepository;
 import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +14,6 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 
-import java.util.UUID;
 import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +25,9 @@ class WalletServiceOptimisticLockIntegrationTest {
     @Autowired
     private WalletService walletService;
 
+    @Autowired
+    private TransactionIdGenerator idGenerator;
+
     @Autowired
     private WalletRepository walletRepository;
 
@@ -49,7 +52,7 @@ class WalletServiceOptimisticLockIntegrationTest {
 
         wallet = new Wallet();
         wallet.setUser(user);
-        wallet.setBalance(100.0);
+        wallet.setBalance(10_000L);
 
         // ✅ Then save wallet
         wallet = walletRepository.saveAndFlush(wallet);
@@ -63,12 +66,12 @@ class WalletServiceOptimisticLockIntegrationTest {
         ExecutorService executor = Executors.newFixedThreadPool(2);
 
         Callable<Void> task1 = () -> {
-            walletService.loadMoney(user, 10.0, UUID.randomUUID().toString());
+            walletService.loadMoney(user, 1000L, idGenerator.nextId());
             return null;
         };
 
         Callable<Void> task2 = () -> {
-            walletService.loadMoney(user, 5.0, UUID.randomUUID().toString());
+            walletService.loadMoney(user, 500L, idGenerator.nextId());
             return null;
         };
 
@@ -99,7 +102,7 @@ class WalletServiceOptimisticLockIntegrationTest {
         System.out.println("✅ Final Balance (loadMoney): " + updatedWallet.getBalance());
         System.out.println("✅ Final Version: " + updatedWallet.getVersion());
 
-        assertThat(updatedWallet.getBalance()).isEqualTo(115.0);
+        assertThat(updatedWallet.getBalance()).isEqualTo(11_500L);
         assertThat(updatedWallet.getVersion()).isGreaterThan(1L);
     }
 
@@ -117,7 +120,7 @@ class WalletServiceOptimisticLockIntegrationTest {
 
         Wallet senderWallet = new Wallet();
         senderWallet.setUser(sender);
-        senderWallet.setBalance(200.0);
+        senderWallet.setBalance(20_000L);
         senderWallet = walletRepository.saveAndFlush(senderWallet);
 
         // Recipient
@@ -129,7 +132,7 @@ class WalletServiceOptimisticLockIntegrationTest {
 
         Wallet recipientWallet = new Wallet();
         recipientWallet.setUser(recipient);
-        recipientWallet.setBalance(50.0);
+        recipientWallet.setBalance(5000L);
         recipientWallet = walletRepository.saveAndFlush(recipientWallet);
 
         // ✅ Make variables effectively final for lambda use
@@ -139,12 +142,12 @@ class WalletServiceOptimisticLockIntegrationTest {
         ExecutorService executor = Executors.newFixedThreadPool(2);
 
         Callable<Void> task1 = () -> {
-            walletService.transferAmount(s, r.getId(), 40.0, UUID.randomUUID().toString());
+            walletService.transferAmount(s, r.getId(), 4000L, idGenerator.nextId());
             return null;
         };
 
         Callable<Void> task2 = () -> {
-            walletService.transferAmount(s, r.getId(), 30.0, UUID.randomUUID().toString());
+            walletService.transferAmount(s, r.getId(), 3000L, idGenerator.nextId());
             return null;
         };
 
@@ -173,11 +176,11 @@ class WalletServiceOptimisticLockIntegrationTest {
         System.out.println("✅ Recipient Final Version: " + updatedRecipient.getVersion());
 
         // Check that total money in system is preserved (no loss/gain)
-        double total = updatedSender.getBalance() + updatedRecipient.getBalance();
-        assertThat(total).isEqualTo(250.0);
+        long total = updatedSender.getBalance() + updatedRecipient.getBalance();
+        assertThat(total).isEqualTo(25_000L);
 
         // At least one transfer should succeed, so sender’s balance < 200
-        assertThat(updatedSender.getBalance()).isLessThan(200.0);
+        assertThat(updatedSender.getBalance()).isLessThan(20_000L);
         assertThat(updatedSender.getVersion()).isGreaterThan(1L);
     }
 
@@ -195,18 +198,18 @@ class WalletServiceOptimisticLockIntegrationTest {
 
         Wallet senderWallet = new Wallet();
         senderWallet.setUser(sender);
-        senderWallet.setBalance(100.0);
+        senderWallet.setBalance(10_000L);
         senderWallet = walletRepository.saveAndFlush(senderWallet);
 
         // Recipient (nonexistent ID to trigger exception)
         Long invalidRecipientId = 9999L;
 
-        String txnId = UUID.randomUUID().toString();
+        long txnId = idGenerator.nextId();
 
         System.out.println("\n🚨 Starting rollback test for invalid recipient...");
 
         try {
-            walletService.transferAmount(sender, invalidRecipientId, 50.0, txnId);
+            walletService.transferAmount(sender, invalidRecipientId, 5000L, txnId);
         } catch (Exception e) {
             System.out.println("💥 Expected failure: " + e.getMessage());
         }
@@ -217,8 +220,8 @@ class WalletServiceOptimisticLockIntegrationTest {
         System.out.println("🧾 Sender Version: " + afterWallet.getVersion());
 
         // ✅ Assert: No balance deduction should happen
-        assertThat(afterWallet.getBalance()).isEqualTo(100.0);
-        assertThat(transactionRepository.findByTransactionId(txnId)).isEmpty();
+        assertThat(afterWallet.getBalance()).isEqualTo(10_000L);
+        assertThat(transactionRepository.existsByTransactionId(txnId)).isFalse();
     }
 
     @Test
@@ -231,7 +234,7 @@ class WalletServiceOptimisticLockIntegrationTest {
 
         Wallet senderWallet = new Wallet();
         senderWallet.setUser(sender);
-        senderWallet.setBalance(20.0);
+        senderWallet.setBalance(2000L);
         senderWallet = walletRepository.saveAndFlush(senderWallet);
 
         User receiver = new User();
@@ -242,13 +245,13 @@ class WalletServiceOptimisticLockIntegrationTest {
 
         Wallet receiverWallet = new Wallet();
         receiverWallet.setUser(receiver);
-        receiverWallet.setBalance(100.0);
+        receiverWallet.setBalance(10_000L);
         receiverWallet = walletRepository.saveAndFlush(receiverWallet);
 
         System.out.println("\n🚨 Starting rollback test for insufficient funds...");
 
         try {
-            walletService.transferAmount(sender, receiver.getId(), 200.0, UUID.randomUUID().toString());
+            walletService.transferAmount(sender, receiver.getId(), 20_000L, idGenerator.nextId());
         } catch (Exception e) {
             System.out.println("💥 Expected failure: " + e.getMessage());
         }
@@ -260,8 +263,8 @@ class WalletServiceOptimisticLockIntegrationTest {
         System.out.println("💰 Receiver After: " + receiverAfter.getBalance());
 
         // ✅ Assert rollback: no balance changes
-        assertThat(senderAfter.getBalance()).isEqualTo(20.0);
-        assertThat(receiverAfter.getBalance()).isEqualTo(100.0);
+        assertThat(senderAfter.getBalance()).isEqualTo(2000L);
+        assertThat(receiverAfter.getBalance()).isEqualTo(10_000L);
     }
 
     @Test
@@ -276,20 +279,20 @@ class WalletServiceOptimisticLockIntegrationTest {
         // Setup wallet
         Wallet wallet = new Wallet();
         wallet.setUser(user);
-        wallet.setBalance(100.0);
+        wallet.setBalance(10_000L);
         wallet = walletRepository.saveAndFlush(wallet);
 
         // ✅ Use same transaction ID for both calls
-        String sameTxnId = UUID.randomUUID().toString();
+        long sameTxnId = idGenerator.nextId();
 
         System.out.println("\n🧾 Testing duplicate transaction ID handling...");
 
         // First transaction — should succeed
-        walletService.loadMoney(user, 20.0, sameTxnId);
+        walletService.loadMoney(user, 2000L, sameTxnId);
 
         // Second transaction — should fail due to duplicate ID
         try {
-            walletService.loadMoney(user, 20.0, sameTxnId);
+            walletService.loadMoney(user, 2000L, sameTxnId);
             System.out.println("⚠️ Duplicate transaction was processed (unexpected)");
         } catch (Exception e) {
             System.out.println("✅ Duplicate transaction prevented: " + e.getMessage());
@@ -300,10 +303,10 @@ class WalletServiceOptimisticLockIntegrationTest {
         System.out.println("🧾 Version: " + updatedWallet.getVersion());
 
         // ✅ Assert: Only one transaction recorded for that ID
-        assertThat(transactionRepository.findByTransactionId(sameTxnId)).isPresent();
+        assertThat(transactionRepository.existsByTransactionId(sameTxnId)).isTrue();
 
         // ✅ Assert: Balance only updated once
-        assertThat(updatedWallet.getBalance()).isEqualTo(120.0);
+        assertThat(updatedWallet.getBalance()).isEqualTo(12_000L);
     }
 
 
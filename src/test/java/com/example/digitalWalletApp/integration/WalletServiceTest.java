@@ -1,11 +1,12 @@
 package com.example.digitalWalletApp.integration;
 
+import com.example.digitalWalletApp.config.DailyLimitResetProperties;
+import com.example.digitalWalletApp.config.WalletEngineProperties;
 import com.example.digitalWalletApp.config.WalletProperties;
 import com.example.digitalWalletApp.dto.LoadMoneyResponse;
 import com.example.digitalWalletApp.dto.TransactionDTO;
 import com.example.digitalWalletApp.dto.TransferResponse;
 import com.example.digitalWalletApp.exception.UserNotFoundException;
-import com.example.digitalWalletApp.mapper.TransactionMapper;
 import com.example.digitalWalletApp.mapper.WalletMapper;
 import com.example.digitalWalletApp.model.Transaction;
 import com.example.digitalWalletApp.model.User;
@@ -14,9 +15,15 @@ import com.example.digitalWalletApp.repository.TransactionRepository;
 import com.example.digitalWalletApp.repository.UserRepository;
 import com.example.digitalWalletApp.repository.WalletRepository;
 import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.archive.TransactionArchive;
+import com.example.digitalWalletApp.service.wallet.DailyLimitClock;
+import com.example.digitalWalletApp.service.wallet.OptimisticWalletUpdater;
 import com.example.digitalWalletApp.service.wallet.WalletFactory;
 import com.example.digitalWalletApp.service.wallet.WalletTransactionService;
 import com.example.digitalWalletApp.service.wallet.WalletValidator;
+import com.example.digitalWalletApp.service.wallet.cache.WalletCache;
+import com.example.digitalWalletApp.service.wallet.contention.BackoffContentionManager;
+import com.example.digitalWalletApp.service.wallet.contention.ContentionManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,7 +37,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -42,10 +51,11 @@ import static org.mockito.Mockito.*;
  * These tests mirror the flows implemented in your WalletService:
  *  - loadMoney + performLoadMoney (duplicate check, success, optimistic-lock retry)
  *  - transferAmount + performTransfer (duplicate check, recipient missing, insufficient balance, success)
+ *  - performLoadMoney / performTransfer run through a real OptimisticWalletUpdater built on the same mocks
  *  - helper methods (getAllUsers, getUserById, getTransactions, toLoadMoneyResponse)
  *
- * Place under src/test/java/... and run. Tests call performLoadMoney/performTransfer which contain a small Thread.sleep,
- * so tests may take a couple seconds each when those flows execute. (You can refactor service later to inject a sleeper for faster tests.)
+ * Place under src/test/java/... and run. performLoadMoney/performTransfer contain a simulated delay
+ * (wallet.engine.simulated-delay-ms); it is set to 0 here so the flows run without sleeping.
  */
 @ExtendWith(MockitoExtension.class)
 class WalletServiceTest {
@@ -59,16 +69,27 @@ class WalletServiceTest {
     @Mock private WalletTransactionService txnService;
     @Mock private WalletValidator walletValidator;
     @Mock private WalletMapper walletMapper;
-    @Mock private TransactionMapper transactionMapper;
     @Mock private WalletProperties walletProperties;
+    @Mock private WalletCache walletCache;
+    @Mock private TransactionArchive archive;
+    @Spy private ContentionManager contentionManager = new BackoffContentionManager(new WalletEngineProperties());
+    @Spy private WalletEngineProperties engineProperties = new WalletEngineProperties();
 
-    @InjectMocks private WalletService walletService;
+    private WalletService walletService;
 
     private User user;
     private Wallet wallet;
 
     @BeforeEach
     void setUp() {
+        engineProperties.setSimulatedDelayMs(0);
+
+        OptimisticWalletUpdater optimisticUpdater = new OptimisticWalletUpdater(walletRepository, userRepository,
+                walletProperties, engineProperties, walletValidator, walletFactory, walletMapper, txnService, walletCache,
+                new DailyLimitClock(new DailyLimitResetProperties()));
+        walletService = new WalletService(transactionRepository, userRepository, walletProperties, engineProperties,
+                walletMapper, txnService, contentionManager, null, null, optimisticUpdater, archive, null, null, null);
+
         user = new User();
         user.setId(1L);
         user.setEmail("john@example.com");
@@ -76,19 +97,20 @@ class WalletServiceTest {
 
         wallet = new Wallet(user);
         wallet.setId(10L);
-        wallet.setBalance(100.0);
-        wallet.setDailySpent(0.0);
+        wallet.setBalance(10_000L);
+        wallet.setDailySpent(0L);
         wallet.setFrozen(false);
         wallet.setLastTransactionDate(LocalDate.now());
         wallet.setVersion(1L);
 
         // sensible defaults
-        lenient().when(walletProperties.getMinAmount()).thenReturn(1.0);
-        lenient().when(walletProperties.getMaxAmount()).thenReturn(10_000.0);
-        lenient().when(walletProperties.getDailyLimit()).thenReturn(1_000.0);
+        lenient().when(walletProperties.getMinAmountMinor()).thenReturn(100L);
+        lenient().when(walletProperties.getMaxAmountMinor()).thenReturn(1_000_000L);
+        lenient().when(walletProperties.getDailyLimitMinor()).thenReturn(100_000L);
 
         // default factory/repo behaviour
         lenient().when(walletFactory.getOrCreateWallet(any(User.class))).thenReturn(wallet);
+        lenient().when(walletFactory.findWalletsByOwnerIds(anyCollection())).thenReturn(Map.of(user.getId(), wallet));
         lenient().when(walletRepository.findByUser(any(User.class))).thenReturn(Optional.of(wallet));
         lenient().when(walletRepository.save(any(Wallet.class))).thenAnswer(inv -> inv.getArgument(0));
     }
@@ -106,7 +128,7 @@ class WalletServiceTest {
         when(walletFactory.getOrCreateWallet(user)).thenAnswer(inv -> {
             Wallet w = new Wallet(user);
             w.setId(555L);
-            w.setBalance(0.0);
+            w.setBalance(0L);
             return w;
         });
 
@@ -114,7 +136,7 @@ class WalletServiceTest {
 
         assertThat(created).isNotNull();
         assertThat(created.getId()).isEqualTo(555L);
-        assertThat(created.getBalance()).isEqualTo(0.0);
+        assertThat(created.getBalance()).isEqualTo(0L);
 
         logger.info("✅ Test passed — factory creates wallet when not present");
         logger.info("------------------------------\n\n");
@@ -129,13 +151,13 @@ class WalletServiceTest {
         logger.info("🔹 TEST START: loadMoney_duplicateTransaction_throws");
         logger.info("------------------------------");
 
-        when(txnService.isDuplicate("dup")).thenReturn(true);
+        when(txnService.isDuplicate(101L)).thenReturn(true);
 
-        assertThatThrownBy(() -> walletService.loadMoney(user, 10.0, "dup"))
+        assertThatThrownBy(() -> walletService.loadMoney(user, 1000L, 101L))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Duplicate transaction");
 
-        verify(txnService).isDuplicate("dup");
+        verify(txnService).isDuplicate(101L);
         logger.info("✅ Test passed — duplicate transaction prevented");
         logger.info("------------------------------\n\n");
     }
@@ -150,26 +172,25 @@ class WalletServiceTest {
         logger.info("------------------------------");
 
         // validator mocks — no exceptions thrown
-        doNothing().when(walletValidator).validateAmount(200.0, "Load");
-        doNothing().when(walletValidator).validateDailyLimit(wallet, 200.0);
+        doNothing().when(walletValidator).validateAmount(20_000L, "Load");
+        doNothing().when(walletValidator).validateDailyLimit(wallet, 20_000L);
 
-        // wallet save — simulate DB version increment
+        // the unit of work's single flush — simulate DB version increment
         doAnswer(inv -> {
-            Wallet w = inv.getArgument(0);
-            w.setVersion(w.getVersion() + 1);
-            return w;
-        }).when(walletRepository).saveAndFlush(any(Wallet.class));
+            wallet.setVersion(wallet.getVersion() + 1);
+            return null;
+        }).when(walletRepository).flush();
 
         // make txnService delegate to transactionRepository mock
         doAnswer(inv -> {
             User u = inv.getArgument(0);
-            double amt = inv.getArgument(1);
-            String txnId = inv.getArgument(2);
+            long amt = inv.getArgument(1);
+            long txnId = inv.getArgument(2);
             Transaction txn = new Transaction(u, amt, "SELF_CREDITED");
             txn.setTransactionId(txnId);
             transactionRepository.save(txn);
             return null;
-        }).when(txnService).recordLoadTransaction(any(User.class), anyDouble(), anyString());
+        }).when(txnService).recordLoadTransaction(any(User.class), anyLong(), anyLong());
 
         // transaction save mock
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -184,17 +205,18 @@ class WalletServiceTest {
         });
 
         // call service
-        LoadMoneyResponse resp = walletService.performLoadMoney(user, 200.0, "txn1");
+        LoadMoneyResponse resp = walletService.performLoadMoney(user, 20_000L, 102L);
 
         // assertions
         assertThat(resp).isNotNull();
-        assertThat(wallet.getBalance()).isEqualTo(300.0); // initial 100 + 200
-        assertThat(wallet.getDailySpent()).isEqualTo(200.0);
-        assertThat(resp.getRemainingDailyLimit()).isEqualTo(1000.0 - 200.0);
+        assertThat(wallet.getBalance()).isEqualTo(30_000L); // initial 10_000 + 20_000 minor units
+        assertThat(wallet.getDailySpent()).isEqualTo(20_000L);
+        assertThat(resp.getRemainingDailyLimit()).isEqualTo(100_000L - 20_000L);
 
         // verify correct interactions
-        verify(walletRepository).saveAndFlush(wallet);
-        verify(txnService).recordLoadTransaction(user, 200.0, "txn1");
+        verify(walletRepository).flush();
+        verify(walletRepository, never()).saveAndFlush(any(Wallet.class));
+        verify(txnService).recordLoadTransaction(user, 20_000L, 102L);
         verify(transactionRepository).save(any(Transaction.class));
 
         logger.info("✅ Test passed — performLoadMoney updated wallet and recorded transaction");
@@ -213,42 +235,41 @@ class WalletServiceTest {
         logger.info("------------------------------");
 
         // Setup mocks
-        when(txnService.isDuplicate("retry")).thenReturn(false);
-        doNothing().when(walletValidator).validateAmount(50.0, "Load");
-        doNothing().when(walletValidator).validateDailyLimit(wallet, 50.0);
+        when(txnService.isDuplicate(103L)).thenReturn(false);
+        doNothing().when(walletValidator).validateAmount(5000L, "Load");
+        doNothing().when(walletValidator).validateDailyLimit(wallet, 5000L);
 
-        // First attempt throws optimistic lock → second succeeds
+        // First attempt's flush throws optimistic lock → second succeeds
         doThrow(new ObjectOptimisticLockingFailureException(Wallet.class, 1L))
-                .doAnswer(inv -> {
-                    Wallet w = inv.getArgument(0);
-                    w.setVersion(w.getVersion() + 1);
-                    return w;
-                })
-                .when(walletRepository).saveAndFlush(any(Wallet.class));
+                .doNothing()
+                .when(walletRepository).flush();
 
         // simulate txnService calling repository
         doAnswer(inv -> {
             User u = inv.getArgument(0);
-            double amt = inv.getArgument(1);
-            String txnId = inv.getArgument(2);
+            long amt = inv.getArgument(1);
+            long txnId = inv.getArgument(2);
             Transaction t = new Transaction(u, amt, "SELF_CREDITED");
             t.setTransactionId(txnId);
             transactionRepository.save(t);
             return null;
-        }).when(txnService).recordLoadTransaction(any(User.class), anyDouble(), anyString());
+        }).when(txnService).recordLoadTransaction(any(User.class), anyLong(), anyLong());
 
         // Mock repository and mapper
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
         when(walletMapper.toLoadMoneyResponse(any(Wallet.class))).thenReturn(new LoadMoneyResponse());
 
         // call service
-        LoadMoneyResponse resp = walletService.loadMoney(user, 50.0, "retry");
+        LoadMoneyResponse resp = walletService.loadMoney(user, 5000L, 103L);
 
         // verify results
         assertThat(resp).isNotNull();
-        verify(walletRepository, atLeast(2)).saveAndFlush(any(Wallet.class)); // retried
-        verify(txnService).recordLoadTransaction(user, 50.0, "retry"); // txn recorded
-        verify(transactionRepository).save(any(Transaction.class)); // delegated save happened
+        verify(walletRepository, times(2)).flush(); // retried
+        verify(walletCache).invalidate(user.getId()); // stale cached wallet dropped on the conflict
+        verify(txnService, times(2)).recordLoadTransaction(user, 5000L, 103L); // recorded per attempt, first one rolled back
+        verify(transactionRepository, times(2)).save(any(Transaction.class));
+        assertThat(contentionManager.metrics().conflicts()).isEqualTo(1);
+        assertThat(contentionManager.metrics().retries()).isEqualTo(1);
 
         logger.info("✅ Test passed — loadMoney retried on optimistic lock and succeeded");
         logger.info("------------------------------\n\n");
@@ -264,13 +285,13 @@ class WalletServiceTest {
         logger.info("🔹 TEST START: transfer_duplicateTransaction_throws");
         logger.info("------------------------------");
 
-        when(txnService.isDuplicate("dup")).thenReturn(true);
+        when(txnService.isDuplicate(101L)).thenReturn(true);
 
-        assertThatThrownBy(() -> walletService.transferAmount(user, 2L, 10.0, "dup"))
+        assertThatThrownBy(() -> walletService.transferAmount(user, 2L, 1000L, 101L))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Duplicate transaction");
 
-        verify(txnService).isDuplicate("dup");
+        verify(txnService).isDuplicate(101L);
         logger.info("✅ Test passed — duplicate transfer prevented");
         logger.info("------------------------------\n\n");
     }
@@ -284,11 +305,11 @@ class WalletServiceTest {
         logger.info("🔹 TEST START: performTransfer_recipientNotFound_throws");
         logger.info("------------------------------");
 
-        // Only stubbing actually needed for this path
+        // Only stubbing actually needed for this path: no wallet for 99, and no user either
         when(userRepository.findById(99L)).thenReturn(Optional.empty());
 
         // Call and verify
-        assertThatThrownBy(() -> walletService.performTransfer(user, 99L, 100.0, "tx1"))
+        assertThatThrownBy(() -> walletService.performTransfer(user, 99L, 10_000L, 104L))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessageContaining("Recipient not found");
 
@@ -306,15 +327,18 @@ class WalletServiceTest {
         logger.info("🔹 TEST START: performTransfer_insufficientBalance_throws");
         logger.info("------------------------------");
 
-        wallet.setBalance(20.0); // low balance
-        when(walletFactory.getOrCreateWallet(user)).thenReturn(wallet);
+        wallet.setBalance(2000L); // low balance
+        User recipient = new User();
+        recipient.setId(2L);
+        when(walletFactory.findWalletsByOwnerIds(anyCollection()))
+                .thenReturn(Map.of(user.getId(), wallet, 2L, new Wallet(recipient)));
 
         // Only stub what is actually used before the exception
-        doNothing().when(walletValidator).validateAmount(200.0, "Transfer");
+        doNothing().when(walletValidator).validateAmount(20_000L, "Transfer");
         doThrow(new IllegalArgumentException("Insufficient balance"))
-                .when(walletValidator).validateBalance(wallet, 200.0);
+                .when(walletValidator).validateBalance(wallet, 20_000L);
 
-        assertThatThrownBy(() -> walletService.performTransfer(user, 2L, 200.0, "t-ins"))
+        assertThatThrownBy(() -> walletService.performTransfer(user, 2L, 20_000L, 105L))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Insufficient balance");
 
@@ -334,10 +358,9 @@ class WalletServiceTest {
         when(userRepository.findAll()).thenReturn(List.of(user));
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        Transaction t1 = new Transaction(user, 10.0, "DEBIT");
-        Page<Transaction> page = new PageImpl<>(List.of(t1));
-        when(transactionRepository.findByUser(eq(user), any(PageRequest.class))).thenReturn(page);
-        when(transactionMapper.toDTO(t1)).thenReturn(new TransactionDTO());
+        TransactionDTO t1 = new TransactionDTO(5L, 1000L, "DEBIT", LocalDateTime.now(), user.getEmail());
+        Page<TransactionDTO> page = new PageImpl<>(List.of(t1));
+        when(transactionRepository.findHistoryPage(eq(user.getId()), any(PageRequest.class))).thenReturn(page);
         when(walletMapper.toLoadMoneyResponse(wallet)).thenReturn(new LoadMoneyResponse());
 
         List<User> all = walletService.getAllUsers();
@@ -348,7 +371,7 @@ class WalletServiceTest {
         assertThat(all).hasSize(1);
         assertThat(u).isEqualTo(user);
         assertThat(txPage.getContent()).hasSize(1);
-        assertThat(resp.getRemainingDailyLimit()).isEqualTo(walletProperties.getDailyLimit() - wallet.getDailySpent());
+        assertThat(resp.getRemainingDailyLimit()).isEqualTo(walletProperties.getDailyLimitMinor() - wallet.getDailySpent());
 
         logger.info("✅ Test passed — helper methods validated");
         logger.info("------------------------------\n\n");
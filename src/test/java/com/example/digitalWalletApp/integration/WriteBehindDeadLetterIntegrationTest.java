@@ -0,0 +1,89 @@
+package com.example.digitalWalletApp.integration;
+
+import com.example.digitalWalletApp.model.LedgerDeadLetter;
+import com.example.digitalWalletApp.model.Transaction;
+import com.example.digitalWalletApp.model.User;
+import com.example.digitalWalletApp.repository.LedgerDeadLetterRepository;
+import com.example.digitalWalletApp.repository.TransactionRepository;
+import com.example.digitalWalletApp.repository.WalletRepository;
+import com.example.digitalWalletApp.service.WalletService;
+import com.example.digitalWalletApp.service.wallet.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+A slow flush interval leaves time to plant a conflicting ledger row before the write-behind writes its own; two
+attempts, so the poison row is dead-lettered on the second flush.
+ */
+@SpringBootTest(properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "wallet.transaction.min-amount=1",
+        "wallet.transaction.max-amount=30000",
+        "wallet.transaction.daily-limit=50000",
+        "wallet.engine.mode=sharded",
+        "wallet.engine.shards=2",
+        "wallet.engine.persist-interval-ms=300",
+        "wallet.engine.flush-max-attempts=2"
+})
+@Import(TestWallets.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class WriteBehindDeadLetterIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindDeadLetterIntegrationTest.class);
+
+    @Autowired private WalletService walletService;
+    @Autowired private TransactionIdGenerator idGenerator;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private LedgerDeadLetterRepository deadLetterRepository;
+    @Autowired private TestWallets testWallets;
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    // ------------------------------------------------------------
+    // ✅ A row the database keeps rejecting is dead-lettered; the rows flushed with it still land
+    // ------------------------------------------------------------
+    @Test
+    void poisonRow_isDeadLettered_andDoesNotBlockTheRest() throws Exception {
+        logger.info("🔹 TEST START: poisonRow_isDeadLettered_andDoesNotBlockTheRest");
+
+        User poisoned = testWallets.newUserWithWallet("dead-letter-poison@example.com", 0L);
+        User healthy = testWallets.newUserWithWallet("dead-letter-healthy@example.com", 0L);
+        long poisonTxnId = idGenerator.nextId();
+        long healthyTxnId = idGenerator.nextId();
+
+        walletService.loadMoney(poisoned, 500L, poisonTxnId);
+        walletService.loadMoney(healthy, 700L, healthyTxnId);
+        // same (transaction_id, type) as the queued row: its INSERT now fails the unique key
+        Transaction conflicting = new Transaction(poisoned, 1L, "SELF_CREDITED");
+        conflicting.setTransactionId(poisonTxnId);
+        transactionRepository.saveAndFlush(conflicting);
+
+        await(() -> deadLetterRepository.count() == 1);
+        LedgerDeadLetter deadLetter = deadLetterRepository.findAll().get(0);
+
+        assertThat(deadLetter.getTransactionId()).isEqualTo(poisonTxnId);
+        assertThat(deadLetter.getUserId()).isEqualTo(poisoned.getId());
+        assertThat(deadLetter.getAmount()).isEqualTo(500L);
+        assertThat(deadLetter.getAttempts()).isEqualTo(2);
+        assertThat(transactionRepository.existsByTransactionId(healthyTxnId)).isTrue();
+        assertThat(walletRepository.findByUser(healthy).orElseThrow().getBalance()).isEqualTo(700L);
+        assertThat(walletRepository.findByUser(poisoned).orElseThrow().getBalance()).isEqualTo(500L);
+        logger.info("✅ Test passed — txnId={} dead-lettered after {} attempts, the rest flushed", poisonTxnId, deadLetter.getAttempts());
+    }
+}